@@ -0,0 +1,40 @@
+/*
+ * Copyright 2025
+ * Apache License, Version 2.0
+ */
+package org.deveasy.test.cloud.aws;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Helpers shared by the async capabilities, which report every failure through the returned future.
+ */
+final class AsyncSupport {
+
+    private AsyncSupport() {}
+
+    /** Runs {@code call}, turning an exception it throws before returning a future into a failed future. */
+    static <T> CompletableFuture<T> async(Supplier<CompletableFuture<T>> call) {
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /** @return the exception behind the {@link CompletionException} wrappers added by future composition */
+    static Throwable unwrap(Throwable error) {
+        Throwable t = error;
+        while (t instanceof CompletionException && t.getCause() != null) {
+            t = t.getCause();
+        }
+        return t;
+    }
+
+    /** Rethrows from within a {@code handle} stage so the resulting future fails with {@code cause}. */
+    static CompletionException rethrow(Throwable cause) {
+        return cause instanceof CompletionException ? (CompletionException) cause : new CompletionException(cause);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Converts between plain Java values and DynamoDB AttributeValues for AwsDynamoDB.
+ */
+package org.deveasy.test.cloud.aws;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Map;
+
+/**
+ * Pluggable conversion between the schema-less item maps used by {@link org.deveasy.test.core.cloud.capability.NoSqlTable}
+ * and DynamoDB {@link AttributeValue}s. Pass a custom implementation to
+ * {@link AwsDynamoDB#AwsDynamoDB(org.deveasy.test.core.cloud.TestCloudConfig, AttributeValueConverter)} to support
+ * additional value types; extending {@link DefaultAttributeValueConverter} and overriding the single-value methods is
+ * usually enough. Implementations must be thread-safe.
+ */
+public interface AttributeValueConverter {
+
+    /**
+     * Converts an item for writing. {@code null} attribute values are dropped.
+     *
+     * @param item the item attributes
+     * @return the DynamoDB item
+     */
+    Map<String, AttributeValue> toAttributes(Map<String, Object> item);
+
+    /**
+     * Converts an item read from DynamoDB.
+     *
+     * @param item the DynamoDB item
+     * @return the item attributes, in the order DynamoDB returned them
+     */
+    Map<String, Object> fromAttributes(Map<String, AttributeValue> item);
+
+    /**
+     * Converts a single value, including nested maps and collections.
+     *
+     * @param value the value, possibly {@code null}
+     * @return the attribute value; {@code null} maps to a NULL attribute
+     */
+    AttributeValue toAttributeValue(Object value);
+
+    /**
+     * Converts a single attribute value, including nested M and L values.
+     *
+     * @param value the attribute value, possibly {@code null}
+     * @return the Java value, or {@code null} for NULL attributes
+     */
+    Object fromAttributeValue(AttributeValue value);
+
+    /** @return the shared default converter */
+    static AttributeValueConverter defaults() {
+        return DefaultAttributeValueConverter.INSTANCE;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * AWS S3 implementation of AsyncBlobStorage on the SDK's async client.
+ */
+package org.deveasy.test.cloud.aws;
+
+import org.deveasy.test.cloud.aws.internal.AwsClients;
+import org.deveasy.test.cloud.aws.internal.LocalStackHolder;
+import org.deveasy.test.core.cloud.CloudMode;
+import org.deveasy.test.core.cloud.TestCloudConfig;
+import org.deveasy.test.core.cloud.capability.AsyncBlobStorage;
+import org.testcontainers.containers.localstack.LocalStackContainer;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.deveasy.test.cloud.aws.AsyncSupport.async;
+import static org.deveasy.test.cloud.aws.AsyncSupport.rethrow;
+import static org.deveasy.test.cloud.aws.AsyncSupport.unwrap;
+
+/**
+ * Non-blocking S3 object operations with the same results as {@link AwsBlobStorage}: missing objects read as
+ * {@code null} and deleting a missing object succeeds.
+ */
+public final class AwsAsyncBlobStorage implements AsyncBlobStorage {
+
+    private final S3AsyncClient s3;
+
+    public AwsAsyncBlobStorage(TestCloudConfig cfg) {
+        if (cfg.mode() == CloudMode.EMULATOR) {
+            LocalStackHolder.endpoint(LocalStackContainer.Service.S3, cfg);
+        }
+        this.s3 = AwsClients.s3Async(cfg);
+    }
+
+    @Override
+    public CompletableFuture<Void> putObject(String bucket, String key, byte[] data, String contentType) {
+        return async(() -> s3.putObject(PutObjectRequest.builder()
+                .bucket(bucket).key(key)
+                .contentType(contentType)
+                .build(), AsyncRequestBody.fromBytes(data))
+            .thenApply(r -> null));
+    }
+
+    @Override
+    public CompletableFuture<byte[]> getObject(String bucket, String key) {
+        return async(() -> s3.getObject(GetObjectRequest.builder().bucket(bucket).key(key).build(),
+                AsyncResponseTransformer.toBytes())
+            .handle((resp, error) -> {
+                if (error == null) return resp.asByteArray();
+                Throwable cause = unwrap(error);
+                if (cause instanceof S3Exception && AwsBlobStorage.isNoSuchKey((S3Exception) cause)) return null;
+                throw rethrow(cause);
+            }));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteObject(String bucket, String key) {
+        return async(() -> s3.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(key).build())
+            .handle((resp, error) -> {
+                Throwable cause = error == null ? null : unwrap(error);
+                if (cause == null || (cause instanceof S3Exception && ((S3Exception) cause).statusCode() == 404)) return null;
+                throw rethrow(cause);
+            }));
+    }
+
+    @Override
+    public CompletableFuture<List<String>> listKeys(String bucket, String prefix) {
+        return async(() -> {
+            ListObjectsV2Request req = ListObjectsV2Request.builder()
+                .bucket(bucket)
+                .prefix(prefix == null ? "" : prefix)
+                .build();
+            // The publisher requests the next page only after the current one was consumed; callbacks are serial
+            List<String> keys = new ArrayList<>();
+            return s3.listObjectsV2Paginator(req).contents().subscribe(o -> keys.add(o.key())).thenApply(v -> keys);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> exists(String bucket, String key) {
+        return async(() -> s3.headObject(HeadObjectRequest.builder().bucket(bucket).key(key).build())
+            .handle((resp, error) -> {
+                if (error == null) return true;
+                Throwable cause = unwrap(error);
+                if (cause instanceof S3Exception && ((S3Exception) cause).statusCode() == 404) return false;
+                throw rethrow(cause);
+            }));
+    }
+}
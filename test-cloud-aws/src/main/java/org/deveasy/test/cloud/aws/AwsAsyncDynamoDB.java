@@ -0,0 +1,158 @@
+/*
+ * AWS DynamoDB implementation of AsyncNoSqlTable on the SDK's async client.
+ */
+package org.deveasy.test.cloud.aws;
+
+import org.deveasy.test.cloud.aws.internal.AwsClients;
+import org.deveasy.test.cloud.aws.internal.LocalStackHolder;
+import org.deveasy.test.core.cloud.CloudMode;
+import org.deveasy.test.core.cloud.TestCloudConfig;
+import org.deveasy.test.core.cloud.capability.AsyncNoSqlTable;
+import org.testcontainers.containers.localstack.LocalStackContainer;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.deveasy.test.cloud.aws.AsyncSupport.async;
+import static org.deveasy.test.cloud.aws.AsyncSupport.rethrow;
+import static org.deveasy.test.cloud.aws.AsyncSupport.unwrap;
+
+/**
+ * Non-blocking DynamoDB item operations with the semantics of {@link AwsDynamoDB}: unknown items and tables read as
+ * {@code null} or an empty list, and deletes are best effort. Key schemas come from the cache shared with
+ * {@link AwsDynamoDB}, described once per table.
+ */
+public final class AwsAsyncDynamoDB implements AsyncNoSqlTable {
+
+    private final DynamoDbAsyncClient ddb;
+    private final AttributeValueConverter converter;
+
+    public AwsAsyncDynamoDB(TestCloudConfig cfg) {
+        this(cfg, AttributeValueConverter.defaults());
+    }
+
+    /**
+     * @param cfg the cloud configuration
+     * @param converter conversion between item maps and AttributeValues, e.g. to support custom value types
+     */
+    public AwsAsyncDynamoDB(TestCloudConfig cfg, AttributeValueConverter converter) {
+        if (converter == null) {
+            throw new IllegalArgumentException("converter must not be null");
+        }
+        this.converter = converter;
+        if (cfg.mode() == CloudMode.EMULATOR) {
+            LocalStackHolder.endpoint(LocalStackContainer.Service.DYNAMODB, cfg);
+        }
+        this.ddb = AwsClients.dynamodbAsync(cfg);
+    }
+
+    @Override
+    public CompletableFuture<Void> putItem(String tableName, Map<String, Object> item) {
+        return async(() -> ddb.putItem(PutItemRequest.builder().tableName(tableName).item(converter.toAttributes(item)).build())
+            .thenApply(r -> null));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> getItem(String tableName, String partitionKeyValue) {
+        return getRaw(tableName, partitionKeyValue, null);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> getItem(String tableName, String partitionKeyValue, String sortKeyValue) {
+        if (sortKeyValue == null) return CompletableFuture.completedFuture(null);
+        return getRaw(tableName, partitionKeyValue, sortKeyValue);
+    }
+
+    /** @param sortKeyValue {@code null} to look up by partition key only */
+    private CompletableFuture<Map<String, Object>> getRaw(String tableName, String partitionKeyValue, String sortKeyValue) {
+        return async(() -> keys(tableName).<Map<String, Object>>thenCompose(k -> {
+            if (k == null || k.pk == null || (sortKeyValue != null && k.sk == null)) return CompletableFuture.completedFuture(null);
+            Map<String, AttributeValue> key = new HashMap<>(4);
+            key.put(k.pk, converter.toAttributeValue(partitionKeyValue));
+            if (sortKeyValue != null) {
+                key.put(k.sk, converter.toAttributeValue(sortKeyValue));
+            }
+            return ddb.getItem(GetItemRequest.builder().tableName(tableName).key(key).build())
+                .thenApply(resp -> resp.item() == null || resp.item().isEmpty() ? null : converter.fromAttributes(resp.item()));
+        }).handle((item, error) -> {
+            if (error == null) return item;
+            Throwable cause = unwrap(error);
+            if (cause instanceof ResourceNotFoundException) return null;
+            throw rethrow(cause);
+        }));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteItem(String tableName, String partitionKeyValue) {
+        return deleteRaw(tableName, partitionKeyValue, null);
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteItem(String tableName, String partitionKeyValue, String sortKeyValue) {
+        if (sortKeyValue == null) return CompletableFuture.completedFuture(null);
+        return deleteRaw(tableName, partitionKeyValue, sortKeyValue);
+    }
+
+    private CompletableFuture<Void> deleteRaw(String tableName, String partitionKeyValue, String sortKeyValue) {
+        return async(() -> keys(tableName).<Void>thenCompose(k -> {
+            if (k == null || k.pk == null || (sortKeyValue != null && k.sk == null)) return CompletableFuture.completedFuture(null);
+            Map<String, AttributeValue> key = new HashMap<>(4);
+            key.put(k.pk, converter.toAttributeValue(partitionKeyValue));
+            if (sortKeyValue != null) {
+                key.put(k.sk, converter.toAttributeValue(sortKeyValue));
+            }
+            return ddb.deleteItem(DeleteItemRequest.builder().tableName(tableName).key(key).build()).thenApply(r -> null);
+        }).handle((v, error) -> {
+            // best effort, like AwsDynamoDB.deleteItem
+            if (error == null || unwrap(error) instanceof DynamoDbException) return null;
+            throw rethrow(unwrap(error));
+        }));
+    }
+
+    @Override
+    public CompletableFuture<List<Map<String, Object>>> query(String tableName, String partitionKeyValue) {
+        return async(() -> keys(tableName).<List<Map<String, Object>>>thenCompose(k -> {
+            if (k == null || k.pk == null) return CompletableFuture.completedFuture(Collections.emptyList());
+            QueryRequest req = QueryRequest.builder()
+                .tableName(tableName)
+                .keyConditionExpression("#pk = :v")
+                .expressionAttributeNames(Collections.singletonMap("#pk", k.pk))
+                .expressionAttributeValues(Collections.singletonMap(":v", converter.toAttributeValue(partitionKeyValue)))
+                .build();
+            // Pages are requested one after another as the previous one is consumed; callbacks are serial
+            List<Map<String, Object>> out = new ArrayList<>();
+            return ddb.queryPaginator(req).items().subscribe(it -> out.add(converter.fromAttributes(it))).thenApply(v -> out);
+        }).handle((items, error) -> {
+            if (error == null) return items;
+            Throwable cause = unwrap(error);
+            if (cause instanceof DynamoDbException) return Collections.<Map<String, Object>>emptyList();
+            throw rethrow(cause);
+        }));
+    }
+
+    /** Key schema from the cache shared with {@link AwsDynamoDB}; completes with {@code null} for a missing table. */
+    private CompletableFuture<AwsDynamoDB.TableKeys> keys(String tableName) {
+        AwsDynamoDB.TableKeys cached = AwsDynamoDB.cachedKeys(tableName);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+        return ddb.describeTable(DescribeTableRequest.builder().tableName(tableName).build())
+            .handle((d, error) -> {
+                if (error == null) return AwsDynamoDB.cacheKeys(tableName, d.table());
+                Throwable cause = unwrap(error);
+                if (cause instanceof ResourceNotFoundException) return null;
+                throw rethrow(cause);
+            });
+    }
+}
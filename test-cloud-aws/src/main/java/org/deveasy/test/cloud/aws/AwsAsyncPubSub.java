@@ -0,0 +1,82 @@
+/*
+ * AWS SNS+SQS implementation of AsyncPubSub on the SDK's async clients.
+ */
+package org.deveasy.test.cloud.aws;
+
+import org.deveasy.test.cloud.aws.internal.AwsClients;
+import org.deveasy.test.cloud.aws.internal.LocalStackHolder;
+import org.deveasy.test.core.cloud.CloudMode;
+import org.deveasy.test.core.cloud.TestCloudConfig;
+import org.deveasy.test.core.cloud.capability.AsyncPubSub;
+import org.testcontainers.containers.localstack.LocalStackContainer;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
+import software.amazon.awssdk.services.sns.model.CreateTopicRequest;
+import software.amazon.awssdk.services.sns.model.NotFoundException;
+import software.amazon.awssdk.services.sns.model.PublishRequest;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.deveasy.test.cloud.aws.AsyncSupport.async;
+import static org.deveasy.test.cloud.aws.AsyncSupport.unwrap;
+
+/**
+ * Non-blocking SNS publishing with the semantics of {@link AwsPubSub}: topic ARNs come from the idempotent
+ * {@code CreateTopic} call and are cached per name; a publish to a topic deleted behind our back re-creates it and
+ * retries once. {@code .fifo} topics are created as FIFO topics and publishes to them get the same group and
+ * deduplication defaults. Subscriptions are SQS queues, received from through {@link AwsAsyncQueue}.
+ */
+public final class AwsAsyncPubSub implements AsyncPubSub {
+
+    private final SnsAsyncClient sns;
+    private final AwsAsyncQueue queue;
+    private final Map<String, String> topicArns = new ConcurrentHashMap<>();
+
+    public AwsAsyncPubSub(TestCloudConfig cfg) {
+        if (cfg.mode() == CloudMode.EMULATOR) {
+            LocalStackHolder.endpoint(LocalStackContainer.Service.SNS, cfg);
+        }
+        this.sns = AwsClients.snsAsync(cfg);
+        this.queue = new AwsAsyncQueue(cfg);
+    }
+
+    @Override
+    public CompletableFuture<Void> publish(String topic, String body) {
+        return async(() -> {
+            // Built once, so a retry keeps the deduplication ID of the first attempt
+            PublishRequest.Builder request = SqsSupport.fifoDefaults(topic, PublishRequest.builder().message(body));
+            String cached = topicArns.get(topic);
+            CompletableFuture<String> arn = cached != null ? CompletableFuture.completedFuture(cached) : createTopic(topic);
+            return arn.thenCompose(topicArn -> send(topicArn, request)
+                .exceptionallyCompose(error -> {
+                    if (!(unwrap(error) instanceof NotFoundException)) return CompletableFuture.failedFuture(unwrap(error));
+                    // Topic deleted behind our back: drop the stale ARN, re-create and retry once
+                    topicArns.remove(topic, topicArn);
+                    return createTopic(topic).thenCompose(fresh -> send(fresh, request));
+                }));
+        });
+    }
+
+    @Override
+    public CompletableFuture<Optional<String>> receive(String subscription, Duration timeout) {
+        return queue.receive(subscription, timeout);
+    }
+
+    private CompletableFuture<Void> send(String topicArn, PublishRequest.Builder request) {
+        return sns.publish(request.topicArn(topicArn).build()).thenApply(r -> null);
+    }
+
+    private CompletableFuture<String> createTopic(String name) {
+        CreateTopicRequest.Builder create = CreateTopicRequest.builder().name(name);
+        if (SqsSupport.isFifo(name)) {
+            create.attributes(Map.of("FifoTopic", "true"));
+        }
+        return sns.createTopic(create.build()).thenApply(created -> {
+            topicArns.put(name, created.topicArn());
+            return created.topicArn();
+        });
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * AWS SQS implementation of AsyncQueue on the SDK's async client.
+ */
+package org.deveasy.test.cloud.aws;
+
+import org.deveasy.test.cloud.aws.internal.AwsClients;
+import org.deveasy.test.cloud.aws.internal.LocalStackHolder;
+import org.deveasy.test.core.cloud.CloudMode;
+import org.deveasy.test.core.cloud.TestCloudConfig;
+import org.deveasy.test.core.cloud.capability.AsyncQueue;
+import org.testcontainers.containers.localstack.LocalStackContainer;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageRequest;
+import software.amazon.awssdk.services.sqs.model.GetQueueUrlRequest;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.QueueDoesNotExistException;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static org.deveasy.test.cloud.aws.AsyncSupport.async;
+import static org.deveasy.test.cloud.aws.AsyncSupport.unwrap;
+import static org.deveasy.test.cloud.aws.SqsSupport.STOP;
+import static org.deveasy.test.cloud.aws.SqsSupport.chunks;
+import static org.deveasy.test.cloud.aws.SqsSupport.deleteRequest;
+import static org.deveasy.test.cloud.aws.SqsSupport.failedDeletes;
+import static org.deveasy.test.cloud.aws.SqsSupport.failedSends;
+import static org.deveasy.test.cloud.aws.SqsSupport.fifoDefaults;
+import static org.deveasy.test.cloud.aws.SqsSupport.receiveRequest;
+import static org.deveasy.test.cloud.aws.SqsSupport.receiveWait;
+
+/**
+ * Non-blocking SQS messaging with the semantics of {@link AwsQueue}: receives long-poll and delete what they return,
+ * batches are split at 10 entries or 256 KiB, and sends to {@code .fifo} queues get the same group and deduplication
+ * defaults. A pending long poll holds a connection, not a thread. Queue URLs are
+ * cached per instance and evicted when SQS reports the queue no longer exists.
+ */
+public final class AwsAsyncQueue implements AsyncQueue {
+
+    private final SqsAsyncClient sqs;
+    private final Map<String, String> queueUrls = new ConcurrentHashMap<>();
+
+    public AwsAsyncQueue(TestCloudConfig cfg) {
+        if (cfg.mode() == CloudMode.EMULATOR) {
+            LocalStackHolder.endpoint(LocalStackContainer.Service.SQS, cfg);
+        }
+        this.sqs = AwsClients.sqsAsync(cfg);
+    }
+
+    /** Uses {@code sqs} as is; for tests that count or stub the SQS calls. */
+    AwsAsyncQueue(SqsAsyncClient sqs) {
+        this.sqs = sqs;
+    }
+
+    @Override
+    public CompletableFuture<Void> send(String queue, String body) {
+        return withQueueUrl(queue, url -> sqs.sendMessage(
+                fifoDefaults(queue, SendMessageRequest.builder().queueUrl(url).messageBody(body)).build())
+            .thenApply(r -> null));
+    }
+
+    @Override
+    public CompletableFuture<Void> sendBatch(String queue, List<String> bodies) {
+        if (bodies == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("bodies must not be null"));
+        }
+        if (bodies.isEmpty()) return CompletableFuture.completedFuture(null);
+        return withQueueUrl(queue, url -> {
+            // All chunks go out at once
+            List<CompletableFuture<Void>> sends = new ArrayList<>();
+            for (List<SendMessageBatchRequestEntry> chunk : chunks(queue, bodies)) {
+                sends.add(sendChunk(url, chunk));
+            }
+            return CompletableFuture.allOf(sends.toArray(new CompletableFuture[0]));
+        });
+    }
+
+    @Override
+    public CompletableFuture<Optional<String>> receive(String queue, Duration timeout) {
+        return receiveBatch(queue, 1, timeout).thenApply(bodies -> bodies.stream().findFirst());
+    }
+
+    @Override
+    public CompletableFuture<List<String>> receiveBatch(String queue, int max, Duration timeout) {
+        if (max < 1) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("max must be positive"));
+        }
+        if (timeout == null || timeout.isNegative()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("timeout must not be null or negative"));
+        }
+        Instant end = Instant.now().plus(timeout);
+        return withQueueUrl(queue, url -> receiveAndDelete(url, max, end, new ArrayList<>(), false).thenApply(msgs -> {
+            List<String> bodies = new ArrayList<>(msgs.size());
+            for (Message m : msgs) bodies.add(m.body());
+            return bodies;
+        }));
+    }
+
+    private CompletableFuture<Void> sendChunk(String url, List<SendMessageBatchRequestEntry> entries) {
+        return sqs.sendMessageBatch(SendMessageBatchRequest.builder().queueUrl(url).entries(entries).build())
+            .thenCompose(resp -> {
+                // Server-side failures are retried one entry at a time
+                List<CompletableFuture<?>> retries = new ArrayList<>();
+                for (SendMessageRequest retry : failedSends(url, entries, resp)) {
+                    retries.add(sqs.sendMessage(retry));
+                }
+                return CompletableFuture.allOf(retries.toArray(new CompletableFuture[0]));
+            });
+    }
+
+    /**
+     * Async form of {@code AwsQueue.receiveAndDelete}: long-polls until the first messages arrive or the deadline
+     * passes, then keeps pulling whatever is immediately available up to {@code max}, deleting each received batch.
+     * Waits follow {@link SqsSupport#receiveWait}, so a zero timeout is a single short poll.
+     */
+    private CompletableFuture<List<Message>> receiveAndDelete(String url, int max, Instant end, List<Message> out,
+                                                              boolean polled) {
+        int wait = receiveWait(end, out.size(), polled);
+        if (wait == STOP) return CompletableFuture.completedFuture(out);
+        return sqs.receiveMessage(receiveRequest(url, max - out.size(), wait))
+            .thenCompose(resp -> {
+                List<Message> msgs = resp.messages();
+                if (msgs == null || msgs.isEmpty()) {
+                    // nothing more immediately available, or keep polling until the deadline
+                    return out.isEmpty() ? receiveAndDelete(url, max, end, out, true) : CompletableFuture.completedFuture(out);
+                }
+                return deleteBatch(url, msgs).thenCompose(v -> {
+                    out.addAll(msgs);
+                    return out.size() < max ? receiveAndDelete(url, max, end, out, true) : CompletableFuture.completedFuture(out);
+                });
+            });
+    }
+
+    private CompletableFuture<Void> deleteBatch(String url, List<Message> msgs) {
+        return sqs.deleteMessageBatch(deleteRequest(url, msgs)).thenCompose(resp -> {
+            List<CompletableFuture<?>> deletes = new ArrayList<>();
+            for (DeleteMessageRequest delete : failedDeletes(url, msgs, resp)) {
+                deletes.add(sqs.deleteMessage(delete));
+            }
+            return CompletableFuture.allOf(deletes.toArray(new CompletableFuture[0]));
+        });
+    }
+
+    /** Resolves the (cached) queue URL and runs {@code op}; the cache entry is dropped if the queue turns out missing. */
+    private <T> CompletableFuture<T> withQueueUrl(String queue, Function<String, CompletableFuture<T>> op) {
+        return async(() -> {
+            String cached = queueUrls.get(queue);
+            CompletableFuture<String> url = cached != null
+                ? CompletableFuture.completedFuture(cached)
+                : sqs.getQueueUrl(GetQueueUrlRequest.builder().queueName(queue).build()).thenApply(res -> {
+                    queueUrls.put(queue, res.queueUrl());
+                    return res.queueUrl();
+                });
+            CompletableFuture<T> result = url.thenCompose(op);
+            result.whenComplete((r, error) -> {
+                if (error != null && unwrap(error) instanceof QueueDoesNotExistException) {
+                    queueUrls.remove(queue);
+                }
+            });
+            return result;
+        });
+    }
+}
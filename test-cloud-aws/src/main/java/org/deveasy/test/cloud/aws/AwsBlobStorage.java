@@ -4,10 +4,13 @@
 package org.deveasy.test.cloud.aws;
 
 import org.deveasy.test.core.cloud.capability.BlobStorage;
+import org.deveasy.test.core.cloud.capability.Snapshot;
+import org.deveasy.test.core.cloud.CloudExecutors;
 import org.deveasy.test.core.cloud.TestCloudConfig;
 import org.deveasy.test.core.cloud.CloudMode;
 import org.deveasy.test.cloud.aws.internal.AwsClients;
 import org.deveasy.test.cloud.aws.internal.LocalStackHolder;
+import org.testcontainers.containers.localstack.LocalStackContainer;
 import software.amazon.awssdk.core.ResponseBytes;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
@@ -16,12 +19,42 @@ import software.amazon.awssdk.services.s3.model.*;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public final class AwsBlobStorage implements BlobStorage {
 
+    /** Known-length uploads above this size switch to multipart. */
+    private static final long MULTIPART_THRESHOLD = 16L * 1024 * 1024;
+    /** Default multipart part size (S3 minimum is 5 MiB); also the size of the single in-flight part buffer. */
+    private static final long PART_SIZE = 8L * 1024 * 1024;
+    /** First buffer of an unknown-length upload; doubled up to {@link #PART_SIZE} while the stream keeps going. */
+    private static final int INITIAL_BUFFER = 64 * 1024;
+    /** S3 maximum number of parts per multipart upload. */
+    private static final long MAX_PARTS = 10_000;
+
+    /** DeleteObjects accepts at most 1000 keys per request; also used as the listing page size when emptying a bucket. */
+    private static final int DELETE_BATCH = 1000;
+    /** Bound on outstanding DeleteObjects batches per deleteBucket call, so listing never runs far ahead of deletes. */
+    private static final int MAX_DELETES_IN_FLIGHT = 4;
+    /** Concurrent GETs/PUTs while capturing or restoring a snapshot. */
+    private static final int MAX_TRANSFERS_IN_FLIGHT = 8;
+    private static final Executor TRANSFER_EXECUTOR = CloudExecutors.limited(MAX_TRANSFERS_IN_FLIGHT);
+
     private final TestCloudConfig cfg;
     private final S3Client s3;
 
@@ -29,7 +62,7 @@ public final class AwsBlobStorage implements BlobStorage {
         this.cfg = cfg;
         // Ensure emulator up-front if in EMULATOR mode to improve error messages
         if (cfg.mode() == CloudMode.EMULATOR) {
-            LocalStackHolder.ensureStartedS3();
+            LocalStackHolder.endpoint(LocalStackContainer.Service.S3, cfg);
         }
         this.s3 = AwsClients.s3(cfg);
     }
@@ -62,19 +95,9 @@ public final class AwsBlobStorage implements BlobStorage {
 
     @Override
     public void deleteBucket(String name) {
-        // Best-effort: delete all objects then the bucket
-        ListObjectsV2Request listReq = ListObjectsV2Request.builder().bucket(name).build();
-        ListObjectsV2Response list;
+        // Best-effort: delete all objects (and versions) then the bucket
         try {
-            do {
-                list = s3.listObjectsV2(listReq);
-                if (list.hasContents()) {
-                    for (S3Object obj : list.contents()) {
-                        deleteObject(name, obj.key());
-                    }
-                }
-                listReq = listReq.toBuilder().continuationToken(list.nextContinuationToken()).build();
-            } while (list.isTruncated());
+            emptyBucket(name);
         } catch (S3Exception e) {
             // ignore if bucket doesn't exist
             if (e.statusCode() != 404) throw e;
@@ -86,6 +109,94 @@ public final class AwsBlobStorage implements BlobStorage {
         }
     }
 
+    /**
+     * Removes every object from the bucket with one DeleteObjects call per listed page (up to 1000 keys). Deletes run
+     * on the shared executor while the next page is listed, with at most {@link #MAX_DELETES_IN_FLIGHT} batches of
+     * this call outstanding; buckets emptied concurrently do not wait for each other. Buckets that have ever had
+     * versioning enabled are emptied by version, including delete markers.
+     */
+    private void emptyBucket(String bucket) {
+        Executor deletes = CloudExecutors.limited(MAX_DELETES_IN_FLIGHT);
+        Deque<CompletableFuture<Void>> inFlight = new ArrayDeque<>();
+        try {
+            if (isVersioned(bucket)) {
+                ListObjectVersionsRequest req = ListObjectVersionsRequest.builder().bucket(bucket).maxKeys(DELETE_BATCH).build();
+                ListObjectVersionsResponse page;
+                do {
+                    page = s3.listObjectVersions(req);
+                    List<ObjectIdentifier> ids = new ArrayList<>(DELETE_BATCH);
+                    for (ObjectVersion v : page.versions()) {
+                        ids.add(ObjectIdentifier.builder().key(v.key()).versionId(v.versionId()).build());
+                    }
+                    for (DeleteMarkerEntry m : page.deleteMarkers()) {
+                        ids.add(ObjectIdentifier.builder().key(m.key()).versionId(m.versionId()).build());
+                    }
+                    submitDelete(bucket, ids, deletes, inFlight);
+                    req = req.toBuilder().keyMarker(page.nextKeyMarker()).versionIdMarker(page.nextVersionIdMarker()).build();
+                } while (Boolean.TRUE.equals(page.isTruncated()));
+            } else {
+                ListObjectsV2Request req = ListObjectsV2Request.builder().bucket(bucket).maxKeys(DELETE_BATCH).build();
+                ListObjectsV2Response page;
+                do {
+                    page = s3.listObjectsV2(req);
+                    List<ObjectIdentifier> ids = new ArrayList<>(DELETE_BATCH);
+                    for (S3Object obj : page.contents()) {
+                        ids.add(ObjectIdentifier.builder().key(obj.key()).build());
+                    }
+                    submitDelete(bucket, ids, deletes, inFlight);
+                    req = req.toBuilder().continuationToken(page.nextContinuationToken()).build();
+                } while (Boolean.TRUE.equals(page.isTruncated()));
+            }
+            while (!inFlight.isEmpty()) {
+                join(inFlight.removeFirst());
+            }
+        } finally {
+            // Only non-empty on failure; later batches are pointless once one has failed
+            inFlight.forEach(f -> f.cancel(false));
+        }
+    }
+
+    private boolean isVersioned(String bucket) {
+        // Status is absent for buckets that never had versioning enabled; Suspended buckets still hold versions
+        return s3.getBucketVersioning(GetBucketVersioningRequest.builder().bucket(bucket).build()).status() != null;
+    }
+
+    private void submitDelete(String bucket, List<ObjectIdentifier> ids, Executor deletes,
+                              Deque<CompletableFuture<Void>> inFlight) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (inFlight.size() >= MAX_DELETES_IN_FLIGHT) {
+            join(inFlight.removeFirst());
+        }
+        inFlight.addLast(CompletableFuture.runAsync(() -> deleteBatch(bucket, ids), deletes));
+    }
+
+    private void deleteBatch(String bucket, List<ObjectIdentifier> ids) {
+        DeleteObjectsResponse res = s3.deleteObjects(DeleteObjectsRequest.builder()
+            .bucket(bucket)
+            .delete(Delete.builder().objects(ids).quiet(true).build())
+            .build());
+        for (S3Error error : res.errors()) {
+            // Already gone is fine; anything else (e.g. AccessDenied) would leave the bucket non-empty
+            if (!"NoSuchKey".equals(error.code()) && !"NoSuchVersion".equals(error.code())) {
+                throw new IllegalStateException("Failed to delete s3://" + bucket + "/" + error.key()
+                    + " (" + error.code() + "): " + error.message());
+            }
+        }
+    }
+
+    private static void join(CompletableFuture<Void> future) {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
     @Override
     public void putObject(String bucket, String key, byte[] data, String contentType) {
         PutObjectRequest req = PutObjectRequest.builder()
@@ -97,12 +208,107 @@ public final class AwsBlobStorage implements BlobStorage {
 
     @Override
     public void putObject(String bucket, String key, InputStream data, String contentType) {
-        try {
-            byte[] bytes = data.readAllBytes();
-            putObject(bucket, key, bytes, contentType);
+        putObject(bucket, key, data, -1L, contentType);
+    }
+
+    /**
+     * Streams the payload to S3. Known lengths up to {@link #MULTIPART_THRESHOLD} go through a single PutObject;
+     * larger or unknown-length payloads are uploaded as multipart, holding only one part buffer in memory. The buffer
+     * of an unknown-length payload starts at {@link #INITIAL_BUFFER} and grows as it fills, so small streams never
+     * allocate a whole part and only a full part commits to multipart.
+     */
+    @Override
+    public void putObject(String bucket, String key, InputStream data, long contentLength, String contentType) {
+        try (InputStream in = data) {
+            if (contentLength >= 0 && contentLength <= MULTIPART_THRESHOLD) {
+                PutObjectRequest req = PutObjectRequest.builder()
+                    .bucket(bucket).key(key)
+                    .contentType(contentType)
+                    .contentLength(contentLength)
+                    .build();
+                s3.putObject(req, RequestBody.fromInputStream(in, contentLength));
+                return;
+            }
+            byte[] buffer;
+            int n;
+            if (contentLength < 0) {
+                buffer = new byte[INITIAL_BUFFER];
+                n = readFully(in, buffer, 0);
+                while (n == buffer.length && buffer.length < PART_SIZE) {
+                    buffer = Arrays.copyOf(buffer, (int) Math.min(PART_SIZE, 2L * buffer.length));
+                    n += readFully(in, buffer, n);
+                }
+            } else {
+                buffer = new byte[(int) Math.max(PART_SIZE, (contentLength + MAX_PARTS - 1) / MAX_PARTS)];
+                n = readFully(in, buffer, 0);
+            }
+            if (n < buffer.length) {
+                // Whole payload fits in one part: a plain PutObject is cheaper than a multipart round trip
+                PutObjectRequest req = PutObjectRequest.builder()
+                    .bucket(bucket).key(key)
+                    .contentType(contentType)
+                    .contentLength((long) n)
+                    .build();
+                s3.putObject(req, part(buffer, n));
+                return;
+            }
+            multipartUpload(bucket, key, in, buffer, n, contentType);
         } catch (IOException e) {
-            throw new RuntimeException("Failed to read input stream for putObject", e);
+            throw new UncheckedIOException("Failed to read input stream for putObject", e);
+        }
+    }
+
+    private void multipartUpload(String bucket, String key, InputStream in, byte[] buffer, int firstPartLength,
+                                 String contentType) throws IOException {
+        String uploadId = s3.createMultipartUpload(CreateMultipartUploadRequest.builder()
+            .bucket(bucket).key(key)
+            .contentType(contentType)
+            .build()).uploadId();
+        List<CompletedPart> parts = new ArrayList<>();
+        try {
+            int partNumber = 1;
+            int n = firstPartLength;
+            while (n > 0) {
+                UploadPartResponse uploaded = s3.uploadPart(UploadPartRequest.builder()
+                    .bucket(bucket).key(key)
+                    .uploadId(uploadId)
+                    .partNumber(partNumber)
+                    .contentLength((long) n)
+                    .build(), part(buffer, n));
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(uploaded.eTag()).build());
+                partNumber++;
+                // The SDK is done with the buffer once uploadPart returns, so it is reused for the next part
+                n = readFully(in, buffer, 0);
+            }
+            s3.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                .bucket(bucket).key(key)
+                .uploadId(uploadId)
+                .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                .build());
+        } catch (IOException | RuntimeException e) {
+            try {
+                s3.abortMultipartUpload(AbortMultipartUploadRequest.builder().bucket(bucket).key(key).uploadId(uploadId).build());
+            } catch (RuntimeException abortFailure) {
+                e.addSuppressed(abortFailure);
+            }
+            throw e;
+        }
+    }
+
+    /** Replayable request body over the first {@code length} bytes of {@code buffer}, without copying. */
+    private static RequestBody part(byte[] buffer, int length) {
+        return RequestBody.fromContentProvider(() -> new ByteArrayInputStream(buffer, 0, length), length, "application/octet-stream");
+    }
+
+    /** @return the bytes read into {@code buffer} from {@code offset} on; less than the space left only at end of stream */
+    private static int readFully(InputStream in, byte[] buffer, int offset) throws IOException {
+        int total = 0;
+        while (offset + total < buffer.length) {
+            int r = in.read(buffer, offset + total, buffer.length - offset - total);
+            if (r < 0) break;
+            total += r;
         }
+        return total;
     }
 
     @Override
@@ -113,14 +319,53 @@ public final class AwsBlobStorage implements BlobStorage {
             return resp.asByteArray();
         } catch (S3Exception e) {
             // return null when not found as per interface contract
-            String code = e.awsErrorDetails() != null ? e.awsErrorDetails().errorCode() : null;
-            if (e.statusCode() == 404 || "NoSuchKey".equals(code)) {
+            if (isNoSuchKey(e)) {
                 return null;
             }
             throw e;
         }
     }
 
+    @Override
+    public InputStream openObject(String bucket, String key) {
+        try {
+            // The response stream reads straight from the HTTP connection; nothing is buffered up-front
+            return s3.getObject(GetObjectRequest.builder().bucket(bucket).key(key).build());
+        } catch (S3Exception e) {
+            if (isNoSuchKey(e)) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public byte[] getObjectRange(String bucket, String key, long offset, long length) {
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("offset and length must not be negative");
+        }
+        if (length == 0) {
+            return exists(bucket, key) ? new byte[0] : null;
+        }
+        long last = length > Long.MAX_VALUE - offset ? Long.MAX_VALUE : offset + length - 1;
+        try {
+            GetObjectRequest req = GetObjectRequest.builder()
+                .bucket(bucket).key(key)
+                .range("bytes=" + offset + "-" + last)
+                .build();
+            return s3.getObjectAsBytes(req).asByteArray();
+        } catch (S3Exception e) {
+            if (isNoSuchKey(e)) {
+                return null;
+            }
+            // 416 InvalidRange: offset at or beyond the end of the object
+            if (e.statusCode() == 416) {
+                return new byte[0];
+            }
+            throw e;
+        }
+    }
+
     @Override
     public void deleteObject(String bucket, String key) {
         try {
@@ -132,20 +377,22 @@ public final class AwsBlobStorage implements BlobStorage {
 
     @Override
     public List<String> listKeys(String bucket, String prefix) {
-        String p = (prefix == null) ? "" : prefix;
-        List<String> keys = new ArrayList<>();
-        ListObjectsV2Request req = ListObjectsV2Request.builder().bucket(bucket).prefix(p).build();
-        ListObjectsV2Response res;
-        do {
-            res = s3.listObjectsV2(req);
-            if (res.hasContents()) {
-                for (S3Object obj : res.contents()) {
-                    keys.add(obj.key());
-                }
-            }
-            req = req.toBuilder().continuationToken(res.nextContinuationToken()).build();
-        } while (res.isTruncated());
-        return keys;
+        return streamKeys(bucket, prefix, null).collect(Collectors.toList());
+    }
+
+    @Override
+    public Stream<String> streamKeys(String bucket, String prefix, String delimiter) {
+        ListObjectsV2Request.Builder req = ListObjectsV2Request.builder()
+            .bucket(bucket)
+            .prefix(prefix == null ? "" : prefix);
+        if (delimiter != null && !delimiter.isEmpty()) {
+            req.delimiter(delimiter);
+        }
+        // The paginator issues the next ListObjectsV2 call only when the stream reaches the end of the current page
+        return s3.listObjectsV2Paginator(req.build()).stream()
+            .flatMap(page -> Stream.concat(
+                page.contents().stream().map(S3Object::key),
+                page.commonPrefixes().stream().map(CommonPrefix::prefix)));
     }
 
     @Override
@@ -159,6 +406,103 @@ public final class AwsBlobStorage implements BlobStorage {
         }
     }
 
+    /**
+     * Captures objects with concurrent GETs, keeping each object's content type and ETag. Restore lists the bucket
+     * once, deletes objects added since the capture in DeleteObjects batches and re-uploads only captured objects
+     * whose ETag no longer matches, so restoring an untouched baseline costs a single listing.
+     */
+    @Override
+    public Snapshot snapshot(String... buckets) {
+        if (buckets == null || Arrays.stream(buckets).anyMatch(b -> b == null || b.isBlank())) {
+            throw new IllegalArgumentException("buckets must not be null or contain null or blank names");
+        }
+        Map<String, Map<String, SnapshotObject>> captured = new LinkedHashMap<>();
+        for (String bucket : buckets) {
+            Map<String, SnapshotObject> objects = new ConcurrentHashMap<>();
+            List<CompletableFuture<Void>> reads = new ArrayList<>();
+            for (S3Object obj : s3.listObjectsV2Paginator(ListObjectsV2Request.builder().bucket(bucket).build()).contents()) {
+                reads.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        ResponseBytes<GetObjectResponse> r = s3.getObjectAsBytes(
+                            GetObjectRequest.builder().bucket(bucket).key(obj.key()).build());
+                        objects.put(obj.key(), new SnapshotObject(r.asByteArray(), r.response().contentType(), r.response().eTag()));
+                    } catch (S3Exception e) {
+                        if (!isNoSuchKey(e)) throw e; // deleted since listing
+                    }
+                }, TRANSFER_EXECUTOR));
+            }
+            joinAll(reads);
+            captured.put(bucket, objects);
+        }
+        return () -> captured.forEach(this::restore);
+    }
+
+    private void restore(String bucket, Map<String, SnapshotObject> objects) {
+        ensureBucket(bucket);
+        Map<String, String> current = new HashMap<>();
+        for (S3Object obj : s3.listObjectsV2Paginator(ListObjectsV2Request.builder().bucket(bucket).build()).contents()) {
+            current.put(obj.key(), obj.eTag());
+        }
+        Executor deletes = CloudExecutors.limited(MAX_DELETES_IN_FLIGHT);
+        Deque<CompletableFuture<Void>> inFlight = new ArrayDeque<>();
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+        try {
+            List<ObjectIdentifier> ids = new ArrayList<>(DELETE_BATCH);
+            for (String key : current.keySet()) {
+                if (objects.containsKey(key)) continue;
+                ids.add(ObjectIdentifier.builder().key(key).build());
+                if (ids.size() == DELETE_BATCH) {
+                    submitDelete(bucket, ids, deletes, inFlight);
+                    ids = new ArrayList<>(DELETE_BATCH);
+                }
+            }
+            submitDelete(bucket, ids, deletes, inFlight);
+            for (Map.Entry<String, SnapshotObject> e : objects.entrySet()) {
+                SnapshotObject o = e.getValue();
+                if (o.eTag != null && o.eTag.equals(current.get(e.getKey()))) continue; // unchanged
+                writes.add(CompletableFuture.runAsync(() -> {
+                    PutObjectResponse r = s3.putObject(PutObjectRequest.builder()
+                        .bucket(bucket).key(e.getKey())
+                        .contentType(o.contentType)
+                        .build(), RequestBody.fromBytes(o.data));
+                    // Re-uploads change multipart ETags, so remember the new one for the next restore
+                    o.eTag = r.eTag();
+                }, TRANSFER_EXECUTOR));
+            }
+            joinAll(writes);
+            while (!inFlight.isEmpty()) {
+                join(inFlight.removeFirst());
+            }
+        } finally {
+            // Only non-empty on failure
+            inFlight.forEach(f -> f.cancel(false));
+            writes.forEach(f -> f.cancel(false));
+        }
+    }
+
+    private static void joinAll(List<CompletableFuture<Void>> futures) {
+        for (CompletableFuture<Void> f : futures) {
+            join(f);
+        }
+    }
+
+    private static final class SnapshotObject {
+        final byte[] data;
+        final String contentType;
+        volatile String eTag;
+
+        SnapshotObject(byte[] data, String contentType, String eTag) {
+            this.data = data;
+            this.contentType = contentType;
+            this.eTag = eTag;
+        }
+    }
+
+    static boolean isNoSuchKey(S3Exception e) {
+        String code = e.awsErrorDetails() != null ? e.awsErrorDetails().errorCode() : null;
+        return e.statusCode() == 404 || "NoSuchKey".equals(code);
+    }
+
     // Convenience helpers (not part of interface) for examples
     public void putJson(String bucket, String key, String json) {
         putObject(bucket, key, json.getBytes(StandardCharsets.UTF_8), "application/json");
@@ -4,8 +4,13 @@
  */
 package org.deveasy.test.cloud.aws;
 
+import org.deveasy.test.cloud.aws.internal.AwsClients;
 import org.deveasy.test.core.cloud.CloudProvider;
 import org.deveasy.test.core.cloud.TestCloudConfig;
+import org.deveasy.test.core.cloud.capability.AsyncBlobStorage;
+import org.deveasy.test.core.cloud.capability.AsyncNoSqlTable;
+import org.deveasy.test.core.cloud.capability.AsyncPubSub;
+import org.deveasy.test.core.cloud.capability.AsyncQueue;
 import org.deveasy.test.core.cloud.capability.BlobStorage;
 import org.deveasy.test.core.cloud.capability.NoSqlTable;
 import org.deveasy.test.core.cloud.capability.PubSub;
@@ -14,8 +19,13 @@ import org.deveasy.test.core.cloud.spi.CloudAdapter;
 
 /**
  * AWS adapter implementation. Provides BlobStorage (S3) in v0.3.
+ * <p>
+ * Capabilities share the SDK clients of {@link AwsClients}. The adapter holds on to the clients of the configuration
+ * it was initialized with until {@link #close()}, which closes them unless another open adapter uses the same
+ * configuration.
+ * </p>
  */
-public final class AwsCloudAdapter implements CloudAdapter {
+public final class AwsCloudAdapter implements CloudAdapter, AutoCloseable {
 
     private TestCloudConfig config;
 
@@ -26,9 +36,28 @@ public final class AwsCloudAdapter implements CloudAdapter {
 
     @Override
     public void initialize(TestCloudConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException("config must not be null");
+        }
+        // Re-initializing with the same config, as CloudAdapters does for its cached adapters, keeps the clients
+        if (!config.equals(this.config)) {
+            AwsClients.retain(config);
+            if (this.config != null) {
+                AwsClients.release(this.config);
+            }
+        }
         this.config = config;
     }
 
+    /** Releases the SDK clients of this adapter's configuration. Idempotent; the adapter can be initialized again. */
+    @Override
+    public void close() {
+        if (config != null) {
+            AwsClients.release(config);
+            config = null;
+        }
+    }
+
     @Override
     public BlobStorage blobStorage() {
         ensureInitialized();
@@ -53,6 +82,30 @@ public final class AwsCloudAdapter implements CloudAdapter {
         return new AwsDynamoDB(config);
     }
 
+    @Override
+    public AsyncBlobStorage asyncBlobStorage() {
+        ensureInitialized();
+        return new AwsAsyncBlobStorage(config);
+    }
+
+    @Override
+    public AsyncQueue asyncQueue() {
+        ensureInitialized();
+        return new AwsAsyncQueue(config);
+    }
+
+    @Override
+    public AsyncPubSub asyncPubSub() {
+        ensureInitialized();
+        return new AwsAsyncPubSub(config);
+    }
+
+    @Override
+    public AsyncNoSqlTable asyncNoSqlTable() {
+        ensureInitialized();
+        return new AwsAsyncDynamoDB(config);
+    }
+
     private void ensureInitialized() {
         if (this.config == null) {
             throw new IllegalStateException("AwsCloudAdapter not initialized. Call initialize(TestCloudConfig) first.");
@@ -5,20 +5,29 @@ package org.deveasy.test.cloud.aws;
 
 import org.deveasy.test.cloud.aws.internal.AwsClients;
 import org.deveasy.test.cloud.aws.internal.LocalStackHolder;
+import org.deveasy.test.core.cloud.CloudExecutors;
 import org.deveasy.test.core.cloud.CloudMode;
 import org.deveasy.test.core.cloud.TestCloudConfig;
+import org.deveasy.test.core.cloud.capability.NoSqlQuery;
 import org.deveasy.test.core.cloud.capability.NoSqlTable;
-import software.amazon.awssdk.core.SdkBytes;
+import org.testcontainers.containers.localstack.LocalStackContainer;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.*;
 
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public final class AwsDynamoDB implements NoSqlTable {
 
-    private static final class TableKeys {
+    static final class TableKeys {
         final String pk;
         final String sk; // nullable
         TableKeys(String pk, String sk) { this.pk = pk; this.sk = sk; }
@@ -26,15 +35,55 @@ public final class AwsDynamoDB implements NoSqlTable {
 
     private static final Map<String, TableKeys> KEYS = new ConcurrentHashMap<>();
 
+    /** Upper bound on scan segments and batch requests in flight across all tables; further work waits its turn. */
+    private static final int MAX_CONCURRENT_REQUESTS = 8;
+    private static final Executor EXECUTOR = CloudExecutors.limited(MAX_CONCURRENT_REQUESTS);
+
+    /** BatchWriteItem accepts at most 25 put requests. */
+    private static final int WRITE_BATCH = 25;
+    /** BatchGetItem accepts at most 100 keys. */
+    private static final int GET_BATCH = 100;
+    /** Attempts for a batch whose items keep coming back unprocessed (throttling) before giving up. */
+    private static final int MAX_BATCH_ATTEMPTS = 10;
+    private static final long BACKOFF_BASE_MILLIS = 50;
+    private static final long BACKOFF_MAX_MILLIS = 2_000;
+
+    /**
+     * {@link TestCloudConfig#override(String)} key for how long to wait for a table to become ACTIVE or be deleted,
+     * as an ISO-8601 duration (e.g. {@code PT2M}). Defaults to 60 seconds.
+     */
+    public static final String TABLE_WAIT_TIMEOUT = "dynamodb.tableWaitTimeout";
+    private static final Duration DEFAULT_TABLE_WAIT_TIMEOUT = Duration.ofSeconds(60);
+
     private final TestCloudConfig cfg;
     private final DynamoDbClient ddb;
+    private final Duration tableWaitTimeout;
+    private final AttributeValueConverter converter;
 
     public AwsDynamoDB(TestCloudConfig cfg) {
+        this(cfg, AttributeValueConverter.defaults());
+    }
+
+    /**
+     * @param cfg the cloud configuration
+     * @param converter conversion between item maps and AttributeValues, e.g. to support custom value types
+     */
+    public AwsDynamoDB(TestCloudConfig cfg, AttributeValueConverter converter) {
+        if (converter == null) {
+            throw new IllegalArgumentException("converter must not be null");
+        }
         this.cfg = cfg;
+        this.converter = converter;
         if (cfg.mode() == CloudMode.EMULATOR) {
-            LocalStackHolder.ensureStartedDynamoDB();
+            LocalStackHolder.endpoint(LocalStackContainer.Service.DYNAMODB, cfg);
         }
         this.ddb = AwsClients.dynamodb(cfg);
+        String timeout = cfg.override(TABLE_WAIT_TIMEOUT);
+        try {
+            this.tableWaitTimeout = timeout == null ? DEFAULT_TABLE_WAIT_TIMEOUT : Duration.parse(timeout);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(TABLE_WAIT_TIMEOUT + " must be an ISO-8601 duration such as PT2M: " + timeout, e);
+        }
     }
 
     @Override
@@ -47,12 +96,49 @@ public final class AwsDynamoDB implements NoSqlTable {
         ensureTableInternal(tableName, partitionKey, sortKey);
     }
 
+    /**
+     * Issues every missing table's CreateTable concurrently, then waits for all of them together, so the total time
+     * is roughly that of the slowest table rather than the sum.
+     */
+    @Override
+    public void ensureTables(Collection<TableSpec> tables) {
+        if (tables == null) {
+            throw new IllegalArgumentException("tables must not be null");
+        }
+        List<CompletableFuture<String>> creates = new ArrayList<>(tables.size());
+        for (TableSpec t : tables) {
+            if (t == null) {
+                throw new IllegalArgumentException("tables must not contain null");
+            }
+            creates.add(CompletableFuture.supplyAsync(
+                () -> createIfAbsent(t.name(), t.partitionKey(), t.sortKey()) ? null : t.name(), EXECUTOR));
+        }
+        List<CompletableFuture<Void>> waits = new ArrayList<>(creates.size());
+        for (String pending : joinAll(creates)) {
+            if (pending != null) {
+                waits.add(CompletableFuture.runAsync(() -> awaitTable(pending, true), EXECUTOR));
+            }
+        }
+        joinAll(waits);
+    }
+
     private void ensureTableInternal(String tableName, String pk, String sk) {
+        if (!createIfAbsent(tableName, pk, sk)) {
+            awaitTable(tableName, true);
+        }
+    }
+
+    /**
+     * Creates the table unless it already exists and caches its key schema.
+     *
+     * @return {@code true} if the table is already ACTIVE, {@code false} if the caller must wait for it
+     */
+    private boolean createIfAbsent(String tableName, String pk, String sk) {
         try {
-            ddb.describeTable(DescribeTableRequest.builder().tableName(tableName).build());
+            DescribeTableResponse d = ddb.describeTable(DescribeTableRequest.builder().tableName(tableName).build());
             // cache keys if not yet
-            cacheKeysFromDescribe(tableName);
-            return;
+            cacheKeys(tableName, d.table());
+            return d.table() != null && d.table().tableStatus() == TableStatus.ACTIVE;
         } catch (ResourceNotFoundException notFound) {
             // create
         }
@@ -69,69 +155,263 @@ public final class AwsDynamoDB implements NoSqlTable {
             .billingMode(BillingMode.PAY_PER_REQUEST)
             .attributeDefinitions(attrs)
             .keySchema(schema);
-        ddb.createTable(b.build());
-        // wait until active (simple describe loop)
-        waitForActive(tableName);
+        try {
+            ddb.createTable(b.build());
+        } catch (ResourceInUseException alreadyCreating) {
+            // another caller created it between our describe and create; wait for it like our own
+        }
         KEYS.put(tableName, new TableKeys(pk, sk));
+        return false;
     }
 
-    private void waitForActive(String tableName) {
-        for (int i = 0; i < 50; i++) {
+    /**
+     * Polls DescribeTable with jittered exponential backoff until the table is ACTIVE ({@code active}) or gone
+     * ({@code !active}), failing once the {@link #TABLE_WAIT_TIMEOUT} deadline passes.
+     */
+    private void awaitTable(String tableName, boolean active) {
+        long deadline = System.nanoTime() + tableWaitTimeout.toNanos();
+        TableStatus status = null;
+        for (int attempt = 1; ; attempt++) {
             try {
                 DescribeTableResponse d = ddb.describeTable(DescribeTableRequest.builder().tableName(tableName).build());
-                if (d.table() != null && d.table().tableStatus() == TableStatus.ACTIVE) return;
-                try { Thread.sleep(100); } catch (InterruptedException ignored) {}
+                status = d.table() == null ? null : d.table().tableStatus();
+                if (active && status == TableStatus.ACTIVE) return;
             } catch (ResourceNotFoundException e) {
-                try { Thread.sleep(100); } catch (InterruptedException ignored) {}
+                if (!active) return;
+                status = null;
+            }
+            long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+            if (remainingMillis <= 0) {
+                throw new IllegalStateException("DynamoDB table " + tableName + " did not become "
+                    + (active ? "ACTIVE" : "deleted") + " within " + tableWaitTimeout + " (last status: "
+                    + (status == null ? "not found" : status) + ")");
             }
+            backoff(attempt, remainingMillis);
         }
     }
 
     @Override
     public void deleteTable(String tableName) {
+        boolean deleting = false;
         try {
             ddb.deleteTable(DeleteTableRequest.builder().tableName(tableName).build());
+            deleting = true;
         } catch (ResourceNotFoundException ignored) {
         } catch (DynamoDbException e) {
             // best effort
         }
         KEYS.remove(tableName);
+        KEYS.keySet().removeIf(key -> key.startsWith(tableName + "/"));
+        if (deleting) {
+            // so that a following ensureTable with the same name creates a fresh table instead of seeing DELETING
+            awaitTable(tableName, false);
+        }
     }
 
     @Override
     public void putItem(String tableName, Map<String, Object> item) {
-        Map<String, AttributeValue> av = toAttributes(item);
+        Map<String, AttributeValue> av = converter.toAttributes(item);
         ddb.putItem(PutItemRequest.builder().tableName(tableName).item(av).build());
     }
 
+    /**
+     * Writes a record or POJO as an item via its {@link ItemCodec}.
+     *
+     * @param tableName the table name
+     * @param entity the entity; must have the table's key properties set
+     * @param type the entity type
+     * @param <T> the entity type
+     */
+    public <T> void putItem(String tableName, T entity, Class<T> type) {
+        ddb.putItem(PutItemRequest.builder().tableName(tableName).item(ItemCodec.of(type).encode(entity, converter)).build());
+    }
+
+    /**
+     * Writes items with BatchWriteItem in chunks of {@link #WRITE_BATCH}, running chunks concurrently on the shared
+     * pool. Unprocessed items are retried with jittered exponential backoff. Items sharing a key are collapsed up-front
+     * (last wins) because a batch may not contain the same key twice.
+     */
+    @Override
+    public void putItems(String tableName, Collection<Map<String, Object>> items) {
+        if (items == null) {
+            throw new IllegalArgumentException("items must not be null");
+        }
+        List<Map<String, AttributeValue>> encoded = new ArrayList<>(items.size());
+        for (Map<String, Object> item : items) {
+            if (item == null || item.isEmpty()) {
+                throw new IllegalArgumentException("items must not contain null or empty items");
+            }
+            encoded.add(converter.toAttributes(item));
+        }
+        batchWrite(tableName, encoded);
+    }
+
+    /**
+     * Batch-writes records or POJOs via their {@link ItemCodec}, as {@link #putItems(String, Collection)} does for maps.
+     *
+     * @param tableName the table name
+     * @param entities the entities; each must have the table's key properties set
+     * @param type the entity type
+     * @param <T> the entity type
+     */
+    public <T> void putItems(String tableName, Collection<T> entities, Class<T> type) {
+        if (entities == null) {
+            throw new IllegalArgumentException("entities must not be null");
+        }
+        ItemCodec<T> codec = ItemCodec.of(type);
+        List<Map<String, AttributeValue>> encoded = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            encoded.add(codec.encode(entity, converter));
+        }
+        batchWrite(tableName, encoded);
+    }
+
+    private void batchWrite(String tableName, List<Map<String, AttributeValue>> items) {
+        if (items.isEmpty()) return;
+        List<Map<String, AttributeValue>> unique = distinctByKey(tableName, items);
+        List<CompletableFuture<Void>> chunks = new ArrayList<>(unique.size() / WRITE_BATCH + 1);
+        for (int from = 0; from < unique.size(); from += WRITE_BATCH) {
+            List<Map<String, AttributeValue>> chunk = unique.subList(from, Math.min(unique.size(), from + WRITE_BATCH));
+            chunks.add(CompletableFuture.runAsync(() -> writeChunk(tableName, chunk), EXECUTOR));
+        }
+        joinAll(chunks);
+    }
+
+    private List<Map<String, AttributeValue>> distinctByKey(String tableName, List<Map<String, AttributeValue>> items) {
+        TableKeys k = ensureKeys(tableName);
+        if (k == null) {
+            // unknown table: let BatchWriteItem report it
+            return items;
+        }
+        Map<List<AttributeValue>, Map<String, AttributeValue>> byKey = new LinkedHashMap<>(items.size() * 4 / 3 + 1);
+        for (Map<String, AttributeValue> item : items) {
+            byKey.put(Arrays.asList(item.get(k.pk), k.sk == null ? null : item.get(k.sk)), item);
+        }
+        return byKey.size() == items.size() ? items : new ArrayList<>(byKey.values());
+    }
+
+    private void writeChunk(String tableName, List<Map<String, AttributeValue>> chunk) {
+        List<WriteRequest> writes = new ArrayList<>(chunk.size());
+        for (Map<String, AttributeValue> item : chunk) {
+            writes.add(WriteRequest.builder().putRequest(PutRequest.builder().item(item).build()).build());
+        }
+        Map<String, List<WriteRequest>> pending = Collections.singletonMap(tableName, writes);
+        for (int attempt = 1; ; attempt++) {
+            BatchWriteItemResponse resp = ddb.batchWriteItem(BatchWriteItemRequest.builder().requestItems(pending).build());
+            if (!resp.hasUnprocessedItems() || resp.unprocessedItems().isEmpty()) return;
+            pending = resp.unprocessedItems();
+            if (attempt == MAX_BATCH_ATTEMPTS) {
+                throw new IllegalStateException("BatchWriteItem left " + pending.getOrDefault(tableName, List.of()).size()
+                    + " items unprocessed in " + tableName + " after " + attempt + " attempts");
+            }
+            backoff(attempt);
+        }
+    }
+
     @Override
     public Map<String, Object> getItem(String tableName, String partitionKeyValue) {
+        Map<String, AttributeValue> item = getRaw(tableName, partitionKeyValue, null);
+        return item == null ? null : converter.fromAttributes(item);
+    }
+
+    @Override
+    public Map<String, Object> getItem(String tableName, String partitionKeyValue, String sortKeyValue) {
+        if (sortKeyValue == null) return null;
+        Map<String, AttributeValue> item = getRaw(tableName, partitionKeyValue, sortKeyValue);
+        return item == null ? null : converter.fromAttributes(item);
+    }
+
+    /**
+     * Gets an item by partition key, decoded straight into a record or POJO via its {@link ItemCodec}.
+     *
+     * @return the entity, or {@code null} if not found
+     */
+    public <T> T getItem(String tableName, String partitionKeyValue, Class<T> type) {
+        Map<String, AttributeValue> item = getRaw(tableName, partitionKeyValue, null);
+        return item == null ? null : ItemCodec.of(type).decode(item, converter);
+    }
+
+    /**
+     * Gets an item by partition and sort key, decoded straight into a record or POJO via its {@link ItemCodec}.
+     *
+     * @return the entity, or {@code null} if not found
+     */
+    public <T> T getItem(String tableName, String partitionKeyValue, String sortKeyValue, Class<T> type) {
+        if (sortKeyValue == null) return null;
+        Map<String, AttributeValue> item = getRaw(tableName, partitionKeyValue, sortKeyValue);
+        return item == null ? null : ItemCodec.of(type).decode(item, converter);
+    }
+
+    /** @param sortKeyValue {@code null} to look up by partition key only */
+    private Map<String, AttributeValue> getRaw(String tableName, String partitionKeyValue, String sortKeyValue) {
         TableKeys k = ensureKeys(tableName);
-        if (k == null || k.pk == null) return null;
-        Map<String, AttributeValue> key = new HashMap<>();
-        key.put(k.pk, toAttributeValue(partitionKeyValue));
+        if (k == null || k.pk == null || (sortKeyValue != null && k.sk == null)) return null;
+        Map<String, AttributeValue> key = new HashMap<>(4);
+        key.put(k.pk, converter.toAttributeValue(partitionKeyValue));
+        if (sortKeyValue != null) {
+            key.put(k.sk, converter.toAttributeValue(sortKeyValue));
+        }
         try {
             GetItemResponse resp = ddb.getItem(GetItemRequest.builder().tableName(tableName).key(key).build());
             if (resp.item() == null || resp.item().isEmpty()) return null;
-            return fromAttributes(resp.item());
+            return resp.item();
         } catch (ResourceNotFoundException e) {
             return null;
         }
     }
 
+    /**
+     * Looks keys up with BatchGetItem in chunks of {@link #GET_BATCH}, running chunks concurrently on the shared pool
+     * and retrying unprocessed keys with jittered exponential backoff.
+     */
     @Override
-    public Map<String, Object> getItem(String tableName, String partitionKeyValue, String sortKeyValue) {
+    public List<Map<String, Object>> getItems(String tableName, Collection<Map<String, Object>> keys) {
+        if (keys == null) {
+            throw new IllegalArgumentException("keys must not be null");
+        }
         TableKeys k = ensureKeys(tableName);
-        if (k == null || k.pk == null || k.sk == null) return null;
-        Map<String, AttributeValue> key = new HashMap<>();
-        key.put(k.pk, toAttributeValue(partitionKeyValue));
-        key.put(k.sk, toAttributeValue(sortKeyValue));
+        if (k == null || k.pk == null || keys.isEmpty()) return new ArrayList<>();
+        // BatchGetItem rejects a request that names the same key twice
+        Set<Map<String, AttributeValue>> unique = new LinkedHashSet<>();
+        for (Map<String, Object> key : keys) {
+            unique.add(keyAttributes(k, key));
+        }
+        List<Map<String, AttributeValue>> all = new ArrayList<>(unique);
+        List<CompletableFuture<List<Map<String, Object>>>> chunks = new ArrayList<>(all.size() / GET_BATCH + 1);
+        for (int from = 0; from < all.size(); from += GET_BATCH) {
+            List<Map<String, AttributeValue>> chunk = all.subList(from, Math.min(all.size(), from + GET_BATCH));
+            chunks.add(CompletableFuture.supplyAsync(() -> getChunk(tableName, chunk), EXECUTOR));
+        }
+        List<Map<String, Object>> out = new ArrayList<>(all.size());
         try {
-            GetItemResponse resp = ddb.getItem(GetItemRequest.builder().tableName(tableName).key(key).build());
-            if (resp.item() == null || resp.item().isEmpty()) return null;
-            return fromAttributes(resp.item());
+            for (List<Map<String, Object>> found : joinAll(chunks)) {
+                out.addAll(found);
+            }
         } catch (ResourceNotFoundException e) {
-            return null;
+            return new ArrayList<>();
+        }
+        return out;
+    }
+
+    private List<Map<String, Object>> getChunk(String tableName, List<Map<String, AttributeValue>> keys) {
+        Map<String, KeysAndAttributes> pending = Collections.singletonMap(tableName, KeysAndAttributes.builder().keys(keys).build());
+        List<Map<String, Object>> out = new ArrayList<>(keys.size());
+        for (int attempt = 1; ; attempt++) {
+            BatchGetItemResponse resp = ddb.batchGetItem(BatchGetItemRequest.builder().requestItems(pending).build());
+            List<Map<String, AttributeValue>> items = resp.responses().get(tableName);
+            if (items != null) {
+                for (Map<String, AttributeValue> it : items) {
+                    out.add(converter.fromAttributes(it));
+                }
+            }
+            if (!resp.hasUnprocessedKeys() || resp.unprocessedKeys().isEmpty()) return out;
+            pending = resp.unprocessedKeys();
+            if (attempt == MAX_BATCH_ATTEMPTS) {
+                KeysAndAttributes left = pending.get(tableName);
+                throw new IllegalStateException("BatchGetItem left " + (left == null ? 0 : left.keys().size())
+                    + " keys unprocessed in " + tableName + " after " + attempt + " attempts");
+            }
+            backoff(attempt);
         }
     }
 
@@ -140,7 +420,7 @@ public final class AwsDynamoDB implements NoSqlTable {
         TableKeys k = ensureKeys(tableName);
         if (k == null || k.pk == null) return; // nothing we can do
         Map<String, AttributeValue> key = new HashMap<>();
-        key.put(k.pk, toAttributeValue(partitionKeyValue));
+        key.put(k.pk, converter.toAttributeValue(partitionKeyValue));
         try {
             ddb.deleteItem(DeleteItemRequest.builder().tableName(tableName).key(key).build());
         } catch (DynamoDbException ignored) {
@@ -152,8 +432,8 @@ public final class AwsDynamoDB implements NoSqlTable {
         TableKeys k = ensureKeys(tableName);
         if (k == null || k.pk == null || k.sk == null) return;
         Map<String, AttributeValue> key = new HashMap<>();
-        key.put(k.pk, toAttributeValue(partitionKeyValue));
-        key.put(k.sk, toAttributeValue(sortKeyValue));
+        key.put(k.pk, converter.toAttributeValue(partitionKeyValue));
+        key.put(k.sk, converter.toAttributeValue(sortKeyValue));
         try {
             ddb.deleteItem(DeleteItemRequest.builder().tableName(tableName).key(key).build());
         } catch (DynamoDbException ignored) {
@@ -171,7 +451,7 @@ public final class AwsDynamoDB implements NoSqlTable {
                 ScanResponse resp = ddb.scan(b.build());
                 if (resp.items() != null) {
                     for (Map<String, AttributeValue> it : resp.items()) {
-                        out.add(fromAttributes(it));
+                        out.add(converter.fromAttributes(it));
                     }
                 }
                 startKey = resp.lastEvaluatedKey();
@@ -182,25 +462,229 @@ public final class AwsDynamoDB implements NoSqlTable {
         return out;
     }
 
+    /**
+     * Fans {@code totalSegments} Scan segments out on a shared pool of {@link #MAX_CONCURRENT_REQUESTS} threads; each
+     * segment pages independently and the results are concatenated.
+     */
+    @Override
+    public List<Map<String, Object>> parallelScan(String tableName, int totalSegments) {
+        if (totalSegments < 1) {
+            throw new IllegalArgumentException("totalSegments must be at least 1");
+        }
+        if (totalSegments == 1) {
+            return scan(tableName);
+        }
+        List<CompletableFuture<List<Map<String, Object>>>> segments = new ArrayList<>(totalSegments);
+        for (int i = 0; i < totalSegments; i++) {
+            ScanRequest req = ScanRequest.builder().tableName(tableName).segment(i).totalSegments(totalSegments).build();
+            segments.add(CompletableFuture.supplyAsync(
+                () -> scanPages(req).map(converter::fromAttributes).collect(Collectors.toList()), EXECUTOR));
+        }
+        List<Map<String, Object>> out = new ArrayList<>();
+        try {
+            for (List<Map<String, Object>> segment : joinAll(segments)) {
+                out.addAll(segment);
+            }
+        } catch (DynamoDbException e) {
+            // same contract as scan(): provider errors yield an empty result
+            return Collections.emptyList();
+        }
+        return out;
+    }
+
+    @Override
+    public Stream<Map<String, Object>> streamItems(String tableName) {
+        return scanPages(ScanRequest.builder().tableName(tableName).build()).map(converter::fromAttributes);
+    }
+
+    /**
+     * Lazily pages through a Scan. The first page is fetched eagerly so a missing table yields an empty stream;
+     * later pages are requested by the SDK paginator only as the stream is consumed.
+     */
+    private Stream<Map<String, AttributeValue>> scanPages(ScanRequest req) {
+        ScanResponse first;
+        try {
+            first = ddb.scan(req);
+        } catch (ResourceNotFoundException e) {
+            return Stream.empty();
+        }
+        if (!first.hasLastEvaluatedKey() || first.lastEvaluatedKey().isEmpty()) {
+            return first.items().stream();
+        }
+        ScanRequest next = req.toBuilder().exclusiveStartKey(first.lastEvaluatedKey()).build();
+        return Stream.concat(first.items().stream(), ddb.scanPaginator(next).items().stream());
+    }
+
     @Override
     public List<Map<String, Object>> query(String tableName, String partitionKeyValue) {
+        List<Map<String, AttributeValue>> items = queryRaw(tableName, partitionKeyValue);
+        List<Map<String, Object>> out = new ArrayList<>(items.size());
+        for (Map<String, AttributeValue> it : items) {
+            out.add(converter.fromAttributes(it));
+        }
+        return out;
+    }
+
+    /**
+     * Translates the query into a single paginated Query call: the sort key condition goes into the key condition
+     * expression, filters into a filter expression, and the projection, order and index are passed through. Without
+     * filters the limit is sent as {@code Limit}, so e.g. the newest item of a partition is one read; with filters
+     * pages are fetched until enough items match.
+     */
+    @Override
+    public List<Map<String, Object>> query(String tableName, NoSqlQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("query must not be null");
+        }
+        TableKeys tableKeys = ensureKeys(tableName);
+        if (tableKeys == null) return Collections.emptyList();
+        TableKeys k = tableKeys;
+        if (query.indexName() != null) {
+            k = KEYS.get(indexKey(tableName, query.indexName()));
+            if (k == null) {
+                // index may have been added after the table keys were cached
+                cacheKeysFromDescribe(tableName);
+                k = KEYS.get(indexKey(tableName, query.indexName()));
+            }
+            if (k == null) {
+                throw new IllegalArgumentException("Table " + tableName + " has no index " + query.indexName());
+            }
+        }
+        if (query.sortKeyOperator() != null && k.sk == null) {
+            throw new IllegalArgumentException((query.indexName() == null ? "Table " + tableName : "Index " + query.indexName())
+                + " has no sort key");
+        }
+
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        names.put("#pk", k.pk);
+        values.put(":pk", converter.toAttributeValue(query.partitionKeyValue()));
+        StringBuilder keyCondition = new StringBuilder("#pk = :pk");
+        if (query.sortKeyOperator() != null) {
+            names.put("#sk", k.sk);
+            List<String> operands = query.sortKeyValues();
+            values.put(":sk0", converter.toAttributeValue(operands.get(0)));
+            keyCondition.append(" AND ").append(sortKeyCondition(query.sortKeyOperator()));
+            if (operands.size() > 1) {
+                values.put(":sk1", converter.toAttributeValue(operands.get(1)));
+            }
+        }
+        QueryRequest.Builder b = QueryRequest.builder()
+            .tableName(tableName)
+            .keyConditionExpression(keyCondition.toString())
+            .scanIndexForward(!query.descending());
+        if (query.indexName() != null) {
+            b.indexName(query.indexName());
+        }
+        if (!query.filters().isEmpty()) {
+            StringBuilder filter = new StringBuilder();
+            int i = 0;
+            for (Map.Entry<String, Object> f : query.filters().entrySet()) {
+                if (i > 0) filter.append(" AND ");
+                names.put("#f" + i, f.getKey());
+                values.put(":f" + i, converter.toAttributeValue(f.getValue()));
+                filter.append("#f").append(i).append(" = :f").append(i);
+                i++;
+            }
+            b.filterExpression(filter.toString());
+        } else if (query.limit() > 0) {
+            // Limit caps items evaluated, not returned, so it is only exact without a filter
+            b.limit(query.limit());
+        }
+        if (!query.projection().isEmpty()) {
+            StringBuilder projection = new StringBuilder();
+            int i = 0;
+            for (String attribute : query.projection()) {
+                if (i > 0) projection.append(", ");
+                names.put("#p" + i, attribute);
+                projection.append("#p").append(i);
+                i++;
+            }
+            b.projectionExpression(projection.toString());
+        }
+        b.expressionAttributeNames(names).expressionAttributeValues(values);
+
+        List<Map<String, Object>> out = new ArrayList<>(query.limit() > 0 ? query.limit() : 16);
+        Map<String, AttributeValue> startKey = null;
+        try {
+            do {
+                if (startKey != null) b.exclusiveStartKey(startKey);
+                QueryResponse resp = ddb.query(b.build());
+                for (Map<String, AttributeValue> it : resp.items()) {
+                    if (query.limit() > 0 && out.size() == query.limit()) return out;
+                    out.add(converter.fromAttributes(it));
+                }
+                startKey = resp.hasLastEvaluatedKey() && !resp.lastEvaluatedKey().isEmpty() ? resp.lastEvaluatedKey() : null;
+            } while (startKey != null && (query.limit() == 0 || out.size() < query.limit()));
+        } catch (ResourceNotFoundException e) {
+            return Collections.emptyList();
+        }
+        return out;
+    }
+
+    private static String sortKeyCondition(NoSqlQuery.SortKeyOperator op) {
+        switch (op) {
+            case EQ: return "#sk = :sk0";
+            case LT: return "#sk < :sk0";
+            case LE: return "#sk <= :sk0";
+            case GT: return "#sk > :sk0";
+            case GE: return "#sk >= :sk0";
+            case BETWEEN: return "#sk BETWEEN :sk0 AND :sk1";
+            case BEGINS_WITH: return "begins_with(#sk, :sk0)";
+            default: throw new IllegalArgumentException("Unsupported sort key operator " + op);
+        }
+    }
+
+    /**
+     * Queries by partition key, decoding each item straight into a record or POJO via its {@link ItemCodec}.
+     *
+     * @return the matching entities in sort key order; never {@code null}
+     */
+    public <T> List<T> query(String tableName, String partitionKeyValue, Class<T> type) {
+        ItemCodec<T> codec = ItemCodec.of(type);
+        List<Map<String, AttributeValue>> items = queryRaw(tableName, partitionKeyValue);
+        List<T> out = new ArrayList<>(items.size());
+        for (Map<String, AttributeValue> it : items) {
+            out.add(codec.decode(it, converter));
+        }
+        return out;
+    }
+
+    /**
+     * Scans a table, decoding each item straight into a record or POJO via its {@link ItemCodec}.
+     *
+     * @return the entities; order is undefined; never {@code null}
+     */
+    public <T> List<T> scan(String tableName, Class<T> type) {
+        return streamItems(tableName, type).collect(Collectors.toList());
+    }
+
+    /**
+     * Lazily scans a table like {@link #streamItems(String)}, decoding each item straight into a record or POJO.
+     *
+     * @return a stream of entities; order is undefined; never {@code null}
+     */
+    public <T> Stream<T> streamItems(String tableName, Class<T> type) {
+        ItemCodec<T> codec = ItemCodec.of(type);
+        return scanPages(ScanRequest.builder().tableName(tableName).build()).map(it -> codec.decode(it, converter));
+    }
+
+    private List<Map<String, AttributeValue>> queryRaw(String tableName, String partitionKeyValue) {
         TableKeys k = ensureKeys(tableName);
         if (k == null || k.pk == null) return Collections.emptyList();
-        List<Map<String, Object>> out = new ArrayList<>();
+        List<Map<String, AttributeValue>> out = new ArrayList<>();
         Map<String, AttributeValue> startKey = null;
         do {
             QueryRequest.Builder b = QueryRequest.builder()
                 .tableName(tableName)
                 .keyConditionExpression("#pk = :v")
                 .expressionAttributeNames(Collections.singletonMap("#pk", k.pk))
-                .expressionAttributeValues(Collections.singletonMap(":v", toAttributeValue(partitionKeyValue)));
+                .expressionAttributeValues(Collections.singletonMap(":v", converter.toAttributeValue(partitionKeyValue)));
             if (startKey != null && !startKey.isEmpty()) b.exclusiveStartKey(startKey);
             try {
                 QueryResponse resp = ddb.query(b.build());
                 if (resp.items() != null) {
-                    for (Map<String, AttributeValue> it : resp.items()) {
-                        out.add(fromAttributes(it));
-                    }
+                    out.addAll(resp.items());
                 }
                 startKey = resp.lastEvaluatedKey();
             } catch (DynamoDbException e) {
@@ -212,88 +696,108 @@ public final class AwsDynamoDB implements NoSqlTable {
 
     // Helpers
 
+    /** @return the cached key schema of the table, or {@code null} if it has not been described yet */
+    static TableKeys cachedKeys(String table) {
+        return KEYS.get(table);
+    }
+
     private TableKeys ensureKeys(String table) {
         TableKeys k = KEYS.get(table);
         if (k != null) return k;
         return cacheKeysFromDescribe(table);
     }
 
-    private TableKeys cacheKeysFromDescribe(String table) {
-        try {
-            DescribeTableResponse d = ddb.describeTable(DescribeTableRequest.builder().tableName(table).build());
-            if (d.table() == null) return null;
-            String pk = null;
-            String sk = null;
-            for (KeySchemaElement e : d.table().keySchema()) {
-                if (e.keyType() == KeyType.HASH) pk = e.attributeName();
-                else if (e.keyType() == KeyType.RANGE) sk = e.attributeName();
-            }
-            if (pk != null) {
-                TableKeys tk = new TableKeys(pk, sk);
-                KEYS.put(table, tk);
-                return tk;
-            }
-            return null;
-        } catch (ResourceNotFoundException e) {
-            return null;
+    private Map<String, AttributeValue> keyAttributes(TableKeys k, Map<String, Object> key) {
+        if (key == null) {
+            throw new IllegalArgumentException("keys must not contain null");
+        }
+        Map<String, AttributeValue> out = new HashMap<>(4);
+        out.put(k.pk, converter.toAttributeValue(keyValue(key, k.pk)));
+        if (k.sk != null) {
+            out.put(k.sk, converter.toAttributeValue(keyValue(key, k.sk)));
         }
+        return out;
     }
 
-    private static Map<String, AttributeValue> toAttributes(Map<String, Object> item) {
-        return item.entrySet().stream()
-            .filter(e -> e.getValue() != null)
-            .collect(Collectors.toMap(Map.Entry::getKey, e -> toAttributeValue(e.getValue())));
+    private static Object keyValue(Map<String, Object> key, String attribute) {
+        Object v = key.get(attribute);
+        if (v == null) {
+            throw new IllegalArgumentException("key is missing key attribute: " + attribute);
+        }
+        return v;
     }
 
-    private static Map<String, Object> fromAttributes(Map<String, AttributeValue> item) {
-        Map<String, Object> out = new LinkedHashMap<>();
-        for (Map.Entry<String, AttributeValue> e : item.entrySet()) {
-            out.put(e.getKey(), fromAttributeValue(e.getValue()));
+    private static void backoff(int attempt) {
+        backoff(attempt, BACKOFF_MAX_MILLIS);
+    }
+
+    /** Sleeps for a random duration up to an exponentially growing cap ("full jitter"), never longer than {@code maxMillis}. */
+    private static void backoff(int attempt, long maxMillis) {
+        long cap = Math.min(Math.min(BACKOFF_MAX_MILLIS, maxMillis), BACKOFF_BASE_MILLIS << Math.min(attempt, 16));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(cap + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backing off a DynamoDB request", e);
         }
-        return out;
     }
 
-    private static AttributeValue toAttributeValue(Object v) {
-        if (v == null) return AttributeValue.builder().nul(true).build();
-        if (v instanceof AttributeValue) return (AttributeValue) v;
-        if (v instanceof String) return AttributeValue.builder().s((String) v).build();
-        if (v instanceof Number) return AttributeValue.builder().n(String.valueOf(v)).build();
-        if (v instanceof Boolean) return AttributeValue.builder().bool((Boolean) v).build();
-        if (v instanceof byte[]) return AttributeValue.builder().b(SdkBytes.fromByteArray((byte[]) v)).build();
-        return AttributeValue.builder().s(v.toString()).build();
+    /** Waits for every future, cancelling the rest and rethrowing the first failure's cause. */
+    private static <T> List<T> joinAll(List<CompletableFuture<T>> futures) {
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<T> f : futures) {
+                results.add(f.join());
+            }
+        } catch (CompletionException e) {
+            futures.forEach(f -> f.cancel(false));
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return results;
     }
 
-    private static Object fromAttributeValue(AttributeValue v) {
-        if (v == null) return null;
-        if (v.s() != null) return v.s();
-        if (v.n() != null) return parseNumber(v.n());
-        if (v.bool() != null) return v.bool();
-        if (v.b() != null) return v.b().asByteArray();
-        if (v.nul() != null && v.nul()) return null;
-        if (v.m() != null && !v.m().isEmpty()) {
-            Map<String, Object> m = new LinkedHashMap<>();
-            v.m().forEach((k, av) -> m.put(k, fromAttributeValue(av)));
-            return m;
+    private TableKeys cacheKeysFromDescribe(String table) {
+        try {
+            DescribeTableResponse d = ddb.describeTable(DescribeTableRequest.builder().tableName(table).build());
+            return cacheKeys(table, d.table());
+        } catch (ResourceNotFoundException e) {
+            return null;
+        }
+    }
+
+    /** Caches the key schema of the table and of each of its secondary indexes (under {@link #indexKey}). */
+    static TableKeys cacheKeys(String table, TableDescription description) {
+        if (description == null) return null;
+        for (GlobalSecondaryIndexDescription gsi : description.globalSecondaryIndexes()) {
+            TableKeys ik = keysOf(gsi.keySchema());
+            if (ik != null) KEYS.put(indexKey(table, gsi.indexName()), ik);
         }
-        if (v.l() != null && !v.l().isEmpty()) {
-            List<Object> list = new ArrayList<>();
-            for (AttributeValue av : v.l()) list.add(fromAttributeValue(av));
-            return list;
+        for (LocalSecondaryIndexDescription lsi : description.localSecondaryIndexes()) {
+            TableKeys ik = keysOf(lsi.keySchema());
+            if (ik != null) KEYS.put(indexKey(table, lsi.indexName()), ik);
         }
-        return null;
+        TableKeys tk = keysOf(description.keySchema());
+        if (tk != null) {
+            KEYS.put(table, tk);
+        }
+        return tk;
     }
 
-    private static Object parseNumber(String n) {
-        try {
-            if (n.contains(".") || n.contains("e") || n.contains("E")) {
-                return Double.parseDouble(n);
-            } else {
-                long l = Long.parseLong(n);
-                if (l >= Integer.MIN_VALUE && l <= Integer.MAX_VALUE) return (int) l;
-                return l;
-            }
-        } catch (NumberFormatException e) {
-            return n; // fallback to string
+    private static TableKeys keysOf(List<KeySchemaElement> schema) {
+        String pk = null;
+        String sk = null;
+        for (KeySchemaElement e : schema) {
+            if (e.keyType() == KeyType.HASH) pk = e.attributeName();
+            else if (e.keyType() == KeyType.RANGE) sk = e.attributeName();
         }
+        return pk == null ? null : new TableKeys(pk, sk);
+    }
+
+    /** KEYS entry for a secondary index; table names cannot contain '/', so these never clash with table entries. */
+    private static String indexKey(String table, String index) {
+        return table + "/" + index;
     }
 }
@@ -7,7 +7,11 @@ import org.deveasy.test.cloud.aws.internal.AwsClients;
 import org.deveasy.test.cloud.aws.internal.LocalStackHolder;
 import org.deveasy.test.core.cloud.CloudMode;
 import org.deveasy.test.core.cloud.TestCloudConfig;
+import org.deveasy.test.core.cloud.capability.Listener;
+import org.deveasy.test.core.cloud.capability.ListenerOptions;
+import org.deveasy.test.core.cloud.capability.Message;
 import org.deveasy.test.core.cloud.capability.PubSub;
+import org.testcontainers.containers.localstack.LocalStackContainer;
 import software.amazon.awssdk.services.sns.SnsClient;
 import software.amazon.awssdk.services.sns.model.*;
 import software.amazon.awssdk.services.sqs.SqsClient;
@@ -19,36 +23,46 @@ import software.amazon.awssdk.services.sqs.model.SetQueueAttributesRequest;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
+/**
+ * SNS topics fanned out to SQS queues. Topic ARNs are cached per name; they come straight from the idempotent
+ * {@code CreateTopic} call, so publishing never has to page through {@code ListTopics}.
+ */
 public final class AwsPubSub implements PubSub {
 
     private final TestCloudConfig cfg;
     private final SnsClient sns;
     private final SqsClient sqs;
+    private final AwsQueue queue;
+    private final Map<String, String> topicArns = new ConcurrentHashMap<>();
 
     public AwsPubSub(TestCloudConfig cfg) {
         this.cfg = cfg;
         if (cfg.mode() == CloudMode.EMULATOR) {
-            LocalStackHolder.ensureStartedSns();
+            LocalStackHolder.endpoint(LocalStackContainer.Service.SNS, cfg);
         }
         this.sns = AwsClients.sns(cfg);
         this.sqs = AwsClients.sqs(cfg);
+        this.queue = new AwsQueue(cfg);
     }
 
     @Override
     public void ensureTopic(String name) {
-        // Try to find topic by name
-        String arn = findTopicArnByName(name);
-        if (arn != null) return;
-        // Create topic if not found
-        sns.createTopic(CreateTopicRequest.builder().name(name).build());
+        // CreateTopic is idempotent and returns the ARN of an existing topic with the same name
+        createTopic(name);
     }
 
     @Override
     public void deleteTopic(String name) {
-        String arn = findTopicArnByName(name);
+        // Only list when the ARN is unknown; deleting must not create the topic as a side effect
+        String cached = topicArns.remove(name);
+        String arn = cached != null ? cached : findTopicArnByName(name);
         if (arn == null) return; // ignore if not exists
         try {
             sns.deleteTopic(DeleteTopicRequest.builder().topicArn(arn).build());
@@ -95,27 +109,105 @@ public final class AwsPubSub implements PubSub {
             .build());
     }
 
+    @Override
+    public void deleteSubscription(String topic, String subscription) {
+        if (subscription == null || subscription.isBlank()) {
+            throw new IllegalArgumentException("subscription must not be null or blank");
+        }
+        String cached = topicArns.get(topic);
+        String topicArn = cached != null ? cached : findTopicArnByName(topic);
+        if (topicArn == null) return; // no topic, no subscription
+        // Match on the queue ARN suffix so the subscription can be removed even after its queue was deleted
+        String suffix = ":" + subscription;
+        try {
+            for (Subscription s : sns.listSubscriptionsByTopicPaginator(
+                    ListSubscriptionsByTopicRequest.builder().topicArn(topicArn).build()).subscriptions()) {
+                if ("sqs".equals(s.protocol()) && s.endpoint() != null && s.endpoint().endsWith(suffix)
+                    && s.subscriptionArn() != null && s.subscriptionArn().startsWith("arn:")) {
+                    sns.unsubscribe(UnsubscribeRequest.builder().subscriptionArn(s.subscriptionArn()).build());
+                }
+            }
+        } catch (SnsException e) {
+            // topic deleted concurrently
+            if (!isNotFound(e)) throw e;
+        }
+    }
+
     @Override
     public void publish(String topic, String body) {
+        send(topic, PublishRequest.builder().message(body));
+    }
+
+    /**
+     * Publishes with string message attributes, which raw delivery passes on to the subscribed queues. SNS has no
+     * per-message delay.
+     */
+    @Override
+    public void publish(String topic, Message message) {
+        if (message == null) {
+            throw new IllegalArgumentException("message must not be null");
+        }
+        if (!message.delay().isZero()) {
+            throw new UnsupportedOperationException("SNS does not support delaying a published message");
+        }
+        PublishRequest.Builder request = PublishRequest.builder()
+            .message(message.body())
+            .messageGroupId(message.groupId())
+            .messageDeduplicationId(message.deduplicationId());
+        if (!message.attributes().isEmpty()) {
+            Map<String, MessageAttributeValue> attributes = new LinkedHashMap<>();
+            message.attributes().forEach((k, v) ->
+                attributes.put(k, MessageAttributeValue.builder().dataType("String").stringValue(v).build()));
+            request.messageAttributes(attributes);
+        }
+        send(topic, request);
+    }
+
+    private void send(String topic, PublishRequest.Builder request) {
+        SqsSupport.fifoDefaults(topic, request);
         String topicArn = ensureAndGetTopicArn(topic);
-        sns.publish(PublishRequest.builder().topicArn(topicArn).message(body).build());
+        try {
+            sns.publish(request.topicArn(topicArn).build());
+        } catch (NotFoundException e) {
+            // Topic deleted behind our back: drop the stale ARN, re-create and retry once
+            topicArns.remove(topic, topicArn);
+            sns.publish(request.topicArn(createTopic(topic)).build());
+        }
     }
 
     @Override
     public Optional<String> receive(String subscription) {
         // Delegate to SQS-backed queue; subscription is queue name
-        return new AwsQueue(cfg).receive(subscription);
+        return queue.receive(subscription);
     }
 
     @Override
     public Optional<String> receive(String subscription, Duration timeout) {
-        return new AwsQueue(cfg).receive(subscription, timeout);
+        return queue.receive(subscription, timeout);
+    }
+
+    @Override
+    public Optional<Message> receiveMessage(String subscription, Duration timeout) {
+        return queue.receiveMessage(subscription, timeout);
+    }
+
+    @Override
+    public Listener subscribe(String subscription, Consumer<Message> handler, ListenerOptions options) {
+        return queue.subscribe(subscription, handler, options);
     }
 
     private String ensureAndGetTopicArn(String name) {
-        String arn = findTopicArnByName(name);
-        if (arn != null) return arn;
-        CreateTopicResponse created = sns.createTopic(CreateTopicRequest.builder().name(name).build());
+        String cached = topicArns.get(name);
+        return cached != null ? cached : createTopic(name);
+    }
+
+    private String createTopic(String name) {
+        CreateTopicRequest.Builder create = CreateTopicRequest.builder().name(name);
+        if (SqsSupport.isFifo(name)) {
+            create.attributes(Map.of("FifoTopic", "true"));
+        }
+        CreateTopicResponse created = sns.createTopic(create.build());
+        topicArns.put(name, created.topicArn());
         return created.topicArn();
     }
 
@@ -4,37 +4,75 @@
 package org.deveasy.test.cloud.aws;
 
 import org.deveasy.test.core.cloud.TestCloudConfig;
+import org.deveasy.test.core.cloud.capability.Listener;
+import org.deveasy.test.core.cloud.capability.ListenerOptions;
+import org.deveasy.test.core.cloud.capability.PollingListener;
 import org.deveasy.test.core.cloud.capability.Queue;
 import org.deveasy.test.cloud.aws.internal.AwsClients;
 import software.amazon.awssdk.services.sqs.SqsClient;
 import software.amazon.awssdk.services.sqs.model.CreateQueueRequest;
+import software.amazon.awssdk.services.sqs.model.CreateQueueResponse;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchResponse;
 import software.amazon.awssdk.services.sqs.model.DeleteMessageRequest;
 import software.amazon.awssdk.services.sqs.model.DeleteQueueRequest;
 import software.amazon.awssdk.services.sqs.model.GetQueueUrlRequest;
 import software.amazon.awssdk.services.sqs.model.GetQueueUrlResponse;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+import software.amazon.awssdk.services.sqs.model.QueueAttributeName;
 import software.amazon.awssdk.services.sqs.model.QueueDoesNotExistException;
-import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
 import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
 import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
 import software.amazon.awssdk.services.sqs.model.Message;
 import software.amazon.awssdk.services.sqs.model.SqsException;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static org.deveasy.test.cloud.aws.SqsSupport.MAX_BATCH;
+import static org.deveasy.test.cloud.aws.SqsSupport.STOP;
+import static org.deveasy.test.cloud.aws.SqsSupport.chunks;
+import static org.deveasy.test.cloud.aws.SqsSupport.deleteRequest;
+import static org.deveasy.test.cloud.aws.SqsSupport.failedDeletes;
+import static org.deveasy.test.cloud.aws.SqsSupport.failedSends;
+import static org.deveasy.test.cloud.aws.SqsSupport.fifoDefaults;
+import static org.deveasy.test.cloud.aws.SqsSupport.isFifo;
+import static org.deveasy.test.cloud.aws.SqsSupport.receiveRequest;
+import static org.deveasy.test.cloud.aws.SqsSupport.receiveWait;
 
 /**
  * Minimal SQS-backed Queue implementation with delete-on-receive semantics.
+ * Resolved queue URLs are cached per instance; the cache is refreshed by {@link #ensureQueue(String)} and
+ * invalidated by {@link #deleteQueue(String)} or when SQS reports the queue no longer exists.
+ * <p>
+ * Names ending in {@code .fifo} create FIFO queues. Sends that do not set a message group use
+ * {@value SqsSupport#DEFAULT_GROUP_ID}, and sends without a deduplication ID get a random one, so every plain send is
+ * delivered in order.
+ * </p>
  */
 public final class AwsQueue implements Queue {
 
     private final TestCloudConfig cfg;
     private final SqsClient sqs;
+    private final Map<String, String> queueUrls = new ConcurrentHashMap<>();
 
     public AwsQueue(TestCloudConfig cfg) {
+        this(cfg, AwsClients.sqs(cfg));
+    }
+
+    /** Uses {@code sqs} as is; for tests that count or stub the SQS calls. */
+    AwsQueue(TestCloudConfig cfg, SqsClient sqs) {
         this.cfg = cfg;
-        this.sqs = AwsClients.sqs(cfg);
+        this.sqs = sqs;
     }
 
     @Override
@@ -44,9 +82,9 @@ public final class AwsQueue implements Queue {
         SqsException last = null;
         int attempt = 0;
         while (Instant.now().isBefore(deadline)) {
-            // 1) Try to resolve existing queue URL (fast path)
+            // 1) Try to resolve existing queue URL (fast path); bypass the cache so a stale entry cannot hide a deleted queue
             try {
-                getQueueUrl(name);
+                resolveQueueUrl(name);
                 return; // exists
             } catch (QueueDoesNotExistException e) {
                 // proceed to creation path
@@ -57,8 +95,16 @@ public final class AwsQueue implements Queue {
 
             // 2) Try to create the queue (idempotent; safe if it already exists)
             try {
-                sqs.createQueue(CreateQueueRequest.builder().queueName(name).build());
-                // After create, loop will re-try getQueueUrl and return
+                CreateQueueRequest.Builder create = CreateQueueRequest.builder().queueName(name);
+                if (isFifo(name)) {
+                    create.attributes(Map.of(QueueAttributeName.FIFO_QUEUE, "true"));
+                }
+                CreateQueueResponse created = sqs.createQueue(create.build());
+                if (created.queueUrl() != null) {
+                    queueUrls.put(name, created.queueUrl());
+                    return;
+                }
+                // No URL returned; loop will re-try getQueueUrl and return
             } catch (SqsException e) {
                 last = e;
                 // ignore and retry until deadline (e.g., 500 during warm-up)
@@ -70,7 +116,7 @@ public final class AwsQueue implements Queue {
 
         // One last attempt to resolve before giving up
         try {
-            getQueueUrl(name);
+            resolveQueueUrl(name);
         } catch (SqsException e) {
             if (last != null) throw last;
             throw e;
@@ -84,13 +130,45 @@ public final class AwsQueue implements Queue {
             sqs.deleteQueue(DeleteQueueRequest.builder().queueUrl(url).build());
         } catch (QueueDoesNotExistException ignored) {
             // Queue doesn't exist; deletion is idempotent, so this is acceptable
+        } finally {
+            queueUrls.remove(name);
         }
     }
 
     @Override
     public void send(String queue, String body) {
+        send(queue, SendMessageRequest.builder().messageBody(body));
+    }
+
+    @Override
+    public void send(String queue, org.deveasy.test.core.cloud.capability.Message message) {
+        if (message == null) {
+            throw new IllegalArgumentException("message must not be null");
+        }
+        SendMessageRequest.Builder request = SendMessageRequest.builder()
+            .messageBody(message.body())
+            .messageGroupId(message.groupId())
+            .messageDeduplicationId(message.deduplicationId());
+        if (!message.attributes().isEmpty()) {
+            request.messageAttributes(attributes(message.attributes()));
+        }
+        if (!message.delay().isZero()) {
+            // SQS delays in whole seconds; round up so the message is never visible early
+            long seconds = message.delay().getSeconds() + (message.delay().getNano() > 0 ? 1 : 0);
+            request.delaySeconds((int) Math.min(Integer.MAX_VALUE, seconds));
+        }
+        send(queue, request);
+    }
+
+    private void send(String queue, SendMessageRequest.Builder request) {
+        fifoDefaults(queue, request);
         String url = getQueueUrl(queue);
-        sqs.sendMessage(SendMessageRequest.builder().queueUrl(url).messageBody(body).build());
+        try {
+            sqs.sendMessage(request.queueUrl(url).build());
+        } catch (QueueDoesNotExistException e) {
+            queueUrls.remove(queue);
+            throw e;
+        }
     }
 
     @Override
@@ -101,28 +179,198 @@ public final class AwsQueue implements Queue {
     @Override
     public Optional<String> receive(String queue, Duration timeout) {
         String url = getQueueUrl(queue);
+        try {
+            List<Message> msgs = receiveAndDelete(url, 1, timeout);
+            return msgs.isEmpty() ? Optional.empty() : Optional.ofNullable(msgs.get(0).body());
+        } catch (QueueDoesNotExistException e) {
+            queueUrls.remove(queue);
+            throw e;
+        }
+    }
+
+    @Override
+    public Optional<org.deveasy.test.core.cloud.capability.Message> receiveMessage(String queue, Duration timeout) {
+        List<org.deveasy.test.core.cloud.capability.Message> msgs = receiveMessages(queue, 1, timeout);
+        return msgs.isEmpty() ? Optional.empty() : Optional.of(msgs.get(0));
+    }
+
+    @Override
+    public List<org.deveasy.test.core.cloud.capability.Message> receiveMessages(String queue, int max, Duration timeout) {
+        if (max < 1) {
+            throw new IllegalArgumentException("max must be positive");
+        }
+        String url = getQueueUrl(queue);
+        try {
+            List<Message> msgs = receiveAndDelete(url, max, timeout);
+            Instant now = Instant.now();
+            List<org.deveasy.test.core.cloud.capability.Message> out = new ArrayList<>(msgs.size());
+            for (Message m : msgs) out.add(toMessage(m, now));
+            return out;
+        } catch (QueueDoesNotExistException e) {
+            queueUrls.remove(queue);
+            throw e;
+        }
+    }
+
+    @Override
+    public void sendBatch(String queue, List<String> bodies) {
+        if (bodies == null) {
+            throw new IllegalArgumentException("bodies must not be null");
+        }
+        if (bodies.isEmpty()) return;
+        String url = getQueueUrl(queue);
+        try {
+            for (List<SendMessageBatchRequestEntry> chunk : chunks(queue, bodies)) {
+                sendChunk(url, chunk);
+            }
+        } catch (QueueDoesNotExistException e) {
+            queueUrls.remove(queue);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<String> receiveBatch(String queue, int max, Duration timeout) {
+        if (max < 1) {
+            throw new IllegalArgumentException("max must be positive");
+        }
+        String url = getQueueUrl(queue);
+        try {
+            List<Message> msgs = receiveAndDelete(url, max, timeout);
+            List<String> bodies = new ArrayList<>(msgs.size());
+            for (Message m : msgs) bodies.add(m.body());
+            return bodies;
+        } catch (QueueDoesNotExistException e) {
+            queueUrls.remove(queue);
+            throw e;
+        }
+    }
+
+    /**
+     * Receives without deleting and deletes only the messages the handler completed, with DeleteMessageBatch.
+     * Messages the handler throws for become visible again after the visibility timeout and are redelivered.
+     */
+    @Override
+    public Listener subscribe(String queue, Consumer<org.deveasy.test.core.cloud.capability.Message> handler,
+                              ListenerOptions options) {
+        if (queue == null || queue.isBlank()) {
+            throw new IllegalArgumentException("queue must not be null or blank");
+        }
+        getQueueUrl(queue); // fail fast on a missing queue rather than in the poller
+        return PollingListener.start(queue, new PollingListener.Source<Message>() {
+            @Override
+            public List<Message> poll(int max, Duration wait) {
+                String url = getQueueUrl(queue);
+                try {
+                    // A listener polls in a loop, so round sub-second waits up rather than spin on short polls
+                    int waitSeconds = (int) Math.max(1, Math.min(20, wait.getSeconds()));
+                    List<Message> msgs = sqs.receiveMessage(receiveRequest(url, max, waitSeconds)).messages();
+                    return msgs == null ? List.of() : msgs;
+                } catch (QueueDoesNotExistException e) {
+                    queueUrls.remove(queue);
+                    throw e;
+                }
+            }
+
+            @Override
+            public org.deveasy.test.core.cloud.capability.Message message(Message raw) {
+                return toMessage(raw, Instant.now());
+            }
+
+            @Override
+            public void ack(List<Message> handled) {
+                String url = getQueueUrl(queue);
+                for (int i = 0; i < handled.size(); i += MAX_BATCH) {
+                    deleteBatch(url, handled.subList(i, Math.min(handled.size(), i + MAX_BATCH)));
+                }
+            }
+        }, handler, options);
+    }
+
+    private void sendChunk(String url, List<SendMessageBatchRequestEntry> entries) {
+        SendMessageBatchResponse resp = sqs.sendMessageBatch(SendMessageBatchRequest.builder()
+            .queueUrl(url)
+            .entries(entries)
+            .build());
+        // Server-side failures are retried one entry at a time
+        for (SendMessageRequest retry : failedSends(url, entries, resp)) {
+            sqs.sendMessage(retry);
+        }
+    }
+
+    /**
+     * Long-polls until the first messages arrive or the timeout expires, then keeps pulling whatever is
+     * immediately available up to {@code max}; see {@link SqsSupport#receiveWait} for the waits. Every received
+     * batch is removed with one DeleteMessageBatch call.
+     */
+    private List<Message> receiveAndDelete(String url, int max, Duration timeout) {
+        List<Message> out = new ArrayList<>();
         Instant end = Instant.now().plus(timeout);
-        while (Instant.now().isBefore(end)) {
-            int wait = (int) Math.max(1, Math.min(20, Duration.between(Instant.now(), end).getSeconds()));
-            ReceiveMessageResponse resp = sqs.receiveMessage(ReceiveMessageRequest.builder()
-                .queueUrl(url)
-                .maxNumberOfMessages(1)
-                .waitTimeSeconds(wait)
-                .visibilityTimeout(30)
-                .build());
+        boolean polled = false;
+        while (out.size() < max) {
+            int wait = receiveWait(end, out.size(), polled);
+            if (wait == STOP) break;
+            polled = true;
+            ReceiveMessageResponse resp = sqs.receiveMessage(receiveRequest(url, max - out.size(), wait));
             List<Message> msgs = resp.messages();
-            if (msgs != null && !msgs.isEmpty()) {
-                Message m = msgs.get(0);
-                // delete-on-receive semantics
-                sqs.deleteMessage(DeleteMessageRequest.builder().queueUrl(url).receiptHandle(m.receiptHandle()).build());
-                return Optional.ofNullable(m.body());
+            if (msgs == null || msgs.isEmpty()) {
+                if (!out.isEmpty()) break; // nothing more immediately available
+                continue;
             }
+            // delete-on-receive semantics
+            deleteBatch(url, msgs);
+            out.addAll(msgs);
+        }
+        return out;
+    }
+
+    private void deleteBatch(String url, List<Message> msgs) {
+        DeleteMessageBatchResponse resp = sqs.deleteMessageBatch(deleteRequest(url, msgs));
+        for (DeleteMessageRequest delete : failedDeletes(url, msgs, resp)) {
+            sqs.deleteMessage(delete);
+        }
+    }
+
+    private static Map<String, MessageAttributeValue> attributes(Map<String, String> attributes) {
+        Map<String, MessageAttributeValue> out = new LinkedHashMap<>(attributes.size() * 4 / 3 + 1);
+        attributes.forEach((k, v) -> out.put(k, MessageAttributeValue.builder().dataType("String").stringValue(v).build()));
+        return out;
+    }
+
+    /** Maps the user attributes with a string form and the system attributes the core type knows about. */
+    static org.deveasy.test.core.cloud.capability.Message toMessage(Message raw, Instant receivedAt) {
+        org.deveasy.test.core.cloud.capability.Message.Builder b = org.deveasy.test.core.cloud.capability.Message
+            .builder(raw.body())
+            .id(raw.messageId())
+            .receivedAt(receivedAt);
+        if (raw.hasMessageAttributes()) {
+            raw.messageAttributes().forEach((k, v) -> {
+                if (v.stringValue() != null) b.attribute(k, v.stringValue()); // binary attributes are skipped
+            });
         }
-        return Optional.empty();
+        Map<String, String> system = raw.attributesAsStrings();
+        String receiveCount = system.get("ApproximateReceiveCount");
+        if (receiveCount != null) b.receiveCount(Integer.parseInt(receiveCount));
+        String sentTimestamp = system.get("SentTimestamp");
+        if (sentTimestamp != null) b.sentAt(Instant.ofEpochMilli(Long.parseLong(sentTimestamp)));
+        return b.groupId(system.get("MessageGroupId"))
+            .deduplicationId(system.get("MessageDeduplicationId"))
+            .build();
     }
 
     private String getQueueUrl(String name) {
-        GetQueueUrlResponse res = sqs.getQueueUrl(GetQueueUrlRequest.builder().queueName(name).build());
-        return res.queueUrl();
+        String cached = queueUrls.get(name);
+        return cached != null ? cached : resolveQueueUrl(name);
+    }
+
+    private String resolveQueueUrl(String name) {
+        try {
+            GetQueueUrlResponse res = sqs.getQueueUrl(GetQueueUrlRequest.builder().queueName(name).build());
+            queueUrls.put(name, res.queueUrl());
+            return res.queueUrl();
+        } catch (QueueDoesNotExistException e) {
+            queueUrls.remove(name);
+            throw e;
+        }
     }
 }
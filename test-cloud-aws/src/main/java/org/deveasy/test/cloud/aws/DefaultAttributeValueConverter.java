@@ -0,0 +1,186 @@
+/*
+ * Default AttributeValue conversion used by AwsDynamoDB.
+ */
+package org.deveasy.test.cloud.aws;
+
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Default {@link AttributeValueConverter}.
+ * <p>
+ * Writes: {@code String} as S; {@code Number} as N; {@code Boolean} as BOOL; {@code byte[]}, {@link SdkBytes} and
+ * {@link ByteBuffer} as B; enums as S by name; {@code Map} as M and any other {@code Collection} as L (recursively);
+ * {@link AttributeValue} as-is; anything else as S via {@code toString()}.
+ * </p>
+ * <p>
+ * Reads: N as {@code Integer}, {@code Long}, {@code Double} or, beyond {@code long} range, {@code BigDecimal};
+ * M as {@code LinkedHashMap}; L as {@code ArrayList}; SS/NS as {@code LinkedHashSet}; BS as a list of {@code byte[]}.
+ * Result maps and lists are allocated at their final size.
+ * </p>
+ */
+public class DefaultAttributeValueConverter implements AttributeValueConverter {
+
+    static final DefaultAttributeValueConverter INSTANCE = new DefaultAttributeValueConverter();
+
+    private static final AttributeValue NULL = AttributeValue.builder().nul(true).build();
+    private static final AttributeValue TRUE = AttributeValue.builder().bool(true).build();
+    private static final AttributeValue FALSE = AttributeValue.builder().bool(false).build();
+
+    @Override
+    public Map<String, AttributeValue> toAttributes(Map<String, Object> item) {
+        Map<String, AttributeValue> out = new HashMap<>(capacity(item.size()));
+        for (Map.Entry<String, Object> e : item.entrySet()) {
+            Object v = e.getValue();
+            if (v != null) {
+                out.put(e.getKey(), toAttributeValue(v));
+            }
+        }
+        return out;
+    }
+
+    @Override
+    public Map<String, Object> fromAttributes(Map<String, AttributeValue> item) {
+        Map<String, Object> out = new LinkedHashMap<>(capacity(item.size()));
+        for (Map.Entry<String, AttributeValue> e : item.entrySet()) {
+            out.put(e.getKey(), fromAttributeValue(e.getValue()));
+        }
+        return out;
+    }
+
+    @Override
+    public AttributeValue toAttributeValue(Object v) {
+        if (v == null) return NULL;
+        if (v instanceof String) return AttributeValue.builder().s((String) v).build();
+        if (v instanceof Number) return AttributeValue.builder().n(numberString((Number) v)).build();
+        if (v instanceof Boolean) return (Boolean) v ? TRUE : FALSE;
+        if (v instanceof AttributeValue) return (AttributeValue) v;
+        if (v instanceof byte[]) return AttributeValue.builder().b(SdkBytes.fromByteArray((byte[]) v)).build();
+        if (v instanceof SdkBytes) return AttributeValue.builder().b((SdkBytes) v).build();
+        if (v instanceof ByteBuffer) return AttributeValue.builder().b(SdkBytes.fromByteBuffer((ByteBuffer) v)).build();
+        if (v instanceof Enum) return AttributeValue.builder().s(((Enum<?>) v).name()).build();
+        if (v instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) v;
+            Map<String, AttributeValue> m = new HashMap<>(capacity(map.size()));
+            for (Map.Entry<?, ?> e : map.entrySet()) {
+                m.put(String.valueOf(e.getKey()), toAttributeValue(e.getValue()));
+            }
+            return AttributeValue.builder().m(m).build();
+        }
+        if (v instanceof Collection) {
+            Collection<?> c = (Collection<?>) v;
+            List<AttributeValue> l = new ArrayList<>(c.size());
+            for (Object o : c) {
+                l.add(toAttributeValue(o));
+            }
+            return AttributeValue.builder().l(l).build();
+        }
+        return AttributeValue.builder().s(v.toString()).build();
+    }
+
+    @Override
+    public Object fromAttributeValue(AttributeValue v) {
+        if (v == null) return null;
+        switch (v.type()) {
+            case S:
+                return v.s();
+            case N:
+                return parseNumber(v.n());
+            case BOOL:
+                return v.bool();
+            case B:
+                return v.b().asByteArray();
+            case M: {
+                Map<String, AttributeValue> m = v.m();
+                Map<String, Object> out = new LinkedHashMap<>(capacity(m.size()));
+                for (Map.Entry<String, AttributeValue> e : m.entrySet()) {
+                    out.put(e.getKey(), fromAttributeValue(e.getValue()));
+                }
+                return out;
+            }
+            case L: {
+                List<AttributeValue> l = v.l();
+                List<Object> out = new ArrayList<>(l.size());
+                for (AttributeValue av : l) {
+                    out.add(fromAttributeValue(av));
+                }
+                return out;
+            }
+            case SS:
+                return new LinkedHashSet<>(v.ss());
+            case NS: {
+                Set<Object> out = new LinkedHashSet<>(capacity(v.ns().size()));
+                for (String n : v.ns()) {
+                    out.add(parseNumber(n));
+                }
+                return out;
+            }
+            case BS: {
+                List<byte[]> out = new ArrayList<>(v.bs().size());
+                for (SdkBytes b : v.bs()) {
+                    out.add(b.asByteArray());
+                }
+                return out;
+            }
+            default:
+                // NUL, or a type newer than this SDK
+                return null;
+        }
+    }
+
+    /**
+     * Parses a DynamoDB number in a single pass: integral values become {@code Integer} when they fit, otherwise
+     * {@code Long} or {@code BigDecimal}; values with a fraction or exponent become {@code Double}.
+     *
+     * @param n the number as sent by DynamoDB
+     * @return the parsed number, or {@code n} itself if it is not a valid number
+     */
+    protected Object parseNumber(String n) {
+        int len = n.length();
+        boolean integral = len > 0;
+        for (int i = 0; i < len && integral; i++) {
+            char c = n.charAt(i);
+            integral = (c >= '0' && c <= '9') || (i == 0 && len > 1 && (c == '-' || c == '+'));
+        }
+        try {
+            if (!integral) {
+                return Double.parseDouble(n);
+            }
+            // up to 9 digits always fits an int, so skip the long detour
+            if (len < 10) {
+                return Integer.parseInt(n);
+            }
+            if (len <= 20) {
+                try {
+                    long l = Long.parseLong(n);
+                    if (l >= Integer.MIN_VALUE && l <= Integer.MAX_VALUE) return (int) l;
+                    return l;
+                } catch (NumberFormatException overflow) {
+                    // fall through to BigDecimal
+                }
+            }
+            return new BigDecimal(n);
+        } catch (NumberFormatException e) {
+            return n; // fallback to string
+        }
+    }
+
+    private static String numberString(Number n) {
+        return n instanceof BigDecimal ? ((BigDecimal) n).toPlainString() : n.toString();
+    }
+
+    static int capacity(int size) {
+        return size * 4 / 3 + 1;
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Maps DynamoDB items straight to and from user records and POJOs.
+ */
+package org.deveasy.test.cloud.aws;
+
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reflective codec between DynamoDB items and a record or POJO type, so typed reads skip the intermediate
+ * {@code Map<String,Object>}. Codecs are built once per class and cached.
+ * <p>
+ * Records are decoded through their canonical constructor and encoded through their component accessors. Other
+ * classes need a no-arg constructor; every non-static, non-transient field (including inherited ones) is mapped,
+ * using the field name as the attribute name. Scalars ({@code String}, primitives and their wrappers,
+ * {@code BigDecimal}, {@code BigInteger}, {@code byte[]}, enums) are converted directly from the attribute value;
+ * {@code Map}/{@code Collection}/{@code Object} properties go through the {@link AttributeValueConverter}; properties
+ * of any other type are treated as nested records/POJOs stored as M. Missing attributes leave POJO fields untouched
+ * and pass {@code null} (or zero/{@code false} for primitives) to record constructors.
+ * </p>
+ *
+ * @param <T> the mapped type
+ */
+public final class ItemCodec<T> {
+
+    private static final ClassValue<ItemCodec<?>> CODECS = new ClassValue<>() {
+        @Override
+        protected ItemCodec<?> computeValue(Class<?> type) {
+            return new ItemCodec<>(type);
+        }
+    };
+
+    private final Class<T> type;
+    private final Constructor<T> constructor;
+    private final Property[] properties;
+    private final boolean record;
+
+    /**
+     * Returns the cached codec for {@code type}.
+     *
+     * @param type a record, or a class with a no-arg constructor
+     * @param <T> the mapped type
+     * @return the codec
+     * @throws IllegalArgumentException if {@code type} cannot be mapped
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ItemCodec<T> of(Class<T> type) {
+        if (type == null) {
+            throw new IllegalArgumentException("type must not be null");
+        }
+        return (ItemCodec<T>) CODECS.get(type);
+    }
+
+    private ItemCodec(Class<T> type) {
+        this.type = type;
+        this.record = type.isRecord();
+        List<Property> props = new ArrayList<>();
+        try {
+            if (record) {
+                RecordComponent[] components = type.getRecordComponents();
+                Class<?>[] parameterTypes = new Class<?>[components.length];
+                for (int i = 0; i < components.length; i++) {
+                    Method accessor = components[i].getAccessor();
+                    accessor.setAccessible(true);
+                    parameterTypes[i] = components[i].getType();
+                    props.add(new Property(components[i].getName(), components[i].getType(), null, accessor));
+                }
+                this.constructor = type.getDeclaredConstructor(parameterTypes);
+            } else {
+                if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+                    throw new IllegalArgumentException("Cannot map abstract type " + type.getName());
+                }
+                for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                    for (Field f : c.getDeclaredFields()) {
+                        int mod = f.getModifiers();
+                        if (Modifier.isStatic(mod) || Modifier.isTransient(mod) || f.isSynthetic()) continue;
+                        f.setAccessible(true);
+                        props.add(new Property(f.getName(), f.getType(), f, null));
+                    }
+                }
+                this.constructor = type.getDeclaredConstructor();
+            }
+            constructor.setAccessible(true);
+        } catch (NoSuchMethodException | RuntimeException e) {
+            throw new IllegalArgumentException("Cannot map " + type.getName()
+                + " (records need their canonical constructor, other classes a no-arg constructor)", e);
+        }
+        this.properties = props.toArray(new Property[0]);
+    }
+
+    /**
+     * Builds an instance from a DynamoDB item.
+     *
+     * @param item the DynamoDB item
+     * @param converter converter for untyped ({@code Map}/{@code Collection}/{@code Object}) properties
+     * @return the instance
+     * @throws IllegalArgumentException if an attribute cannot be converted to its property type
+     */
+    public T decode(Map<String, AttributeValue> item, AttributeValueConverter converter) {
+        try {
+            if (record) {
+                Object[] args = new Object[properties.length];
+                for (int i = 0; i < properties.length; i++) {
+                    Property p = properties[i];
+                    args[i] = decodeValue(item.get(p.name), p.type, converter);
+                }
+                return constructor.newInstance(args);
+            }
+            T out = constructor.newInstance();
+            for (Property p : properties) {
+                AttributeValue av = item.get(p.name);
+                if (av != null) {
+                    p.field.set(out, decodeValue(av, p.type, converter));
+                }
+            }
+            return out;
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalArgumentException("Failed to build " + type.getName() + " from item", e);
+        }
+    }
+
+    /**
+     * Converts an instance to a DynamoDB item. {@code null} properties are omitted.
+     *
+     * @param value the instance
+     * @param converter converter for untyped ({@code Map}/{@code Collection}/{@code Object}) properties
+     * @return the DynamoDB item
+     */
+    public Map<String, AttributeValue> encode(T value, AttributeValueConverter converter) {
+        if (value == null) {
+            throw new IllegalArgumentException("value must not be null");
+        }
+        Map<String, AttributeValue> out = new HashMap<>(DefaultAttributeValueConverter.capacity(properties.length));
+        try {
+            for (Property p : properties) {
+                Object v = p.get(value);
+                if (v != null) {
+                    out.put(p.name, encodeValue(v, converter));
+                }
+            }
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalArgumentException("Failed to read " + type.getName(), e);
+        }
+        return out;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object decodeValue(AttributeValue av, Class<?> target, AttributeValueConverter converter) {
+        if (av == null || Boolean.TRUE.equals(av.nul())) {
+            return target.isPrimitive() ? primitiveDefault(target) : null;
+        }
+        try {
+            if (target == String.class) return av.s() != null ? av.s() : String.valueOf(converter.fromAttributeValue(av));
+            if (target == int.class || target == Integer.class) return Integer.valueOf(av.n());
+            if (target == long.class || target == Long.class) return Long.valueOf(av.n());
+            if (target == double.class || target == Double.class) return Double.valueOf(av.n());
+            if (target == boolean.class || target == Boolean.class) return av.bool();
+            if (target == float.class || target == Float.class) return Float.valueOf(av.n());
+            if (target == short.class || target == Short.class) return Short.valueOf(av.n());
+            if (target == byte.class || target == Byte.class) return Byte.valueOf(av.n());
+            if (target == char.class || target == Character.class) return av.s().charAt(0);
+            if (target == BigDecimal.class) return new BigDecimal(av.n());
+            if (target == BigInteger.class) return new BigInteger(av.n());
+            if (target == byte[].class) return av.b().asByteArray();
+            if (target == SdkBytes.class) return av.b();
+            if (target.isEnum()) return Enum.valueOf((Class<? extends Enum>) target, av.s());
+            if (target == AttributeValue.class) return av;
+            if (target == Object.class || Map.class.isAssignableFrom(target) || Collection.class.isAssignableFrom(target)) {
+                Object v = converter.fromAttributeValue(av);
+                if (v instanceof Collection && Set.class.isAssignableFrom(target) && !(v instanceof Set)) {
+                    return new LinkedHashSet<>((Collection<?>) v);
+                }
+                if (v instanceof Set && List.class.isAssignableFrom(target)) {
+                    return new ArrayList<>((Set<?>) v);
+                }
+                return v;
+            }
+            if (av.hasM()) return of(target).decode(av.m(), converter);
+        } catch (NullPointerException | NumberFormatException | IndexOutOfBoundsException e) {
+            // accessor returned null (wrong attribute type) or the number does not fit
+            throw new IllegalArgumentException("Cannot convert " + av + " to " + target.getName(), e);
+        }
+        throw new IllegalArgumentException("Cannot convert " + av + " to " + target.getName());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AttributeValue encodeValue(Object v, AttributeValueConverter converter) {
+        if (isSimple(v)) {
+            return converter.toAttributeValue(v);
+        }
+        return AttributeValue.builder().m(((ItemCodec<Object>) of(v.getClass())).encode(v, converter)).build();
+    }
+
+    private static boolean isSimple(Object v) {
+        return v instanceof CharSequence || v instanceof Number || v instanceof Boolean || v instanceof Character
+            || v instanceof Enum || v instanceof byte[] || v instanceof SdkBytes || v instanceof AttributeValue
+            || v instanceof Map || v instanceof Collection;
+    }
+
+    private static Object primitiveDefault(Class<?> type) {
+        if (type == boolean.class) return false;
+        if (type == char.class) return '\0';
+        if (type == long.class) return 0L;
+        if (type == double.class) return 0d;
+        if (type == float.class) return 0f;
+        if (type == short.class) return (short) 0;
+        if (type == byte.class) return (byte) 0;
+        return 0;
+    }
+
+    private static final class Property {
+        final String name;
+        final Class<?> type;
+        final Field field;      // POJOs
+        final Method accessor;  // records
+
+        Property(String name, Class<?> type, Field field, Method accessor) {
+            this.name = name;
+            this.type = type;
+            this.field = field;
+            this.accessor = accessor;
+        }
+
+        Object get(Object target) throws IllegalAccessException, InvocationTargetException {
+            return field != null ? field.get(target) : accessor.invoke(target);
+        }
+    }
+}
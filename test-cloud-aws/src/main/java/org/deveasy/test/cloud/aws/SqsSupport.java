@@ -0,0 +1,201 @@
+/*
+ * Copyright 2025
+ * Apache License, Version 2.0
+ */
+package org.deveasy.test.cloud.aws;
+
+import software.amazon.awssdk.services.sns.model.PublishRequest;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageRequest;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Request building shared by the blocking and async SQS and SNS capabilities, so both follow the same FIFO rules,
+ * batch limits, receive deadlines and partial-failure handling; the capabilities only differ in how they issue the
+ * calls.
+ * <p>
+ * Names ending in {@code .fifo} denote FIFO queues and topics. Sends to them that do not set a message group use
+ * {@value #DEFAULT_GROUP_ID}, and sends without a deduplication ID get a random one, so every plain send is
+ * delivered in order.
+ * </p>
+ */
+final class SqsSupport {
+
+    /** Message group of FIFO sends that do not choose one. */
+    static final String DEFAULT_GROUP_ID = "default";
+    /** SQS maximum entries per SendMessageBatch/ReceiveMessage/DeleteMessageBatch call. */
+    static final int MAX_BATCH = 10;
+    /** SQS maximum total payload of a SendMessageBatch call. */
+    static final int MAX_BATCH_BYTES = 256 * 1024;
+    /** Seconds a received message stays hidden from other consumers before SQS redelivers it. */
+    static final int VISIBILITY_TIMEOUT = 30;
+    /** SQS maximum long-poll wait. */
+    private static final int MAX_WAIT_SECONDS = 20;
+    /** {@link #receiveWait} result telling the caller to stop polling. */
+    static final int STOP = -1;
+
+    private SqsSupport() {}
+
+    static boolean isFifo(String name) {
+        return name != null && name.endsWith(".fifo");
+    }
+
+    /** Fills in the message group and deduplication ID a send to FIFO queue {@code queue} needs. */
+    static SendMessageRequest.Builder fifoDefaults(String queue, SendMessageRequest.Builder request) {
+        if (isFifo(queue)) {
+            SendMessageRequest r = request.build();
+            if (r.messageGroupId() == null) request.messageGroupId(DEFAULT_GROUP_ID);
+            if (r.messageDeduplicationId() == null) request.messageDeduplicationId(UUID.randomUUID().toString());
+        }
+        return request;
+    }
+
+    /** Fills in the message group and deduplication ID a publish to FIFO topic {@code topic} needs. */
+    static PublishRequest.Builder fifoDefaults(String topic, PublishRequest.Builder request) {
+        if (isFifo(topic)) {
+            PublishRequest r = request.build();
+            if (r.messageGroupId() == null) request.messageGroupId(DEFAULT_GROUP_ID);
+            if (r.messageDeduplicationId() == null) request.messageDeduplicationId(UUID.randomUUID().toString());
+        }
+        return request;
+    }
+
+    /** @return the batch entry for {@code body}, with the FIFO defaults when {@code queue} is a FIFO queue */
+    static SendMessageBatchRequestEntry batchEntry(String queue, int index, String body) {
+        SendMessageBatchRequestEntry.Builder entry = SendMessageBatchRequestEntry.builder()
+            .id(Integer.toString(index))
+            .messageBody(body);
+        if (isFifo(queue)) {
+            entry.messageGroupId(DEFAULT_GROUP_ID).messageDeduplicationId(UUID.randomUUID().toString());
+        }
+        return entry.build();
+    }
+
+    /**
+     * @return a single send of a batch entry the server failed, keeping its group and deduplication ID so the retry
+     *         stays in order and is dropped if the batch did deliver it after all
+     */
+    static SendMessageRequest retryRequest(String url, SendMessageBatchRequestEntry entry) {
+        return SendMessageRequest.builder()
+            .queueUrl(url)
+            .messageBody(entry.messageBody())
+            .messageGroupId(entry.messageGroupId())
+            .messageDeduplicationId(entry.messageDeduplicationId())
+            .build();
+    }
+
+    /**
+     * Splits {@code bodies} into SendMessageBatch entry lists of at most {@value #MAX_BATCH} entries and
+     * {@value #MAX_BATCH_BYTES} bytes of payload, numbering the entries by their index in {@code bodies}.
+     */
+    static List<List<SendMessageBatchRequestEntry>> chunks(String queue, List<String> bodies) {
+        List<List<SendMessageBatchRequestEntry>> chunks = new ArrayList<>();
+        List<SendMessageBatchRequestEntry> chunk = new ArrayList<>(MAX_BATCH);
+        int chunkBytes = 0;
+        for (int i = 0; i < bodies.size(); i++) {
+            String body = bodies.get(i);
+            int bytes = body.getBytes(StandardCharsets.UTF_8).length;
+            if (chunk.size() == MAX_BATCH || (!chunk.isEmpty() && chunkBytes + bytes > MAX_BATCH_BYTES)) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>(MAX_BATCH);
+                chunkBytes = 0;
+            }
+            chunk.add(batchEntry(queue, i, body));
+            chunkBytes += bytes;
+        }
+        if (!chunk.isEmpty()) chunks.add(chunk);
+        return chunks;
+    }
+
+    /**
+     * @return the single sends retrying the entries the server failed; empty if the whole batch went through
+     * @throws IllegalArgumentException if SQS rejected an entry as the sender's fault, which a retry cannot fix
+     */
+    static List<SendMessageRequest> failedSends(String url, List<SendMessageBatchRequestEntry> entries,
+                                                SendMessageBatchResponse response) {
+        if (!response.hasFailed() || response.failed().isEmpty()) return List.of();
+        List<SendMessageRequest> retries = new ArrayList<>(response.failed().size());
+        for (BatchResultErrorEntry failed : response.failed()) {
+            if (Boolean.TRUE.equals(failed.senderFault())) {
+                throw new IllegalArgumentException("SQS rejected batch entry " + failed.id() + ": "
+                    + failed.code() + " " + failed.message());
+            }
+            SendMessageBatchRequestEntry entry = entries.stream()
+                .filter(e -> e.id().equals(failed.id()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown failed batch entry id: " + failed.id()));
+            retries.add(retryRequest(url, entry));
+        }
+        return retries;
+    }
+
+    /**
+     * Wait of the next ReceiveMessage call of a receive that must finish by {@code end}. Once messages arrived it
+     * only takes what is immediately available. Before that it long-polls for the time left rounded up to whole
+     * seconds, so at least one second and never a busy loop of short polls, and stops after the first empty poll
+     * that ends past the deadline. A receive whose deadline had already passed short-polls once, so a zero timeout
+     * still takes what is available right now.
+     *
+     * @param received messages received so far
+     * @param polled whether a ReceiveMessage call was made already
+     * @return the wait in seconds, or {@link #STOP}
+     */
+    static int receiveWait(Instant end, int received, boolean polled) {
+        if (received > 0) return 0;
+        Instant now = Instant.now();
+        if (!now.isBefore(end)) return polled ? STOP : 0;
+        long millis = Duration.between(now, end).toMillis();
+        return (int) Math.max(1, Math.min(MAX_WAIT_SECONDS, (millis + 999) / 1000));
+    }
+
+    static ReceiveMessageRequest receiveRequest(String url, int max, int waitSeconds) {
+        return ReceiveMessageRequest.builder()
+            .queueUrl(url)
+            .maxNumberOfMessages(Math.min(MAX_BATCH, max))
+            .waitTimeSeconds(waitSeconds)
+            .visibilityTimeout(VISIBILITY_TIMEOUT)
+            .attributeNamesWithStrings("All")
+            .messageAttributeNames("All")
+            .build();
+    }
+
+    /** @param msgs at most {@value #MAX_BATCH} received messages */
+    static DeleteMessageBatchRequest deleteRequest(String url, List<Message> msgs) {
+        List<DeleteMessageBatchRequestEntry> entries = new ArrayList<>(msgs.size());
+        for (int i = 0; i < msgs.size(); i++) {
+            entries.add(DeleteMessageBatchRequestEntry.builder()
+                .id(Integer.toString(i))
+                .receiptHandle(msgs.get(i).receiptHandle())
+                .build());
+        }
+        return DeleteMessageBatchRequest.builder().queueUrl(url).entries(entries).build();
+    }
+
+    /**
+     * @return single deletes for the messages {@link #deleteRequest} failed to delete, so they do not reappear after
+     *         the visibility timeout; empty if the whole batch went through
+     */
+    static List<DeleteMessageRequest> failedDeletes(String url, List<Message> msgs, DeleteMessageBatchResponse response) {
+        if (!response.hasFailed() || response.failed().isEmpty()) return List.of();
+        List<DeleteMessageRequest> deletes = new ArrayList<>(response.failed().size());
+        for (BatchResultErrorEntry failed : response.failed()) {
+            String handle = msgs.get(Integer.parseInt(failed.id())).receiptHandle();
+            deletes.add(DeleteMessageRequest.builder().queueUrl(url).receiptHandle(handle).build());
+        }
+        return deletes;
+    }
+}
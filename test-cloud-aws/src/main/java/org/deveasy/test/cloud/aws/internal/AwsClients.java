@@ -4,116 +4,342 @@
 package org.deveasy.test.cloud.aws.internal;
 
 import org.deveasy.test.core.cloud.CloudMode;
+import org.deveasy.test.core.cloud.CloudProvider;
 import org.deveasy.test.core.cloud.TestCloudConfig;
 import org.testcontainers.containers.localstack.LocalStackContainer;
-import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.SdkClient;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.SdkEventLoopGroup;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3AsyncClientBuilder;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.SqsAsyncClientBuilder;
 import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.SqsClientBuilder;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
+import software.amazon.awssdk.services.sns.SnsAsyncClientBuilder;
 import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sns.SnsClientBuilder;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClientBuilder;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClientBuilder;
 
 import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Registry of shared SDK clients. One client is built per service and effective configuration (provider, mode,
+ * region, emulator endpoint and overrides) and reused by every capability instance; all clients of a service share
+ * a single pooled HTTP client. Async clients are cached the same way on Netty HTTP clients that all run on one
+ * shared event loop group, so hundreds of in-flight requests need no thread each. Adapters {@link #retain retain}
+ * the configuration they use and {@link #release release} it when closed; the clients of a configuration are closed
+ * once its last adapter releases it. Everything left is closed by {@link #closeAll()}, which also runs on JVM
+ * shutdown.
+ */
 public final class AwsClients {
 
+    private static final int MAX_CONNECTIONS_PER_SERVICE = 64;
+    /** Concurrent async requests per service; further requests wait for a connection without holding a thread. */
+    private static final int MAX_ASYNC_CONCURRENCY_PER_SERVICE = 256;
+    private static final int EVENT_LOOP_THREADS = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+
+    private static final Map<ClientKey, SdkClient> CLIENTS = new ConcurrentHashMap<>();
+    private static final Map<LocalStackContainer.Service, SdkHttpClient> HTTP_CLIENTS = new ConcurrentHashMap<>();
+    private static final Map<LocalStackContainer.Service, SdkAsyncHttpClient> ASYNC_HTTP_CLIENTS = new ConcurrentHashMap<>();
+    private static SdkEventLoopGroup eventLoopGroup; // guarded by ASYNC_HTTP_CLIENTS
+    /** Adapters using each configuration, keyed by the settings {@link ClientKey} takes from it. */
+    private static final Map<List<Object>, Integer> USERS = new HashMap<>(); // guarded by itself
+    private static final AtomicBoolean SHUTDOWN_HOOK = new AtomicBoolean();
+
     private AwsClients() {}
 
     public static S3Client s3(TestCloudConfig cfg) {
-        if (cfg.mode() == CloudMode.EMULATOR) {
-            LocalStackContainer ls = LocalStackHolder.ensureStartedS3();
-            Region region = Region.of(defaultRegion(cfg));
-            URI endpoint = ls.getEndpointOverride(LocalStackContainer.Service.S3);
-            AwsCredentialsProvider creds = StaticCredentialsProvider.create(
-                AwsBasicCredentials.create(ls.getAccessKey(), ls.getSecretKey())
-            );
-            return S3Client.builder()
-                .endpointOverride(endpoint)
+        return client(LocalStackContainer.Service.S3, cfg, S3Client.class, (endpoint, region, creds, http) -> {
+            S3ClientBuilder b = S3Client.builder()
+                .httpClient(http)
                 .region(region)
-                .credentialsProvider(creds)
-                .forcePathStyle(true)
-                .build();
-        } else {
-            // LIVE mode: use default provider chain; optional region from config
-            Region region = Region.of(defaultRegion(cfg));
-            return S3Client.builder()
-                .region(region)
-                .credentialsProvider(DefaultCredentialsProvider.create())
-                .build();
-        }
+                .credentialsProvider(creds);
+            if (endpoint != null) {
+                b.endpointOverride(endpoint).forcePathStyle(true);
+            }
+            return b.build();
+        });
     }
 
     public static SqsClient sqs(TestCloudConfig cfg) {
-        if (cfg.mode() == CloudMode.EMULATOR) {
-            LocalStackContainer ls = LocalStackHolder.ensureStartedS3(); // same holder starts SQS
-            Region region = Region.of(defaultRegion(cfg));
-            URI endpoint = ls.getEndpointOverride(LocalStackContainer.Service.SQS);
-            AwsCredentialsProvider creds = StaticCredentialsProvider.create(
-                AwsBasicCredentials.create(ls.getAccessKey(), ls.getSecretKey())
-            );
-            return SqsClient.builder()
-                .endpointOverride(endpoint)
+        return client(LocalStackContainer.Service.SQS, cfg, SqsClient.class, (endpoint, region, creds, http) -> {
+            SqsClientBuilder b = SqsClient.builder()
+                .httpClient(http)
                 .region(region)
-                .credentialsProvider(creds)
-                .build();
-        } else {
-            Region region = Region.of(defaultRegion(cfg));
-            return SqsClient.builder()
+                .credentialsProvider(creds);
+            if (endpoint != null) {
+                b.endpointOverride(endpoint);
+            }
+            return b.build();
+        });
+    }
+
+    public static SnsClient sns(TestCloudConfig cfg) {
+        return client(LocalStackContainer.Service.SNS, cfg, SnsClient.class, (endpoint, region, creds, http) -> {
+            SnsClientBuilder b = SnsClient.builder()
+                .httpClient(http)
                 .region(region)
-                .credentialsProvider(DefaultCredentialsProvider.create())
-                .build();
-        }
+                .credentialsProvider(creds);
+            if (endpoint != null) {
+                b.endpointOverride(endpoint);
+            }
+            return b.build();
+        });
     }
 
-    private static String defaultRegion(TestCloudConfig cfg) {
-        String r = cfg.regionOrLocation();
-        return (r == null || r.isBlank()) ? "us-east-1" : r;
+    public static DynamoDbClient dynamodb(TestCloudConfig cfg) {
+        return client(LocalStackContainer.Service.DYNAMODB, cfg, DynamoDbClient.class, (endpoint, region, creds, http) -> {
+            DynamoDbClientBuilder b = DynamoDbClient.builder()
+                .httpClient(http)
+                .region(region)
+                .credentialsProvider(creds);
+            if (endpoint != null) {
+                b.endpointOverride(endpoint);
+            }
+            return b.build();
+        });
     }
 
-    public static SnsClient sns(TestCloudConfig cfg) {
-        if (cfg.mode() == CloudMode.EMULATOR) {
-            LocalStackContainer ls = LocalStackHolder.ensureStartedSns();
-            Region region = Region.of(defaultRegion(cfg));
-            URI endpoint = ls.getEndpointOverride(LocalStackContainer.Service.SNS);
-            AwsCredentialsProvider creds = StaticCredentialsProvider.create(
-                AwsBasicCredentials.create(ls.getAccessKey(), ls.getSecretKey())
-            );
-            return SnsClient.builder()
-                .endpointOverride(endpoint)
+    public static S3AsyncClient s3Async(TestCloudConfig cfg) {
+        return asyncClient(LocalStackContainer.Service.S3, cfg, S3AsyncClient.class, (endpoint, region, creds, http) -> {
+            S3AsyncClientBuilder b = S3AsyncClient.builder()
+                .httpClient(http)
                 .region(region)
-                .credentialsProvider(creds)
-                .build();
-        } else {
-            Region region = Region.of(defaultRegion(cfg));
-            return SnsClient.builder()
+                .credentialsProvider(creds);
+            if (endpoint != null) {
+                b.endpointOverride(endpoint).forcePathStyle(true);
+            }
+            return b.build();
+        });
+    }
+
+    public static SqsAsyncClient sqsAsync(TestCloudConfig cfg) {
+        return asyncClient(LocalStackContainer.Service.SQS, cfg, SqsAsyncClient.class, (endpoint, region, creds, http) -> {
+            SqsAsyncClientBuilder b = SqsAsyncClient.builder()
+                .httpClient(http)
                 .region(region)
-                .credentialsProvider(DefaultCredentialsProvider.create())
-                .build();
-        }
+                .credentialsProvider(creds);
+            if (endpoint != null) {
+                b.endpointOverride(endpoint);
+            }
+            return b.build();
+        });
     }
 
-    public static DynamoDbClient dynamodb(TestCloudConfig cfg) {
-        if (cfg.mode() == CloudMode.EMULATOR) {
-            LocalStackContainer ls = LocalStackHolder.ensureStartedDynamoDB();
-            Region region = Region.of(defaultRegion(cfg));
-            URI endpoint = ls.getEndpointOverride(LocalStackContainer.Service.DYNAMODB);
-            AwsCredentialsProvider creds = StaticCredentialsProvider.create(
-                AwsBasicCredentials.create(ls.getAccessKey(), ls.getSecretKey())
-            );
-            return DynamoDbClient.builder()
-                .endpointOverride(endpoint)
+    public static SnsAsyncClient snsAsync(TestCloudConfig cfg) {
+        return asyncClient(LocalStackContainer.Service.SNS, cfg, SnsAsyncClient.class, (endpoint, region, creds, http) -> {
+            SnsAsyncClientBuilder b = SnsAsyncClient.builder()
+                .httpClient(http)
                 .region(region)
-                .credentialsProvider(creds)
-                .build();
-        } else {
-            Region region = Region.of(defaultRegion(cfg));
-            return DynamoDbClient.builder()
+                .credentialsProvider(creds);
+            if (endpoint != null) {
+                b.endpointOverride(endpoint);
+            }
+            return b.build();
+        });
+    }
+
+    public static DynamoDbAsyncClient dynamodbAsync(TestCloudConfig cfg) {
+        return asyncClient(LocalStackContainer.Service.DYNAMODB, cfg, DynamoDbAsyncClient.class, (endpoint, region, creds, http) -> {
+            DynamoDbAsyncClientBuilder b = DynamoDbAsyncClient.builder()
+                .httpClient(http)
                 .region(region)
-                .credentialsProvider(DefaultCredentialsProvider.create())
-                .build();
+                .credentialsProvider(creds);
+            if (endpoint != null) {
+                b.endpointOverride(endpoint);
+            }
+            return b.build();
+        });
+    }
+
+    /**
+     * Registers one more user of the clients built for {@code cfg}.
+     *
+     * @param cfg the configuration an adapter was initialized with
+     */
+    public static void retain(TestCloudConfig cfg) {
+        synchronized (USERS) {
+            USERS.merge(scope(cfg), 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Drops one user of the clients built for {@code cfg} and closes them when it was the last. Capabilities still
+     * holding one of those clients fail afterwards; the next lookup builds a fresh client. The shared HTTP clients
+     * stay open for other configurations.
+     *
+     * @param cfg the configuration passed to {@link #retain(TestCloudConfig)}
+     */
+    public static void release(TestCloudConfig cfg) {
+        List<Object> scope = scope(cfg);
+        synchronized (USERS) {
+            Integer users = USERS.get(scope);
+            if (users == null) return;
+            if (users > 1) {
+                USERS.put(scope, users - 1);
+                return;
+            }
+            USERS.remove(scope);
+            for (ClientKey key : CLIENTS.keySet()) {
+                if (!key.scope.equals(scope)) continue;
+                SdkClient client = CLIENTS.remove(key);
+                if (client != null) {
+                    try { client.close(); } catch (RuntimeException ignore) {}
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes every cached SDK client and shared HTTP client. Safe to call more than once; subsequent lookups build
+     * fresh clients. Registered as a JVM shutdown hook on first use.
+     */
+    public static void closeAll() {
+        for (ClientKey key : CLIENTS.keySet()) {
+            SdkClient client = CLIENTS.remove(key);
+            if (client != null) {
+                try { client.close(); } catch (RuntimeException ignore) {}
+            }
+        }
+        for (LocalStackContainer.Service service : HTTP_CLIENTS.keySet()) {
+            SdkHttpClient http = HTTP_CLIENTS.remove(service);
+            if (http != null) {
+                try { http.close(); } catch (RuntimeException ignore) {}
+            }
+        }
+        synchronized (ASYNC_HTTP_CLIENTS) {
+            for (SdkAsyncHttpClient http : ASYNC_HTTP_CLIENTS.values()) {
+                try { http.close(); } catch (RuntimeException ignore) {}
+            }
+            ASYNC_HTTP_CLIENTS.clear();
+            if (eventLoopGroup != null) {
+                // HTTP clients given an event loop group leave it running; it is ours to shut down
+                eventLoopGroup.eventLoopGroup().shutdownGracefully();
+                eventLoopGroup = null;
+            }
+        }
+    }
+
+    private static <C extends SdkClient> C client(LocalStackContainer.Service service, TestCloudConfig cfg,
+                                                  Class<C> type, ClientFactory<C, SdkHttpClient> factory) {
+        return cached(service, cfg, type, false, (endpoint, region, creds) -> factory.create(endpoint, region, creds, http(service)));
+    }
+
+    private static <C extends SdkClient> C asyncClient(LocalStackContainer.Service service, TestCloudConfig cfg,
+                                                       Class<C> type, ClientFactory<C, SdkAsyncHttpClient> factory) {
+        return cached(service, cfg, type, true, (endpoint, region, creds) -> factory.create(endpoint, region, creds, asyncHttp(service)));
+    }
+
+    private static <C extends SdkClient> C cached(LocalStackContainer.Service service, TestCloudConfig cfg,
+                                                  Class<C> type, boolean async, ClientBuilder<C> builder) {
+        Region region = Region.of(defaultRegion(cfg));
+        boolean emulator = cfg.mode() == CloudMode.EMULATOR;
+        // LocalStack is started outside computeIfAbsent so a slow boot never blocks the map
+        URI endpoint = emulator ? LocalStackHolder.endpoint(service, cfg) : null;
+        ClientKey key = new ClientKey(service, async, scope(cfg), endpoint);
+        SdkClient existing = CLIENTS.get(key);
+        if (existing != null) {
+            return type.cast(existing);
+        }
+        AwsCredentialsProvider creds = emulator
+            ? StaticCredentialsProvider.create(LocalStackHolder.credentials())
+            // LIVE mode: use default provider chain
+            : DefaultCredentialsProvider.create();
+        URI ep = endpoint;
+        registerShutdownHook();
+        return type.cast(CLIENTS.computeIfAbsent(key, k -> builder.build(ep, region, creds)));
+    }
+
+    private static SdkHttpClient http(LocalStackContainer.Service service) {
+        return HTTP_CLIENTS.computeIfAbsent(service, s -> ApacheHttpClient.builder()
+            .maxConnections(MAX_CONNECTIONS_PER_SERVICE)
+            .build());
+    }
+
+    private static SdkAsyncHttpClient asyncHttp(LocalStackContainer.Service service) {
+        synchronized (ASYNC_HTTP_CLIENTS) {
+            if (eventLoopGroup == null) {
+                eventLoopGroup = SdkEventLoopGroup.builder().numberOfThreads(EVENT_LOOP_THREADS).build();
+            }
+            return ASYNC_HTTP_CLIENTS.computeIfAbsent(service, s -> NettyNioAsyncHttpClient.builder()
+                .eventLoopGroup(eventLoopGroup)
+                .maxConcurrency(MAX_ASYNC_CONCURRENCY_PER_SERVICE)
+                .build());
+        }
+    }
+
+    private static void registerShutdownHook() {
+        if (SHUTDOWN_HOOK.compareAndSet(false, true)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(AwsClients::closeAll, "dev-easy-test-aws-clients-close"));
+        }
+    }
+
+    private static String defaultRegion(TestCloudConfig cfg) {
+        String r = cfg.regionOrLocation();
+        return (r == null || r.isBlank()) ? "us-east-1" : r;
+    }
+
+    /** The settings of {@code cfg} a client depends on, apart from the service and emulator endpoint. */
+    private static List<Object> scope(TestCloudConfig cfg) {
+        return List.of(cfg.provider(), cfg.mode(), Region.of(defaultRegion(cfg)), cfg.overrides());
+    }
+
+    @FunctionalInterface
+    private interface ClientFactory<C, H> {
+        C create(URI endpoint, Region region, AwsCredentialsProvider creds, H http);
+    }
+
+    @FunctionalInterface
+    private interface ClientBuilder<C> {
+        C build(URI endpoint, Region region, AwsCredentialsProvider creds);
+    }
+
+    /** Effective configuration a client is built for. */
+    private static final class ClientKey {
+        final LocalStackContainer.Service service;
+        final boolean async;
+        final List<Object> scope; // provider, mode, region and overrides
+        final URI endpoint; // null in LIVE mode
+
+        ClientKey(LocalStackContainer.Service service, boolean async, List<Object> scope, URI endpoint) {
+            this.service = service;
+            this.async = async;
+            this.scope = scope;
+            this.endpoint = endpoint;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ClientKey)) return false;
+            ClientKey k = (ClientKey) o;
+            return service == k.service && async == k.async && scope.equals(k.scope)
+                && Objects.equals(endpoint, k.endpoint);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(service, async, scope, endpoint);
         }
     }
 }
@@ -1,71 +1,339 @@
 /*
- * LocalStack holder for AWS emulator (S3 for now).
+ * LocalStack holder for the AWS emulator.
  */
 package org.deveasy.test.cloud.aws.internal;
 
+import com.github.dockerjava.api.command.InspectContainerResponse;
+import org.deveasy.test.core.cloud.CloudServiceType;
+import org.deveasy.test.core.cloud.TestCloudConfig;
 import org.testcontainers.containers.localstack.LocalStackContainer;
+import org.testcontainers.containers.localstack.LocalStackContainer.Service;
 import org.testcontainers.utility.DockerImageName;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 
-import java.util.concurrent.atomic.AtomicReference;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
- * Lazily starts a LocalStack container with S3, SQS, SNS, and DYNAMODB services.
- * This class is intentionally simple and uses a static holder pattern.
+ * Lazily starts LocalStack containers, at most one boot per service per JVM.
+ * <p>
+ * Each service is served by exactly one container. The first request for a service starts a container with that
+ * service plus every other service the caller's {@link TestCloudConfig#services()} declare (all of S3, SQS, SNS and
+ * DynamoDB when none are declared) that no container serves yet. The boot is published as a single in-flight future
+ * before it starts, so concurrent callers — e.g. test classes running in parallel — wait for that boot instead of
+ * starting containers of their own. A later request for a service no container serves starts one more container for
+ * the missing services; declare every service a suite uses to keep it to one. A failed boot is forgotten so the next
+ * request retries it. Containers are stopped by Testcontainers on JVM exit.
+ * </p>
+ * <p>
+ * Two opt-in settings skip the per-JVM boot, each read from {@link TestCloudConfig#override(String)} and falling back
+ * to the system property of the same name:
+ * </p>
+ * <ul>
+ *   <li>{@value #ENDPOINT} — URL of an already running LocalStack (e.g. {@code http://localhost:4566}); no container
+ *   is started.</li>
+ *   <li>{@value #REUSE} — {@code true} starts containers with Testcontainers reuse and a {@value #LABEL} label, so
+ *   later JVM forks and builds attach to the running container. Reuse must also be enabled for Testcontainers itself
+ *   ({@code testcontainers.reuse.enable=true} in {@code ~/.testcontainers.properties}); otherwise a fresh container
+ *   is started as usual.</li>
+ * </ul>
+ * <p>
+ * A third opt-in setting, {@value #RESET}, resets the state of each service through LocalStack's
+ * {@code /_localstack/state/<service>/reset} endpoint the first time this JVM uses an external LocalStack or
+ * attaches to a reused container, so a suite starts from empty resources without a restart. It is off by default,
+ * since other JVM forks may be using the same emulator at that moment; enable it only where one JVM at a time runs
+ * against it. Containers this JVM started itself are empty anyway and are never reset.
+ * </p>
  */
 public final class LocalStackHolder {
 
+    /** Setting for the URL of an externally managed LocalStack to use instead of starting a container. */
+    public static final String ENDPOINT = "localstack.endpoint";
+    /** Setting ({@code true}/{@code false}) to reuse a running LocalStack container across JVMs. */
+    public static final String REUSE = "localstack.reuse";
+    /** Setting ({@code true}/{@code false}, default {@code false}) to reset reused or external LocalStack state on first use. */
+    public static final String RESET = "localstack.reset";
+    /** Label put on reusable containers. */
+    public static final String LABEL = "org.deveasy.test.localstack";
+
+    // LocalStack accepts any credentials; these are the Testcontainers defaults
+    private static final AwsBasicCredentials CREDENTIALS = AwsBasicCredentials.create("test", "test");
+
+    private static final System.Logger LOG = System.getLogger(LocalStackHolder.class.getName());
+
     private static final DockerImageName LOCALSTACK_IMAGE = DockerImageName.parse("localstack/localstack:2.3");
 
-    private static final AtomicReference<LocalStackContainer> REF = new AtomicReference<>();
+    private static final Set<Service> ALL_SERVICES =
+        Collections.unmodifiableSet(EnumSet.of(Service.S3, Service.SQS, Service.SNS, Service.DYNAMODB));
+
+    private static final Boots<LocalStackContainer> CONTAINERS = new Boots<>();
+    private static final Map<Service, Duration> STARTUP_TIMES = new ConcurrentHashMap<>();
+    private static final Map<String, Boolean> EXTERNAL_RESETS = new ConcurrentHashMap<>();
 
     private LocalStackHolder() {}
 
-    public static LocalStackContainer ensureStartedS3() {
-        LocalStackContainer existing = REF.get();
-        if (existing != null) {
-            return existing;
+    /**
+     * Resolves the emulator endpoint for {@code service}: the configured {@value #ENDPOINT} if set, otherwise the
+     * endpoint of the container serving it, started if needed.
+     *
+     * @param service the service needed now
+     * @param cfg the caller's configuration
+     * @return the endpoint to send {@code service} requests to
+     * @throws IllegalArgumentException if {@value #ENDPOINT} is not a valid URI
+     * @throws IllegalStateException if the container fails to start
+     */
+    public static URI endpoint(Service service, TestCloudConfig cfg) {
+        String external = setting(cfg, ENDPOINT);
+        if (external == null || external.isBlank()) {
+            return ensureStarted(service, cfg).getEndpointOverride(service);
         }
-        LocalStackContainer container = new LocalStackContainer(LOCALSTACK_IMAGE)
-            .withServices(
-                LocalStackContainer.Service.S3,
-                LocalStackContainer.Service.SQS,
-                LocalStackContainer.Service.SNS,
-                LocalStackContainer.Service.DYNAMODB
-            );
-        // Let Testcontainers manage lifecycle (stop on JVM shutdown)
-        container.start();
-        if (!REF.compareAndSet(null, container)) {
-            // Another thread won the race; stop ours and wait for the winner
-            container.stop();
-            LocalStackContainer winner;
-            int spins = 0;
-            do {
-                winner = REF.get();
-                if (winner != null) return winner;
-                try { Thread.sleep(10); } catch (InterruptedException ignored) {}
-            } while (++spins < 50);
-            throw new IllegalStateException("LocalStack container race: winner not visible");
+        URI uri = URI.create(external.trim());
+        if (resetEnabled(cfg)) {
+            // computeIfAbsent holds concurrent first users of the service until the reset is done
+            EXTERNAL_RESETS.computeIfAbsent(uri + "|" + service, k -> {
+                reset(uri, EnumSet.of(service));
+                return Boolean.TRUE;
+            });
         }
-        return container;
+        return uri;
+    }
+
+    /** @return the static credentials LocalStack accepts */
+    public static AwsBasicCredentials credentials() {
+        return CREDENTIALS;
+    }
+
+    /**
+     * Returns the container serving {@code service}, starting it if needed.
+     *
+     * @param service the service needed now
+     * @param cfg the caller's configuration; its declared services are started alongside {@code service}
+     * @return the running container
+     * @throws IllegalStateException if the container fails to start
+     */
+    public static LocalStackContainer ensureStarted(Service service, TestCloudConfig cfg) {
+        return ensureStarted(service, servicesFor(cfg), Boolean.parseBoolean(setting(cfg, REUSE)), resetEnabled(cfg));
+    }
+
+    /**
+     * Returns the container serving {@code service}, starting it together with {@code alongside} if needed.
+     *
+     * @param service the service needed now
+     * @param alongside further services to start in the same container if no container serves them yet
+     * @return the running container
+     * @throws IllegalStateException if the container fails to start
+     */
+    public static LocalStackContainer ensureStarted(Service service, Set<Service> alongside) {
+        return ensureStarted(service, alongside, Boolean.getBoolean(REUSE), Boolean.getBoolean(RESET));
+    }
+
+    private static LocalStackContainer ensureStarted(Service service, Set<Service> alongside, boolean reuse, boolean reset) {
+        return CONTAINERS.ensureStarted(service, alongside, services -> start(services, reuse, reset));
+    }
+
+    public static LocalStackContainer ensureStartedS3() {
+        return ensureStarted(Service.S3, ALL_SERVICES);
     }
 
     public static LocalStackContainer ensureStartedSns() {
-        // SNS runs in the same LocalStack container; ensure it's started
-        return ensureStartedS3();
+        return ensureStarted(Service.SNS, ALL_SERVICES);
     }
 
     // Alias with canonical acronym casing for strict TDD expectations
     public static LocalStackContainer ensureStartedSNS() {
-        // SNS shares the same container, no additional startup needed
-        return ensureStartedS3();
+        return ensureStartedSns();
     }
 
     public static LocalStackContainer ensureStartedDynamoDB() {
-        // DynamoDB runs in the same LocalStack container; ensure it's started
-        return ensureStartedS3();
+        return ensureStarted(Service.DYNAMODB, ALL_SERVICES);
     }
 
+    /** @return the container serving S3 if it has started, otherwise {@code null} */
     public static LocalStackContainer get() {
-        return REF.get();
+        return get(Service.S3);
+    }
+
+    /**
+     * @param service a LocalStack service
+     * @return the container serving {@code service} if it has started, otherwise {@code null}
+     */
+    public static LocalStackContainer get(Service service) {
+        return CONTAINERS.getNow(service);
+    }
+
+    /**
+     * @param service a LocalStack service
+     * @return how long the container serving {@code service} took to start, or {@code null} if it has not started
+     */
+    public static Duration startupTime(Service service) {
+        return STARTUP_TIMES.get(service);
+    }
+
+    /**
+     * Maps the declared service categories to LocalStack services.
+     *
+     * @param cfg the configuration
+     * @return the LocalStack services, all of them if none are declared
+     */
+    static Set<Service> servicesFor(TestCloudConfig cfg) {
+        if (cfg.services().isEmpty()) {
+            return ALL_SERVICES;
+        }
+        Set<Service> out = EnumSet.noneOf(Service.class);
+        for (CloudServiceType type : cfg.services()) {
+            switch (type) {
+                case STORAGE: out.add(Service.S3); break;
+                case QUEUE: out.add(Service.SQS); break;
+                case PUBSUB: out.add(Service.SNS); out.add(Service.SQS); break; // subscriptions deliver to SQS
+                case NOSQL: out.add(Service.DYNAMODB); break;
+                default: break; // no AWS capability yet
+            }
+        }
+        return out;
+    }
+
+    private static LocalStackContainer start(Set<Service> services, boolean reuse, boolean reset) {
+        long started = System.nanoTime();
+        try {
+            ReusableLocalStack container = new ReusableLocalStack();
+            container.withServices(services.toArray(new Service[0]));
+            if (reuse) {
+                // Reuse matches on the container configuration, so the same service set finds the same container
+                container.withReuse(true).withLabel(LABEL, "reusable");
+            }
+            container.start();
+            if (container.attached && reset) {
+                // Only a reused container carries state of earlier runs
+                reset(URI.create(container.getEndpoint().toString()), services);
+            }
+            Duration took = Duration.ofNanos(System.nanoTime() - started);
+            for (Service s : services) {
+                STARTUP_TIMES.put(s, took);
+            }
+            LOG.log(System.Logger.Level.INFO, "LocalStack with {0} {1} in {2} ms",
+                services, container.attached ? "attached" : "started", took.toMillis());
+            return container;
+        } catch (RuntimeException | Error e) {
+            LOG.log(System.Logger.Level.WARNING, "LocalStack with " + services + " failed to start after "
+                + Duration.ofNanos(System.nanoTime() - started).toMillis() + " ms", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Resets the state of each service through LocalStack's internal state endpoint. Best effort: failures are logged,
+     * since older LocalStack images lack the endpoint and tests then merely see leftovers of earlier runs.
+     */
+    private static void reset(URI endpoint, Set<Service> services) {
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        for (Service s : services) {
+            URI uri = endpoint.resolve("/_localstack/state/" + s.getLocalStackName() + "/reset");
+            try {
+                HttpResponse<Void> response = http.send(
+                    HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).POST(HttpRequest.BodyPublishers.noBody()).build(),
+                    HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() / 100 != 2) {
+                    LOG.log(System.Logger.Level.WARNING, "LocalStack state reset of {0} returned HTTP {1}", s, response.statusCode());
+                }
+            } catch (IOException e) {
+                LOG.log(System.Logger.Level.WARNING, "LocalStack state reset of " + s + " failed", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while resetting LocalStack state", e);
+            }
+        }
+    }
+
+    private static boolean resetEnabled(TestCloudConfig cfg) {
+        return Boolean.parseBoolean(setting(cfg, RESET));
+    }
+
+    private static String setting(TestCloudConfig cfg, String key) {
+        String v = cfg.override(key);
+        return v != null ? v : System.getProperty(key);
+    }
+
+    /** LocalStack container that remembers whether Testcontainers attached it to an already running one. */
+    private static final class ReusableLocalStack extends LocalStackContainer {
+        private volatile boolean attached;
+
+        ReusableLocalStack() {
+            super(LOCALSTACK_IMAGE);
+        }
+
+        @Override
+        protected void containerIsStarted(InspectContainerResponse containerInfo, boolean reused) {
+            super.containerIsStarted(containerInfo, reused);
+            attached = reused;
+        }
+    }
+
+    /**
+     * One boot per service: the first request for a service publishes a single in-flight future for it and every
+     * other requested service no boot covers yet, so concurrent requests share that boot. A failed boot is forgotten
+     * so the next request retries it.
+     *
+     * @param <C> the container type
+     */
+    static final class Boots<C> {
+        private final Map<Service, CompletableFuture<C>> boots = new ConcurrentHashMap<>();
+
+        /**
+         * @param starter starts a container serving the given services; called outside any lock
+         * @return the container serving {@code service}
+         * @throws IllegalStateException if its boot failed
+         */
+        C ensureStarted(Service service, Set<Service> alongside, Function<Set<Service>, C> starter) {
+            CompletableFuture<C> boot = boots.get(service);
+            if (boot == null) {
+                Set<Service> services = EnumSet.of(service);
+                CompletableFuture<C> mine = new CompletableFuture<>();
+                synchronized (boots) {
+                    boot = boots.get(service);
+                    if (boot == null) {
+                        services.addAll(alongside);
+                        services.removeAll(boots.keySet());
+                        for (Service s : services) {
+                            boots.put(s, mine);
+                        }
+                        boot = mine;
+                    }
+                }
+                if (boot == mine) {
+                    // Start outside the lock: racers for these services block on the future, others are not held up
+                    try {
+                        mine.complete(starter.apply(services));
+                    } catch (RuntimeException | Error e) {
+                        synchronized (boots) {
+                            boots.values().removeIf(f -> f == mine);
+                        }
+                        mine.completeExceptionally(e);
+                    }
+                }
+            }
+            try {
+                return boot.join();
+            } catch (CompletionException e) {
+                throw new IllegalStateException("LocalStack container for " + service + " failed to start", e.getCause());
+            }
+        }
+
+        /** @return the container serving {@code service} if its boot has finished, otherwise {@code null} */
+        C getNow(Service service) {
+            CompletableFuture<C> boot = boots.get(service);
+            return boot == null || boot.isCompletedExceptionally() ? null : boot.getNow(null);
+        }
     }
 }
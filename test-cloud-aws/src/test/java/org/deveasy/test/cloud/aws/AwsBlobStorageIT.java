@@ -8,15 +8,23 @@ import org.deveasy.test.core.cloud.CloudMode;
 import org.deveasy.test.core.cloud.CloudProvider;
 import org.deveasy.test.core.cloud.TestCloudConfig;
 import org.deveasy.test.core.cloud.capability.BlobStorage;
+import org.deveasy.test.core.cloud.capability.Snapshot;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 class AwsBlobStorageIT {
 
@@ -71,4 +79,98 @@ class AwsBlobStorageIT {
 
         Assertions.assertTrue(storage.exists(bucket, key), "exists should return true for stored object");
     }
+
+    @Test
+    @DisplayName("S3 streaming: unknown-length stream above one part goes multipart and round-trips")
+    void streamingMultipartUpload() {
+        int size = 12 * 1024 * 1024 + 123; // more than one 8 MiB part
+        InputStream generated = new InputStream() {
+            private int pos;
+            @Override
+            public int read() {
+                return pos < size ? (pos++ % 251) : -1;
+            }
+        };
+
+        storage.putObject(bucket, "big.bin", generated, "application/octet-stream");
+
+        byte[] bytes = storage.getObject(bucket, "big.bin");
+        Assertions.assertNotNull(bytes, "object should be retrievable");
+        Assertions.assertEquals(size, bytes.length);
+        Assertions.assertEquals((byte) ((size - 1) % 251), bytes[size - 1]);
+    }
+
+    @Test
+    @DisplayName("S3 streaming: known-length stream uses a single streamed PutObject")
+    void streamingKnownLengthUpload() {
+        byte[] payload = "streamed".getBytes(StandardCharsets.UTF_8);
+
+        storage.putObject(bucket, "small.txt", new ByteArrayInputStream(payload), payload.length, "text/plain");
+
+        Assertions.assertArrayEquals(payload, storage.getObject(bucket, "small.txt"));
+    }
+
+    @Test
+    @DisplayName("S3 reads: openObject, ranged get and transferTo stream without materializing")
+    void streamingAndRangedReads(@TempDir Path dir) throws Exception {
+        byte[] payload = "0123456789".getBytes(StandardCharsets.UTF_8);
+        storage.putObject(bucket, "digits.txt", payload, "text/plain");
+
+        try (InputStream in = storage.openObject(bucket, "digits.txt")) {
+            Assertions.assertArrayEquals(payload, in.readAllBytes());
+        }
+        Assertions.assertArrayEquals("345".getBytes(StandardCharsets.UTF_8), storage.getObjectRange(bucket, "digits.txt", 3, 3));
+        Assertions.assertArrayEquals("89".getBytes(StandardCharsets.UTF_8), storage.getObjectRange(bucket, "digits.txt", 8, 100));
+        Assertions.assertNull(storage.getObjectRange(bucket, "missing.txt", 0, 1));
+
+        Path target = dir.resolve("digits.txt");
+        Assertions.assertEquals(payload.length, storage.transferTo(bucket, "digits.txt", target));
+        Assertions.assertArrayEquals(payload, Files.readAllBytes(target));
+    }
+
+    @Test
+    @DisplayName("S3 deleteBucket: empties buckets spanning several DeleteObjects batches")
+    void deleteBucketWithManyObjects() {
+        byte[] payload = "x".getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < 2500; i++) {
+            storage.putObject(bucket, "bulk/" + i, payload, "text/plain");
+        }
+
+        storage.deleteBucket(bucket);
+
+        Assertions.assertThrows(S3Exception.class, () -> storage.listKeys(bucket, ""));
+        // Idempotent on a bucket that is already gone
+        storage.deleteBucket(bucket);
+    }
+
+    @Test
+    @DisplayName("S3 streamKeys: pages lazily and supports delimiter listing")
+    void streamKeysWithDelimiter() {
+        for (String key : List.of("a/1", "a/2", "a/sub/x", "a/sub/y", "b/1")) {
+            storage.putObject(bucket, key, new byte[0], "text/plain");
+        }
+
+        Assertions.assertEquals(List.of("a/1", "a/2", "a/sub/"), storage.streamKeys(bucket, "a/", "/").collect(Collectors.toList()));
+        Assertions.assertTrue(storage.streamKeys(bucket, "a/sub/").findAny().isPresent());
+        Assertions.assertFalse(storage.streamKeys(bucket, "c/").findAny().isPresent());
+    }
+
+    @Test
+    @DisplayName("S3 snapshot: restore deletes new objects, rewrites changed ones and recreates the bucket")
+    void snapshotRestore() {
+        storage.putObject(bucket, "fixture.json", "{\"v\":1}".getBytes(StandardCharsets.UTF_8), "application/json");
+        storage.putObject(bucket, "other.txt", "keep".getBytes(StandardCharsets.UTF_8), "text/plain");
+        Snapshot baseline = storage.snapshot(bucket);
+
+        storage.putObject(bucket, "fixture.json", "{\"v\":2}".getBytes(StandardCharsets.UTF_8), "application/json");
+        storage.putObject(bucket, "added.txt", "x".getBytes(StandardCharsets.UTF_8), "text/plain");
+        baseline.restore();
+
+        Assertions.assertEquals(List.of("fixture.json", "other.txt"), storage.listKeys(bucket, ""));
+        Assertions.assertEquals("{\"v\":1}", ((AwsBlobStorage) storage).getString(bucket, "fixture.json"));
+
+        storage.deleteBucket(bucket);
+        baseline.restore();
+        Assertions.assertTrue(storage.exists(bucket, "other.txt"));
+    }
 }
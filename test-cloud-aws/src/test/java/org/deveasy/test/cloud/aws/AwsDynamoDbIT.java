@@ -7,6 +7,7 @@ package org.deveasy.test.cloud.aws;
 import org.deveasy.test.core.cloud.CloudMode;
 import org.deveasy.test.core.cloud.CloudProvider;
 import org.deveasy.test.core.cloud.TestCloudConfig;
+import org.deveasy.test.core.cloud.capability.NoSqlQuery;
 import org.deveasy.test.core.cloud.capability.NoSqlTable;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
@@ -83,6 +84,109 @@ class AwsDynamoDBIT {
         Assertions.assertTrue(containsAny, "scan result should contain one of the inserted items");
     }
 
+    @Test
+    @DisplayName("DynamoDB: parallelScan and streamItems return all items")
+    void parallelAndStreamingScan() {
+        for (int i = 0; i < 50; i++) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", "seg-" + i);
+            item.put("timestamp", "2025-01-01T00:00:00Z");
+            table.putItem(tableName, item);
+        }
+
+        Assertions.assertEquals(50, table.parallelScan(tableName, 4).size());
+        Assertions.assertEquals(50, table.streamItems(tableName).count());
+        Assertions.assertTrue(table.streamItems(tableName).anyMatch(m -> Objects.equals(m.get("id"), "seg-7")));
+        Assertions.assertEquals(0, table.streamItems("missing-" + tableName).count());
+    }
+
+    @Test
+    @DisplayName("DynamoDB: putItems and getItems span several batches")
+    void batchWriteAndGet() {
+        List<Map<String, Object>> items = new ArrayList<>();
+        List<Map<String, Object>> keys = new ArrayList<>();
+        for (int i = 0; i < 260; i++) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", "batch-" + i);
+            item.put("timestamp", "2025-01-01T00:00:00Z");
+            item.put("value", i);
+            items.add(item);
+            if (i % 2 == 0) keys.add(item);
+        }
+        table.putItems(tableName, items);
+
+        Assertions.assertEquals(260, table.scan(tableName).size());
+        List<Map<String, Object>> got = table.getItems(tableName, keys);
+        Assertions.assertEquals(130, got.size());
+        Assertions.assertTrue(got.stream().anyMatch(m -> Objects.equals(m.get("value"), 42)));
+    }
+
+    @Test
+    @DisplayName("DynamoDB: ensureTables creates several tables concurrently; deleteTable waits until gone")
+    void ensureTablesConcurrently() {
+        List<NoSqlTable.TableSpec> specs = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            specs.add(i % 2 == 0 ? NoSqlTable.TableSpec.of(tableName + "-" + i, "id")
+                : NoSqlTable.TableSpec.of(tableName + "-" + i, "id", "timestamp"));
+        }
+        try {
+            table.ensureTables(specs);
+            // idempotent for existing tables
+            table.ensureTables(specs);
+
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", "x");
+            table.putItem(tableName + "-0", item);
+            Assertions.assertNotNull(table.getItem(tableName + "-0", "x"));
+
+            table.deleteTable(tableName + "-0");
+            table.ensureTable(tableName + "-0", "id");
+            Assertions.assertNull(table.getItem(tableName + "-0", "x"), "re-created table should be empty");
+        } finally {
+            specs.forEach(s -> table.deleteTable(s.name()));
+        }
+    }
+
+    record Event(String id, String timestamp, int count, Map<String, Object> details) { }
+
+    @Test
+    @DisplayName("DynamoDB: records round-trip through the typed API, nested maps included")
+    void typedRecords() {
+        AwsDynamoDB ddb = (AwsDynamoDB) table;
+        Event first = new Event("ev", "2025-01-01T00:00:00Z", 1, Map.of("source", "a", "tags", List.of("x", "y")));
+        Event second = new Event("ev", "2025-01-01T00:00:01Z", 2, null);
+        ddb.putItems(tableName, List.of(first, second), Event.class);
+
+        Assertions.assertEquals(first, ddb.getItem(tableName, "ev", "2025-01-01T00:00:00Z", Event.class));
+        Assertions.assertEquals(List.of(first, second), ddb.query(tableName, "ev", Event.class));
+        Assertions.assertEquals(2, ddb.scan(tableName, Event.class).size());
+        Map<String, Object> raw = table.getItem(tableName, "ev", "2025-01-01T00:00:00Z");
+        Assertions.assertEquals(Map.of("source", "a", "tags", List.of("x", "y")), raw.get("details"));
+    }
+
+    @Test
+    @DisplayName("DynamoDB: query builder pushes sort key condition, filter, projection, limit and order to Query")
+    void queryBuilder() {
+        for (int i = 1; i <= 5; i++) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", "qb");
+            item.put("timestamp", "2025-01-0" + i);
+            item.put("status", i % 2 == 0 ? "even" : "odd");
+            table.putItem(tableName, item);
+        }
+
+        List<Map<String, Object>> newest = table.query(tableName, NoSqlQuery.partitionKey("qb").descending().limit(1).build());
+        Assertions.assertEquals(1, newest.size());
+        Assertions.assertEquals("2025-01-05", newest.get(0).get("timestamp"));
+
+        List<Map<String, Object>> odd = table.query(tableName, NoSqlQuery.partitionKey("qb")
+            .sortKeyBeginsWith("2025-01").filter("status", "odd").project("timestamp").limit(2).build());
+        Assertions.assertEquals(List.of(Map.of("timestamp", "2025-01-01"), Map.of("timestamp", "2025-01-03")), odd);
+
+        Assertions.assertEquals(3, table.query(tableName,
+            NoSqlQuery.partitionKey("qb").sortKeyBetween("2025-01-02", "2025-01-04").build()).size());
+    }
+
     @Test
     @DisplayName("DynamoDB: query by partition key returns matching items")
     void queryByPartitionKey() {
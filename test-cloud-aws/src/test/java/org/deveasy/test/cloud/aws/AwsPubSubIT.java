@@ -7,11 +7,14 @@ package org.deveasy.test.cloud.aws;
 import org.deveasy.test.core.cloud.CloudMode;
 import org.deveasy.test.core.cloud.CloudProvider;
 import org.deveasy.test.core.cloud.TestCloudConfig;
+import org.deveasy.test.core.cloud.capability.AsyncPubSub;
 import org.deveasy.test.core.cloud.capability.PubSub;
 import org.deveasy.test.core.cloud.capability.Queue;
 import org.junit.jupiter.api.*;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -69,4 +72,31 @@ class AwsPubSubIT {
         Optional<String> again = pubsub.receive(subscriptionQueue, Duration.ofSeconds(2));
         Assertions.assertTrue(again.isEmpty(), "queue should be empty after delete-on-receive");
     }
+
+    @Test
+    @DisplayName("Async publish to a FIFO topic creates it as FIFO and delivers in publish order")
+    void asyncPublishToFifoTopic() {
+        AsyncPubSub async = adapter.asyncPubSub();
+        String fifoTopic = topic + ".fifo";
+        String fifoQueue = subscriptionQueue + ".fifo";
+        queue.ensureQueue(fifoQueue);
+        try {
+            // The first publish creates the topic; FIFO topics only accept FIFO queue subscriptions
+            async.publish(fifoTopic, "f-0").join();
+            pubsub.ensureSubscription(fifoTopic, fifoQueue);
+            for (int i = 1; i <= 3; i++) {
+                async.publish(fifoTopic, "f-" + i).join();
+            }
+
+            List<String> bodies = new ArrayList<>();
+            long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+            while (bodies.size() < 3 && System.nanoTime() < deadline) {
+                async.receive(fifoQueue, Duration.ofSeconds(2)).join().ifPresent(bodies::add);
+            }
+            Assertions.assertEquals(List.of("f-1", "f-2", "f-3"), bodies, "the default group keeps publish order");
+        } finally {
+            try { queue.deleteQueue(fifoQueue); } catch (Throwable ignored) {}
+            try { pubsub.deleteTopic(fifoTopic); } catch (Throwable ignored) {}
+        }
+    }
 }
@@ -7,6 +7,10 @@ package org.deveasy.test.cloud.aws;
 import org.deveasy.test.core.cloud.CloudMode;
 import org.deveasy.test.core.cloud.CloudProvider;
 import org.deveasy.test.core.cloud.TestCloudConfig;
+import org.deveasy.test.core.cloud.capability.AsyncQueue;
+import org.deveasy.test.core.cloud.capability.Listener;
+import org.deveasy.test.core.cloud.capability.ListenerOptions;
+import org.deveasy.test.core.cloud.capability.Message;
 import org.deveasy.test.core.cloud.capability.Queue;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
@@ -15,8 +19,18 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 class AwsQueueIT {
 
@@ -63,4 +77,147 @@ class AwsQueueIT {
         Optional<String> again = queue.receive(qname, Duration.ofSeconds(1));
         Assertions.assertTrue(again.isEmpty(), "queue should be empty after delete-on-receive");
     }
+
+    @Test
+    @DisplayName("SQS batch flow: sendBatch (> 10 messages) -> receiveBatch drains all")
+    void sqsBatchFlow() {
+        List<String> payloads = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            payloads.add("message-" + i);
+        }
+
+        queue.sendBatch(qname, payloads);
+
+        Set<String> received = new HashSet<>();
+        long deadline = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+        while (received.size() < payloads.size() && System.nanoTime() < deadline) {
+            List<String> batch = queue.receiveBatch(qname, 10, Duration.ofSeconds(2));
+            Assertions.assertTrue(batch.size() <= 10, "receiveBatch should honour max");
+            received.addAll(batch);
+        }
+        Assertions.assertEquals(new HashSet<>(payloads), received);
+        Assertions.assertTrue(queue.receiveBatch(qname, 10, Duration.ofSeconds(1)).isEmpty(),
+            "queue should be empty after batch delete-on-receive");
+    }
+
+    @Test
+    @DisplayName("SQS async: hundreds of concurrent sends from one thread, then async receiveBatch drains them")
+    void sqsAsyncFanOut() {
+        AsyncQueue async = adapter.asyncQueue();
+        List<CompletableFuture<Void>> sends = new ArrayList<>();
+        Set<String> payloads = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            payloads.add("async-" + i);
+            sends.add(async.send(qname, "async-" + i));
+        }
+        CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).join();
+
+        Set<String> received = new HashSet<>();
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (received.size() < payloads.size() && System.nanoTime() < deadline) {
+            received.addAll(async.receiveBatch(qname, 50, Duration.ofSeconds(2)).join());
+        }
+        Assertions.assertEquals(payloads, received);
+    }
+
+    @Test
+    @DisplayName("SQS async FIFO: plain sends and batches get a group and deduplication ID and keep send order")
+    void sqsAsyncFifo() {
+        AsyncQueue async = adapter.asyncQueue();
+        String fifo = qname + ".fifo";
+        queue.ensureQueue(fifo);
+        try {
+            async.send(fifo, "f-0").join();
+            async.sendBatch(fifo, List.of("f-1", "f-2", "f-3")).join();
+            async.send(fifo, "f-4").join();
+
+            List<String> bodies = new ArrayList<>();
+            long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+            while (bodies.size() < 5 && System.nanoTime() < deadline) {
+                bodies.addAll(async.receiveBatch(fifo, 10, Duration.ofSeconds(2)).join());
+            }
+            Assertions.assertEquals(List.of("f-0", "f-1", "f-2", "f-3", "f-4"), bodies, "the default group keeps send order");
+        } finally {
+            queue.deleteQueue(fifo);
+        }
+    }
+
+    @Test
+    @DisplayName("SQS listener: concurrent handlers see every message, failed ones are not deleted")
+    void sqsListener() throws Exception {
+        List<String> bodies = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            bodies.add("listen-" + i);
+        }
+        queue.sendBatch(qname, bodies);
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        CountDownLatch all = new CountDownLatch(bodies.size());
+
+        try (Listener listener = queue.subscribe(qname, m -> {
+            if (seen.add(m.body())) all.countDown();
+        }, ListenerOptions.builder().concurrency(8).prefetch(40).build())) {
+            Assertions.assertTrue(all.await(60, TimeUnit.SECONDS), "all messages should arrive");
+        }
+        Assertions.assertEquals(new HashSet<>(bodies), seen);
+        Assertions.assertEquals(Optional.empty(), queue.receive(qname, Duration.ofSeconds(1)), "handled messages are deleted");
+
+        queue.send(qname, "poison");
+        CountDownLatch attempted = new CountDownLatch(1);
+        try (Listener listener = queue.subscribe(qname, m -> {
+            attempted.countDown();
+            throw new IllegalStateException("rejected");
+        }, ListenerOptions.builder().onError(e -> { }).build())) {
+            Assertions.assertTrue(attempted.await(10, TimeUnit.SECONDS));
+        }
+        Assertions.assertEquals(Optional.of("poison"), queue.receive(qname, Duration.ofSeconds(40)),
+                "a failed message is redelivered after the visibility timeout");
+    }
+
+    @Test
+    @DisplayName("SQS messages: attributes and timestamps round-trip; FIFO queues keep order and deduplicate")
+    void sqsMessageMetadata() {
+        queue.send(qname, Message.builder("with-attrs").attribute("type", "created").build());
+        Message got = queue.receiveMessage(qname, Duration.ofSeconds(5)).orElseThrow();
+        Assertions.assertEquals(Map.of("type", "created"), got.attributes());
+        Assertions.assertNotNull(got.id());
+        Assertions.assertEquals(1, got.receiveCount());
+        Assertions.assertNotNull(got.latency());
+
+        String fifo = qname + ".fifo";
+        queue.ensureQueue(fifo);
+        try {
+            queue.sendBatch(fifo, List.of("f-0", "f-1"));
+            queue.send(fifo, "f-2");
+            queue.send(fifo, Message.builder("f-3").groupId("g").deduplicationId("d-3").build());
+            queue.send(fifo, Message.builder("f-3 again").groupId("g").deduplicationId("d-3").build());
+
+            List<String> bodies = new ArrayList<>();
+            long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+            while (bodies.size() < 4 && System.nanoTime() < deadline) {
+                for (Message m : queue.receiveMessages(fifo, 10, Duration.ofSeconds(2))) bodies.add(m.body());
+            }
+            Assertions.assertEquals(List.of("f-0", "f-1", "f-2"), bodies.stream().filter(b -> !b.equals("f-3")).collect(Collectors.toList()),
+                    "the default group keeps send order");
+            Assertions.assertEquals(4, bodies.size());
+            Assertions.assertEquals(Optional.empty(), queue.receive(fifo, Duration.ofSeconds(1)), "duplicate dropped");
+        } finally {
+            queue.deleteQueue(fifo);
+        }
+    }
+
+    @Test
+    @DisplayName("SQS drain/awaitCount: hundreds of messages collected with batch receives under one deadline")
+    void sqsDrainAndAwaitCount() {
+        List<String> bodies = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            bodies.add((i % 5 == 0 ? "shipped-" : "created-") + i);
+        }
+        queue.sendBatch(qname, bodies);
+
+        List<Message> shipped = queue.awaitCount(qname, m -> m.body().startsWith("shipped-"), 10, Duration.ofSeconds(30));
+        Assertions.assertEquals(10, shipped.size());
+        List<Message> rest = queue.drain(qname, 250, Duration.ofSeconds(5));
+        Assertions.assertTrue(rest.size() < 250, "awaitCount consumed the messages it received");
+        Assertions.assertEquals(List.of(), queue.drain(qname, 1, Duration.ZERO));
+    }
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2025
+ * Apache License, Version 2.0
+ */
+package org.deveasy.test.cloud.aws;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pure conversion tests for {@link DefaultAttributeValueConverter} and {@link ItemCodec}; no emulator needed.
+ */
+class ItemCodecTest {
+
+    private final AttributeValueConverter converter = AttributeValueConverter.defaults();
+
+    enum Status { ACTIVE, CLOSED }
+
+    record Address(String city, int zip) { }
+
+    record Order(String id, long total, boolean paid, Status status, Address shipTo, List<Object> tags) { }
+
+    static class Customer {
+        String id;
+        int visits;
+        Double score;
+        transient String ignored = "x";
+    }
+
+    @Test
+    @DisplayName("Converter: nested Map/List round-trip and single-pass number parsing")
+    void converterRoundTrip() {
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("id", "a");
+        item.put("nested", Map.of("n", 1, "list", List.of("x", 2L)));
+        item.put("skipped", null);
+
+        Map<String, AttributeValue> av = converter.toAttributes(item);
+        Assertions.assertFalse(av.containsKey("skipped"));
+        Assertions.assertEquals(AttributeValue.Type.M, av.get("nested").type());
+
+        Map<String, Object> back = converter.fromAttributes(av);
+        Assertions.assertEquals(Map.of("n", 1, "list", List.of("x", 2)), back.get("nested"));
+
+        Assertions.assertEquals(42, converter.fromAttributeValue(AttributeValue.fromN("42")));
+        Assertions.assertEquals(-5_000_000_000L, converter.fromAttributeValue(AttributeValue.fromN("-5000000000")));
+        Assertions.assertEquals(1.5d, converter.fromAttributeValue(AttributeValue.fromN("1.5")));
+        Assertions.assertEquals(new BigDecimal("123456789012345678901234567890"),
+            converter.fromAttributeValue(AttributeValue.fromN("123456789012345678901234567890")));
+        Assertions.assertEquals(List.of(), converter.fromAttributeValue(AttributeValue.fromL(List.of())));
+    }
+
+    @Test
+    @DisplayName("ItemCodec: records round-trip through the canonical constructor, including nested records")
+    void recordRoundTrip() {
+        Order order = new Order("o-1", 5_000_000_000L, true, Status.CLOSED, new Address("Oslo", 150), List.of("a", 1));
+        ItemCodec<Order> codec = ItemCodec.of(Order.class);
+
+        Map<String, AttributeValue> item = codec.encode(order, converter);
+        Assertions.assertEquals("CLOSED", item.get("status").s());
+        Assertions.assertEquals("Oslo", item.get("shipTo").m().get("city").s());
+
+        Assertions.assertEquals(order, codec.decode(item, converter));
+        Assertions.assertSame(codec, ItemCodec.of(Order.class), "codecs are cached per class");
+    }
+
+    @Test
+    @DisplayName("ItemCodec: POJO fields are set from present attributes; transient fields are skipped")
+    void pojoDecode() {
+        Map<String, AttributeValue> item = Map.of(
+            "id", AttributeValue.fromS("c-1"),
+            "visits", AttributeValue.fromN("3"),
+            "ignored", AttributeValue.fromS("y"));
+
+        Customer c = ItemCodec.of(Customer.class).decode(item, converter);
+        Assertions.assertEquals("c-1", c.id);
+        Assertions.assertEquals(3, c.visits);
+        Assertions.assertNull(c.score);
+        Assertions.assertEquals("x", c.ignored);
+        Assertions.assertFalse(ItemCodec.of(Customer.class).encode(c, converter).containsKey("ignored"));
+    }
+
+    @Test
+    @DisplayName("ItemCodec: type mismatches fail with IllegalArgumentException")
+    void mismatch() {
+        Map<String, AttributeValue> item = Map.of("id", AttributeValue.fromS("c-1"), "visits", AttributeValue.fromS("many"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ItemCodec.of(Customer.class).decode(item, converter));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ItemCodec.of(Runnable.class));
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2025
+ * Apache License, Version 2.0
+ */
+package org.deveasy.test.cloud.aws;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.GetQueueUrlRequest;
+import software.amazon.awssdk.services.sqs.model.GetQueueUrlResponse;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Receive loop tests of {@link AwsQueue} and {@link AwsAsyncQueue} against an always-empty queue; no emulator needed.
+ * The fake SQS clients honour the long-poll wait, so every ReceiveMessage call takes as long as it would on SQS.
+ */
+class SqsReceiveTest {
+
+    @Test
+    @DisplayName("Blocking receive: a 1s timeout on an empty queue is a single 1s long poll")
+    void blockingReceiveLongPollsOnce() {
+        EmptySqs sqs = new EmptySqs();
+        AwsQueue queue = new AwsQueue(null, sqs);
+
+        Assertions.assertTrue(queue.receive("q").isEmpty());
+        Assertions.assertEquals(List.of(1), sqs.waits);
+    }
+
+    @Test
+    @DisplayName("Blocking receive: a fractional timeout rounds the long poll up instead of short-polling")
+    void blockingReceiveRoundsUp() {
+        EmptySqs sqs = new EmptySqs();
+        AwsQueue queue = new AwsQueue(null, sqs);
+
+        Assertions.assertTrue(queue.receiveBatch("q", 5, Duration.ofMillis(1500)).isEmpty());
+        Assertions.assertEquals(List.of(2), sqs.waits);
+    }
+
+    @Test
+    @DisplayName("Blocking receive: a zero timeout is a single short poll")
+    void blockingReceiveZeroTimeout() {
+        EmptySqs sqs = new EmptySqs();
+        AwsQueue queue = new AwsQueue(null, sqs);
+
+        Assertions.assertTrue(queue.receive("q", Duration.ZERO).isEmpty());
+        Assertions.assertEquals(List.of(0), sqs.waits);
+    }
+
+    @Test
+    @DisplayName("Async receive: a 1s timeout on an empty queue is a single 1s long poll")
+    void asyncReceiveLongPollsOnce() {
+        EmptyAsyncSqs sqs = new EmptyAsyncSqs();
+        AwsAsyncQueue queue = new AwsAsyncQueue(sqs);
+
+        Assertions.assertTrue(queue.receive("q", Duration.ofSeconds(1)).join().isEmpty());
+        Assertions.assertEquals(List.of(1), sqs.waits);
+    }
+
+    private static GetQueueUrlResponse urlOf(GetQueueUrlRequest request) {
+        return GetQueueUrlResponse.builder().queueUrl("http://sqs.local/000000000000/" + request.queueName()).build();
+    }
+
+    /** Blocking SQS whose queues never have messages; records the wait of every ReceiveMessage call. */
+    private static final class EmptySqs implements SqsClient {
+        final List<Integer> waits = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public GetQueueUrlResponse getQueueUrl(GetQueueUrlRequest request) {
+            return urlOf(request);
+        }
+
+        @Override
+        public ReceiveMessageResponse receiveMessage(ReceiveMessageRequest request) {
+            waits.add(request.waitTimeSeconds());
+            try {
+                TimeUnit.SECONDS.sleep(request.waitTimeSeconds());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ReceiveMessageResponse.builder().build();
+        }
+
+        @Override
+        public String serviceName() {
+            return SERVICE_NAME;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /** Async counterpart of {@link EmptySqs}. */
+    private static final class EmptyAsyncSqs implements SqsAsyncClient {
+        final List<Integer> waits = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public CompletableFuture<GetQueueUrlResponse> getQueueUrl(GetQueueUrlRequest request) {
+            return CompletableFuture.completedFuture(urlOf(request));
+        }
+
+        @Override
+        public CompletableFuture<ReceiveMessageResponse> receiveMessage(ReceiveMessageRequest request) {
+            waits.add(request.waitTimeSeconds());
+            return CompletableFuture.supplyAsync(() -> ReceiveMessageResponse.builder().build(),
+                CompletableFuture.delayedExecutor(request.waitTimeSeconds(), TimeUnit.SECONDS));
+        }
+
+        @Override
+        public String serviceName() {
+            return SERVICE_NAME;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
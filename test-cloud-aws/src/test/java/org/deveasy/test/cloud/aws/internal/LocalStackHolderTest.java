@@ -0,0 +1,100 @@
+/*
+ * Copyright 2025
+ * Apache License, Version 2.0
+ */
+package org.deveasy.test.cloud.aws.internal;
+
+import org.deveasy.test.core.cloud.CloudMode;
+import org.deveasy.test.core.cloud.CloudProvider;
+import org.deveasy.test.core.cloud.CloudServiceType;
+import org.deveasy.test.core.cloud.TestCloudConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.localstack.LocalStackContainer.Service;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service mapping and boot bookkeeping of {@link LocalStackHolder}; no container is started.
+ */
+class LocalStackHolderTest {
+
+    @Test
+    @DisplayName("servicesFor: maps declared categories, pub/sub brings SQS along, none declared means all")
+    void servicesFor() {
+        Assertions.assertEquals(EnumSet.of(Service.S3, Service.SQS, Service.SNS, Service.DYNAMODB),
+            LocalStackHolder.servicesFor(config()));
+        Assertions.assertEquals(EnumSet.of(Service.SNS, Service.SQS),
+            LocalStackHolder.servicesFor(config(CloudServiceType.PUBSUB)));
+        Assertions.assertEquals(EnumSet.of(Service.S3, Service.DYNAMODB),
+            LocalStackHolder.servicesFor(config(CloudServiceType.STORAGE, CloudServiceType.NOSQL)));
+    }
+
+    @Test
+    @DisplayName("Boots: concurrent requests share one in-flight boot that also covers the services alongside")
+    void concurrentRequestsShareOneBoot() throws Exception {
+        LocalStackHolder.Boots<String> boots = new LocalStackHolder.Boots<>();
+        AtomicInteger starts = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<CompletableFuture<String>> callers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            callers.add(CompletableFuture.supplyAsync(() -> boots.ensureStarted(Service.S3, Set.of(Service.SQS), services -> {
+                starts.incrementAndGet();
+                await(release);
+                return "container" + services;
+            })));
+        }
+        Thread.sleep(100); // let every caller reach the boot
+        Assertions.assertNull(boots.getNow(Service.S3), "still booting");
+        release.countDown();
+
+        for (CompletableFuture<String> caller : callers) {
+            Assertions.assertEquals("container[S3, SQS]", caller.get(5, TimeUnit.SECONDS));
+        }
+        Assertions.assertEquals(1, starts.get());
+        Assertions.assertEquals("container[S3, SQS]", boots.ensureStarted(Service.SQS, Set.of(), s -> "unexpected"));
+        Assertions.assertEquals("container[DYNAMODB]", boots.ensureStarted(Service.DYNAMODB, Set.of(Service.S3), s -> "container" + s),
+            "a service no boot covers gets its own container with only the missing services");
+    }
+
+    @Test
+    @DisplayName("Boots: a failed boot is forgotten and retried by the next request")
+    void failedBootIsRetried() {
+        LocalStackHolder.Boots<String> boots = new LocalStackHolder.Boots<>();
+
+        IllegalStateException failed = Assertions.assertThrows(IllegalStateException.class,
+            () -> boots.ensureStarted(Service.SNS, Set.of(), s -> {
+                throw new IllegalArgumentException("no docker");
+            }));
+        Assertions.assertEquals("no docker", failed.getCause().getMessage());
+        Assertions.assertNull(boots.getNow(Service.SNS));
+
+        Assertions.assertEquals("retried", boots.ensureStarted(Service.SNS, Set.of(), s -> "retried"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static TestCloudConfig config(CloudServiceType... services) {
+        return TestCloudConfig.builder()
+            .provider(CloudProvider.AWS)
+            .mode(CloudMode.EMULATOR)
+            .regionOrLocation("us-east-1")
+            .services(services)
+            .build();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2025
+ * Apache License, Version 2.0
+ */
+package org.deveasy.test.cloud.inmemory;
+
+import org.deveasy.test.core.cloud.capability.AsyncBlobStorage;
+import org.deveasy.test.core.cloud.capability.AsyncNoSqlTable;
+import org.deveasy.test.core.cloud.capability.AsyncPubSub;
+import org.deveasy.test.core.cloud.capability.AsyncQueue;
+import org.deveasy.test.core.cloud.capability.BlobStorage;
+import org.deveasy.test.core.cloud.capability.NoSqlTable;
+import org.deveasy.test.core.cloud.capability.PubSub;
+import org.deveasy.test.core.cloud.capability.Queue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking views of the in-memory capabilities. Every operation except a waiting receive completes on the
+ * calling thread, since the backing structures never block. A receive that finds no message re-polls on a single
+ * shared timer thread until a message arrives or its timeout passes, so waiting receives hold no thread.
+ */
+final class InMemoryAsync {
+
+    private static final long POLL_INTERVAL_MILLIS = 5;
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "inmemory-async-receive");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private InMemoryAsync() {}
+
+    static AsyncBlobStorage of(BlobStorage storage) {
+        return new AsyncBlobStorage() {
+            @Override public CompletableFuture<Void> putObject(String bucket, String key, byte[] data, String contentType) { return run(() -> storage.putObject(bucket, key, data, contentType)); }
+            @Override public CompletableFuture<byte[]> getObject(String bucket, String key) { return call(() -> storage.getObject(bucket, key)); }
+            @Override public CompletableFuture<Void> deleteObject(String bucket, String key) { return run(() -> storage.deleteObject(bucket, key)); }
+            @Override public CompletableFuture<List<String>> listKeys(String bucket, String prefix) { return call(() -> storage.listKeys(bucket, prefix)); }
+            @Override public CompletableFuture<Boolean> exists(String bucket, String key) { return call(() -> storage.exists(bucket, key)); }
+        };
+    }
+
+    static AsyncQueue of(Queue queue) {
+        return new AsyncQueue() {
+            @Override public CompletableFuture<Void> send(String q, String body) { return run(() -> queue.send(q, body)); }
+            @Override public CompletableFuture<Void> sendBatch(String q, List<String> bodies) { return run(() -> queue.sendBatch(q, bodies)); }
+            @Override public CompletableFuture<Optional<String>> receive(String q, Duration timeout) {
+                return poll(() -> queue.receiveBatch(q, 1, Duration.ZERO), timeout).thenApply(m -> m.stream().findFirst());
+            }
+            @Override public CompletableFuture<List<String>> receiveBatch(String q, int max, Duration timeout) {
+                return poll(() -> queue.receiveBatch(q, max, Duration.ZERO), timeout);
+            }
+        };
+    }
+
+    static AsyncPubSub of(PubSub pubSub, Queue queue) {
+        AsyncQueue subscriptions = of(queue);
+        return new AsyncPubSub() {
+            @Override public CompletableFuture<Void> publish(String topic, String body) { return run(() -> pubSub.publish(topic, body)); }
+            @Override public CompletableFuture<Optional<String>> receive(String subscription, Duration timeout) { return subscriptions.receive(subscription, timeout); }
+        };
+    }
+
+    static AsyncNoSqlTable of(NoSqlTable table) {
+        return new AsyncNoSqlTable() {
+            @Override public CompletableFuture<Void> putItem(String tableName, Map<String, Object> item) { return run(() -> table.putItem(tableName, item)); }
+            @Override public CompletableFuture<Map<String, Object>> getItem(String tableName, String pk) { return call(() -> table.getItem(tableName, pk)); }
+            @Override public CompletableFuture<Map<String, Object>> getItem(String tableName, String pk, String sk) { return call(() -> table.getItem(tableName, pk, sk)); }
+            @Override public CompletableFuture<Void> deleteItem(String tableName, String pk) { return run(() -> table.deleteItem(tableName, pk)); }
+            @Override public CompletableFuture<Void> deleteItem(String tableName, String pk, String sk) { return run(() -> table.deleteItem(tableName, pk, sk)); }
+            @Override public CompletableFuture<List<Map<String, Object>>> query(String tableName, String pk) { return call(() -> table.query(tableName, pk)); }
+        };
+    }
+
+    private static CompletableFuture<Void> run(Runnable op) {
+        return call(() -> {
+            op.run();
+            return null;
+        });
+    }
+
+    private static <T> CompletableFuture<T> call(Supplier<T> op) {
+        try {
+            return CompletableFuture.completedFuture(op.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /** Completes with the first non-empty result of {@code receive}, or the last (empty) one once the timeout passes. */
+    private static <T> CompletableFuture<List<T>> poll(Supplier<List<T>> receive, Duration timeout) {
+        if (timeout == null || timeout.isNegative()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("timeout must not be null or negative"));
+        }
+        CompletableFuture<List<T>> result = new CompletableFuture<>();
+        attempt(receive, System.nanoTime() + timeout.toNanos(), result);
+        return result;
+    }
+
+    private static <T> void attempt(Supplier<List<T>> receive, long deadline, CompletableFuture<List<T>> result) {
+        if (result.isDone()) return; // cancelled by the caller
+        try {
+            List<T> messages = receive.get();
+            if (!messages.isEmpty() || System.nanoTime() - deadline >= 0) {
+                result.complete(messages);
+                return;
+            }
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+            return;
+        }
+        long delay = Math.min(TimeUnit.MILLISECONDS.toNanos(POLL_INTERVAL_MILLIS), deadline - System.nanoTime());
+        TIMER.schedule(() -> attempt(receive, deadline, result), Math.max(0, delay), TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2025
+ * Apache License, Version 2.0
+ */
+package org.deveasy.test.cloud.inmemory;
+
+import org.deveasy.test.core.cloud.capability.BlobStorage;
+import org.deveasy.test.core.cloud.capability.Snapshot;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory BlobStorage. Buckets are sorted maps so {@link #listKeys(String, String)} returns keys in
+ * lexicographic order, as S3 does. Stored and returned byte arrays are defensive copies.
+ */
+public final class InMemoryBlobStorage implements BlobStorage {
+
+    private final Map<String, NavigableMap<String, byte[]>> buckets = new ConcurrentHashMap<>();
+
+    /** Drops every bucket; used when the owning adapter is closed. */
+    void clear() {
+        buckets.clear();
+    }
+
+    @Override
+    public void ensureBucket(String name) {
+        requireName(name, "name");
+        buckets.computeIfAbsent(name, k -> new ConcurrentSkipListMap<>());
+    }
+
+    @Override
+    public void deleteBucket(String name) {
+        requireName(name, "name");
+        buckets.remove(name);
+    }
+
+    @Override
+    public void putObject(String bucket, String key, byte[] data, String contentType) {
+        requireName(key, "key");
+        if (data == null) {
+            throw new IllegalArgumentException("data must not be null");
+        }
+        bucket(bucket).put(key, Arrays.copyOf(data, data.length));
+    }
+
+    @Override
+    public void putObject(String bucket, String key, InputStream data, String contentType) {
+        if (data == null) {
+            throw new IllegalArgumentException("data must not be null");
+        }
+        try (InputStream in = data) {
+            putObject(bucket, key, in.readAllBytes(), contentType);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read input stream for putObject", e);
+        }
+    }
+
+    @Override
+    public byte[] getObject(String bucket, String key) {
+        requireName(key, "key");
+        byte[] v = bucket(bucket).get(key);
+        return v == null ? null : Arrays.copyOf(v, v.length);
+    }
+
+    @Override
+    public InputStream openObject(String bucket, String key) {
+        requireName(key, "key");
+        // Stored arrays are never mutated after put, so the stream can read them without a copy
+        byte[] v = bucket(bucket).get(key);
+        return v == null ? null : new ByteArrayInputStream(v);
+    }
+
+    @Override
+    public byte[] getObjectRange(String bucket, String key, long offset, long length) {
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("offset and length must not be negative");
+        }
+        requireName(key, "key");
+        byte[] v = bucket(bucket).get(key);
+        if (v == null) return null;
+        int from = (int) Math.min(offset, v.length);
+        int to = (int) Math.min(v.length, from + Math.min(length, (long) v.length));
+        return Arrays.copyOfRange(v, from, to);
+    }
+
+    @Override
+    public void deleteObject(String bucket, String key) {
+        requireName(key, "key");
+        NavigableMap<String, byte[]> objects = buckets.get(bucket);
+        if (objects != null) {
+            objects.remove(key);
+        }
+    }
+
+    @Override
+    public List<String> listKeys(String bucket, String prefix) {
+        return streamKeys(bucket, prefix, null).collect(Collectors.toList());
+    }
+
+    @Override
+    public Stream<String> streamKeys(String bucket, String prefix, String delimiter) {
+        NavigableMap<String, byte[]> objects = bucket(bucket);
+        String p = prefix == null ? "" : prefix;
+        NavigableMap<String, byte[]> view = p.isEmpty() ? objects : objects.tailMap(p, true);
+        // Keys are sorted, so everything under the prefix is a contiguous run starting at the tail view
+        Stream<String> keys = view.keySet().stream().takeWhile(k -> k.startsWith(p));
+        if (delimiter == null || delimiter.isEmpty()) {
+            return keys;
+        }
+        return keys.map(k -> {
+            int i = k.indexOf(delimiter, p.length());
+            return i < 0 ? k : k.substring(0, i + delimiter.length());
+        }).distinct();
+    }
+
+    @Override
+    public boolean exists(String bucket, String key) {
+        requireName(key, "key");
+        NavigableMap<String, byte[]> objects = buckets.get(bucket);
+        return objects != null && objects.containsKey(key);
+    }
+
+    @Override
+    public Snapshot snapshot(String... buckets) {
+        if (buckets == null) {
+            throw new IllegalArgumentException("buckets must not be null");
+        }
+        // Stored arrays are never mutated after put, so the snapshot shares them and restoring only copies the maps
+        Map<String, NavigableMap<String, byte[]>> captured = new LinkedHashMap<>();
+        for (String b : buckets) {
+            captured.put(b, new ConcurrentSkipListMap<>(bucket(b)));
+        }
+        return () -> captured.forEach((b, objects) -> this.buckets.put(b, new ConcurrentSkipListMap<>(objects)));
+    }
+
+    private NavigableMap<String, byte[]> bucket(String name) {
+        requireName(name, "bucket");
+        NavigableMap<String, byte[]> objects = buckets.get(name);
+        if (objects == null) {
+            throw new IllegalStateException("Bucket does not exist: " + name);
+        }
+        return objects;
+    }
+
+    static void requireName(String value, String what) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(what + " must not be null or blank");
+        }
+    }
+}
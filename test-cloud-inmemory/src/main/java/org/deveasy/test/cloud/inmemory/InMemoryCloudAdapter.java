@@ -0,0 +1,128 @@
+/*
+ * Copyright 2025
+ * Apache License, Version 2.0
+ */
+package org.deveasy.test.cloud.inmemory;
+
+import org.deveasy.test.core.cloud.CloudMode;
+import org.deveasy.test.core.cloud.CloudProvider;
+import org.deveasy.test.core.cloud.TestCloudConfig;
+import org.deveasy.test.core.cloud.capability.AsyncBlobStorage;
+import org.deveasy.test.core.cloud.capability.AsyncNoSqlTable;
+import org.deveasy.test.core.cloud.capability.AsyncPubSub;
+import org.deveasy.test.core.cloud.capability.AsyncQueue;
+import org.deveasy.test.core.cloud.capability.BlobStorage;
+import org.deveasy.test.core.cloud.capability.NoSqlTable;
+import org.deveasy.test.core.cloud.capability.PubSub;
+import org.deveasy.test.core.cloud.capability.Queue;
+import org.deveasy.test.core.cloud.spi.CloudAdapter;
+
+/**
+ * Provider-neutral adapter backing {@link CloudMode#IN_MEMORY}. All capabilities are served from concurrent
+ * in-JVM data structures, so no container or network is involved.
+ * <p>
+ * Capability instances are shared by every caller of this adapter so that, for example, a message published via
+ * {@link PubSub} is visible through {@link Queue}. State lives as long as the adapter instance and is dropped by
+ * {@link #close()}.
+ * </p>
+ */
+public final class InMemoryCloudAdapter implements CloudAdapter, AutoCloseable {
+
+    private final InMemoryBlobStorage storage = new InMemoryBlobStorage();
+    private final InMemoryQueue queue = new InMemoryQueue();
+    private final InMemoryPubSub pubSub = new InMemoryPubSub(queue);
+    private final InMemoryNoSqlTable noSqlTable = new InMemoryNoSqlTable();
+    private final AsyncBlobStorage asyncStorage = InMemoryAsync.of(storage);
+    private final AsyncQueue asyncQueue = InMemoryAsync.of(queue);
+    private final AsyncPubSub asyncPubSub = InMemoryAsync.of(pubSub, queue);
+    private final AsyncNoSqlTable asyncNoSqlTable = InMemoryAsync.of(noSqlTable);
+
+    private volatile TestCloudConfig config;
+
+    @Override
+    public CloudProvider provider() {
+        // Emulates whichever provider the config names; AWS until initialized (matches TestCloudConfig default)
+        TestCloudConfig c = config;
+        return c == null ? CloudProvider.AWS : c.provider();
+    }
+
+    @Override
+    public boolean supportsMode(CloudMode mode) {
+        return mode == CloudMode.IN_MEMORY;
+    }
+
+    @Override
+    public void initialize(TestCloudConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException("config must not be null");
+        }
+        if (config.mode() != CloudMode.IN_MEMORY) {
+            throw new IllegalArgumentException("InMemoryCloudAdapter only supports CloudMode.IN_MEMORY, got " + config.mode());
+        }
+        this.config = config;
+    }
+
+    @Override
+    public BlobStorage blobStorage() {
+        ensureInitialized();
+        return storage;
+    }
+
+    @Override
+    public Queue queue() {
+        ensureInitialized();
+        return queue;
+    }
+
+    @Override
+    public PubSub pubSub() {
+        ensureInitialized();
+        return pubSub;
+    }
+
+    @Override
+    public NoSqlTable noSqlTable() {
+        ensureInitialized();
+        return noSqlTable;
+    }
+
+    @Override
+    public AsyncBlobStorage asyncBlobStorage() {
+        ensureInitialized();
+        return asyncStorage;
+    }
+
+    @Override
+    public AsyncQueue asyncQueue() {
+        ensureInitialized();
+        return asyncQueue;
+    }
+
+    @Override
+    public AsyncPubSub asyncPubSub() {
+        ensureInitialized();
+        return asyncPubSub;
+    }
+
+    @Override
+    public AsyncNoSqlTable asyncNoSqlTable() {
+        ensureInitialized();
+        return asyncNoSqlTable;
+    }
+
+    /** Drops all buckets, queues, topics and tables. The adapter can be initialized again afterwards. */
+    @Override
+    public void close() {
+        config = null;
+        storage.clear();
+        queue.clear();
+        pubSub.clear();
+        noSqlTable.clear();
+    }
+
+    private void ensureInitialized() {
+        if (this.config == null) {
+            throw new IllegalStateException("InMemoryCloudAdapter not initialized. Call initialize(TestCloudConfig) first.");
+        }
+    }
+}
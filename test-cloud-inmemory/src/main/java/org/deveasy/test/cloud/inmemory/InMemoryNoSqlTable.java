@@ -0,0 +1,284 @@
+/*
+ * Copyright 2025
+ * Apache License, Version 2.0
+ */
+package org.deveasy.test.cloud.inmemory;
+
+import org.deveasy.test.core.cloud.capability.NoSqlQuery;
+import org.deveasy.test.core.cloud.capability.NoSqlTable;
+import org.deveasy.test.core.cloud.capability.Snapshot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+import static org.deveasy.test.cloud.inmemory.InMemoryBlobStorage.requireName;
+
+/**
+ * In-memory NoSqlTable following {@code AwsDynamoDB} semantics: key attributes are string-typed, items within a
+ * partition are ordered by sort key, {@code null} attribute values are dropped on write, and reads against a
+ * missing table return {@code null} or an empty list.
+ */
+public final class InMemoryNoSqlTable implements NoSqlTable {
+
+    /** Sort key used for tables that only define a partition key. */
+    private static final String NO_SORT_KEY = "";
+
+    private static final class Table {
+        final String pk;
+        final String sk; // nullable
+        final Map<String, NavigableMap<String, Map<String, Object>>> partitions = new ConcurrentHashMap<>();
+        Table(String pk, String sk) { this.pk = pk; this.sk = sk; }
+    }
+
+    private final Map<String, Table> tables = new ConcurrentHashMap<>();
+
+    /** Drops every table; used when the owning adapter is closed. */
+    void clear() {
+        tables.clear();
+    }
+
+    @Override
+    public void ensureTable(String tableName, String partitionKey) {
+        ensureTableInternal(tableName, partitionKey, null);
+    }
+
+    @Override
+    public void ensureTable(String tableName, String partitionKey, String sortKey) {
+        requireName(sortKey, "sortKey");
+        ensureTableInternal(tableName, partitionKey, sortKey);
+    }
+
+    private void ensureTableInternal(String tableName, String pk, String sk) {
+        requireName(tableName, "tableName");
+        requireName(pk, "partitionKey");
+        tables.computeIfAbsent(tableName, k -> new Table(pk, sk));
+    }
+
+    @Override
+    public void deleteTable(String tableName) {
+        requireName(tableName, "tableName");
+        tables.remove(tableName);
+    }
+
+    @Override
+    public void putItem(String tableName, Map<String, Object> item) {
+        requireName(tableName, "tableName");
+        if (item == null || item.isEmpty()) {
+            throw new IllegalArgumentException("item must not be null or empty");
+        }
+        Table t = tables.get(tableName);
+        if (t == null) {
+            throw new IllegalStateException("Table does not exist: " + tableName);
+        }
+        String pkValue = keyValue(item, t.pk);
+        String skValue = t.sk == null ? NO_SORT_KEY : keyValue(item, t.sk);
+        Map<String, Object> copy = new LinkedHashMap<>(item.size() * 4 / 3 + 1);
+        for (Map.Entry<String, Object> e : item.entrySet()) {
+            if (e.getValue() != null) {
+                copy.put(e.getKey(), e.getValue());
+            }
+        }
+        // compute() keeps the write atomic with remove() dropping an emptied partition
+        t.partitions.compute(pkValue, (k, partition) -> {
+            NavigableMap<String, Map<String, Object>> p = partition == null ? new ConcurrentSkipListMap<>() : partition;
+            p.put(skValue, copy);
+            return p;
+        });
+    }
+
+    @Override
+    public Map<String, Object> getItem(String tableName, String partitionKeyValue) {
+        Table t = table(tableName);
+        if (t == null) return null;
+        if (t.sk != null) {
+            throw new IllegalArgumentException("Table " + tableName + " has sort key '" + t.sk + "'; use getItem(table, pk, sk)");
+        }
+        return find(t, partitionKeyValue, NO_SORT_KEY);
+    }
+
+    @Override
+    public Map<String, Object> getItem(String tableName, String partitionKeyValue, String sortKeyValue) {
+        Table t = table(tableName);
+        if (t == null || t.sk == null) return null;
+        return find(t, partitionKeyValue, sortKeyValue);
+    }
+
+    @Override
+    public List<Map<String, Object>> getItems(String tableName, Collection<Map<String, Object>> keys) {
+        if (keys == null) {
+            throw new IllegalArgumentException("keys must not be null");
+        }
+        Table t = table(tableName);
+        if (t == null) return new ArrayList<>();
+        Set<List<String>> seen = new HashSet<>();
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (Map<String, Object> key : keys) {
+            if (key == null) {
+                throw new IllegalArgumentException("keys must not contain null");
+            }
+            String pkValue = keyValue(key, t.pk);
+            String skValue = t.sk == null ? NO_SORT_KEY : keyValue(key, t.sk);
+            if (seen.add(List.of(pkValue, skValue))) {
+                Map<String, Object> it = find(t, pkValue, skValue);
+                if (it != null) out.add(it);
+            }
+        }
+        return out;
+    }
+
+    @Override
+    public void deleteItem(String tableName, String partitionKeyValue) {
+        Table t = table(tableName);
+        if (t == null || t.sk != null) return;
+        remove(t, partitionKeyValue, NO_SORT_KEY);
+    }
+
+    @Override
+    public void deleteItem(String tableName, String partitionKeyValue, String sortKeyValue) {
+        Table t = table(tableName);
+        if (t == null || t.sk == null) return;
+        remove(t, partitionKeyValue, sortKeyValue);
+    }
+
+    @Override
+    public List<Map<String, Object>> scan(String tableName) {
+        Table t = table(tableName);
+        if (t == null) return Collections.emptyList();
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (NavigableMap<String, Map<String, Object>> partition : t.partitions.values()) {
+            for (Map<String, Object> it : partition.values()) {
+                out.add(new LinkedHashMap<>(it));
+            }
+        }
+        return out;
+    }
+
+    @Override
+    public Stream<Map<String, Object>> streamItems(String tableName) {
+        Table t = table(tableName);
+        if (t == null) return Stream.empty();
+        return t.partitions.values().stream()
+            .flatMap(partition -> partition.values().stream())
+            .map(LinkedHashMap::new);
+    }
+
+    @Override
+    public List<Map<String, Object>> query(String tableName, String partitionKeyValue) {
+        Table t = table(tableName);
+        if (t == null) return Collections.emptyList();
+        NavigableMap<String, Map<String, Object>> partition = t.partitions.get(partitionKeyValue);
+        if (partition == null) return Collections.emptyList();
+        List<Map<String, Object>> out = new ArrayList<>(partition.size());
+        for (Map<String, Object> it : partition.values()) {
+            out.add(new LinkedHashMap<>(it));
+        }
+        return out;
+    }
+
+    @Override
+    public List<Map<String, Object>> query(String tableName, NoSqlQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("query must not be null");
+        }
+        Table t = table(tableName);
+        if (t == null) return Collections.emptyList();
+        if (query.indexName() != null) {
+            throw new IllegalArgumentException("In-memory tables have no secondary indexes: " + query.indexName());
+        }
+        if (query.sortKeyOperator() != null && t.sk == null) {
+            throw new IllegalArgumentException("Table " + tableName + " has no sort key");
+        }
+        NavigableMap<String, Map<String, Object>> partition = t.partitions.get(query.partitionKeyValue());
+        if (partition == null) return Collections.emptyList();
+        NavigableMap<String, Map<String, Object>> range = sortKeyRange(partition, query);
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Object>> e : (query.descending() ? range.descendingMap() : range).entrySet()) {
+            if (query.limit() > 0 && out.size() == query.limit()) break;
+            // the range view narrows the scan; BEGINS_WITH still needs the exact check
+            if (query.sortKeyMatches(e.getKey()) && query.filtersMatch(e.getValue())) {
+                out.add(query.project(new LinkedHashMap<>(e.getValue())));
+            }
+        }
+        return out;
+    }
+
+    private static NavigableMap<String, Map<String, Object>> sortKeyRange(NavigableMap<String, Map<String, Object>> partition,
+                                                                          NoSqlQuery query) {
+        if (query.sortKeyOperator() == null) return partition;
+        String v = query.sortKeyValues().get(0);
+        switch (query.sortKeyOperator()) {
+            case EQ: return partition.subMap(v, true, v, true);
+            case LT: return partition.headMap(v, false);
+            case LE: return partition.headMap(v, true);
+            case GT: return partition.tailMap(v, false);
+            case GE:
+            case BEGINS_WITH: return partition.tailMap(v, true);
+            case BETWEEN:
+                String to = query.sortKeyValues().get(1);
+                return v.compareTo(to) > 0 ? Collections.emptyNavigableMap() : partition.subMap(v, true, to, true);
+            default: return partition;
+        }
+    }
+
+    @Override
+    public Snapshot snapshot(TableSpec... specs) {
+        if (specs == null) {
+            throw new IllegalArgumentException("tables must not be null");
+        }
+        // Stored item maps are never mutated after put, so only the partition maps are copied
+        Map<String, Table> captured = new LinkedHashMap<>();
+        for (TableSpec spec : specs) {
+            if (spec == null) {
+                throw new IllegalArgumentException("tables must not contain null");
+            }
+            Table t = tables.get(spec.name());
+            captured.put(spec.name(), t == null ? new Table(spec.partitionKey(), spec.sortKey()) : copy(t));
+        }
+        return () -> captured.forEach((name, t) -> tables.put(name, copy(t)));
+    }
+
+    private static Table copy(Table t) {
+        Table out = new Table(t.pk, t.sk);
+        t.partitions.forEach((pk, partition) -> out.partitions.put(pk, new ConcurrentSkipListMap<>(partition)));
+        return out;
+    }
+
+    // Helpers
+
+    private Table table(String tableName) {
+        requireName(tableName, "tableName");
+        return tables.get(tableName);
+    }
+
+    private static Map<String, Object> find(Table t, String pkValue, String skValue) {
+        NavigableMap<String, Map<String, Object>> partition = t.partitions.get(pkValue);
+        if (partition == null) return null;
+        Map<String, Object> it = partition.get(skValue);
+        return it == null ? null : new LinkedHashMap<>(it);
+    }
+
+    private static void remove(Table t, String pkValue, String skValue) {
+        t.partitions.computeIfPresent(pkValue, (k, partition) -> {
+            partition.remove(skValue);
+            return partition.isEmpty() ? null : partition;
+        });
+    }
+
+    private static String keyValue(Map<String, Object> item, String attribute) {
+        Object v = item.get(attribute);
+        if (v == null) {
+            throw new IllegalArgumentException("item is missing key attribute: " + attribute);
+        }
+        return String.valueOf(v);
+    }
+}
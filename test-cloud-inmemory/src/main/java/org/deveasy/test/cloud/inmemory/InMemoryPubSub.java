@@ -0,0 +1,113 @@
+/*
+ * Copyright 2025
+ * Apache License, Version 2.0
+ */
+package org.deveasy.test.cloud.inmemory;
+
+import org.deveasy.test.core.cloud.capability.Listener;
+import org.deveasy.test.core.cloud.capability.ListenerOptions;
+import org.deveasy.test.core.cloud.capability.Message;
+import org.deveasy.test.core.cloud.capability.PubSub;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
+
+import static org.deveasy.test.cloud.inmemory.InMemoryBlobStorage.requireName;
+
+/**
+ * In-memory PubSub modelled on SNS+SQS: a subscription names a queue of the shared {@link InMemoryQueue},
+ * and publishing fans the message out to every subscribed queue. Topics are created on demand by
+ * {@link #ensureSubscription(String, String)} and {@link #publish(String, String)}, as in {@code AwsPubSub}.
+ */
+public final class InMemoryPubSub implements PubSub {
+
+    private final Map<String, Set<String>> topics = new ConcurrentHashMap<>();
+    private final InMemoryQueue queues;
+
+    InMemoryPubSub(InMemoryQueue queues) {
+        this.queues = queues;
+    }
+
+    /** Drops every topic; the subscribed queues are cleared with the {@link InMemoryQueue}. */
+    void clear() {
+        topics.clear();
+    }
+
+    @Override
+    public void ensureTopic(String name) {
+        topic(name);
+    }
+
+    @Override
+    public void deleteTopic(String name) {
+        requireName(name, "name");
+        topics.remove(name);
+    }
+
+    @Override
+    public void ensureSubscription(String topic, String subscription) {
+        requireName(subscription, "subscription");
+        if (!queues.exists(subscription)) {
+            throw new IllegalStateException("Subscription queue does not exist: " + subscription);
+        }
+        topic(topic).add(subscription);
+    }
+
+    @Override
+    public void deleteSubscription(String topic, String subscription) {
+        requireName(topic, "topic");
+        requireName(subscription, "subscription");
+        Set<String> subscriptions = topics.get(topic);
+        if (subscriptions != null) {
+            subscriptions.remove(subscription);
+        }
+    }
+
+    @Override
+    public void publish(String topic, String body) {
+        if (body == null) {
+            throw new IllegalArgumentException("body must not be null");
+        }
+        publish(topic, Message.of(body));
+    }
+
+    @Override
+    public void publish(String topic, Message message) {
+        if (message == null) {
+            throw new IllegalArgumentException("message must not be null");
+        }
+        for (String subscription : topic(topic)) {
+            queues.deliver(subscription, message);
+        }
+    }
+
+    @Override
+    public Optional<String> receive(String subscription) {
+        return queues.receive(subscription);
+    }
+
+    @Override
+    public Optional<String> receive(String subscription, Duration timeout) {
+        return queues.receive(subscription, timeout);
+    }
+
+    @Override
+    public Optional<Message> receiveMessage(String subscription, Duration timeout) {
+        return queues.receiveMessage(subscription, timeout);
+    }
+
+    @Override
+    public Listener subscribe(String subscription, Consumer<Message> handler, ListenerOptions options) {
+        return queues.subscribe(subscription, handler, options);
+    }
+
+    private Set<String> topic(String name) {
+        requireName(name, "topic");
+        return topics.computeIfAbsent(name, k -> new CopyOnWriteArraySet<>());
+    }
+}
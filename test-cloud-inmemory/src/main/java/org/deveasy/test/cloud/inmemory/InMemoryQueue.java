@@ -0,0 +1,220 @@
+/*
+ * Copyright 2025
+ * Apache License, Version 2.0
+ */
+package org.deveasy.test.cloud.inmemory;
+
+import org.deveasy.test.core.cloud.capability.Message;
+import org.deveasy.test.core.cloud.capability.Queue;
+import org.deveasy.test.core.cloud.capability.Snapshot;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.deveasy.test.cloud.inmemory.InMemoryBlobStorage.requireName;
+
+/**
+ * In-memory Queue with FIFO ordering and delete-on-receive semantics. Timed receives block on the
+ * underlying {@link BlockingQueue} instead of polling.
+ * <p>
+ * Messages keep their attributes and are stamped with an ID and send time; delayed messages are enqueued by a timer
+ * thread once their delay passes. Queues named {@code *.fifo} drop a message whose deduplication ID was already sent
+ * within the last five minutes, as SQS does.
+ * </p>
+ */
+public final class InMemoryQueue implements Queue {
+
+    private static final Duration DEDUPLICATION_WINDOW = Duration.ofMinutes(5);
+    private static final ScheduledExecutorService DELAY_TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "inmemory-queue-delay");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Map<String, BlockingQueue<Message>> queues = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Instant>> deduplicationIds = new ConcurrentHashMap<>();
+
+    /** Drops every queue; messages still waiting on the delay timer land in the dropped queues. */
+    void clear() {
+        queues.clear();
+        deduplicationIds.clear();
+    }
+
+    @Override
+    public void ensureQueue(String name) {
+        requireName(name, "name");
+        queues.computeIfAbsent(name, k -> new LinkedBlockingQueue<>());
+    }
+
+    @Override
+    public void deleteQueue(String name) {
+        requireName(name, "name");
+        queues.remove(name);
+        deduplicationIds.remove(name);
+    }
+
+    @Override
+    public void send(String queue, String body) {
+        if (body == null) {
+            throw new IllegalArgumentException("body must not be null");
+        }
+        send(queue, Message.of(body));
+    }
+
+    @Override
+    public void send(String queue, Message message) {
+        if (message == null) {
+            throw new IllegalArgumentException("message must not be null");
+        }
+        enqueue(queue, queue(queue), message);
+    }
+
+    @Override
+    public Optional<String> receive(String queue) {
+        return dequeue(queue(queue), Duration.ZERO).map(Message::body);
+    }
+
+    @Override
+    public Optional<String> receive(String queue, Duration timeout) {
+        return receiveMessage(queue, timeout).map(Message::body);
+    }
+
+    @Override
+    public Optional<Message> receiveMessage(String queue, Duration timeout) {
+        if (timeout == null || timeout.isNegative()) {
+            throw new IllegalArgumentException("timeout must not be null or negative");
+        }
+        return dequeue(queue(queue), timeout);
+    }
+
+    @Override
+    public void sendBatch(String queue, List<String> bodies) {
+        // List.contains(null) throws on immutable lists such as List.of(...), so check element by element
+        if (bodies == null || bodies.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("bodies must not be null or contain null");
+        }
+        BlockingQueue<Message> q = queue(queue);
+        Instant now = Instant.now();
+        List<Message> messages = new ArrayList<>(bodies.size());
+        for (String body : bodies) {
+            messages.add(stamp(Message.of(body), now));
+        }
+        q.addAll(messages);
+    }
+
+    @Override
+    public List<String> receiveBatch(String queue, int max, Duration timeout) {
+        List<Message> messages = receiveMessages(queue, max, timeout);
+        List<String> out = new ArrayList<>(messages.size());
+        for (Message m : messages) out.add(m.body());
+        return out;
+    }
+
+    @Override
+    public List<Message> receiveMessages(String queue, int max, Duration timeout) {
+        if (max < 1) {
+            throw new IllegalArgumentException("max must be positive");
+        }
+        List<Message> out = new ArrayList<>(Math.min(max, 16));
+        BlockingQueue<Message> q = queue(queue);
+        Optional<Message> first = receiveMessage(queue, timeout);
+        while (first.isPresent()) {
+            out.add(first.get());
+            if (out.size() == max) break;
+            first = dequeue(q, Duration.ZERO);
+        }
+        return out;
+    }
+
+    @Override
+    public Snapshot snapshot(String... queues) {
+        if (queues == null) {
+            throw new IllegalArgumentException("queues must not be null");
+        }
+        // Copying the pending messages leaves them in place, unlike the receive-and-resend default
+        Map<String, List<Message>> captured = new LinkedHashMap<>();
+        for (String q : queues) {
+            captured.put(q, List.copyOf(queue(q)));
+        }
+        // Refill the existing queue object so receivers blocked on it see the restored messages
+        return () -> captured.forEach((q, messages) -> this.queues.compute(q, (k, existing) -> {
+            BlockingQueue<Message> target = existing == null ? new LinkedBlockingQueue<>() : existing;
+            target.clear();
+            target.addAll(messages);
+            return target;
+        }));
+    }
+
+    /** Returns whether the queue exists; used by {@link InMemoryPubSub} to route deliveries. */
+    boolean exists(String name) {
+        return queues.containsKey(name);
+    }
+
+    /** Enqueues without failing when the queue has been deleted, mirroring SNS dropping undeliverable messages. */
+    void deliver(String name, Message message) {
+        BlockingQueue<Message> q = queues.get(name);
+        if (q != null) {
+            enqueue(name, q, message);
+        }
+    }
+
+    private void enqueue(String name, BlockingQueue<Message> q, Message message) {
+        Instant now = Instant.now();
+        if (name.endsWith(".fifo") && message.deduplicationId() != null && duplicate(name, message.deduplicationId(), now)) {
+            return;
+        }
+        Message stamped = stamp(message, now);
+        if (message.delay().isZero()) {
+            q.add(stamped);
+        } else {
+            DELAY_TIMER.schedule(() -> q.add(stamped), message.delay().toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private boolean duplicate(String queue, String deduplicationId, Instant now) {
+        Map<String, Instant> seen = deduplicationIds.computeIfAbsent(queue, k -> new ConcurrentHashMap<>());
+        seen.values().removeIf(sent -> sent.plus(DEDUPLICATION_WINDOW).isBefore(now));
+        return seen.putIfAbsent(deduplicationId, now) != null;
+    }
+
+    private static Message stamp(Message message, Instant now) {
+        return message.toBuilder().id(UUID.randomUUID().toString()).sentAt(now).delay(Duration.ZERO).build();
+    }
+
+    /**
+     * The one path by which messages leave a queue. They leave on receive, so each is received exactly once and
+     * every receive method reports the same metadata.
+     */
+    private static Optional<Message> dequeue(BlockingQueue<Message> q, Duration timeout) {
+        Message m;
+        try {
+            m = timeout.isZero() ? q.poll() : q.poll(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+        return m == null ? Optional.empty() : Optional.of(m.toBuilder().receiveCount(1).receivedAt(Instant.now()).build());
+    }
+
+    private BlockingQueue<Message> queue(String name) {
+        requireName(name, "queue");
+        BlockingQueue<Message> q = queues.get(name);
+        if (q == null) {
+            throw new IllegalStateException("Queue does not exist: " + name);
+        }
+        return q;
+    }
+}
@@ -0,0 +1,431 @@
+/*
+ * Copyright 2025
+ * Apache License, Version 2.0
+ */
+package org.deveasy.test.cloud.inmemory;
+
+import org.deveasy.test.core.cloud.CloudMode;
+import org.deveasy.test.core.cloud.CloudProvider;
+import org.deveasy.test.core.cloud.TestCloudConfig;
+import org.deveasy.test.core.cloud.capability.AsyncQueue;
+import org.deveasy.test.core.cloud.capability.BlobStorage;
+import org.deveasy.test.core.cloud.capability.Listener;
+import org.deveasy.test.core.cloud.capability.ListenerOptions;
+import org.deveasy.test.core.cloud.capability.Message;
+import org.deveasy.test.core.cloud.capability.NoSqlQuery;
+import org.deveasy.test.core.cloud.capability.NoSqlTable;
+import org.deveasy.test.core.cloud.capability.PubSub;
+import org.deveasy.test.core.cloud.capability.Queue;
+import org.deveasy.test.core.cloud.capability.Snapshot;
+import org.deveasy.test.core.cloud.spi.CloudAdapter;
+import org.deveasy.test.core.cloud.spi.CloudAdapters;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+class InMemoryCloudAdapterTest {
+
+    private CloudAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        TestCloudConfig config = TestCloudConfig.builder()
+                .provider(CloudProvider.AWS)
+                .mode(CloudMode.IN_MEMORY)
+                .build();
+        adapter = new InMemoryCloudAdapter();
+        adapter.initialize(config);
+    }
+
+    @Test
+    @DisplayName("CloudAdapters resolves the in-memory adapter for IN_MEMORY mode regardless of provider")
+    void resolvesViaServiceLoader() {
+        TestCloudConfig config = TestCloudConfig.builder()
+                .provider(CloudProvider.GCP)
+                .mode(CloudMode.IN_MEMORY)
+                .build();
+        CloudAdapter resolved = CloudAdapters.get(CloudProvider.GCP, config);
+        Assertions.assertTrue(resolved instanceof InMemoryCloudAdapter);
+        Assertions.assertEquals(CloudProvider.GCP, resolved.provider());
+        Assertions.assertFalse(resolved.supportsMode(CloudMode.EMULATOR));
+        Assertions.assertNotSame(resolved, CloudAdapters.create(CloudProvider.GCP, config), "create() must not share the cached adapter");
+    }
+
+    @Test
+    @DisplayName("close drops all state and requires initialize before further use")
+    void closeDropsState() {
+        adapter.blobStorage().ensureBucket("b1");
+        adapter.blobStorage().putObject("b1", "k", "v".getBytes(StandardCharsets.UTF_8), "text/plain");
+        adapter.queue().ensureQueue("q1");
+        adapter.queue().send("q1", "m1");
+
+        ((InMemoryCloudAdapter) adapter).close();
+
+        Assertions.assertThrows(IllegalStateException.class, adapter::queue);
+        adapter.initialize(TestCloudConfig.builder().provider(CloudProvider.AWS).mode(CloudMode.IN_MEMORY).build());
+        Assertions.assertThrows(IllegalStateException.class, () -> adapter.blobStorage().getObject("b1", "k"), "bucket should be gone");
+        Assertions.assertThrows(IllegalStateException.class, () -> adapter.queue().receive("q1"), "queue should be gone");
+    }
+
+    @Test
+    @DisplayName("BlobStorage: put -> get -> list (sorted, prefixed) -> exists -> delete")
+    void blobStorageFlow() {
+        BlobStorage storage = adapter.blobStorage();
+        storage.ensureBucket("b1");
+        storage.putObject("b1", "a/2", "two".getBytes(StandardCharsets.UTF_8), "text/plain");
+        storage.putObject("b1", "a/1", "one".getBytes(StandardCharsets.UTF_8), "text/plain");
+        storage.putObject("b1", "b/1", "other".getBytes(StandardCharsets.UTF_8), "text/plain");
+
+        Assertions.assertArrayEquals("one".getBytes(StandardCharsets.UTF_8), storage.getObject("b1", "a/1"));
+        Assertions.assertEquals(List.of("a/1", "a/2"), storage.listKeys("b1", "a/"));
+        Assertions.assertEquals(3, storage.listKeys("b1", null).size());
+        Assertions.assertTrue(storage.exists("b1", "b/1"));
+
+        storage.deleteObject("b1", "b/1");
+        Assertions.assertFalse(storage.exists("b1", "b/1"));
+        Assertions.assertNull(storage.getObject("b1", "b/1"));
+
+        storage.deleteBucket("b1");
+        Assertions.assertThrows(IllegalStateException.class, () -> storage.listKeys("b1", ""));
+    }
+
+    @Test
+    @DisplayName("BlobStorage: openObject, getObjectRange and transferTo read without copying the whole object")
+    void blobStorageStreamingReads(@TempDir Path dir) throws Exception {
+        BlobStorage storage = adapter.blobStorage();
+        storage.ensureBucket("b-stream");
+        byte[] data = "0123456789".getBytes(StandardCharsets.UTF_8);
+        storage.putObject("b-stream", "k", data, "text/plain");
+
+        try (InputStream in = storage.openObject("b-stream", "k")) {
+            Assertions.assertArrayEquals(data, in.readAllBytes());
+        }
+        Assertions.assertArrayEquals("345".getBytes(StandardCharsets.UTF_8), storage.getObjectRange("b-stream", "k", 3, 3));
+        Assertions.assertArrayEquals("89".getBytes(StandardCharsets.UTF_8), storage.getObjectRange("b-stream", "k", 8, 100));
+        Assertions.assertEquals(0, storage.getObjectRange("b-stream", "k", 42, 1).length);
+
+        Path target = dir.resolve("k.txt");
+        Assertions.assertEquals(10L, storage.transferTo("b-stream", "k", target));
+        Assertions.assertArrayEquals(data, Files.readAllBytes(target));
+        Assertions.assertEquals(-1L, storage.transferTo("b-stream", "missing", target));
+        Assertions.assertNull(storage.openObject("b-stream", "missing"));
+    }
+
+    @Test
+    @DisplayName("BlobStorage: streamKeys is lazy and rolls keys up by delimiter")
+    void blobStorageStreamKeys() {
+        BlobStorage storage = adapter.blobStorage();
+        storage.ensureBucket("b-list");
+        for (String key : List.of("a/1", "a/2", "a/sub/x", "a/sub/y", "a/sub/deeper/z", "b/1")) {
+            storage.putObject("b-list", key, new byte[0], "text/plain");
+        }
+
+        Assertions.assertEquals(List.of("a/1", "a/2", "a/sub/"), storage.streamKeys("b-list", "a/", "/").collect(Collectors.toList()));
+        Assertions.assertEquals(List.of("a/", "b/"), storage.streamKeys("b-list", "", "/").collect(Collectors.toList()));
+        Assertions.assertEquals(5, storage.streamKeys("b-list", "a/").count());
+        Assertions.assertEquals(Optional.of("a/sub/deeper/z"), storage.streamKeys("b-list", "a/sub/d").findFirst());
+        Assertions.assertFalse(storage.streamKeys("b-list", "c/").findAny().isPresent());
+    }
+
+    @Test
+    @DisplayName("Queue: FIFO delete-on-receive and timed receive returns empty when drained")
+    void queueFlow() {
+        Queue queue = adapter.queue();
+        queue.ensureQueue("q1");
+        queue.send("q1", "m1");
+        queue.send("q1", "m2");
+
+        Assertions.assertEquals(Optional.of("m1"), queue.receive("q1"));
+        Assertions.assertEquals(Optional.of("m2"), queue.receive("q1", Duration.ofMillis(50)));
+        Assertions.assertTrue(queue.receive("q1", Duration.ofMillis(10)).isEmpty());
+        Assertions.assertThrows(IllegalStateException.class, () -> queue.send("missing", "x"));
+    }
+
+    @Test
+    @DisplayName("Queue: sendBatch then receiveBatch returns up to max in order")
+    void queueBatch() {
+        Queue queue = adapter.queue();
+        queue.ensureQueue("q-batch");
+        queue.sendBatch("q-batch", List.of("m1", "m2", "m3"));
+
+        Assertions.assertEquals(List.of("m1", "m2"), queue.receiveBatch("q-batch", 2, Duration.ofMillis(50)));
+        Assertions.assertEquals(List.of("m3"), queue.receiveBatch("q-batch", 10, Duration.ofMillis(50)));
+        Assertions.assertTrue(queue.receiveBatch("q-batch", 10, Duration.ofMillis(10)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("AsyncQueue: many sends complete without blocking and a pending receive completes on delivery")
+    void asyncQueue() {
+        Queue queue = adapter.queue();
+        AsyncQueue async = adapter.asyncQueue();
+        queue.ensureQueue("async");
+
+        CompletableFuture<Optional<String>> pending = async.receive("async", Duration.ofSeconds(5));
+        Assertions.assertFalse(pending.isDone());
+        List<CompletableFuture<Void>> sends = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            sends.add(async.send("async", "m" + i));
+        }
+        CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).join();
+
+        Assertions.assertEquals(Optional.of("m0"), pending.join());
+        Assertions.assertEquals(199, async.receiveBatch("async", 500, Duration.ZERO).join().size());
+        Assertions.assertEquals(Optional.empty(), async.receive("async", Duration.ofMillis(20)).join());
+        CompletionException missing = Assertions.assertThrows(CompletionException.class,
+                () -> async.send("missing", "x").join());
+        Assertions.assertTrue(missing.getCause() instanceof IllegalStateException);
+    }
+
+    @Test
+    @DisplayName("Queue.subscribe: a concurrent listener sees every message and stops on close")
+    void queueListener() throws Exception {
+        Queue queue = adapter.queue();
+        queue.ensureQueue("events");
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        CountDownLatch all = new CountDownLatch(500);
+
+        Listener listener = queue.subscribe("events", m -> {
+            if (m.body().equals("bad")) throw new IllegalStateException("rejected");
+            seen.add(m.body());
+            all.countDown();
+        }, ListenerOptions.builder().concurrency(4).pollWait(Duration.ofMillis(50)).onError(e -> { }).build());
+        queue.send("events", "bad");
+        for (int i = 0; i < 500; i++) {
+            queue.send("events", "e" + i);
+        }
+
+        Assertions.assertTrue(all.await(5, TimeUnit.SECONDS), "all messages should arrive");
+        listener.close();
+        Assertions.assertEquals(500, seen.size());
+        Assertions.assertEquals(500, listener.delivered());
+        Assertions.assertEquals(1, listener.failed());
+        Assertions.assertFalse(listener.isOpen());
+        queue.send("events", "after-close");
+        Assertions.assertEquals(Optional.of("after-close"), queue.receive("events", Duration.ofMillis(200)));
+    }
+
+    @Test
+    @DisplayName("Message: attributes and timestamps survive publish -> receive; FIFO deduplication and delay apply")
+    void messageMetadata() {
+        Queue queue = adapter.queue();
+        PubSub pubSub = adapter.pubSub();
+        queue.ensureQueue("orders.fifo");
+        pubSub.ensureSubscription("orders", "orders.fifo");
+
+        pubSub.publish("orders", Message.builder("o-1").attribute("type", "created").groupId("o").deduplicationId("d-1").build());
+        pubSub.publish("orders", Message.builder("o-1 again").groupId("o").deduplicationId("d-1").build());
+        queue.send("orders.fifo", Message.builder("later").delay(Duration.ofMillis(200)).build());
+
+        Message got = pubSub.receiveMessage("orders.fifo", Duration.ofMillis(50)).orElseThrow();
+        Assertions.assertEquals("o-1", got.body());
+        Assertions.assertEquals(Map.of("type", "created"), got.attributes());
+        Assertions.assertEquals("o", got.groupId());
+        Assertions.assertNotNull(got.id());
+        Assertions.assertEquals(1, got.receiveCount());
+        Assertions.assertFalse(got.latency().isNegative());
+        Assertions.assertEquals(Optional.empty(), queue.receive("orders.fifo", Duration.ofMillis(50)), "duplicate dropped, delayed not yet visible");
+        Assertions.assertEquals(List.of("later"), queue.receiveMessages("orders.fifo", 10, Duration.ofSeconds(2))
+                .stream().map(Message::body).collect(Collectors.toList()));
+        queue.sendBatch("orders.fifo", List.of("b-1", "b-2"));
+        List<Message> batch = queue.receiveMessages("orders.fifo", 10, Duration.ZERO);
+        Assertions.assertEquals(List.of("b-1", "b-2"), batch.stream().map(Message::body).collect(Collectors.toList()));
+        Assertions.assertTrue(batch.stream().allMatch(m -> m.receiveCount() == 1 && m.receivedAt() != null),
+                "every receive path stamps the receive metadata");
+    }
+
+    @Test
+    @DisplayName("Queue.drain/awaitCount: collect N messages under one deadline, including late arrivals")
+    void drainAndAwaitCount() {
+        Queue queue = adapter.queue();
+        queue.ensureQueue("drain");
+        for (int i = 0; i < 50; i++) {
+            queue.send("drain", (i % 2 == 0 ? "even-" : "odd-") + i);
+        }
+        queue.send("drain", Message.builder("late").delay(Duration.ofMillis(100)).build());
+
+        Assertions.assertEquals(30, queue.drain("drain", 30, Duration.ZERO).size());
+        List<Message> odd = queue.awaitCount("drain", m -> m.body().startsWith("odd-"), 10, Duration.ofSeconds(1));
+        Assertions.assertEquals(10, odd.size());
+        Assertions.assertEquals("odd-31", odd.get(0).body());
+        Assertions.assertEquals(List.of("late"), queue.drain("drain", 5, Duration.ofMillis(300))
+                .stream().map(Message::body).collect(Collectors.toList()), "returns fewer once the deadline passes");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> queue.drain("drain", 0, Duration.ZERO));
+    }
+
+    @Test
+    @DisplayName("PubSub: publish fans out to every subscribed queue")
+    void pubSubFanOut() {
+        Queue queue = adapter.queue();
+        PubSub pubSub = adapter.pubSub();
+        queue.ensureQueue("sub-a");
+        queue.ensureQueue("sub-b");
+        pubSub.ensureTopic("events");
+        pubSub.ensureSubscription("events", "sub-a");
+        pubSub.ensureSubscription("events", "sub-b");
+
+        pubSub.publish("events", "order-created");
+
+        Assertions.assertEquals(Optional.of("order-created"), pubSub.receive("sub-a", Duration.ofMillis(50)));
+        Assertions.assertEquals(Optional.of("order-created"), queue.receive("sub-b"));
+
+        pubSub.deleteSubscription("events", "sub-b");
+        pubSub.publish("events", "order-shipped");
+        Assertions.assertEquals(Optional.of("order-shipped"), queue.receive("sub-a"));
+        Assertions.assertEquals(Optional.empty(), queue.receive("sub-b"));
+    }
+
+    @Test
+    @DisplayName("NoSqlTable: put -> get by full key -> query ordered by sort key -> scan -> delete")
+    void noSqlFlow() {
+        NoSqlTable table = adapter.noSqlTable();
+        table.ensureTable("events", "id", "ts");
+        table.putItem("events", item("id", "u1", "ts", "2025-01-01T11:00:00Z", "payload", "second"));
+        table.putItem("events", item("id", "u1", "ts", "2025-01-01T10:00:00Z", "payload", "first"));
+        table.putItem("events", item("id", "u2", "ts", "2025-01-01T10:00:00Z", "payload", "other"));
+
+        Map<String, Object> got = table.getItem("events", "u1", "2025-01-01T10:00:00Z");
+        Assertions.assertEquals("first", got.get("payload"));
+
+        List<Map<String, Object>> byPk = table.query("events", "u1");
+        Assertions.assertEquals(2, byPk.size());
+        Assertions.assertEquals("first", byPk.get(0).get("payload"));
+        Assertions.assertEquals(3, table.scan("events").size());
+
+        table.deleteItem("events", "u1", "2025-01-01T10:00:00Z");
+        Assertions.assertNull(table.getItem("events", "u1", "2025-01-01T10:00:00Z"));
+
+        table.deleteTable("events");
+        Assertions.assertTrue(table.scan("events").isEmpty());
+    }
+
+    @Test
+    @DisplayName("NoSqlTable: streamItems and parallelScan see every item; missing tables are empty")
+    void noSqlScanVariants() {
+        NoSqlTable table = adapter.noSqlTable();
+        table.ensureTable("seeded", "id");
+        for (int i = 0; i < 100; i++) {
+            table.putItem("seeded", item("id", "k" + i, "n", i));
+        }
+
+        Assertions.assertEquals(100, table.parallelScan("seeded", 4).size());
+        Assertions.assertEquals(100, table.streamItems("seeded").count());
+        Assertions.assertTrue(table.streamItems("seeded").anyMatch(it -> "k42".equals(it.get("id"))));
+        Assertions.assertEquals(0, table.streamItems("missing").count());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> table.parallelScan("seeded", 0));
+    }
+
+    @Test
+    @DisplayName("NoSqlTable: ensureTables, putItems and getItems work in bulk; last duplicate wins, missing keys are skipped")
+    void noSqlBatch() {
+        NoSqlTable table = adapter.noSqlTable();
+        table.ensureTables(List.of(NoSqlTable.TableSpec.of("bulk", "id", "ts"), NoSqlTable.TableSpec.of("bulk-2", "id")));
+        Assertions.assertNull(table.getItem("bulk-2", "nope"));
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            items.add(item("id", "p" + (i % 3), "ts", "t" + i, "n", i));
+        }
+        items.add(item("id", "p0", "ts", "t0", "n", -1));
+        table.putItems("bulk", items);
+
+        Assertions.assertEquals(60, table.scan("bulk").size());
+        List<Map<String, Object>> got = table.getItems("bulk", List.of(
+            item("id", "p0", "ts", "t0"), item("id", "p1", "ts", "t1"), item("id", "p1", "ts", "t1"), item("id", "nope", "ts", "t0")));
+        Assertions.assertEquals(2, got.size());
+        Assertions.assertTrue(got.stream().anyMatch(it -> Integer.valueOf(-1).equals(it.get("n"))));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> table.getItems("bulk", List.of(item("id", "p0"))));
+        Assertions.assertTrue(table.getItems("missing", List.of(item("id", "p0", "ts", "t0"))).isEmpty());
+    }
+
+    @Test
+    @DisplayName("NoSqlTable: query builder applies sort key conditions, filters, projection, limit and order")
+    void noSqlQueryBuilder() {
+        NoSqlTable table = adapter.noSqlTable();
+        table.ensureTable("q", "id", "ts");
+        for (int i = 1; i <= 5; i++) {
+            table.putItem("q", item("id", "u1", "ts", "2025-01-0" + i, "status", i % 2 == 0 ? "even" : "odd", "n", i));
+        }
+        table.putItem("q", item("id", "u1", "ts", "2024-12-31", "status", "odd", "n", 0));
+
+        List<Map<String, Object>> newest = table.query("q", NoSqlQuery.partitionKey("u1").descending().limit(1).build());
+        Assertions.assertEquals(List.of(5), newest.stream().map(it -> it.get("n")).collect(Collectors.toList()));
+
+        List<Map<String, Object>> jan = table.query("q", NoSqlQuery.partitionKey("u1").sortKeyBeginsWith("2025-")
+            .filter("status", "odd").project("ts").build());
+        Assertions.assertEquals(List.of(Map.of("ts", "2025-01-01"), Map.of("ts", "2025-01-03"), Map.of("ts", "2025-01-05")), jan);
+
+        Assertions.assertEquals(3, table.query("q", NoSqlQuery.partitionKey("u1").sortKeyBetween("2025-01-02", "2025-01-04").build()).size());
+        Assertions.assertEquals(1, table.query("q", NoSqlQuery.partitionKey("u1").sortKeyLessThan("2025").build()).size());
+        Assertions.assertTrue(table.query("q", NoSqlQuery.partitionKey("nobody").build()).isEmpty());
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> table.query("q", NoSqlQuery.partitionKey("u1").index("byStatus").build()));
+    }
+
+    @Test
+    @DisplayName("Snapshot: restore brings buckets, queues and tables back to the captured baseline, repeatedly")
+    void snapshotRestore() {
+        BlobStorage storage = adapter.blobStorage();
+        Queue queue = adapter.queue();
+        NoSqlTable table = adapter.noSqlTable();
+        storage.ensureBucket("fixtures");
+        storage.putObject("fixtures", "a", "A".getBytes(StandardCharsets.UTF_8), "text/plain");
+        queue.ensureQueue("jobs");
+        queue.sendBatch("jobs", List.of("j1", "j2"));
+        table.ensureTable("users", "id");
+        table.putItem("users", item("id", "u1", "name", "Ann"));
+
+        Snapshot baseline = Snapshot.of(
+            storage.snapshot("fixtures"),
+            queue.snapshot("jobs"),
+            table.snapshot(NoSqlTable.TableSpec.of("users", "id")));
+        Assertions.assertEquals(List.of("j1", "j2"), queue.receiveBatch("jobs", 10, Duration.ZERO), "capture leaves messages in place");
+
+        for (int round = 0; round < 2; round++) {
+            storage.putObject("fixtures", "a", "changed".getBytes(StandardCharsets.UTF_8), "text/plain");
+            storage.putObject("fixtures", "b", "B".getBytes(StandardCharsets.UTF_8), "text/plain");
+            queue.send("jobs", "j3");
+            table.putItem("users", item("id", "u1", "name", "Bob"));
+            table.putItem("users", item("id", "u2", "name", "Cid"));
+
+            baseline.restore();
+
+            Assertions.assertEquals(List.of("a"), storage.listKeys("fixtures", null));
+            Assertions.assertEquals("A", new String(storage.getObject("fixtures", "a"), StandardCharsets.UTF_8));
+            Assertions.assertEquals(List.of("j1", "j2"), queue.receiveBatch("jobs", 10, Duration.ZERO));
+            Assertions.assertEquals(List.of(item("id", "u1", "name", "Ann")), table.scan("users"));
+        }
+
+        storage.deleteBucket("fixtures");
+        table.deleteTable("users");
+        baseline.restore();
+        Assertions.assertTrue(storage.exists("fixtures", "a"), "deleted resources are recreated");
+        Assertions.assertNotNull(table.getItem("users", "u1"));
+    }
+
+    private static Map<String, Object> item(Object... kv) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        for (int i = 0; i < kv.length; i += 2) {
+            m.put((String) kv[i], kv[i + 1]);
+        }
+        return m;
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2025
+ * Apache License, Version 2.0
+ */
+package org.deveasy.test.cloud.inmemory;
+
+import org.deveasy.test.core.cloud.CloudMode;
+import org.deveasy.test.core.cloud.CloudProvider;
+import org.deveasy.test.core.cloud.capability.NoSqlTable;
+import org.deveasy.test.core.cloud.capability.Queue;
+import org.deveasy.test.core.junit.WithCloud;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@WithCloud(provider = CloudProvider.AWS, mode = CloudMode.IN_MEMORY)
+class WithCloudInMemoryTest {
+
+    @Test
+    void injectsInMemoryQueue(Queue queue) {
+        queue.ensureQueue("junit-queue");
+        queue.send("junit-queue", "hello");
+        assertEquals("hello", queue.receive("junit-queue", Duration.ofSeconds(1)).orElse(null));
+    }
+
+    @Test
+    void injectsInMemoryNoSqlTable(NoSqlTable table) {
+        table.ensureTable("junit-table", "id");
+        table.putItem("junit-table", Map.of("id", "1", "name", "Alice"));
+        assertEquals("Alice", table.getItem("junit-table", "1").get("name"));
+    }
+}
@@ -0,0 +1,306 @@
+/*
+ * Copyright 2025
+ * Apache License, Version 2.0
+ */
+package org.deveasy.test.core.cloud;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Shared executor for running blocking capability calls (long-poll receives, object transfers) concurrently, and
+ * {@code parallelize} helpers for step definitions and tests built on it. Adapters, listeners and the JUnit cleanup
+ * run their own fan-out on it too, each capped through {@link #limited(int)}.
+ * <p>
+ * The mode is chosen once per JVM with the {@value #MODE} system property:
+ * </p>
+ * <ul>
+ *   <li>{@code bounded} (default): a fixed pool of daemon threads, sized by {@value #THREADS} (default 64). Tasks
+ *   beyond that wait in the queue. Work that {@link #limited(int)} executors and {@code parallelize} hand out from a
+ *   pool thread while no other pool thread is free runs on that thread instead, so nested fan-out cannot fill the
+ *   pool with callers waiting for queued work.</li>
+ *   <li>{@code virtual}: one virtual thread per task on Java 21+, so thousands of blocked long-polls cost little.
+ *   On older runtimes this falls back to {@code bounded} and logs it.</li>
+ * </ul>
+ * <pre>{@code
+ * List<Optional<String>> received = CloudExecutors.parallelize(100, i -> queue.receive("q-" + i, Duration.ofSeconds(20)));
+ * }</pre>
+ *
+ * @since 0.3.0
+ */
+public final class CloudExecutors {
+
+    /** System property selecting the executor mode: {@code bounded} or {@code virtual}. */
+    public static final String MODE = "deveasy.cloud.executor";
+    /** System property sizing the {@code bounded} pool. */
+    public static final String THREADS = "deveasy.cloud.executor.threads";
+    private static final int DEFAULT_THREADS = 64;
+
+    private static final System.Logger LOG = System.getLogger(CloudExecutors.class.getName());
+
+    private CloudExecutors() {}
+
+    /**
+     * @return the shared executor for blocking calls; its threads never keep the JVM alive
+     */
+    public static ExecutorService blocking() {
+        return Holder.EXECUTOR;
+    }
+
+    /**
+     * Returns an executor that runs at most {@code maxConcurrent} of its tasks at a time on {@link #blocking()}; the
+     * others wait in a queue without holding a thread. A task started from a thread of the bounded pool while no
+     * other pool thread is free runs on the starting thread.
+     *
+     * @param maxConcurrent the cap; positive
+     * @return a new executor; it needs no shutdown
+     * @throws IllegalArgumentException if {@code maxConcurrent} is not positive
+     * @since 0.3.0
+     */
+    public static Executor limited(int maxConcurrent) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent must be positive");
+        }
+        Semaphore permits = new Semaphore(maxConcurrent);
+        Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+        return new Executor() {
+            @Override
+            public void execute(Runnable task) {
+                if (task == null) {
+                    throw new IllegalArgumentException("task must not be null");
+                }
+                waiting.add(task);
+                drain();
+            }
+
+            // Every add and every release is followed by a drain, so a queued task always finds a permit
+            private void drain() {
+                while (!waiting.isEmpty() && permits.tryAcquire()) {
+                    Runnable next = waiting.poll();
+                    if (next == null) {
+                        permits.release();
+                        continue;
+                    }
+                    boolean dispatched = tryDispatch(() -> {
+                        try {
+                            next.run();
+                        } finally {
+                            permits.release();
+                            drain();
+                        }
+                    });
+                    if (!dispatched) {
+                        // Run here; this loop picks up the next waiting task
+                        try {
+                            next.run();
+                        } finally {
+                            permits.release();
+                        }
+                    }
+                }
+            }
+        };
+    }
+
+    /** @return {@code true} if {@link #blocking()} runs each task on its own virtual thread */
+    public static boolean virtual() {
+        return Holder.VIRTUAL;
+    }
+
+    /**
+     * Runs the tasks concurrently on {@link #blocking()} and waits for all of them. Called from a thread of the
+     * bounded pool, the tasks that find no other pool thread free run on the calling thread, one after another.
+     *
+     * @param tasks the tasks
+     * @param <T> the result type
+     * @return the results, in task order
+     * @throws IllegalArgumentException if {@code tasks} is null or contains null
+     * @throws RuntimeException the first task failure, with the other failures suppressed; checked exceptions and
+     *                          errors are wrapped in a {@link CompletionException}
+     */
+    public static <T> List<T> parallelize(List<? extends Supplier<? extends T>> tasks) {
+        if (tasks == null || tasks.stream().anyMatch(t -> t == null)) {
+            throw new IllegalArgumentException("tasks must not be null or contain null");
+        }
+        List<CompletableFuture<T>> running = new ArrayList<>(tasks.size());
+        for (Supplier<? extends T> task : tasks) {
+            running.add(CompletableFuture.supplyAsync(task::get, CloudExecutors::dispatch));
+        }
+        List<T> results = new ArrayList<>(running.size());
+        RuntimeException failure = null;
+        for (CompletableFuture<T> f : running) {
+            try {
+                results.add(f.join());
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() == null ? e : e.getCause();
+                if (failure == null) {
+                    failure = cause instanceof RuntimeException ? (RuntimeException) cause : e;
+                } else {
+                    failure.addSuppressed(cause);
+                }
+                results.add(null);
+            }
+        }
+        if (failure != null) throw failure;
+        return results;
+    }
+
+    /**
+     * Runs {@code task} for each index from {@code 0} to {@code count - 1} concurrently, as
+     * {@link #parallelize(List)} does.
+     *
+     * @return the results, in index order
+     * @throws IllegalArgumentException if {@code count} is negative or {@code task} is null
+     */
+    public static <T> List<T> parallelize(int count, IntFunction<? extends T> task) {
+        if (count < 0 || task == null) {
+            throw new IllegalArgumentException("count must not be negative and task must not be null");
+        }
+        List<Supplier<T>> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            tasks.add(() -> task.apply(index));
+        }
+        return parallelize(tasks);
+    }
+
+    /**
+     * Runs {@code task} for each index from {@code 0} to {@code count - 1} concurrently and waits for all of them.
+     *
+     * @throws IllegalArgumentException if {@code count} is negative or {@code task} is null
+     */
+    public static void runParallel(int count, IntConsumer task) {
+        if (task == null) {
+            throw new IllegalArgumentException("task must not be null");
+        }
+        parallelize(count, i -> {
+            task.accept(i);
+            return null;
+        });
+    }
+
+    /** Runs {@code task} on {@link #blocking()}, or on the calling thread if {@link #tryDispatch} declines it. */
+    private static void dispatch(Runnable task) {
+        if (!tryDispatch(task)) task.run();
+    }
+
+    /**
+     * Hands {@code task} to {@link #blocking()} unless the caller is a thread of the bounded pool and every other
+     * pool thread is taken; such a caller waiting for a queued task could otherwise deadlock the pool.
+     *
+     * @return {@code false} if the task was not handed over and the caller must run it
+     */
+    private static boolean tryDispatch(Runnable task) {
+        if (!Holder.POOL_THREAD.get()) {
+            blocking().execute(task);
+            return true;
+        }
+        return ((BoundedPool) Holder.EXECUTOR).tryExecute(task);
+    }
+
+    /** Fixed pool that counts the tasks it accepted and has not finished, so it can tell whether a thread is free. */
+    private static final class BoundedPool extends ThreadPoolExecutor {
+        private final AtomicInteger pending = new AtomicInteger();
+
+        BoundedPool(int threads, ThreadFactory threadFactory) {
+            super(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), threadFactory);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            pending.incrementAndGet();
+            submitCounted(command);
+        }
+
+        /** Executes {@code command} only if a thread is free for it, counting the caller's own thread as taken. */
+        boolean tryExecute(Runnable command) {
+            int n;
+            do {
+                n = pending.get();
+                if (n >= getMaximumPoolSize()) return false;
+            } while (!pending.compareAndSet(n, n + 1));
+            submitCounted(command);
+            return true;
+        }
+
+        private void submitCounted(Runnable command) {
+            try {
+                super.execute(command);
+            } catch (RuntimeException e) {
+                pending.decrementAndGet();
+                throw e;
+            }
+        }
+
+        @Override
+        protected void afterExecute(Runnable r, Throwable t) {
+            pending.decrementAndGet();
+        }
+    }
+
+    /** Created on first use, so the mode property can still be set by test setup code. */
+    private static final class Holder {
+        static final boolean VIRTUAL;
+        static final ExecutorService EXECUTOR;
+        /** Set on the threads of the bounded pool. */
+        static final ThreadLocal<Boolean> POOL_THREAD = ThreadLocal.withInitial(() -> false);
+
+        static {
+            ExecutorService virtual = "virtual".equalsIgnoreCase(System.getProperty(MODE, "bounded").trim())
+                ? virtualThreadExecutor() : null;
+            VIRTUAL = virtual != null;
+            EXECUTOR = virtual != null ? virtual : boundedExecutor();
+        }
+
+        /** Looked up reflectively so the library still compiles for and runs on Java 17. */
+        private static ExecutorService virtualThreadExecutor() {
+            try {
+                Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) m.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                LOG.log(System.Logger.Level.INFO, "Virtual threads need Java 21+, running on {0}; using a bounded pool",
+                    Runtime.version());
+                return null;
+            }
+        }
+
+        private static ExecutorService boundedExecutor() {
+            int threads;
+            String configured = System.getProperty(THREADS);
+            try {
+                threads = configured == null ? DEFAULT_THREADS : Integer.parseInt(configured.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(THREADS + " must be a positive integer: " + configured, e);
+            }
+            if (threads < 1) {
+                throw new IllegalArgumentException(THREADS + " must be a positive integer: " + configured);
+            }
+            AtomicInteger n = new AtomicInteger();
+            return new BoundedPool(threads, r -> {
+                Thread t = new Thread(() -> {
+                    POOL_THREAD.set(true);
+                    r.run();
+                }, "cloud-blocking-" + n.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+}
@@ -5,9 +5,11 @@
 package org.deveasy.test.core.cloud;
 
 /**
- * Indicates whether tests run against local emulators or live cloud.
+ * Indicates whether tests run in-process, against local emulators or live cloud.
  */
 public enum CloudMode {
+    /** Provider-neutral in-JVM backend; no containers or network. Requires {@code test-cloud-inmemory}. */
+    IN_MEMORY,
     EMULATOR,
     LIVE
 }
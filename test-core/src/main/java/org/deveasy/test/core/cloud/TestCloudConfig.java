@@ -4,10 +4,14 @@
  */
 package org.deveasy.test.core.cloud;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Unified configuration used by provider adapters and test glue.
@@ -20,6 +24,7 @@ public final class TestCloudConfig {
     private final String regionOrLocation; // aws:region, azure:location, gcp:region/zone (provider-specific)
     private final String projectOrAccount; // gcp:projectId, aws:account alias (optional), azure:tenant/sub alias
     private final Map<String, String> overrides; // provider/service specific endpoint overrides
+    private final Set<CloudServiceType> services; // empty = all services
 
     private TestCloudConfig(Builder b) {
         this.provider = Objects.requireNonNull(b.provider, "provider");
@@ -27,6 +32,8 @@ public final class TestCloudConfig {
         this.regionOrLocation = b.regionOrLocation;
         this.projectOrAccount = b.projectOrAccount;
         this.overrides = Collections.unmodifiableMap(new HashMap<>(b.overrides));
+        this.services = Collections.unmodifiableSet(b.services.isEmpty()
+            ? EnumSet.noneOf(CloudServiceType.class) : EnumSet.copyOf(b.services));
     }
 
     public CloudProvider provider() { return provider; }
@@ -34,23 +41,59 @@ public final class TestCloudConfig {
     public String regionOrLocation() { return regionOrLocation; }
     public String projectOrAccount() { return projectOrAccount; }
     public Map<String, String> overrides() { return overrides; }
+    /** @return the services the tests use; empty means all services of the provider */
+    public Set<CloudServiceType> services() { return services; }
+
+    /**
+     * @param service a service category
+     * @return {@code true} if no services were declared or {@code service} is one of them
+     */
+    public boolean requires(CloudServiceType service) { return services.isEmpty() || services.contains(service); }
 
     public String override(String key) { return overrides.get(key); }
 
     public static Builder builder() { return new Builder(); }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TestCloudConfig)) return false;
+        TestCloudConfig c = (TestCloudConfig) o;
+        return provider == c.provider && mode == c.mode
+            && Objects.equals(regionOrLocation, c.regionOrLocation)
+            && Objects.equals(projectOrAccount, c.projectOrAccount)
+            && overrides.equals(c.overrides) && services.equals(c.services);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(provider, mode, regionOrLocation, projectOrAccount, overrides, services);
+    }
+
+    @Override
+    public String toString() {
+        return "TestCloudConfig{" + provider + "/" + mode
+            + (regionOrLocation == null ? "" : ", region=" + regionOrLocation)
+            + (projectOrAccount == null ? "" : ", project=" + projectOrAccount)
+            + (services.isEmpty() ? "" : ", services=" + services)
+            + (overrides.isEmpty() ? "" : ", overrides=" + overrides) + "}";
+    }
+
     public static final class Builder {
         private CloudProvider provider = CloudProvider.AWS;
         private CloudMode mode = CloudMode.EMULATOR;
         private String regionOrLocation;
         private String projectOrAccount;
         private final Map<String, String> overrides = new HashMap<>();
+        private final Set<CloudServiceType> services = EnumSet.noneOf(CloudServiceType.class);
 
         public Builder provider(CloudProvider provider) { this.provider = provider; return this; }
         public Builder mode(CloudMode mode) { this.mode = mode; return this; }
         public Builder regionOrLocation(String value) { this.regionOrLocation = value; return this; }
         public Builder projectOrAccount(String value) { this.projectOrAccount = value; return this; }
         public Builder override(String key, String value) { this.overrides.put(key, value); return this; }
+        public Builder services(CloudServiceType... services) { return services(Arrays.asList(services)); }
+        public Builder services(Collection<CloudServiceType> services) { this.services.addAll(services); return this; }
 
         public TestCloudConfig build() { return new TestCloudConfig(this); }
     }
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2025
+ * Apache License, Version 2.0
+ */
+package org.deveasy.test.core.cloud.capability;
+
+import org.deveasy.test.core.cloud.Capability;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Non-blocking counterpart of the object operations of {@link BlobStorage}, for driving many concurrent requests from
+ * one thread. It deliberately covers only the byte-array object calls below: bucket management
+ * ({@link BlobStorage#ensureBucket}, {@link BlobStorage#deleteBucket}), streamed and ranged transfers and
+ * {@link BlobStorage#snapshot} stay on the blocking {@link BlobStorage}, so resources are created, and tracked for
+ * cleanup by {@code CloudExtension}, in one place.
+ * <p>
+ * Methods never block the caller; every failure, including invalid arguments, completes the returned future
+ * exceptionally with the exception the blocking method would throw. Implementations are thread-safe.
+ * </p>
+ * <p>
+ * <b>Example Usage:</b>
+ * <pre>{@code
+ * AsyncBlobStorage s3 = adapter.asyncBlobStorage();
+ * List<CompletableFuture<Void>> puts = new ArrayList<>();
+ * for (int i = 0; i < 500; i++) {
+ *     puts.add(s3.putObject("fixtures", "k" + i, data, "application/json"));
+ * }
+ * CompletableFuture.allOf(puts.toArray(new CompletableFuture[0])).join();
+ * }</pre>
+ *
+ * @since 0.3.0
+ */
+public interface AsyncBlobStorage extends Capability {
+
+    /** @see BlobStorage#putObject(String, String, byte[], String) */
+    CompletableFuture<Void> putObject(String bucket, String key, byte[] data, String contentType);
+
+    /**
+     * @return a future of the object bytes, completing with {@code null} if the object does not exist
+     * @see BlobStorage#getObject(String, String)
+     */
+    CompletableFuture<byte[]> getObject(String bucket, String key);
+
+    /** @see BlobStorage#deleteObject(String, String) */
+    CompletableFuture<Void> deleteObject(String bucket, String key);
+
+    /** @see BlobStorage#listKeys(String, String) */
+    CompletableFuture<List<String>> listKeys(String bucket, String prefix);
+
+    /** @see BlobStorage#exists(String, String) */
+    CompletableFuture<Boolean> exists(String bucket, String key);
+
+    /**
+     * Adapts a blocking {@link BlobStorage} by running each call on {@code executor}, e.g.
+     * {@link org.deveasy.test.core.cloud.CloudExecutors#blocking()}. Used by adapters without a native async client.
+     *
+     * @throws IllegalArgumentException if an argument is null
+     */
+    static AsyncBlobStorage of(BlobStorage storage, Executor executor) {
+        if (storage == null || executor == null) {
+            throw new IllegalArgumentException("storage and executor must not be null");
+        }
+        return new AsyncBlobStorage() {
+            @Override public CompletableFuture<Void> putObject(String bucket, String key, byte[] data, String contentType) { return CompletableFuture.runAsync(() -> storage.putObject(bucket, key, data, contentType), executor); }
+            @Override public CompletableFuture<byte[]> getObject(String bucket, String key) { return CompletableFuture.supplyAsync(() -> storage.getObject(bucket, key), executor); }
+            @Override public CompletableFuture<Void> deleteObject(String bucket, String key) { return CompletableFuture.runAsync(() -> storage.deleteObject(bucket, key), executor); }
+            @Override public CompletableFuture<List<String>> listKeys(String bucket, String prefix) { return CompletableFuture.supplyAsync(() -> storage.listKeys(bucket, prefix), executor); }
+            @Override public CompletableFuture<Boolean> exists(String bucket, String key) { return CompletableFuture.supplyAsync(() -> storage.exists(bucket, key), executor); }
+        };
+    }
+}
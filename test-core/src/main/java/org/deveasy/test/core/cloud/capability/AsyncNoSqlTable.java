@@ -0,0 +1,71 @@
+/*
+ * Copyright 2025
+ * Apache License, Version 2.0
+ */
+package org.deveasy.test.core.cloud.capability;
+
+import org.deveasy.test.core.cloud.Capability;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Non-blocking counterpart of the single-item operations of {@link NoSqlTable}. It deliberately covers only the
+ * calls below: table management ({@link NoSqlTable#ensureTable}, {@link NoSqlTable#deleteTable}), batch writes and
+ * reads, {@link NoSqlTable#scan}, {@link NoSqlQuery} queries and {@link NoSqlTable#snapshot} stay on the blocking
+ * {@link NoSqlTable}, so tables are created, and tracked for cleanup by {@code CloudExtension}, in one place.
+ * <p>
+ * Methods never block the caller; every failure, including invalid arguments, completes the returned future
+ * exceptionally with the exception the blocking method would throw. Implementations are thread-safe.
+ * </p>
+ *
+ * @since 0.3.0
+ */
+public interface AsyncNoSqlTable extends Capability {
+
+    /** @see NoSqlTable#putItem(String, Map) */
+    CompletableFuture<Void> putItem(String tableName, Map<String, Object> item);
+
+    /**
+     * @return a future of the item, completing with {@code null} if not found
+     * @see NoSqlTable#getItem(String, String)
+     */
+    CompletableFuture<Map<String, Object>> getItem(String tableName, String partitionKeyValue);
+
+    /**
+     * @return a future of the item, completing with {@code null} if not found
+     * @see NoSqlTable#getItem(String, String, String)
+     */
+    CompletableFuture<Map<String, Object>> getItem(String tableName, String partitionKeyValue, String sortKeyValue);
+
+    /** @see NoSqlTable#deleteItem(String, String) */
+    CompletableFuture<Void> deleteItem(String tableName, String partitionKeyValue);
+
+    /** @see NoSqlTable#deleteItem(String, String, String) */
+    CompletableFuture<Void> deleteItem(String tableName, String partitionKeyValue, String sortKeyValue);
+
+    /** @see NoSqlTable#query(String, String) */
+    CompletableFuture<List<Map<String, Object>>> query(String tableName, String partitionKeyValue);
+
+    /**
+     * Adapts a blocking {@link NoSqlTable} by running each call on {@code executor}, e.g.
+     * {@link org.deveasy.test.core.cloud.CloudExecutors#blocking()}. Used by adapters without a native async client.
+     *
+     * @throws IllegalArgumentException if an argument is null
+     */
+    static AsyncNoSqlTable of(NoSqlTable table, Executor executor) {
+        if (table == null || executor == null) {
+            throw new IllegalArgumentException("table and executor must not be null");
+        }
+        return new AsyncNoSqlTable() {
+            @Override public CompletableFuture<Void> putItem(String tableName, Map<String, Object> item) { return CompletableFuture.runAsync(() -> table.putItem(tableName, item), executor); }
+            @Override public CompletableFuture<Map<String, Object>> getItem(String tableName, String pk) { return CompletableFuture.supplyAsync(() -> table.getItem(tableName, pk), executor); }
+            @Override public CompletableFuture<Map<String, Object>> getItem(String tableName, String pk, String sk) { return CompletableFuture.supplyAsync(() -> table.getItem(tableName, pk, sk), executor); }
+            @Override public CompletableFuture<Void> deleteItem(String tableName, String pk) { return CompletableFuture.runAsync(() -> table.deleteItem(tableName, pk), executor); }
+            @Override public CompletableFuture<Void> deleteItem(String tableName, String pk, String sk) { return CompletableFuture.runAsync(() -> table.deleteItem(tableName, pk, sk), executor); }
+            @Override public CompletableFuture<List<Map<String, Object>>> query(String tableName, String pk) { return CompletableFuture.supplyAsync(() -> table.query(tableName, pk), executor); }
+        };
+    }
+}
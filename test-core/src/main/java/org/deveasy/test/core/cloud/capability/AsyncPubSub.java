@@ -0,0 +1,49 @@
+/*
+ * Copyright 2025
+ * Apache License, Version 2.0
+ */
+package org.deveasy.test.core.cloud.capability;
+
+import org.deveasy.test.core.cloud.Capability;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Non-blocking counterpart of the message operations of {@link PubSub}. It deliberately covers only the plain
+ * publish and receive calls below: topic and subscription management ({@link PubSub#ensureTopic},
+ * {@link PubSub#ensureSubscription} and their deletes), {@link Message}-level calls and listeners stay on the
+ * blocking {@link PubSub}. A publish may still create a missing topic where the provider does so.
+ * <p>
+ * Methods never block the caller; every failure, including invalid arguments, completes the returned future
+ * exceptionally with the exception the blocking method would throw. Implementations are thread-safe.
+ * </p>
+ *
+ * @since 0.3.0
+ */
+public interface AsyncPubSub extends Capability {
+
+    /** @see PubSub#publish(String, String) */
+    CompletableFuture<Void> publish(String topic, String body);
+
+    /** @see PubSub#receive(String, Duration) */
+    CompletableFuture<Optional<String>> receive(String subscription, Duration timeout);
+
+    /**
+     * Adapts a blocking {@link PubSub} by running each call on {@code executor}, e.g.
+     * {@link org.deveasy.test.core.cloud.CloudExecutors#blocking()}. Used by adapters without a native async client.
+     *
+     * @throws IllegalArgumentException if an argument is null
+     */
+    static AsyncPubSub of(PubSub pubSub, Executor executor) {
+        if (pubSub == null || executor == null) {
+            throw new IllegalArgumentException("pubSub and executor must not be null");
+        }
+        return new AsyncPubSub() {
+            @Override public CompletableFuture<Void> publish(String topic, String body) { return CompletableFuture.runAsync(() -> pubSub.publish(topic, body), executor); }
+            @Override public CompletableFuture<Optional<String>> receive(String subscription, Duration timeout) { return CompletableFuture.supplyAsync(() -> pubSub.receive(subscription, timeout), executor); }
+        };
+    }
+}
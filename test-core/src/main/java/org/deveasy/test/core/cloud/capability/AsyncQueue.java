@@ -0,0 +1,63 @@
+/*
+ * Copyright 2025
+ * Apache License, Version 2.0
+ */
+package org.deveasy.test.core.cloud.capability;
+
+import org.deveasy.test.core.cloud.Capability;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Non-blocking counterpart of the message operations of {@link Queue}, with the same delete-on-receive semantics.
+ * It deliberately covers only the plain send and receive calls below: queue management ({@link Queue#ensureQueue},
+ * {@link Queue#deleteQueue}), {@link Message}-level calls, listeners and {@link Queue#snapshot} stay on the
+ * blocking {@link Queue}, so queues are created, and tracked for cleanup by {@code CloudExtension}, in one place.
+ * <p>
+ * Methods never block the caller; every failure, including invalid arguments, completes the returned future
+ * exceptionally with the exception the blocking method would throw. A pending receive holds no thread while it
+ * waits. Implementations are thread-safe.
+ * </p>
+ *
+ * @since 0.3.0
+ */
+public interface AsyncQueue extends Capability {
+
+    /** @see Queue#send(String, String) */
+    CompletableFuture<Void> send(String queue, String body);
+
+    /** @see Queue#sendBatch(String, List) */
+    CompletableFuture<Void> sendBatch(String queue, List<String> bodies);
+
+    /**
+     * @return a future completing with the first message, or empty once {@code timeout} passes without one
+     * @see Queue#receive(String, Duration)
+     */
+    CompletableFuture<Optional<String>> receive(String queue, Duration timeout);
+
+    /** @see Queue#receiveBatch(String, int, Duration) */
+    CompletableFuture<List<String>> receiveBatch(String queue, int max, Duration timeout);
+
+    /**
+     * Adapts a blocking {@link Queue} by running each call on {@code executor}, e.g.
+     * {@link org.deveasy.test.core.cloud.CloudExecutors#blocking()}; a waiting receive then occupies one of its
+     * threads, which is cheap with virtual threads. Used by adapters without a native async client.
+     *
+     * @throws IllegalArgumentException if an argument is null
+     */
+    static AsyncQueue of(Queue queue, Executor executor) {
+        if (queue == null || executor == null) {
+            throw new IllegalArgumentException("queue and executor must not be null");
+        }
+        return new AsyncQueue() {
+            @Override public CompletableFuture<Void> send(String q, String body) { return CompletableFuture.runAsync(() -> queue.send(q, body), executor); }
+            @Override public CompletableFuture<Void> sendBatch(String q, List<String> bodies) { return CompletableFuture.runAsync(() -> queue.sendBatch(q, bodies), executor); }
+            @Override public CompletableFuture<Optional<String>> receive(String q, Duration timeout) { return CompletableFuture.supplyAsync(() -> queue.receive(q, timeout), executor); }
+            @Override public CompletableFuture<List<String>> receiveBatch(String q, int max, Duration timeout) { return CompletableFuture.supplyAsync(() -> queue.receiveBatch(q, max, timeout), executor); }
+        };
+    }
+}
@@ -6,8 +6,18 @@ package org.deveasy.test.core.cloud.capability;
 
 import org.deveasy.test.core.cloud.Capability;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Provider-agnostic blob storage capability for testing cloud storage services.
@@ -78,6 +88,24 @@ public interface BlobStorage extends Capability {
      */
     void putObject(String bucket, String key, InputStream data, String contentType);
 
+    /**
+     * Stores an object by key, streaming a payload of known length. Implementations should upload without
+     * buffering the whole payload in memory and close the stream. The default delegates to
+     * {@link #putObject(String, String, InputStream, String)}.
+     *
+     * @param bucket the bucket/container name
+     * @param key the object key
+     * @param data the input stream containing exactly {@code contentLength} bytes; will be closed by the implementation
+     * @param contentLength the payload length in bytes, or {@code -1} if unknown
+     * @param contentType the MIME content type (e.g., {@code text/plain}, {@code application/json})
+     * @throws IllegalArgumentException if any argument is invalid (null/blank)
+     * @throws RuntimeException if the upload fails or the provider rejects the request
+     * @since 0.3.0
+     */
+    default void putObject(String bucket, String key, InputStream data, long contentLength, String contentType) {
+        putObject(bucket, key, data, contentType);
+    }
+
     /**
      * Retrieves the object contents as bytes.
      *
@@ -89,6 +117,74 @@ public interface BlobStorage extends Capability {
      */
     byte[] getObject(String bucket, String key);
 
+    /**
+     * Opens the object contents as a stream so large objects can be read in constant memory. The caller must close
+     * the returned stream. The default wraps {@link #getObject(String, String)}.
+     *
+     * @param bucket the bucket/container name
+     * @param key the object key
+     * @return a stream over the object bytes, or {@code null} if not found
+     * @throws IllegalArgumentException if {@code bucket} or {@code key} is null or blank
+     * @throws RuntimeException if the download fails due to provider-side issues
+     * @since 0.3.0
+     */
+    default InputStream openObject(String bucket, String key) {
+        byte[] data = getObject(bucket, key);
+        return data == null ? null : new ByteArrayInputStream(data);
+    }
+
+    /**
+     * Retrieves a byte range of the object. Ranges running past the end of the object are truncated.
+     *
+     * @param bucket the bucket/container name
+     * @param key the object key
+     * @param offset the zero-based offset of the first byte
+     * @param length the maximum number of bytes to return
+     * @return the requested bytes (empty if {@code offset} is at or beyond the end), or {@code null} if not found
+     * @throws IllegalArgumentException if {@code bucket} or {@code key} is null or blank, or offset/length is negative
+     * @throws RuntimeException if the download fails due to provider-side issues
+     * @since 0.3.0
+     */
+    default byte[] getObjectRange(String bucket, String key, long offset, long length) {
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("offset and length must not be negative");
+        }
+        byte[] data = getObject(bucket, key);
+        if (data == null) {
+            return null;
+        }
+        int from = (int) Math.min(offset, data.length);
+        int to = (int) Math.min(data.length, from + Math.min(length, (long) data.length));
+        return Arrays.copyOfRange(data, from, to);
+    }
+
+    /**
+     * Streams the object straight to a file, replacing it if present, without holding the object in memory.
+     *
+     * @param bucket the bucket/container name
+     * @param key the object key
+     * @param target the destination file
+     * @return the number of bytes written, or {@code -1} if the object was not found (the file is left untouched)
+     * @throws IllegalArgumentException if any argument is null or blank
+     * @throws java.io.UncheckedIOException if writing the file fails
+     * @throws RuntimeException if the download fails due to provider-side issues
+     * @since 0.3.0
+     */
+    default long transferTo(String bucket, String key, Path target) {
+        if (target == null) {
+            throw new IllegalArgumentException("target must not be null");
+        }
+        InputStream in = openObject(bucket, key);
+        if (in == null) {
+            return -1L;
+        }
+        try (InputStream data = in) {
+            return Files.copy(data, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write object " + bucket + "/" + key + " to " + target, e);
+        }
+    }
+
     /**
      * Deletes an object by key.
      *
@@ -110,6 +206,49 @@ public interface BlobStorage extends Capability {
      */
     List<String> listKeys(String bucket, String prefix);
 
+    /**
+     * Lazily lists object keys with an optional prefix. Implementations fetch pages only as the stream is consumed,
+     * so short-circuiting operations such as {@code findAny()} or {@code limit(n)} stop listing early. The default
+     * wraps {@link #listKeys(String, String)}.
+     *
+     * @param bucket the bucket/container name
+     * @param prefix the key prefix filter; empty string or {@code null} means list all
+     * @return a stream of object keys (possibly empty), never {@code null}
+     * @throws IllegalArgumentException if {@code bucket} is null or blank
+     * @throws RuntimeException if the listing fails; may be thrown when the stream is consumed
+     * @see #streamKeys(String, String, String)
+     * @since 0.3.0
+     */
+    default Stream<String> streamKeys(String bucket, String prefix) {
+        return streamKeys(bucket, prefix, null);
+    }
+
+    /**
+     * Lazily lists object keys, folder-style when a delimiter is given: keys whose remainder after {@code prefix}
+     * contains {@code delimiter} are rolled up into a single common prefix ending with the delimiter (e.g. listing
+     * {@code "a/"} with {@code "/"} yields {@code "a/1"} and {@code "a/sub/"} rather than every key under
+     * {@code "a/sub/"}). Each entry is returned once. The default wraps {@link #listKeys(String, String)}.
+     *
+     * @param bucket the bucket/container name
+     * @param prefix the key prefix filter; empty string or {@code null} means list all
+     * @param delimiter the folder delimiter, or {@code null}/empty for a flat listing
+     * @return a stream of keys and common prefixes (possibly empty), never {@code null}
+     * @throws IllegalArgumentException if {@code bucket} is null or blank
+     * @throws RuntimeException if the listing fails; may be thrown when the stream is consumed
+     * @since 0.3.0
+     */
+    default Stream<String> streamKeys(String bucket, String prefix, String delimiter) {
+        String p = prefix == null ? "" : prefix;
+        Stream<String> keys = listKeys(bucket, p).stream();
+        if (delimiter == null || delimiter.isEmpty()) {
+            return keys;
+        }
+        return keys.map(k -> {
+            int i = k.indexOf(delimiter, p.length());
+            return i < 0 ? k : k.substring(0, i + delimiter.length());
+        }).distinct();
+    }
+
     /**
      * Checks if an object exists at the given key.
      *
@@ -120,4 +259,42 @@ public interface BlobStorage extends Capability {
      * @throws RuntimeException if the existence check fails due to provider-side issues
      */
     boolean exists(String bucket, String key);
+
+    /**
+     * Captures every object of the given buckets so they can be brought back with {@link Snapshot#restore()}.
+     * Object contents are copied into the snapshot. The default reads each object with
+     * {@link #getObject(String, String)}; its restore recreates missing buckets, deletes objects added since the
+     * capture and rewrites every captured object, without content types. Implementations may skip unchanged objects.
+     *
+     * @param buckets the buckets to capture; each must exist
+     * @return the snapshot
+     * @throws IllegalArgumentException if {@code buckets} is null or contains a null or blank name
+     * @throws RuntimeException if listing or reading fails
+     * @since 0.3.0
+     */
+    default Snapshot snapshot(String... buckets) {
+        if (buckets == null || Arrays.stream(buckets).anyMatch(b -> b == null || b.isBlank())) {
+            throw new IllegalArgumentException("buckets must not be null or contain null or blank names");
+        }
+        Map<String, Map<String, byte[]>> captured = new LinkedHashMap<>();
+        for (String bucket : buckets) {
+            Map<String, byte[]> objects = new LinkedHashMap<>();
+            for (String key : listKeys(bucket, null)) {
+                byte[] data = getObject(bucket, key);
+                if (data != null) { // deleted since listing
+                    objects.put(key, data);
+                }
+            }
+            captured.put(bucket, objects);
+        }
+        return () -> captured.forEach((bucket, objects) -> {
+            ensureBucket(bucket);
+            for (String key : listKeys(bucket, null)) {
+                if (!objects.containsKey(key)) {
+                    deleteObject(bucket, key);
+                }
+            }
+            objects.forEach((key, data) -> putObject(bucket, key, data, null));
+        });
+    }
 }
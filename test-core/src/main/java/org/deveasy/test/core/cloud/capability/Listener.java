@@ -0,0 +1,38 @@
+/*
+ * Copyright 2025
+ * Apache License, Version 2.0
+ */
+package org.deveasy.test.core.cloud.capability;
+
+/**
+ * Handle of a running push-style consumer started by {@link Queue#subscribe(String, java.util.function.Consumer,
+ * ListenerOptions)} or {@link PubSub#subscribe(String, java.util.function.Consumer, ListenerOptions)}. Closing it
+ * stops polling and waits for messages already received to be handled and acknowledged.
+ * <pre>{@code
+ * Set<String> seen = ConcurrentHashMap.newKeySet();
+ * try (Listener listener = queue.subscribe("events", m -> seen.add(m.body()), ListenerOptions.builder().concurrency(8).build())) {
+ *     producer.emit(5_000);
+ *     // wait until seen.size() == 5_000
+ * }
+ * }</pre>
+ *
+ * @since 0.3.0
+ */
+public interface Listener extends AutoCloseable {
+
+    /** @return the number of messages the handler completed without throwing */
+    long delivered();
+
+    /** @return the number of messages the handler threw for; providers with acknowledgment redeliver them */
+    long failed();
+
+    /** @return {@code false} once {@link #close()} has been called */
+    boolean isOpen();
+
+    /**
+     * Stops polling, waits for received messages to be handled and flushes pending acknowledgments. Idempotent.
+     * Must not be called from the handler itself.
+     */
+    @Override
+    void close();
+}
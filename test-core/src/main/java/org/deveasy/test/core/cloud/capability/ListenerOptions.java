@@ -0,0 +1,115 @@
+/*
+ * Copyright 2025
+ * Apache License, Version 2.0
+ */
+package org.deveasy.test.core.cloud.capability;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Tuning for a {@link Listener}. Immutable; start from {@link #defaults()} or {@link #builder()}.
+ * <ul>
+ *   <li>{@code concurrency} (default 1): handler invocations running at once.</li>
+ *   <li>{@code prefetch} (default 10, or {@code concurrency} if higher): messages received but not yet handled,
+ *   including those in the handler. The poller asks the provider for as many as there is room for.</li>
+ *   <li>{@code ackBatchSize} (default 10): handled messages acknowledged per provider call. Pending
+ *   acknowledgments are also flushed before each poll and on close.</li>
+ *   <li>{@code pollWait} (default 1s): how long one poll waits for messages; also bounds how long
+ *   {@link Listener#close()} waits for the poller.</li>
+ *   <li>{@code onError}: receives handler and poll failures; by default they are logged.</li>
+ * </ul>
+ *
+ * @since 0.3.0
+ */
+public final class ListenerOptions {
+
+    private static final int DEFAULT_PREFETCH = 10;
+    private static final ListenerOptions DEFAULTS = builder().build();
+
+    private final int concurrency;
+    private final int prefetch;
+    private final int ackBatchSize;
+    private final Duration pollWait;
+    private final Consumer<Throwable> onError; // nullable
+
+    private ListenerOptions(Builder b) {
+        this.concurrency = b.concurrency;
+        this.prefetch = b.prefetch == 0 ? Math.max(DEFAULT_PREFETCH, b.concurrency) : b.prefetch;
+        this.ackBatchSize = b.ackBatchSize;
+        this.pollWait = b.pollWait;
+        this.onError = b.onError;
+    }
+
+    public int concurrency() { return concurrency; }
+    public int prefetch() { return prefetch; }
+    public int ackBatchSize() { return ackBatchSize; }
+    public Duration pollWait() { return pollWait; }
+    /** @return the error callback, or {@code null} to log failures */
+    public Consumer<Throwable> onError() { return onError; }
+
+    public static ListenerOptions defaults() {
+        return DEFAULTS;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public String toString() {
+        return "ListenerOptions{concurrency=" + concurrency + ", prefetch=" + prefetch + ", ackBatchSize=" + ackBatchSize
+            + ", pollWait=" + pollWait + "}";
+    }
+
+    public static final class Builder {
+        private int concurrency = 1;
+        private int prefetch; // 0 = derived from concurrency
+        private int ackBatchSize = 10;
+        private Duration pollWait = Duration.ofSeconds(1);
+        private Consumer<Throwable> onError;
+
+        private Builder() {}
+
+        public Builder concurrency(int concurrency) {
+            this.concurrency = positive(concurrency, "concurrency");
+            return this;
+        }
+
+        public Builder prefetch(int prefetch) {
+            this.prefetch = positive(prefetch, "prefetch");
+            return this;
+        }
+
+        public Builder ackBatchSize(int ackBatchSize) {
+            this.ackBatchSize = positive(ackBatchSize, "ackBatchSize");
+            return this;
+        }
+
+        public Builder pollWait(Duration pollWait) {
+            if (pollWait == null || pollWait.isNegative() || pollWait.isZero()) {
+                throw new IllegalArgumentException("pollWait must be positive");
+            }
+            this.pollWait = pollWait;
+            return this;
+        }
+
+        public Builder onError(Consumer<Throwable> onError) { this.onError = onError; return this; }
+
+        /** @throws IllegalArgumentException if {@code prefetch} is less than {@code concurrency} */
+        public ListenerOptions build() {
+            if (prefetch != 0 && prefetch < concurrency) {
+                throw new IllegalArgumentException("prefetch (" + prefetch + ") must not be less than concurrency ("
+                    + concurrency + ")");
+            }
+            return new ListenerOptions(this);
+        }
+
+        private static int positive(int value, String name) {
+            if (value < 1) {
+                throw new IllegalArgumentException(name + " must be positive");
+            }
+            return value;
+        }
+    }
+}
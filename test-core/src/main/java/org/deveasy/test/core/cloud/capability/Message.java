@@ -0,0 +1,202 @@
+/*
+ * Copyright 2025
+ * Apache License, Version 2.0
+ */
+package org.deveasy.test.core.cloud.capability;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A queue or topic message with its metadata. Immutable; build with {@link #of(String)} or {@link #builder(String)}.
+ * <p>
+ * The same type is sent and received. On send, the body, {@link #attributes()}, {@link #delay()} and the FIFO
+ * {@link #groupId()} and {@link #deduplicationId()} are used. On receive, the adapter also fills in what the provider
+ * reports: {@link #id()}, {@link #receiveCount()}, {@link #sentAt()} and {@link #receivedAt()}. For example, to
+ * measure end-to-end latency:
+ * </p>
+ * <pre>{@code
+ * pubSub.publish("events", Message.builder("{\"id\":1}").attribute("type", "order-created").build());
+ * Message m = pubSub.receiveMessage("events-sub", Duration.ofSeconds(5)).orElseThrow();
+ * Duration latency = m.latency();
+ * }</pre>
+ *
+ * @since 0.3.0
+ */
+public final class Message {
+
+    private final String body;
+    private final Map<String, String> attributes;
+    private final String groupId; // nullable
+    private final String deduplicationId; // nullable
+    private final Duration delay;
+    private final String id; // nullable
+    private final int receiveCount; // 0 = unknown
+    private final Instant sentAt; // nullable
+    private final Instant receivedAt; // nullable
+
+    private Message(Builder b) {
+        this.body = b.body;
+        this.attributes = Collections.unmodifiableMap(new LinkedHashMap<>(b.attributes));
+        this.groupId = b.groupId;
+        this.deduplicationId = b.deduplicationId;
+        this.delay = b.delay;
+        this.id = b.id;
+        this.receiveCount = b.receiveCount;
+        this.sentAt = b.sentAt;
+        this.receivedAt = b.receivedAt;
+    }
+
+    /** @return the message body as a UTF-8 string */
+    public String body() { return body; }
+    /** @return the user-defined string attributes; empty if none */
+    public Map<String, String> attributes() { return attributes; }
+    /** @return the FIFO message group, or {@code null} */
+    public String groupId() { return groupId; }
+    /** @return the FIFO deduplication ID, or {@code null} */
+    public String deduplicationId() { return deduplicationId; }
+    /** @return how long delivery is postponed after sending; {@link Duration#ZERO} for none */
+    public Duration delay() { return delay; }
+    /** @return the provider-assigned message ID, or {@code null} if the provider has none */
+    public String id() { return id; }
+    /** @return how many times the message has been received, including this time; {@code 0} if unknown */
+    public int receiveCount() { return receiveCount; }
+    /** @return when the provider accepted the message, or {@code null} if unknown */
+    public Instant sentAt() { return sentAt; }
+    /** @return when this copy was received, or {@code null} for a message that has not been received */
+    public Instant receivedAt() { return receivedAt; }
+
+    /** @return the time from {@link #sentAt()} to {@link #receivedAt()}, or {@code null} if either is unknown */
+    public Duration latency() {
+        return sentAt == null || receivedAt == null ? null : Duration.between(sentAt, receivedAt);
+    }
+
+    /** @return {@code true} if only the body is set for sending, so the plain {@code send(String, String)} suffices */
+    public boolean bodyOnly() {
+        return attributes.isEmpty() && groupId == null && deduplicationId == null && delay.isZero();
+    }
+
+    /**
+     * @param body the message body
+     * @return a message with only a body
+     * @throws IllegalArgumentException if {@code body} is null
+     */
+    public static Message of(String body) {
+        return builder(body).build();
+    }
+
+    /**
+     * @param body the message body
+     * @return a builder
+     * @throws IllegalArgumentException if {@code body} is null
+     */
+    public static Builder builder(String body) {
+        if (body == null) {
+            throw new IllegalArgumentException("body must not be null");
+        }
+        return new Builder(body);
+    }
+
+    /** @return a builder starting from this message, e.g. for an adapter to add the receive metadata */
+    public Builder toBuilder() {
+        Builder b = new Builder(body);
+        b.attributes.putAll(attributes);
+        b.groupId = groupId;
+        b.deduplicationId = deduplicationId;
+        b.delay = delay;
+        b.id = id;
+        b.receiveCount = receiveCount;
+        b.sentAt = sentAt;
+        b.receivedAt = receivedAt;
+        return b;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Message)) return false;
+        Message other = (Message) o;
+        return receiveCount == other.receiveCount && body.equals(other.body) && attributes.equals(other.attributes)
+            && Objects.equals(groupId, other.groupId) && Objects.equals(deduplicationId, other.deduplicationId)
+            && delay.equals(other.delay) && Objects.equals(id, other.id) && Objects.equals(sentAt, other.sentAt)
+            && Objects.equals(receivedAt, other.receivedAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(body, attributes, groupId, deduplicationId, delay, id, receiveCount, sentAt, receivedAt);
+    }
+
+    @Override
+    public String toString() {
+        return "Message{" + (id == null ? "" : "id=" + id + ", ") + "body=" + body
+            + (attributes.isEmpty() ? "" : ", attributes=" + attributes)
+            + (groupId == null ? "" : ", group=" + groupId)
+            + (deduplicationId == null ? "" : ", dedup=" + deduplicationId)
+            + (delay.isZero() ? "" : ", delay=" + delay)
+            + (receiveCount == 0 ? "" : ", receiveCount=" + receiveCount)
+            + (sentAt == null ? "" : ", sentAt=" + sentAt) + "}";
+    }
+
+    public static final class Builder {
+        private final String body;
+        private final Map<String, String> attributes = new LinkedHashMap<>();
+        private String groupId;
+        private String deduplicationId;
+        private Duration delay = Duration.ZERO;
+        private String id;
+        private int receiveCount;
+        private Instant sentAt;
+        private Instant receivedAt;
+
+        private Builder(String body) { this.body = body; }
+
+        /** Adds a string attribute; repeated names overwrite. */
+        public Builder attribute(String name, String value) {
+            if (name == null || name.isBlank() || value == null) {
+                throw new IllegalArgumentException("attribute name must not be null or blank and value must not be null");
+            }
+            attributes.put(name, value);
+            return this;
+        }
+
+        public Builder attributes(Map<String, String> attributes) {
+            if (attributes == null) {
+                throw new IllegalArgumentException("attributes must not be null");
+            }
+            attributes.forEach(this::attribute);
+            return this;
+        }
+
+        public Builder groupId(String groupId) { this.groupId = groupId; return this; }
+        public Builder deduplicationId(String deduplicationId) { this.deduplicationId = deduplicationId; return this; }
+
+        public Builder delay(Duration delay) {
+            if (delay == null || delay.isNegative()) {
+                throw new IllegalArgumentException("delay must not be null or negative");
+            }
+            this.delay = delay;
+            return this;
+        }
+
+        // Receive metadata, set by adapters
+        public Builder id(String id) { this.id = id; return this; }
+
+        public Builder receiveCount(int receiveCount) {
+            if (receiveCount < 0) {
+                throw new IllegalArgumentException("receiveCount must not be negative");
+            }
+            this.receiveCount = receiveCount;
+            return this;
+        }
+
+        public Builder sentAt(Instant sentAt) { this.sentAt = sentAt; return this; }
+        public Builder receivedAt(Instant receivedAt) { this.receivedAt = receivedAt; return this; }
+
+        public Message build() { return new Message(this); }
+    }
+}
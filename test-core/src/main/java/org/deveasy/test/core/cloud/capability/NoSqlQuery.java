@@ -0,0 +1,209 @@
+/*
+ * Copyright 2025
+ * Apache License, Version 2.0
+ */
+package org.deveasy.test.core.cloud.capability;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Query against one partition of a {@link NoSqlTable}, for {@link NoSqlTable#query(String, NoSqlQuery)}.
+ * Immutable and buildable via {@link #partitionKey(String)}.
+ * <p>
+ * Beyond the partition key, a query may carry one sort key condition, equality filters on non-key attributes,
+ * a projection, a result limit, descending sort key order and a secondary index name. For example, the newest
+ * event of a partition:
+ * </p>
+ * <pre>{@code
+ * NoSqlQuery newest = NoSqlQuery.partitionKey("u-1").descending().limit(1).build();
+ * List<Map<String,Object>> items = db.query("Events", newest);
+ * }</pre>
+ *
+ * @since 0.3.0
+ */
+public final class NoSqlQuery {
+
+    /** Sort key comparison; values are compared as strings, matching the string-typed keys of {@link NoSqlTable}. */
+    public enum SortKeyOperator { EQ, LT, LE, GT, GE, BETWEEN, BEGINS_WITH }
+
+    private final String partitionKeyValue;
+    private final SortKeyOperator sortKeyOperator; // nullable
+    private final List<String> sortKeyValues;
+    private final Map<String, Object> filters;
+    private final List<String> projection;
+    private final int limit; // 0 = unlimited
+    private final boolean descending;
+    private final String indexName; // nullable
+
+    private NoSqlQuery(Builder b) {
+        this.partitionKeyValue = b.partitionKeyValue;
+        this.sortKeyOperator = b.sortKeyOperator;
+        this.sortKeyValues = b.sortKeyValues;
+        this.filters = Collections.unmodifiableMap(new LinkedHashMap<>(b.filters));
+        this.projection = Collections.unmodifiableList(new ArrayList<>(b.projection));
+        this.limit = b.limit;
+        this.descending = b.descending;
+        this.indexName = b.indexName;
+    }
+
+    public String partitionKeyValue() { return partitionKeyValue; }
+    /** @return the sort key condition, or {@code null} for the whole partition */
+    public SortKeyOperator sortKeyOperator() { return sortKeyOperator; }
+    /** @return the condition operands: two for {@link SortKeyOperator#BETWEEN}, otherwise one; empty without a condition */
+    public List<String> sortKeyValues() { return sortKeyValues; }
+    /** @return attribute equality filters applied to matching items, all of which must hold */
+    public Map<String, Object> filters() { return filters; }
+    /** @return the attributes to return; empty means all attributes */
+    public List<String> projection() { return projection; }
+    /** @return the maximum number of items to return after filtering, or {@code 0} for no limit */
+    public int limit() { return limit; }
+    /** @return {@code true} to return items in descending sort key order */
+    public boolean descending() { return descending; }
+    /** @return the secondary index to query, or {@code null} for the table itself */
+    public String indexName() { return indexName; }
+
+    /**
+     * Evaluates the sort key condition against a sort key value.
+     *
+     * @param sortKeyValue the item's sort key value
+     * @return {@code true} if there is no condition or the value satisfies it
+     */
+    public boolean sortKeyMatches(String sortKeyValue) {
+        if (sortKeyOperator == null) return true;
+        if (sortKeyValue == null) return false;
+        int c = sortKeyValue.compareTo(sortKeyValues.get(0));
+        switch (sortKeyOperator) {
+            case EQ: return c == 0;
+            case LT: return c < 0;
+            case LE: return c <= 0;
+            case GT: return c > 0;
+            case GE: return c >= 0;
+            case BETWEEN: return c >= 0 && sortKeyValue.compareTo(sortKeyValues.get(1)) <= 0;
+            case BEGINS_WITH: return sortKeyValue.startsWith(sortKeyValues.get(0));
+            default: throw new IllegalStateException("Unknown operator " + sortKeyOperator);
+        }
+    }
+
+    /**
+     * @param item an item of the queried partition
+     * @return {@code true} if every filter attribute is present with an equal value
+     */
+    public boolean filtersMatch(Map<String, Object> item) {
+        for (Map.Entry<String, Object> f : filters.entrySet()) {
+            if (!Objects.equals(item.get(f.getKey()), f.getValue())) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param item a matching item
+     * @return the item itself without a projection, otherwise a new map holding only the projected attributes present
+     */
+    public Map<String, Object> project(Map<String, Object> item) {
+        if (projection.isEmpty()) return item;
+        Map<String, Object> out = new LinkedHashMap<>(projection.size() * 4 / 3 + 1);
+        for (String attribute : projection) {
+            if (item.containsKey(attribute)) {
+                out.put(attribute, item.get(attribute));
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Starts a query for one partition.
+     *
+     * @param value the partition key value
+     * @return a builder
+     * @throws IllegalArgumentException if {@code value} is null
+     */
+    public static Builder partitionKey(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("partition key value must not be null");
+        }
+        return new Builder(value);
+    }
+
+    @Override
+    public String toString() {
+        return "NoSqlQuery{pk=" + partitionKeyValue
+            + (sortKeyOperator == null ? "" : ", sk " + sortKeyOperator + " " + sortKeyValues)
+            + (filters.isEmpty() ? "" : ", filters=" + filters)
+            + (projection.isEmpty() ? "" : ", projection=" + projection)
+            + (limit == 0 ? "" : ", limit=" + limit)
+            + (descending ? ", descending" : "")
+            + (indexName == null ? "" : ", index=" + indexName) + "}";
+    }
+
+    public static final class Builder {
+        private final String partitionKeyValue;
+        private SortKeyOperator sortKeyOperator;
+        private List<String> sortKeyValues = List.of();
+        private final Map<String, Object> filters = new LinkedHashMap<>();
+        private final List<String> projection = new ArrayList<>();
+        private int limit;
+        private boolean descending;
+        private String indexName;
+
+        private Builder(String partitionKeyValue) { this.partitionKeyValue = partitionKeyValue; }
+
+        // A query has at most one sort key condition; the last one set wins
+        public Builder sortKeyEquals(String value) { return sortKey(SortKeyOperator.EQ, value); }
+        public Builder sortKeyLessThan(String value) { return sortKey(SortKeyOperator.LT, value); }
+        public Builder sortKeyLessThanOrEqual(String value) { return sortKey(SortKeyOperator.LE, value); }
+        public Builder sortKeyGreaterThan(String value) { return sortKey(SortKeyOperator.GT, value); }
+        public Builder sortKeyGreaterThanOrEqual(String value) { return sortKey(SortKeyOperator.GE, value); }
+        public Builder sortKeyBetween(String from, String to) { return sortKey(SortKeyOperator.BETWEEN, from, to); }
+        public Builder sortKeyBeginsWith(String prefix) { return sortKey(SortKeyOperator.BEGINS_WITH, prefix); }
+
+        /** Adds an equality filter on a non-key attribute; repeated calls are AND-ed. */
+        public Builder filter(String attribute, Object value) {
+            if (attribute == null || attribute.isBlank()) {
+                throw new IllegalArgumentException("filter attribute must not be null or blank");
+            }
+            this.filters.put(attribute, value);
+            return this;
+        }
+
+        /** Restricts the returned attributes; repeated calls add to the projection. */
+        public Builder project(String... attributes) {
+            for (String a : attributes) {
+                if (a == null || a.isBlank()) {
+                    throw new IllegalArgumentException("projected attribute must not be null or blank");
+                }
+                projection.add(a);
+            }
+            return this;
+        }
+
+        public Builder limit(int limit) {
+            if (limit < 0) {
+                throw new IllegalArgumentException("limit must not be negative");
+            }
+            this.limit = limit;
+            return this;
+        }
+
+        public Builder descending() { this.descending = true; return this; }
+        public Builder index(String indexName) { this.indexName = indexName; return this; }
+
+        public NoSqlQuery build() { return new NoSqlQuery(this); }
+
+        private Builder sortKey(SortKeyOperator op, String... values) {
+            for (String v : values) {
+                if (v == null) {
+                    throw new IllegalArgumentException("sort key value must not be null");
+                }
+            }
+            this.sortKeyOperator = op;
+            this.sortKeyValues = List.copyOf(Arrays.asList(values));
+            return this;
+        }
+    }
+}
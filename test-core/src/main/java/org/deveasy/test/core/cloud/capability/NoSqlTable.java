@@ -6,8 +6,14 @@ package org.deveasy.test.core.cloud.capability;
 
 import org.deveasy.test.core.cloud.Capability;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Provider-agnostic NoSQL table capability for testing key-value and document stores.
@@ -62,6 +68,32 @@ public interface NoSqlTable extends Capability {
      */
     void ensureTable(String tableName, String partitionKey, String sortKey);
 
+    /**
+     * Ensures several tables exist. Implementations may issue the creates concurrently and wait for all tables
+     * together, which is much faster than calling {@link #ensureTable(String, String, String)} once per table. The
+     * default does exactly that, one table at a time.
+     *
+     * @param tables the tables to ensure
+     * @throws IllegalArgumentException if {@code tables} is null or contains null
+     * @throws RuntimeException if any creation fails or a table does not become ready in time
+     * @since 0.3.0
+     */
+    default void ensureTables(Collection<TableSpec> tables) {
+        if (tables == null) {
+            throw new IllegalArgumentException("tables must not be null");
+        }
+        for (TableSpec t : tables) {
+            if (t == null) {
+                throw new IllegalArgumentException("tables must not contain null");
+            }
+            if (t.sortKey() == null) {
+                ensureTable(t.name(), t.partitionKey());
+            } else {
+                ensureTable(t.name(), t.partitionKey(), t.sortKey());
+            }
+        }
+    }
+
     /**
      * Deletes a table if present.
      *
@@ -83,6 +115,26 @@ public interface NoSqlTable extends Capability {
      */
     void putItem(String tableName, Map<String, Object> item);
 
+    /**
+     * Puts or overwrites many items, e.g. to seed fixtures. Implementations should batch writes and may write
+     * concurrently, so there is no ordering between items; if several items share a key, the last one in iteration
+     * order wins. The default calls {@link #putItem(String, Map)} for each item.
+     *
+     * @param tableName the table name
+     * @param items the items to write; each must contain the table's key attributes
+     * @throws IllegalArgumentException if {@code tableName} is null or blank, or {@code items} is null
+     * @throws RuntimeException if any write fails; items in other batches may already have been written
+     * @since 0.3.0
+     */
+    default void putItems(String tableName, Collection<Map<String, Object>> items) {
+        if (items == null) {
+            throw new IllegalArgumentException("items must not be null");
+        }
+        for (Map<String, Object> item : items) {
+            putItem(tableName, item);
+        }
+    }
+
     /**
      * Gets an item by partition key value.
      *
@@ -106,6 +158,39 @@ public interface NoSqlTable extends Capability {
      */
     Map<String, Object> getItem(String tableName, String partitionKeyValue, String sortKeyValue);
 
+    /**
+     * Gets many items by key. Each key is a map holding the partition key attribute and, for tables with a sort key,
+     * the sort key attribute. Implementations that know the key schema ignore other entries, so whole items can be
+     * passed back as keys. The default filters {@link #scan(String)} on every entry of each key; implementations
+     * should override it with a batched lookup.
+     *
+     * @param tableName the table name
+     * @param keys the keys to look up
+     * @return the items found, without duplicates; missing keys are skipped; order is undefined; never {@code null}
+     * @throws IllegalArgumentException if {@code tableName} is null or blank, {@code keys} is null, or a key lacks a
+     *         key attribute
+     * @throws RuntimeException if the get operation fails
+     * @since 0.3.0
+     */
+    default List<Map<String, Object>> getItems(String tableName, Collection<Map<String, Object>> keys) {
+        if (keys == null) {
+            throw new IllegalArgumentException("keys must not be null");
+        }
+        if (keys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (Map<String, Object> item : scan(tableName)) {
+            for (Map<String, Object> key : keys) {
+                if (item.entrySet().containsAll(key.entrySet())) {
+                    out.add(item);
+                    break;
+                }
+            }
+        }
+        return out;
+    }
+
     /**
      * Deletes an item by partition key value.
      *
@@ -139,6 +224,40 @@ public interface NoSqlTable extends Capability {
      */
     List<Map<String, Object>> scan(String tableName);
 
+    /**
+     * Scans all items in a table, split into {@code totalSegments} segments that are read concurrently. Intended for
+     * verifying large seeded tables; results are gathered in memory as with {@link #scan(String)}. The default
+     * ignores {@code totalSegments} and delegates to {@link #scan(String)}.
+     *
+     * @param tableName the table name
+     * @param totalSegments the number of segments to scan concurrently; {@code 1} is a plain scan
+     * @return a list of items; order is undefined; never {@code null}
+     * @throws IllegalArgumentException if {@code tableName} is null or blank, or {@code totalSegments < 1}
+     * @throws RuntimeException if the scan operation fails
+     * @since 0.3.0
+     */
+    default List<Map<String, Object>> parallelScan(String tableName, int totalSegments) {
+        if (totalSegments < 1) {
+            throw new IllegalArgumentException("totalSegments must be at least 1");
+        }
+        return scan(tableName);
+    }
+
+    /**
+     * Scans all items in a table lazily. Implementations fetch pages only as the stream is consumed, so
+     * short-circuiting operations such as {@code anyMatch} or {@code limit(n)} stop scanning early and memory use
+     * stays bounded by one page. The default wraps {@link #scan(String)}.
+     *
+     * @param tableName the table name
+     * @return a stream of items (empty if the table does not exist); order is undefined; never {@code null}
+     * @throws IllegalArgumentException if {@code tableName} is null or blank
+     * @throws RuntimeException if the scan operation fails; may be thrown when the stream is consumed
+     * @since 0.3.0
+     */
+    default Stream<Map<String, Object>> streamItems(String tableName) {
+        return scan(tableName).stream();
+    }
+
     /**
      * Queries by partition key value.
      *
@@ -149,4 +268,144 @@ public interface NoSqlTable extends Capability {
      * @throws RuntimeException if the query operation fails
      */
     List<Map<String, Object>> query(String tableName, String partitionKeyValue);
+
+    /**
+     * Queries one partition with optional sort key condition, filters, projection, limit, ordering and secondary
+     * index (see {@link NoSqlQuery}). Implementations should push these to the provider so that, e.g., fetching the
+     * newest item of a partition transfers a single item.
+     * <p>
+     * The default post-processes {@link #query(String, String)} in memory and supports neither sort key conditions
+     * nor indexes, since it does not know the key schema.
+     * </p>
+     *
+     * @param tableName the table name
+     * @param query the query
+     * @return matching items in sort key order (reversed if descending), at most {@code limit}; never {@code null}
+     * @throws IllegalArgumentException if any argument is null, or the query names a sort key condition on a table
+     *         without sort key or an index that does not exist
+     * @throws UnsupportedOperationException if the implementation cannot evaluate the query
+     * @throws RuntimeException if the query operation fails
+     * @since 0.3.0
+     */
+    default List<Map<String, Object>> query(String tableName, NoSqlQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("query must not be null");
+        }
+        if (query.sortKeyOperator() != null || query.indexName() != null) {
+            throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support sort key conditions or indexes");
+        }
+        List<Map<String, Object>> items = new ArrayList<>(query(tableName, query.partitionKeyValue()));
+        if (query.descending()) {
+            Collections.reverse(items);
+        }
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (Map<String, Object> item : items) {
+            if (query.limit() > 0 && out.size() == query.limit()) break;
+            if (query.filtersMatch(item)) {
+                out.add(query.project(item));
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Captures every item of the given tables so they can be brought back with {@link Snapshot#restore()}. The
+     * default captures with {@link #streamItems(String)}; its restore ensures the tables, deletes items whose key
+     * was not captured and writes back, via {@link #putItems(String, Collection)}, only captured items that are
+     * missing or differ. A table that does not exist yet is captured as empty.
+     *
+     * @param tables the tables to capture, with their key schema
+     * @return the snapshot
+     * @throws IllegalArgumentException if {@code tables} is null or contains null
+     * @throws RuntimeException if scanning fails
+     * @since 0.3.0
+     */
+    default Snapshot snapshot(TableSpec... tables) {
+        if (tables == null || Arrays.stream(tables).anyMatch(t -> t == null)) {
+            throw new IllegalArgumentException("tables must not be null or contain null");
+        }
+        Map<TableSpec, Map<List<String>, Map<String, Object>>> captured = new LinkedHashMap<>();
+        for (TableSpec t : tables) {
+            Map<List<String>, Map<String, Object>> items = new LinkedHashMap<>();
+            try (Stream<Map<String, Object>> s = streamItems(t.name())) {
+                s.forEach(item -> items.put(t.keyOf(item), item));
+            }
+            captured.put(t, items);
+        }
+        return () -> {
+            ensureTables(captured.keySet());
+            captured.forEach((t, items) -> {
+                Map<List<String>, Map<String, Object>> pending = new LinkedHashMap<>(items);
+                List<List<String>> extra = new ArrayList<>();
+                List<Map<String, Object>> changed = new ArrayList<>();
+                try (Stream<Map<String, Object>> s = streamItems(t.name())) {
+                    s.forEach(item -> {
+                        List<String> key = t.keyOf(item);
+                        Map<String, Object> baseline = pending.remove(key);
+                        if (baseline == null) {
+                            extra.add(key);
+                        } else if (!baseline.equals(item)) {
+                            changed.add(baseline);
+                        }
+                    });
+                }
+                for (List<String> key : extra) {
+                    if (t.sortKey() == null) {
+                        deleteItem(t.name(), key.get(0));
+                    } else {
+                        deleteItem(t.name(), key.get(0), key.get(1));
+                    }
+                }
+                changed.addAll(pending.values());
+                putItems(t.name(), changed);
+            });
+        };
+    }
+
+    /**
+     * Name and key schema of a table, for {@link #ensureTables(Collection)}.
+     *
+     * @since 0.3.0
+     */
+    final class TableSpec {
+        private final String name;
+        private final String partitionKey;
+        private final String sortKey; // nullable
+
+        private TableSpec(String name, String partitionKey, String sortKey) {
+            if (name == null || name.isBlank() || partitionKey == null || partitionKey.isBlank()) {
+                throw new IllegalArgumentException("name and partitionKey must not be null or blank");
+            }
+            if (sortKey != null && sortKey.isBlank()) {
+                throw new IllegalArgumentException("sortKey must not be blank");
+            }
+            this.name = name;
+            this.partitionKey = partitionKey;
+            this.sortKey = sortKey;
+        }
+
+        public static TableSpec of(String name, String partitionKey) { return new TableSpec(name, partitionKey, null); }
+        public static TableSpec of(String name, String partitionKey, String sortKey) {
+            if (sortKey == null) {
+                throw new IllegalArgumentException("sortKey must not be null");
+            }
+            return new TableSpec(name, partitionKey, sortKey);
+        }
+
+        public String name() { return name; }
+        public String partitionKey() { return partitionKey; }
+        /** @return the sort key attribute name, or {@code null} for partition-key-only tables */
+        public String sortKey() { return sortKey; }
+
+        /** @return the item's key values as strings: the partition key, then the sort key if the table has one */
+        List<String> keyOf(Map<String, Object> item) {
+            String pk = String.valueOf(item.get(partitionKey));
+            return sortKey == null ? List.of(pk) : List.of(pk, String.valueOf(item.get(sortKey)));
+        }
+
+        @Override
+        public String toString() {
+            return name + "(" + partitionKey + (sortKey == null ? "" : ", " + sortKey) + ")";
+        }
+    }
 }
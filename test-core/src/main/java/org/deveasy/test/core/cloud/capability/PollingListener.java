@@ -0,0 +1,249 @@
+/*
+ * Copyright 2025
+ * Apache License, Version 2.0
+ */
+package org.deveasy.test.core.cloud.capability;
+
+import org.deveasy.test.core.cloud.CloudExecutors;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * {@link Listener} driven by a background poller, shared by the default {@code subscribe} methods and by adapters
+ * that acknowledge messages separately from receiving them.
+ * <p>
+ * One daemon thread polls the {@link Source} for as many messages as {@link ListenerOptions#prefetch()} leaves room
+ * for and runs the handler for them on {@link CloudExecutors#blocking()}, at most
+ * {@link ListenerOptions#concurrency()} at a time. Messages the handler completes are
+ * acknowledged in batches of {@link ListenerOptions#ackBatchSize()}; messages it throws for are reported and never
+ * acknowledged, so providers with visibility timeouts redeliver them.
+ * </p>
+ *
+ * @param <T> the provider's raw message type
+ * @since 0.3.0
+ */
+public final class PollingListener<T> implements Listener {
+
+    /** Where a {@link PollingListener} gets its messages from. Called from the poller and handler threads. */
+    public interface Source<T> {
+
+        /**
+         * @param max the maximum number of messages to return; positive
+         * @param wait how long to wait for the first message
+         * @return up to {@code max} messages; empty if none arrived in time
+         */
+        List<T> poll(int max, Duration wait);
+
+        /** @return the message to hand to the handler */
+        Message message(T raw);
+
+        /**
+         * Acknowledges handled messages so they are not redelivered. The default does nothing, for sources whose
+         * poll already removes messages.
+         *
+         * @param handled at most {@link ListenerOptions#ackBatchSize()} messages
+         */
+        default void ack(List<T> handled) {}
+    }
+
+    private static final System.Logger LOG = System.getLogger(PollingListener.class.getName());
+    private static final Duration HANDLER_DRAIN_TIMEOUT = Duration.ofSeconds(30);
+    private static final long MAX_BACKOFF_MILLIS = 1000;
+
+    private final String name;
+    private final Source<T> source;
+    private final Consumer<Message> handler;
+    private final ListenerOptions options;
+    private final Semaphore credits;
+    private final Executor workers;
+    /** One party for the listener plus one per message handed to the workers; terminates once close() drained it. */
+    private final Phaser inFlight = new Phaser(1);
+    private final Thread poller;
+    private final List<T> pendingAcks = new ArrayList<>();
+    private final AtomicBoolean open = new AtomicBoolean(true);
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private PollingListener(String name, Source<T> source, Consumer<Message> handler, ListenerOptions options) {
+        this.name = name;
+        this.source = source;
+        this.handler = handler;
+        this.options = options;
+        this.credits = new Semaphore(options.prefetch());
+        this.workers = CloudExecutors.limited(options.concurrency());
+        this.poller = new Thread(this::pollLoop, "cloud-listener-" + name + "-poller");
+        this.poller.setDaemon(true);
+    }
+
+    /**
+     * Starts polling {@code source} right away.
+     *
+     * @param name names the threads, typically the queue or subscription
+     * @param source the message source
+     * @param handler called once per message, up to {@link ListenerOptions#concurrency()} at a time
+     * @param options the tuning, or {@code null} for {@link ListenerOptions#defaults()}
+     * @param <T> the provider's raw message type
+     * @return the running listener
+     * @throws IllegalArgumentException if {@code name}, {@code source} or {@code handler} is null
+     */
+    public static <T> PollingListener<T> start(String name, Source<T> source, Consumer<Message> handler,
+                                               ListenerOptions options) {
+        if (name == null || source == null || handler == null) {
+            throw new IllegalArgumentException("name, source and handler must not be null");
+        }
+        PollingListener<T> listener = new PollingListener<>(name, source, handler,
+            options == null ? ListenerOptions.defaults() : options);
+        listener.poller.start();
+        return listener;
+    }
+
+    @Override
+    public long delivered() {
+        return delivered.get();
+    }
+
+    @Override
+    public long failed() {
+        return failed.get();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open.get();
+    }
+
+    @Override
+    public void close() {
+        if (!open.compareAndSet(true, false)) return;
+        try {
+            poller.join(options.pollWait().plusSeconds(5).toMillis());
+            int phase = inFlight.arriveAndDeregister();
+            inFlight.awaitAdvanceInterruptibly(phase, HANDLER_DRAIN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            LOG.log(System.Logger.Level.WARNING, "Listener {0}: handlers still running after {1}; not waiting",
+                name, HANDLER_DRAIN_TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            flushAcks();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PollingListener{" + name + ", delivered=" + delivered + ", failed=" + failed + ", open=" + open + "}";
+    }
+
+    private void pollLoop() {
+        long backoff = 0;
+        while (open.get()) {
+            try {
+                // Waiting in short steps lets close() stop an idle poller promptly
+                if (!credits.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                    flushAcks();
+                    continue;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            int room = 1;
+            while (credits.tryAcquire()) room++;
+            flushAcks();
+            List<T> batch;
+            try {
+                batch = source.poll(room, options.pollWait());
+                backoff = 0;
+            } catch (RuntimeException e) {
+                credits.release(room);
+                if (open.get()) report(e);
+                backoff = Math.min(MAX_BACKOFF_MILLIS, Math.max(50, backoff * 2));
+                sleep(backoff);
+                continue;
+            }
+            credits.release(Math.max(0, room - batch.size()));
+            for (T raw : batch) {
+                if (inFlight.register() < 0) {
+                    // close() gave up waiting for this poll; unacknowledged messages are redelivered where supported
+                    return;
+                }
+                workers.execute(() -> handle(raw));
+            }
+        }
+    }
+
+    private void handle(T raw) {
+        try {
+            handler.accept(source.message(raw));
+            delivered.incrementAndGet();
+            acknowledge(raw);
+        } catch (RuntimeException | AssertionError e) {
+            failed.incrementAndGet();
+            report(e);
+        } finally {
+            credits.release();
+            inFlight.arriveAndDeregister();
+        }
+    }
+
+    private void acknowledge(T raw) {
+        List<T> batch = null;
+        synchronized (pendingAcks) {
+            pendingAcks.add(raw);
+            if (pendingAcks.size() >= options.ackBatchSize()) {
+                batch = new ArrayList<>(pendingAcks);
+                pendingAcks.clear();
+            }
+        }
+        if (batch != null) ack(batch);
+    }
+
+    private void flushAcks() {
+        List<T> batch;
+        synchronized (pendingAcks) {
+            if (pendingAcks.isEmpty()) return;
+            batch = new ArrayList<>(pendingAcks);
+            pendingAcks.clear();
+        }
+        ack(batch);
+    }
+
+    private void ack(List<T> batch) {
+        try {
+            source.ack(batch);
+        } catch (RuntimeException e) {
+            report(e);
+        }
+    }
+
+    private void report(Throwable e) {
+        Consumer<Throwable> onError = options.onError();
+        if (onError != null) {
+            try {
+                onError.accept(e);
+                return;
+            } catch (RuntimeException callbackFailure) {
+                e.addSuppressed(callbackFailure);
+            }
+        }
+        LOG.log(System.Logger.Level.WARNING, "Listener " + name + " failed", e);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
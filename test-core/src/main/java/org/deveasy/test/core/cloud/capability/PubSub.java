@@ -7,7 +7,10 @@ package org.deveasy.test.core.cloud.capability;
 import org.deveasy.test.core.cloud.Capability;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Provider-agnostic publish/subscribe capability for testing topic-based messaging.
@@ -65,6 +68,21 @@ public interface PubSub extends Capability {
      */
     void ensureSubscription(String topic, String subscription);
 
+    /**
+     * Removes a subscription from a topic if present, leaving the destination itself (e.g. the SQS queue) in place.
+     * Deleting a topic already removes its subscriptions. The default is unsupported.
+     *
+     * @param topic the topic name
+     * @param subscription the subscription/destination name
+     * @throws IllegalArgumentException if any argument is null or blank
+     * @throws UnsupportedOperationException if the implementation cannot remove subscriptions
+     * @throws RuntimeException if deletion fails due to provider-side errors
+     * @since 0.3.0
+     */
+    default void deleteSubscription(String topic, String subscription) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support deleting subscriptions");
+    }
+
     /**
      * Publishes a textual message to a topic.
      *
@@ -95,4 +113,71 @@ public interface PubSub extends Capability {
      * @throws RuntimeException if the provider operation fails while polling
      */
     Optional<String> receive(String subscription, Duration timeout);
+
+    /**
+     * Publishes a message with its attributes and FIFO group and deduplication IDs. The default hands a body-only
+     * message to {@link #publish(String, String)}; adapters that carry metadata override it.
+     *
+     * @param topic the topic name
+     * @param message the message
+     * @throws IllegalArgumentException if {@code topic} is null or blank, or {@code message} is null
+     * @throws UnsupportedOperationException if the message carries metadata the implementation cannot publish
+     * @throws RuntimeException if the publish operation fails
+     * @since 0.3.0
+     */
+    default void publish(String topic, Message message) {
+        if (message == null) {
+            throw new IllegalArgumentException("message must not be null");
+        }
+        if (!message.bodyOnly()) {
+            throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support message metadata");
+        }
+        publish(topic, message.body());
+    }
+
+    /**
+     * Same as {@link #receive(String, Duration)}, with the message metadata the provider reports. The default only
+     * knows the body and the receive time.
+     *
+     * @param subscription the subscription/destination name
+     * @param timeout maximum time to wait before giving up
+     * @return the message if one arrives in time; empty otherwise
+     * @throws IllegalArgumentException if {@code subscription} or {@code timeout} is null, or timeout is negative
+     * @throws RuntimeException if the provider operation fails while polling
+     * @since 0.3.0
+     */
+    default Optional<Message> receiveMessage(String subscription, Duration timeout) {
+        return receive(subscription, timeout).map(body -> Message.builder(body).receivedAt(Instant.now()).build());
+    }
+
+    /**
+     * Consumes a subscription push-style: a background poller receives messages and calls {@code handler} for
+     * each, until the returned {@link Listener} is closed. The default polls {@link #receiveMessage(String, Duration)}
+     * one message at a time; adapters backed by a queue override it with the queue's batched listener.
+     *
+     * @param subscription the subscription/destination name
+     * @param handler called once per message, from up to {@link ListenerOptions#concurrency()} threads at once
+     * @param options the tuning, or {@code null} for {@link ListenerOptions#defaults()}
+     * @return the running listener
+     * @throws IllegalArgumentException if {@code subscription} is null or blank, or {@code handler} is null
+     * @since 0.3.0
+     */
+    default Listener subscribe(String subscription, Consumer<Message> handler, ListenerOptions options) {
+        if (subscription == null || subscription.isBlank()) {
+            throw new IllegalArgumentException("subscription must not be null or blank");
+        }
+        return PollingListener.start(subscription, new PollingListener.Source<Message>() {
+            @Override public List<Message> poll(int max, Duration wait) { return receiveMessage(subscription, wait).stream().toList(); }
+            @Override public Message message(Message received) { return received; }
+        }, handler, options);
+    }
+
+    /**
+     * Same as {@link #subscribe(String, Consumer, ListenerOptions)} with {@link ListenerOptions#defaults()}.
+     *
+     * @since 0.3.0
+     */
+    default Listener subscribe(String subscription, Consumer<Message> handler) {
+        return subscribe(subscription, handler, ListenerOptions.defaults());
+    }
 }
@@ -7,7 +7,15 @@ package org.deveasy.test.core.cloud.capability;
 import org.deveasy.test.core.cloud.Capability;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Provider-agnostic point-to-point queue capability for testing message queues.
@@ -84,4 +92,243 @@ public interface Queue extends Capability {
      * @throws RuntimeException if the provider operation fails while polling
      */
     Optional<String> receive(String queue, Duration timeout);
+
+    /**
+     * Sends several textual messages to the given queue. Implementations should use the provider's batch API
+     * where available; the default sends one message at a time.
+     *
+     * @param queue the queue name
+     * @param bodies the message bodies as UTF-8 strings; an empty list is a no-op
+     * @throws IllegalArgumentException if {@code queue} is null or blank, or {@code bodies} is null
+     * @throws RuntimeException if the provider rejects any message or the send fails
+     * @since 0.3.0
+     */
+    default void sendBatch(String queue, List<String> bodies) {
+        if (bodies == null) {
+            throw new IllegalArgumentException("bodies must not be null");
+        }
+        for (String body : bodies) {
+            send(queue, body);
+        }
+    }
+
+    /**
+     * Receives up to {@code max} messages, removing them from the queue when returned. Waits until at least one
+     * message is available or the timeout expires, then returns whatever is immediately available up to
+     * {@code max}; it does not wait to fill the batch.
+     *
+     * @param queue the queue name
+     * @param max the maximum number of messages to return; must be positive
+     * @param timeout maximum time to wait for the first message
+     * @return the received message bodies in receive order; empty if none arrived in time; never {@code null}
+     * @throws IllegalArgumentException if {@code queue} or {@code timeout} is null, {@code max} is not positive,
+     *                                  or timeout is negative
+     * @throws RuntimeException if the provider operation fails while polling
+     * @since 0.3.0
+     */
+    default List<String> receiveBatch(String queue, int max, Duration timeout) {
+        if (max < 1) {
+            throw new IllegalArgumentException("max must be positive");
+        }
+        List<String> out = new ArrayList<>();
+        Optional<String> first = receive(queue, timeout);
+        if (first.isEmpty()) {
+            return out;
+        }
+        out.add(first.get());
+        while (out.size() < max) {
+            Optional<String> next = receive(queue, Duration.ZERO);
+            if (next.isEmpty()) {
+                break;
+            }
+            out.add(next.get());
+        }
+        return out;
+    }
+
+    /**
+     * Sends a message with its attributes, delay and FIFO group and deduplication IDs. The default hands a body-only
+     * message to {@link #send(String, String)}; adapters that carry metadata override it.
+     *
+     * @param queue the queue name
+     * @param message the message
+     * @throws IllegalArgumentException if {@code queue} is null or blank, or {@code message} is null
+     * @throws UnsupportedOperationException if the message carries metadata the implementation cannot send
+     * @throws RuntimeException if the provider rejects the message or send fails, e.g. a FIFO queue without a group
+     * @since 0.3.0
+     */
+    default void send(String queue, Message message) {
+        if (message == null) {
+            throw new IllegalArgumentException("message must not be null");
+        }
+        if (!message.bodyOnly()) {
+            throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support message metadata");
+        }
+        send(queue, message.body());
+    }
+
+    /**
+     * Same as {@link #receive(String, Duration)}, with the message metadata the provider reports. The default only
+     * knows the body and the receive time.
+     *
+     * @param queue the queue name
+     * @param timeout maximum time to wait before giving up
+     * @return the message if one arrives in time; empty otherwise
+     * @throws IllegalArgumentException if {@code queue} or {@code timeout} is null, or timeout is negative
+     * @throws RuntimeException if the provider operation fails while polling
+     * @since 0.3.0
+     */
+    default Optional<Message> receiveMessage(String queue, Duration timeout) {
+        return receive(queue, timeout).map(body -> Message.builder(body).receivedAt(Instant.now()).build());
+    }
+
+    /**
+     * Same as {@link #receiveBatch(String, int, Duration)}, with the message metadata the provider reports. The
+     * default only knows the bodies and the receive time.
+     *
+     * @param queue the queue name
+     * @param max the maximum number of messages to return; must be positive
+     * @param timeout maximum time to wait for the first message
+     * @return the received messages in receive order; empty if none arrived in time; never {@code null}
+     * @throws IllegalArgumentException if {@code queue} or {@code timeout} is null, {@code max} is not positive,
+     *                                  or timeout is negative
+     * @throws RuntimeException if the provider operation fails while polling
+     * @since 0.3.0
+     */
+    default List<Message> receiveMessages(String queue, int max, Duration timeout) {
+        List<String> bodies = receiveBatch(queue, max, timeout);
+        Instant now = Instant.now();
+        List<Message> out = new ArrayList<>(bodies.size());
+        for (String body : bodies) {
+            out.add(Message.builder(body).receivedAt(now).build());
+        }
+        return out;
+    }
+
+    /**
+     * Receives until {@code count} messages have arrived or the timeout passes, whichever comes first. Each round
+     * asks for all the messages still missing, so providers with batch receives and batch deletes need a handful
+     * of calls, and every round waits only for what is left of the one deadline.
+     *
+     * @param queue the queue name
+     * @param count the number of messages to wait for; must be positive
+     * @param timeout maximum time to wait for all of them; with {@link Duration#ZERO}, takes what is available now
+     * @return the received messages in receive order; fewer than {@code count} if the timeout passed; never
+     *         {@code null}
+     * @throws IllegalArgumentException if {@code queue} or {@code timeout} is null, {@code count} is not positive,
+     *                                  or timeout is negative
+     * @throws RuntimeException if the provider operation fails while polling
+     * @since 0.3.0
+     */
+    default List<Message> drain(String queue, int count, Duration timeout) {
+        return awaitCount(queue, m -> true, count, timeout);
+    }
+
+    /**
+     * Receives until {@code count} messages matching {@code predicate} have arrived or the timeout passes. Messages
+     * that do not match are received too, and so removed from the queue, but not returned; use it on queues the
+     * test owns, e.g. to wait for the {@code order-shipped} events among all order events.
+     *
+     * @param queue the queue name
+     * @param predicate selects the messages to count
+     * @param count the number of matching messages to wait for; must be positive
+     * @param timeout maximum time to wait for all of them; with {@link Duration#ZERO}, takes what is available now
+     * @return the matching messages in receive order; fewer than {@code count} if the timeout passed; never
+     *         {@code null}
+     * @throws IllegalArgumentException if {@code queue}, {@code predicate} or {@code timeout} is null, {@code count}
+     *                                  is not positive, or timeout is negative
+     * @throws RuntimeException if the provider operation fails while polling
+     * @since 0.3.0
+     */
+    default List<Message> awaitCount(String queue, Predicate<? super Message> predicate, int count, Duration timeout) {
+        if (predicate == null) {
+            throw new IllegalArgumentException("predicate must not be null");
+        }
+        if (count < 1) {
+            throw new IllegalArgumentException("count must be positive");
+        }
+        if (timeout == null || timeout.isNegative()) {
+            throw new IllegalArgumentException("timeout must not be null or negative");
+        }
+        List<Message> matched = new ArrayList<>(Math.min(count, 1024));
+        long deadline = System.nanoTime() + timeout.toNanos();
+        do {
+            Duration remaining = Duration.ofNanos(Math.max(0, deadline - System.nanoTime()));
+            for (Message m : receiveMessages(queue, count - matched.size(), remaining)) {
+                if (predicate.test(m)) matched.add(m);
+            }
+        } while (matched.size() < count && System.nanoTime() - deadline < 0);
+        return matched;
+    }
+
+    /**
+     * Consumes the queue push-style: a background poller receives messages and calls {@code handler} for each,
+     * until the returned {@link Listener} is closed. The default polls {@link #receiveMessages(String, int, Duration)},
+     * which removes messages as they are received, so a message the handler throws for is reported but not
+     * redelivered. Adapters whose provider acknowledges separately override this to delete only handled messages,
+     * in batches. The implementation is called from the poller thread while the listener runs.
+     *
+     * @param queue the queue name; the queue must exist
+     * @param handler called once per message, from up to {@link ListenerOptions#concurrency()} threads at once
+     * @param options the tuning, or {@code null} for {@link ListenerOptions#defaults()}
+     * @return the running listener
+     * @throws IllegalArgumentException if {@code queue} is null or blank, or {@code handler} is null
+     * @since 0.3.0
+     */
+    default Listener subscribe(String queue, Consumer<Message> handler, ListenerOptions options) {
+        if (queue == null || queue.isBlank()) {
+            throw new IllegalArgumentException("queue must not be null or blank");
+        }
+        return PollingListener.start(queue, new PollingListener.Source<Message>() {
+            @Override public List<Message> poll(int max, Duration wait) { return receiveMessages(queue, max, wait); }
+            @Override public Message message(Message received) { return received; }
+        }, handler, options);
+    }
+
+    /**
+     * Same as {@link #subscribe(String, Consumer, ListenerOptions)} with {@link ListenerOptions#defaults()}.
+     *
+     * @since 0.3.0
+     */
+    default Listener subscribe(String queue, Consumer<Message> handler) {
+        return subscribe(queue, handler, ListenerOptions.defaults());
+    }
+
+    /**
+     * Captures the pending messages of the given queues so they can be brought back with
+     * {@link Snapshot#restore()}, which empties each queue and sends the captured messages again. Receiving is
+     * destructive, so the default drains each queue with {@link #receiveBatch(String, int, Duration)} and sends the
+     * messages straight back; messages in flight to other consumers at that moment are not captured.
+     *
+     * @param queues the queues to capture; each must exist
+     * @return the snapshot
+     * @throws IllegalArgumentException if {@code queues} is null or contains a null or blank name
+     * @throws RuntimeException if receiving or sending fails
+     * @since 0.3.0
+     */
+    default Snapshot snapshot(String... queues) {
+        if (queues == null || Arrays.stream(queues).anyMatch(q -> q == null || q.isBlank())) {
+            throw new IllegalArgumentException("queues must not be null or contain null or blank names");
+        }
+        Map<String, List<String>> captured = new LinkedHashMap<>();
+        for (String queue : queues) {
+            List<String> messages = drainAll(queue);
+            sendBatch(queue, messages);
+            captured.put(queue, messages);
+        }
+        return () -> captured.forEach((queue, messages) -> {
+            ensureQueue(queue);
+            drainAll(queue);
+            sendBatch(queue, messages);
+        });
+    }
+
+    private List<String> drainAll(String queue) {
+        List<String> out = new ArrayList<>();
+        List<String> batch;
+        while (!(batch = receiveBatch(queue, 10, Duration.ZERO)).isEmpty()) {
+            out.addAll(batch);
+        }
+        return out;
+    }
 }
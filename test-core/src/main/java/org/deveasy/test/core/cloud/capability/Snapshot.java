@@ -0,0 +1,52 @@
+/*
+ * Copyright 2025
+ * Apache License, Version 2.0
+ */
+package org.deveasy.test.core.cloud.capability;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Captured state of capability resources that can be restored any number of times, e.g. a seeded fixture baseline
+ * restored before each test class instead of re-seeding it. Obtained from {@link BlobStorage#snapshot(String...)},
+ * {@link Queue#snapshot(String...)} and {@link NoSqlTable#snapshot(NoSqlTable.TableSpec...)}; combine several with
+ * {@link #of(Snapshot...)}.
+ * <pre>{@code
+ * Snapshot baseline = Snapshot.of(
+ *     storage.snapshot("fixtures"),
+ *     db.snapshot(NoSqlTable.TableSpec.of("Users", "userId")));
+ * // ... tests mutate the resources ...
+ * baseline.restore();
+ * }</pre>
+ * The captured data is held in memory by the snapshot itself, so it survives deleting the resources.
+ *
+ * @since 0.3.0
+ */
+@FunctionalInterface
+public interface Snapshot {
+
+    /**
+     * Brings the captured resources back to their captured state: missing resources are recreated, entries added
+     * since the capture are removed and captured entries are rewritten where they differ. Resources that were not
+     * captured are left alone.
+     *
+     * @throws RuntimeException if the provider fails; the resources may then be partially restored
+     */
+    void restore();
+
+    /**
+     * Combines snapshots into one that restores each in order.
+     *
+     * @param snapshots the snapshots to combine
+     * @return the combined snapshot
+     * @throws IllegalArgumentException if {@code snapshots} is null or contains null
+     */
+    static Snapshot of(Snapshot... snapshots) {
+        if (snapshots == null || Arrays.stream(snapshots).anyMatch(s -> s == null)) {
+            throw new IllegalArgumentException("snapshots must not be null or contain null");
+        }
+        List<Snapshot> parts = List.of(snapshots);
+        return () -> parts.forEach(Snapshot::restore);
+    }
+}
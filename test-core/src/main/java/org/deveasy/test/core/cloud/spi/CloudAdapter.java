@@ -4,8 +4,14 @@
  */
 package org.deveasy.test.core.cloud.spi;
 
+import org.deveasy.test.core.cloud.CloudExecutors;
+import org.deveasy.test.core.cloud.CloudMode;
 import org.deveasy.test.core.cloud.CloudProvider;
 import org.deveasy.test.core.cloud.TestCloudConfig;
+import org.deveasy.test.core.cloud.capability.AsyncBlobStorage;
+import org.deveasy.test.core.cloud.capability.AsyncNoSqlTable;
+import org.deveasy.test.core.cloud.capability.AsyncPubSub;
+import org.deveasy.test.core.cloud.capability.AsyncQueue;
 import org.deveasy.test.core.cloud.capability.BlobStorage;
 import org.deveasy.test.core.cloud.capability.NoSqlTable;
 import org.deveasy.test.core.cloud.capability.PubSub;
@@ -42,6 +48,17 @@ public interface CloudAdapter {
      */
     CloudProvider provider();
 
+    /**
+     * Returns whether this adapter can serve the given mode. Provider adapters serve {@link CloudMode#EMULATOR}
+     * and {@link CloudMode#LIVE}; provider-neutral adapters (e.g., the in-memory backend) override this.
+     *
+     * @param mode the requested {@link CloudMode}
+     * @return {@code true} if this adapter should be selected for {@code mode}
+     */
+    default boolean supportsMode(CloudMode mode) {
+        return mode != CloudMode.IN_MEMORY;
+    }
+
     /**
      * Initializes the adapter with the resolved test configuration. Implementations may create provider
      * clients and perform health checks here.
@@ -79,4 +96,56 @@ public interface CloudAdapter {
      * @return the {@link NoSqlTable} capability, or {@code null}
      */
     NoSqlTable noSqlTable();
+
+    /**
+     * Returns the non-blocking blob storage capability, or {@code null} if unsupported by this adapter. The default runs
+     * the blocking {@link #blobStorage()} calls on {@link CloudExecutors#blocking()}; adapters with native async clients
+     * override it.
+     *
+     * @return the {@link AsyncBlobStorage} capability, or {@code null}
+     * @since 0.3.0
+     */
+    default AsyncBlobStorage asyncBlobStorage() {
+        BlobStorage blocking = blobStorage();
+        return blocking == null ? null : AsyncBlobStorage.of(blocking, CloudExecutors.blocking());
+    }
+
+    /**
+     * Returns the non-blocking queue capability, or {@code null} if unsupported by this adapter. The default runs
+     * the blocking {@link #queue()} calls on {@link CloudExecutors#blocking()}; adapters with native async clients
+     * override it.
+     *
+     * @return the {@link AsyncQueue} capability, or {@code null}
+     * @since 0.3.0
+     */
+    default AsyncQueue asyncQueue() {
+        Queue blocking = queue();
+        return blocking == null ? null : AsyncQueue.of(blocking, CloudExecutors.blocking());
+    }
+
+    /**
+     * Returns the non-blocking publish/subscribe capability, or {@code null} if unsupported by this adapter. The default runs
+     * the blocking {@link #pubSub()} calls on {@link CloudExecutors#blocking()}; adapters with native async clients
+     * override it.
+     *
+     * @return the {@link AsyncPubSub} capability, or {@code null}
+     * @since 0.3.0
+     */
+    default AsyncPubSub asyncPubSub() {
+        PubSub blocking = pubSub();
+        return blocking == null ? null : AsyncPubSub.of(blocking, CloudExecutors.blocking());
+    }
+
+    /**
+     * Returns the non-blocking NoSQL table capability, or {@code null} if unsupported by this adapter. The default runs
+     * the blocking {@link #noSqlTable()} calls on {@link CloudExecutors#blocking()}; adapters with native async clients
+     * override it.
+     *
+     * @return the {@link AsyncNoSqlTable} capability, or {@code null}
+     * @since 0.3.0
+     */
+    default AsyncNoSqlTable asyncNoSqlTable() {
+        NoSqlTable blocking = noSqlTable();
+        return blocking == null ? null : AsyncNoSqlTable.of(blocking, CloudExecutors.blocking());
+    }
 }
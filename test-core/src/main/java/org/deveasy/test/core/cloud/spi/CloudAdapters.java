@@ -4,6 +4,7 @@
  */
 package org.deveasy.test.core.cloud.spi;
 
+import org.deveasy.test.core.cloud.CloudMode;
 import org.deveasy.test.core.cloud.CloudProvider;
 import org.deveasy.test.core.cloud.TestCloudConfig;
 
@@ -15,43 +16,83 @@ import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Helper to discover and cache {@link CloudAdapter} implementations via {@link ServiceLoader}.
+ * <p>
+ * Adapters are matched on provider and {@link CloudAdapter#supportsMode(CloudMode) mode}. For
+ * {@link CloudMode#IN_MEMORY} the provider is not used for matching, since the in-memory backend is
+ * provider-neutral.
+ * </p>
  */
 public final class CloudAdapters {
 
     private static final ServiceLoader<CloudAdapter> LOADER = ServiceLoader.load(CloudAdapter.class);
-    private static final Map<CloudProvider, CloudAdapter> CACHE = new ConcurrentHashMap<>();
+    private static final Map<String, CloudAdapter> CACHE = new ConcurrentHashMap<>();
 
     private CloudAdapters() {}
 
     /**
      * Returns an initialized adapter for the given provider using the supplied config.
-     * Caches adapter instances per provider.
+     * Caches adapter instances per provider and mode.
      *
      * @throws IllegalStateException if no adapter is found for the provider
      */
     public static CloudAdapter get(CloudProvider provider, TestCloudConfig config) {
         Objects.requireNonNull(provider, "provider");
         Objects.requireNonNull(config, "config");
-        CloudAdapter adapter = CACHE.computeIfAbsent(provider, p ->
-            findAdapter(p).orElseThrow(() -> new IllegalStateException("No CloudAdapter found on classpath for provider: " + p +
-                ". Ensure the corresponding test-cloud-" + p.name().toLowerCase() + " module is added and META-INF/services is configured."))
+        CloudMode mode = config.mode();
+        CloudAdapter adapter = CACHE.computeIfAbsent(cacheKey(provider, mode), k ->
+            findAdapter(provider, mode).orElseThrow(() -> new IllegalStateException(missingMessage(provider, mode)))
         );
         // Initialize each time with current config; adapters should be idempotent
         adapter.initialize(config);
         return adapter;
     }
 
+    /**
+     * Returns a new, initialized adapter for the given provider that is not cached or shared. The caller owns it and
+     * should close it when done if it implements {@link AutoCloseable}.
+     *
+     * @throws IllegalStateException if no adapter is found for the provider
+     * @since 0.3.0
+     */
+    public static CloudAdapter create(CloudProvider provider, TestCloudConfig config) {
+        Objects.requireNonNull(provider, "provider");
+        Objects.requireNonNull(config, "config");
+        CloudMode mode = config.mode();
+        // A fresh loader instantiates fresh providers; LOADER hands out the instances it has cached
+        CloudAdapter adapter = findAdapter(ServiceLoader.load(CloudAdapter.class), provider, mode)
+            .orElseThrow(() -> new IllegalStateException(missingMessage(provider, mode)));
+        adapter.initialize(config);
+        return adapter;
+    }
+
     /**
      * Try to find an adapter without throwing.
      */
     public static Optional<CloudAdapter> tryGet(CloudProvider provider) {
-        return findAdapter(provider);
+        return findAdapter(provider, CloudMode.EMULATOR);
     }
 
-    private static Optional<CloudAdapter> findAdapter(CloudProvider provider) {
-        for (CloudAdapter a : LOADER) {
+    /**
+     * Try to find an adapter for the given provider and mode without throwing.
+     */
+    public static Optional<CloudAdapter> tryGet(CloudProvider provider, CloudMode mode) {
+        return findAdapter(provider, mode);
+    }
+
+    private static Optional<CloudAdapter> findAdapter(CloudProvider provider, CloudMode mode) {
+        synchronized (LOADER) {
+            return findAdapter(LOADER, provider, mode);
+        }
+    }
+
+    private static Optional<CloudAdapter> findAdapter(ServiceLoader<CloudAdapter> loader, CloudProvider provider,
+                                                      CloudMode mode) {
+        for (CloudAdapter a : loader) {
             try {
-                if (a.provider() == provider) {
+                if (!a.supportsMode(mode)) {
+                    continue;
+                }
+                if (mode == CloudMode.IN_MEMORY || a.provider() == provider) {
                     return Optional.of(a);
                 }
             } catch (Throwable ignore) {
@@ -60,4 +101,17 @@ public final class CloudAdapters {
         }
         return Optional.empty();
     }
+
+    private static String cacheKey(CloudProvider provider, CloudMode mode) {
+        return mode == CloudMode.IN_MEMORY ? mode.name() : provider.name() + "/" + mode.name();
+    }
+
+    private static String missingMessage(CloudProvider provider, CloudMode mode) {
+        if (mode == CloudMode.IN_MEMORY) {
+            return "No in-memory CloudAdapter found on classpath. Ensure the test-cloud-inmemory module is added"
+                + " and META-INF/services is configured.";
+        }
+        return "No CloudAdapter found on classpath for provider: " + provider
+            + ". Ensure the corresponding test-cloud-" + provider.name().toLowerCase() + " module is added and META-INF/services is configured.";
+    }
 }
@@ -4,8 +4,17 @@
  */
 package org.deveasy.test.core.junit;
 
+import org.deveasy.test.core.cloud.CloudExecutors;
+import org.deveasy.test.core.cloud.CloudServiceType;
 import org.deveasy.test.core.cloud.TestCloudConfig;
+import org.deveasy.test.core.cloud.capability.AsyncBlobStorage;
+import org.deveasy.test.core.cloud.capability.AsyncNoSqlTable;
+import org.deveasy.test.core.cloud.capability.AsyncPubSub;
+import org.deveasy.test.core.cloud.capability.AsyncQueue;
 import org.deveasy.test.core.cloud.capability.BlobStorage;
+import org.deveasy.test.core.cloud.capability.Listener;
+import org.deveasy.test.core.cloud.capability.ListenerOptions;
+import org.deveasy.test.core.cloud.capability.Message;
 import org.deveasy.test.core.cloud.capability.NoSqlTable;
 import org.deveasy.test.core.cloud.capability.PubSub;
 import org.deveasy.test.core.cloud.capability.Queue;
@@ -14,26 +23,61 @@ import org.deveasy.test.core.cloud.spi.CloudAdapters;
 import org.junit.jupiter.api.extension.*;
 
 import java.io.InputStream;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * JUnit 5 extension that provisions a CloudAdapter and injects cloud capabilities
  * into test method parameters.
+ * <p>
+ * The adapter and its capabilities are created once per distinct {@link WithCloud} configuration and shared by
+ * every test class of the run through the root context store, which closes them when the run ends. Each class
+ * gets its own tracking wrappers, so the resources it creates are still cleaned up after the class.
+ * </p>
+ * <p>
+ * Tracking is safe under parallel test execution. After the class, listeners are closed, tracked subscriptions and
+ * topics are removed, then queues, tables and buckets are deleted in parallel on {@link CloudExecutors#blocking()}. Cleanup is
+ * bounded by the {@value #CLEANUP_TIMEOUT} configuration parameter (ISO-8601, default 30 seconds); resources that
+ * fail to delete or are still pending when it runs out, and listeners that fail to close, are reported as leaked
+ * through {@link System.Logger}.
+ * </p>
+ * <p>
+ * With {@link WithCloud#isolation()} the wrappers also map every resource name into a {@link CloudNamespace}, per
+ * class or per test method. The tracked names are the mapped ones, so cleanup removes exactly what the class created.
+ * </p>
+ * <p>
+ * The async capabilities ({@link AsyncBlobStorage}, {@link AsyncQueue}, {@link AsyncPubSub},
+ * {@link AsyncNoSqlTable}) are injected the same way, wrapping the adapter's async clients. They cover the data
+ * operations only, so resources are created with the blocking capability of the same scope; topics an async publish
+ * creates on the fly are tracked too.
+ * </p>
  */
 public final class CloudExtension implements BeforeAllCallback, AfterAllCallback, ParameterResolver {
 
     private static final ExtensionContext.Namespace NS = ExtensionContext.Namespace.create(CloudExtension.class);
 
-    private static final String KEY_ADAPTER = "adapter";
-    private static final String KEY_STORAGE = "storage";
-    private static final String KEY_QUEUE = "queue";
-    private static final String KEY_PUBSUB = "pubsub";
-    private static final String KEY_NOSQL = "nosql";
+    /** JUnit configuration parameter bounding the cleanup after each test class, e.g. {@code PT1M}. */
+    public static final String CLEANUP_TIMEOUT = "deveasy.cloud.cleanup.timeout";
+    private static final Duration DEFAULT_CLEANUP_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final System.Logger LOG = System.getLogger(CloudExtension.class.getName());
+
+    /** Bound on concurrent deletes across all test classes; most of the time is spent waiting on the provider. */
+    private static final int MAX_PARALLEL_CLEANUP = 8;
+    private static final Executor CLEANUP_EXECUTOR = CloudExecutors.limited(MAX_PARALLEL_CLEANUP);
 
-    private static final String KEY_TRACK_BUCKETS = "track.buckets";
-    private static final String KEY_TRACK_QUEUES = "track.queues";
-    private static final String KEY_TRACK_TOPICS = "track.topics";
-    private static final String KEY_TRACK_TABLES = "track.tables";
+    private static final String KEY_SUITE = "suite";
+    private static final String KEY_ADAPTER = "adapter";
+    private static final String KEY_ISOLATION = "isolation";
+    private static final String KEY_SCOPE = "scope";
+    private static final String KEY_METHOD_SCOPE = "scope.method";
 
     @Override
     public void beforeAll(ExtensionContext context) {
@@ -42,102 +86,192 @@ public final class CloudExtension implements BeforeAllCallback, AfterAllCallback
             .provider(cfg.provider())
             .mode(cfg.mode())
             .regionOrLocation(cfg.region())
+            .services(cfg.services())
             .build();
 
-        CloudAdapter adapter = CloudAdapters.get(cfg.provider(), config);
+        // The config is a value type, so classes with the same @WithCloud settings find the same entry
+        SuiteCloud suite = context.getRoot().getStore(NS)
+            .getOrComputeIfAbsent(config, k -> new SuiteCloud(config), SuiteCloud.class);
 
         ExtensionContext.Store store = store(context);
-        store.put(KEY_ADAPTER, adapter);
-        // Tracking sets for cleanup
-        store.put(KEY_TRACK_BUCKETS, new HashSet<String>());
-        store.put(KEY_TRACK_QUEUES, new HashSet<String>());
-        store.put(KEY_TRACK_TOPICS, new HashSet<String>());
-        store.put(KEY_TRACK_TABLES, new HashSet<String>());
+        store.put(KEY_SUITE, suite);
+        store.put(KEY_ADAPTER, suite.adapter);
 
-        // Wrap capabilities with trackers if available
-        BlobStorage storage = adapter.blobStorage();
-        if (storage != null) {
-            storage = new TrackingBlobStorage(storage, tracked(store, KEY_TRACK_BUCKETS));
-            store.put(KEY_STORAGE, storage);
-        }
-        Queue queue = adapter.queue();
-        if (queue != null) {
-            queue = new TrackingQueue(queue, tracked(store, KEY_TRACK_QUEUES));
-            store.put(KEY_QUEUE, queue);
-        }
-        PubSub pubsub = adapter.pubSub();
-        if (pubsub != null) {
-            // not tracking currently; placeholder for future
-            store.put(KEY_PUBSUB, pubsub);
+        // Wrap capabilities with trackers; METHOD isolation derives a scope per test method from this one
+        CloudNamespace namespace = cfg.isolation() == WithCloud.Isolation.NONE ? CloudNamespace.none() : CloudNamespace.random();
+        store.put(KEY_ISOLATION, cfg.isolation());
+        store.put(KEY_SCOPE, new Scope(suite, namespace));
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        Scope scope = store(context).get(KEY_SCOPE, Scope.class);
+        if (scope == null) {
+            return;
         }
-        NoSqlTable nosql = adapter.noSqlTable();
-        if (nosql != null) {
-            // not tracking currently; placeholder for future
-            store.put(KEY_NOSQL, nosql);
+        Duration budget = cleanupTimeout(context);
+        List<String> leaked = cleanup(scope, budget);
+        if (!leaked.isEmpty()) {
+            LOG.log(System.Logger.Level.WARNING, "{0}: {1} cloud resource(s) leaked after cleanup (budget {2}): {3}",
+                context.getRequiredTestClass().getName(), leaked.size(), budget, leaked);
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private static Set<String> tracked(ExtensionContext.Store store, String key) {
-        return (Set<String>) store.get(key);
-    }
+    /**
+     * Closes the listeners and deletes the resources tracked by {@code scope} and the method scopes derived from it,
+     * waiting at most {@code budget} for the deletes.
+     *
+     * @return the listeners and resources left behind, each with the reason
+     */
+    static List<String> cleanup(Scope scope, Duration budget) {
+        SuiteCloud suite = scope.suite;
+        long deadline = System.nanoTime() + budget.toNanos();
+        List<String> leaked = new ArrayList<>();
 
-    @Override
-    public void afterAll(ExtensionContext context) {
-        ExtensionContext.Store store = store(context);
+        // Stop listeners before their queues go away; close() waits for handlers already running
+        for (Listener listener : List.copyOf(scope.listeners)) {
+            try {
+                listener.close();
+            } catch (RuntimeException e) {
+                leaked.add("listener " + listener + " (" + e + ")");
+            }
+        }
 
-        // Best-effort cleanup using tracked resource names
-        BlobStorage storage = (BlobStorage) store.get(KEY_STORAGE, BlobStorage.class);
-        if (storage != null) {
-            for (String b : new ArrayList<>(tracked(store, KEY_TRACK_BUCKETS))) {
-                try { storage.deleteBucket(b); } catch (Throwable ignore) {}
+        // Unsubscribe first so no delivery targets a queue deleted in the next phase; topics go with their subscriptions
+        Map<String, Runnable> first = new LinkedHashMap<>();
+        if (suite.pubSub != null) {
+            for (List<String> sub : List.copyOf(scope.subscriptions)) {
+                if (!scope.topics.contains(sub.get(0))) {
+                    first.put("subscription " + sub.get(0) + " -> " + sub.get(1), () -> suite.pubSub.deleteSubscription(sub.get(0), sub.get(1)));
+                }
             }
+            for (String t : List.copyOf(scope.topics)) first.put("topic " + t, () -> suite.pubSub.deleteTopic(t));
+        }
+        runDeletes(first, deadline, leaked);
+
+        Map<String, Runnable> rest = new LinkedHashMap<>();
+        if (suite.queue != null) {
+            for (String q : List.copyOf(scope.queues)) rest.put("queue " + q, () -> suite.queue.deleteQueue(q));
         }
-        Queue queue = (Queue) store.get(KEY_QUEUE, Queue.class);
-        if (queue != null) {
-            for (String q : new ArrayList<>(tracked(store, KEY_TRACK_QUEUES))) {
-                try { queue.deleteQueue(q); } catch (Throwable ignore) {}
+        if (suite.noSql != null) {
+            for (String t : List.copyOf(scope.tables)) rest.put("table " + t, () -> suite.noSql.deleteTable(t));
+        }
+        if (suite.storage != null) {
+            for (String b : List.copyOf(scope.buckets)) rest.put("bucket " + b, () -> suite.storage.deleteBucket(b));
+        }
+        runDeletes(rest, deadline, leaked);
+        return leaked;
+    }
+
+    /** Runs the deletes in parallel and waits for them until the deadline, recording each one that did not succeed. */
+    private static void runDeletes(Map<String, Runnable> deletes, long deadline, List<String> leaked) {
+        Map<String, CompletableFuture<Void>> running = new LinkedHashMap<>();
+        deletes.forEach((what, delete) -> running.put(what, CompletableFuture.runAsync(delete, CLEANUP_EXECUTOR)));
+        for (Map.Entry<String, CompletableFuture<Void>> e : running.entrySet()) {
+            try {
+                e.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException ex) {
+                e.getValue().cancel(false);
+                leaked.add(e.getKey() + " (timed out)");
+            } catch (ExecutionException ex) {
+                leaked.add(e.getKey() + " (" + ex.getCause() + ")");
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                leaked.add(e.getKey() + " (interrupted)");
             }
         }
-        // PubSub/NoSql cleanup could be added when capabilities stabilize.
+    }
+
+    private static Duration cleanupTimeout(ExtensionContext context) {
+        Optional<String> value = context.getConfigurationParameter(CLEANUP_TIMEOUT);
+        if (value.isEmpty()) {
+            return DEFAULT_CLEANUP_TIMEOUT;
+        }
+        try {
+            return Duration.parse(value.get().trim());
+        } catch (DateTimeParseException e) {
+            throw new ExtensionConfigurationException(CLEANUP_TIMEOUT + " must be an ISO-8601 duration such as PT1M: " + value.get(), e);
+        }
     }
 
     @Override
     public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) throws ParameterResolutionException {
         Class<?> type = parameterContext.getParameter().getType();
-        return BlobStorage.class.isAssignableFrom(type)
+        return type == CloudNamespace.class
+            || BlobStorage.class.isAssignableFrom(type)
             || Queue.class.isAssignableFrom(type)
             || PubSub.class.isAssignableFrom(type)
-            || NoSqlTable.class.isAssignableFrom(type);
+            || NoSqlTable.class.isAssignableFrom(type)
+            || AsyncBlobStorage.class.isAssignableFrom(type)
+            || AsyncQueue.class.isAssignableFrom(type)
+            || AsyncPubSub.class.isAssignableFrom(type)
+            || AsyncNoSqlTable.class.isAssignableFrom(type);
     }
 
     @Override
     public Object resolveParameter(ParameterContext parameterContext, ExtensionContext context) throws ParameterResolutionException {
         Class<?> type = parameterContext.getParameter().getType();
-        ExtensionContext.Store store = store(context);
+        Scope scope = scope(context);
+        if (scope == null) {
+            throw new ParameterResolutionException("CloudExtension was not initialized for " + context.getRequiredTestClass().getName());
+        }
+        if (type == CloudNamespace.class) {
+            return scope.namespace;
+        }
+        SuiteCloud suite = scope.suite;
         if (BlobStorage.class.isAssignableFrom(type)) {
-            Object v = store.get(KEY_STORAGE);
-            if (v == null) throw new ParameterResolutionException("BlobStorage capability not available for provider");
-            return v;
+            return resolve(type, scope.storage, suite.storage, "BlobStorage");
         }
         if (Queue.class.isAssignableFrom(type)) {
-            Object v = store.get(KEY_QUEUE);
-            if (v == null) throw new ParameterResolutionException("Queue capability not available for provider");
-            return v;
+            return resolve(type, scope.queue, suite.queue, "Queue");
         }
         if (PubSub.class.isAssignableFrom(type)) {
-            Object v = store.get(KEY_PUBSUB);
-            if (v == null) throw new ParameterResolutionException("PubSub capability not available for provider");
-            return v;
+            return resolve(type, scope.pubSub, suite.pubSub, "PubSub");
         }
         if (NoSqlTable.class.isAssignableFrom(type)) {
-            Object v = store.get(KEY_NOSQL);
-            if (v == null) throw new ParameterResolutionException("NoSqlTable capability not available for provider");
-            return v;
+            return resolve(type, scope.noSql, suite.noSql, "NoSqlTable");
+        }
+        if (AsyncBlobStorage.class.isAssignableFrom(type)) {
+            return resolve(type, scope.asyncStorage, suite.asyncStorage, "AsyncBlobStorage");
+        }
+        if (AsyncQueue.class.isAssignableFrom(type)) {
+            return resolve(type, scope.asyncQueue, suite.asyncQueue, "AsyncQueue");
+        }
+        if (AsyncPubSub.class.isAssignableFrom(type)) {
+            return resolve(type, scope.asyncPubSub, suite.asyncPubSub, "AsyncPubSub");
+        }
+        if (AsyncNoSqlTable.class.isAssignableFrom(type)) {
+            return resolve(type, scope.asyncNoSql, suite.asyncNoSql, "AsyncNoSqlTable");
         }
         throw new ParameterResolutionException("Unsupported parameter type: " + type);
     }
 
+    /**
+     * The class scope, or with {@link WithCloud.Isolation#METHOD} inside a test method (including its
+     * {@code @BeforeEach}/{@code @AfterEach}) a scope with a fresh namespace shared by that method's parameters.
+     */
+    private static Scope scope(ExtensionContext context) {
+        ExtensionContext.Store store = store(context);
+        Scope scope = store.get(KEY_SCOPE, Scope.class);
+        if (scope == null || store.get(KEY_ISOLATION) != WithCloud.Isolation.METHOD || context.getTestMethod().isEmpty()) {
+            return scope;
+        }
+        return store.getOrComputeIfAbsent(KEY_METHOD_SCOPE, k -> scope.in(CloudNamespace.random()), Scope.class);
+    }
+
+    /**
+     * Prefers the tracking wrapper; parameters typed as a provider implementation (e.g. {@code AwsDynamoDB}) get the
+     * unwrapped capability, whose resources are then not cleaned up automatically.
+     */
+    private static Object resolve(Class<?> type, Object tracking, Object raw, String capability) {
+        if (type.isInstance(tracking)) return tracking;
+        if (type.isInstance(raw)) return raw;
+        if (raw == null) {
+            throw new ParameterResolutionException(capability + " capability not available for provider or not declared in @WithCloud services");
+        }
+        throw new ParameterResolutionException(capability + " capability is a " + raw.getClass().getName() + ", not a " + type.getName());
+    }
+
     private static WithCloud findWithCloud(ExtensionContext context) {
         Class<?> testClass = context.getRequiredTestClass();
         WithCloud cfg = testClass.getAnnotation(WithCloud.class);
@@ -151,31 +285,295 @@ public final class CloudExtension implements BeforeAllCallback, AfterAllCallback
         return context.getStore(NS);
     }
 
-    // Tracking wrappers
+    /**
+     * Adapter and capabilities shared by all test classes with the same configuration. Stored in the root context,
+     * so JUnit closes it once at the end of the run. Each configuration gets its own adapter instance, which is
+     * closed then together with the capabilities if they implement {@link AutoCloseable}.
+     */
+    static final class SuiteCloud implements ExtensionContext.Store.CloseableResource {
+        final CloudAdapter adapter;
+        final BlobStorage storage;
+        final Queue queue;
+        final PubSub pubSub;
+        final NoSqlTable noSql;
+        final AsyncBlobStorage asyncStorage;
+        final AsyncQueue asyncQueue;
+        final AsyncPubSub asyncPubSub;
+        final AsyncNoSqlTable asyncNoSql;
+
+        SuiteCloud(TestCloudConfig config) {
+            // Undeclared services are not provisioned
+            adapter = CloudAdapters.create(config.provider(), config);
+            storage = config.requires(CloudServiceType.STORAGE) ? adapter.blobStorage() : null;
+            queue = config.requires(CloudServiceType.QUEUE) ? adapter.queue() : null;
+            pubSub = config.requires(CloudServiceType.PUBSUB) ? adapter.pubSub() : null;
+            noSql = config.requires(CloudServiceType.NOSQL) ? adapter.noSqlTable() : null;
+            asyncStorage = config.requires(CloudServiceType.STORAGE) ? adapter.asyncBlobStorage() : null;
+            asyncQueue = config.requires(CloudServiceType.QUEUE) ? adapter.asyncQueue() : null;
+            asyncPubSub = config.requires(CloudServiceType.PUBSUB) ? adapter.asyncPubSub() : null;
+            asyncNoSql = config.requires(CloudServiceType.NOSQL) ? adapter.asyncNoSqlTable() : null;
+        }
+
+        @Override
+        public void close() throws Throwable {
+            Throwable failure = null;
+            Set<Object> closed = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Object o : new Object[] {storage, queue, pubSub, noSql, asyncStorage, asyncQueue, asyncPubSub, asyncNoSql, adapter}) {
+                if (!(o instanceof AutoCloseable) || !closed.add(o)) continue;
+                try {
+                    ((AutoCloseable) o).close();
+                } catch (Throwable t) {
+                    if (failure == null) failure = t; else failure.addSuppressed(t);
+                }
+            }
+            if (failure != null) throw failure;
+        }
+    }
+
+    /** Tracking wrappers of one namespace, sharing the tracked sets of their class; test methods may run concurrently. */
+    static final class Scope {
+        final SuiteCloud suite;
+        final CloudNamespace namespace;
+        final BlobStorage storage;
+        final Queue queue;
+        final PubSub pubSub;
+        final NoSqlTable noSql;
+        final AsyncBlobStorage asyncStorage;
+        final AsyncQueue asyncQueue;
+        final AsyncPubSub asyncPubSub;
+        final AsyncNoSqlTable asyncNoSql;
+        private final Set<String> buckets, queues, topics, tables;
+        private final Set<List<String>> subscriptions;
+        private final Set<Listener> listeners;
+
+        Scope(SuiteCloud suite, CloudNamespace namespace) {
+            this(suite, namespace, ConcurrentHashMap.newKeySet(), ConcurrentHashMap.newKeySet(), ConcurrentHashMap.newKeySet(),
+                ConcurrentHashMap.newKeySet(), ConcurrentHashMap.newKeySet(), ConcurrentHashMap.newKeySet());
+        }
+
+        private Scope(SuiteCloud suite, CloudNamespace namespace, Set<String> buckets, Set<String> queues, Set<String> topics,
+                      Set<List<String>> subscriptions, Set<String> tables, Set<Listener> listeners) {
+            this.suite = suite;
+            this.namespace = namespace;
+            this.buckets = buckets; this.queues = queues; this.topics = topics; this.subscriptions = subscriptions; this.tables = tables;
+            this.listeners = listeners;
+            this.storage = suite.storage == null ? null : new TrackingBlobStorage(suite.storage, namespace, buckets);
+            this.queue = suite.queue == null ? null : new TrackingQueue(suite.queue, namespace, queues, listeners);
+            this.pubSub = suite.pubSub == null ? null : new TrackingPubSub(suite.pubSub, namespace, topics, subscriptions, listeners);
+            this.noSql = suite.noSql == null ? null : new TrackingNoSqlTable(suite.noSql, namespace, tables);
+            this.asyncStorage = suite.asyncStorage == null ? null : new TrackingAsyncBlobStorage(suite.asyncStorage, namespace);
+            this.asyncQueue = suite.asyncQueue == null ? null : new TrackingAsyncQueue(suite.asyncQueue, namespace);
+            this.asyncPubSub = suite.asyncPubSub == null ? null : new TrackingAsyncPubSub(suite.asyncPubSub, namespace, topics);
+            this.asyncNoSql = suite.asyncNoSql == null ? null : new TrackingAsyncNoSqlTable(suite.asyncNoSql, namespace);
+        }
+
+        Scope in(CloudNamespace other) {
+            return new Scope(suite, other, buckets, queues, topics, subscriptions, tables, listeners);
+        }
+    }
+
+    private static String[] names(CloudNamespace ns, String... names) {
+        if (names == null) return null;
+        String[] out = new String[names.length];
+        for (int i = 0; i < names.length; i++) out[i] = ns.name(names[i]);
+        return out;
+    }
+
+    /** Publishing creates a missing topic on some providers; invalid names are left for the capability to reject. */
+    private static void trackPublished(Set<String> topics, String topic) {
+        if (topic != null && !topic.isBlank()) topics.add(topic);
+    }
+
+    private static NoSqlTable.TableSpec spec(CloudNamespace ns, NoSqlTable.TableSpec t) {
+        if (t == null || t.name() == null) return t;
+        return t.sortKey() == null
+            ? NoSqlTable.TableSpec.of(ns.name(t.name()), t.partitionKey())
+            : NoSqlTable.TableSpec.of(ns.name(t.name()), t.partitionKey(), t.sortKey());
+    }
+
+    // Tracking wrappers; every resource name goes through the namespace and is tracked under the mapped name
     private static final class TrackingBlobStorage implements BlobStorage {
         private final BlobStorage delegate;
+        private final CloudNamespace ns;
         private final Set<String> buckets;
-        TrackingBlobStorage(BlobStorage delegate, Set<String> buckets) {
-            this.delegate = delegate; this.buckets = buckets;
+        TrackingBlobStorage(BlobStorage delegate, CloudNamespace ns, Set<String> buckets) {
+            this.delegate = delegate; this.ns = ns; this.buckets = buckets;
+        }
+        @Override public void ensureBucket(String name) { String b = ns.name(name); buckets.add(b); delegate.ensureBucket(b); }
+        @Override public void deleteBucket(String name) { String b = ns.name(name); delegate.deleteBucket(b); buckets.remove(b); }
+        @Override public void putObject(String bucket, String key, byte[] data, String contentType) { delegate.putObject(ns.name(bucket), key, data, contentType); }
+        @Override public void putObject(String bucket, String key, InputStream data, String contentType) { delegate.putObject(ns.name(bucket), key, data, contentType); }
+        @Override public void putObject(String bucket, String key, InputStream data, long contentLength, String contentType) { delegate.putObject(ns.name(bucket), key, data, contentLength, contentType); }
+        @Override public byte[] getObject(String bucket, String key) { return delegate.getObject(ns.name(bucket), key); }
+        @Override public InputStream openObject(String bucket, String key) { return delegate.openObject(ns.name(bucket), key); }
+        @Override public byte[] getObjectRange(String bucket, String key, long offset, long length) { return delegate.getObjectRange(ns.name(bucket), key, offset, length); }
+        @Override public long transferTo(String bucket, String key, java.nio.file.Path target) { return delegate.transferTo(ns.name(bucket), key, target); }
+        @Override public void deleteObject(String bucket, String key) { delegate.deleteObject(ns.name(bucket), key); }
+        @Override public List<String> listKeys(String bucket, String prefix) { return delegate.listKeys(ns.name(bucket), prefix); }
+        @Override public java.util.stream.Stream<String> streamKeys(String bucket, String prefix) { return delegate.streamKeys(ns.name(bucket), prefix); }
+        @Override public java.util.stream.Stream<String> streamKeys(String bucket, String prefix, String delimiter) { return delegate.streamKeys(ns.name(bucket), prefix, delimiter); }
+        @Override public boolean exists(String bucket, String key) { return delegate.exists(ns.name(bucket), key); }
+        @Override public org.deveasy.test.core.cloud.capability.Snapshot snapshot(String... names) {
+            String[] mapped = names(ns, names);
+            org.deveasy.test.core.cloud.capability.Snapshot s = delegate.snapshot(mapped);
+            // restore may recreate the buckets, so they need cleanup even if deleted in between
+            return () -> { buckets.addAll(Arrays.asList(mapped)); s.restore(); };
         }
-        @Override public void ensureBucket(String name) { buckets.add(name); delegate.ensureBucket(name); }
-        @Override public void deleteBucket(String name) { delegate.deleteBucket(name); buckets.remove(name); }
-        @Override public void putObject(String bucket, String key, byte[] data, String contentType) { delegate.putObject(bucket, key, data, contentType); }
-        @Override public void putObject(String bucket, String key, InputStream data, String contentType) { delegate.putObject(bucket, key, data, contentType); }
-        @Override public byte[] getObject(String bucket, String key) { return delegate.getObject(bucket, key); }
-        @Override public void deleteObject(String bucket, String key) { delegate.deleteObject(bucket, key); }
-        @Override public List<String> listKeys(String bucket, String prefix) { return delegate.listKeys(bucket, prefix); }
-        @Override public boolean exists(String bucket, String key) { return delegate.exists(bucket, key); }
     }
 
     private static final class TrackingQueue implements Queue {
         private final Queue delegate;
+        private final CloudNamespace ns;
         private final Set<String> queues;
-        TrackingQueue(Queue delegate, Set<String> queues) { this.delegate = delegate; this.queues = queues; }
-        @Override public void ensureQueue(String name) { queues.add(name); delegate.ensureQueue(name); }
-        @Override public void deleteQueue(String name) { delegate.deleteQueue(name); queues.remove(name); }
-        @Override public void send(String queue, String body) { delegate.send(queue, body); }
-        @Override public Optional<String> receive(String queue) { return delegate.receive(queue); }
-        @Override public Optional<String> receive(String queue, java.time.Duration timeout) { return delegate.receive(queue, timeout); }
+        private final Set<Listener> listeners;
+        TrackingQueue(Queue delegate, CloudNamespace ns, Set<String> queues, Set<Listener> listeners) {
+            this.delegate = delegate; this.ns = ns; this.queues = queues; this.listeners = listeners;
+        }
+        @Override public void ensureQueue(String name) { String q = ns.name(name); queues.add(q); delegate.ensureQueue(q); }
+        @Override public void deleteQueue(String name) { String q = ns.name(name); delegate.deleteQueue(q); queues.remove(q); }
+        @Override public void send(String queue, String body) { delegate.send(ns.name(queue), body); }
+        @Override public Optional<String> receive(String queue) { return delegate.receive(ns.name(queue)); }
+        @Override public Optional<String> receive(String queue, java.time.Duration timeout) { return delegate.receive(ns.name(queue), timeout); }
+        @Override public void sendBatch(String queue, List<String> bodies) { delegate.sendBatch(ns.name(queue), bodies); }
+        @Override public List<String> receiveBatch(String queue, int max, java.time.Duration timeout) { return delegate.receiveBatch(ns.name(queue), max, timeout); }
+        @Override public void send(String queue, Message message) { delegate.send(ns.name(queue), message); }
+        @Override public Optional<Message> receiveMessage(String queue, java.time.Duration timeout) { return delegate.receiveMessage(ns.name(queue), timeout); }
+        @Override public List<Message> receiveMessages(String queue, int max, java.time.Duration timeout) { return delegate.receiveMessages(ns.name(queue), max, timeout); }
+        @Override public List<Message> drain(String queue, int count, java.time.Duration timeout) { return delegate.drain(ns.name(queue), count, timeout); }
+        @Override public List<Message> awaitCount(String queue, java.util.function.Predicate<? super Message> predicate, int count, java.time.Duration timeout) {
+            return delegate.awaitCount(ns.name(queue), predicate, count, timeout);
+        }
+        @Override public Listener subscribe(String queue, java.util.function.Consumer<Message> handler, ListenerOptions options) {
+            Listener l = delegate.subscribe(ns.name(queue), handler, options); listeners.add(l); return l;
+        }
+        @Override public Listener subscribe(String queue, java.util.function.Consumer<Message> handler) {
+            Listener l = delegate.subscribe(ns.name(queue), handler); listeners.add(l); return l;
+        }
+        @Override public org.deveasy.test.core.cloud.capability.Snapshot snapshot(String... names) {
+            String[] mapped = names(ns, names);
+            org.deveasy.test.core.cloud.capability.Snapshot s = delegate.snapshot(mapped);
+            return () -> { queues.addAll(Arrays.asList(mapped)); s.restore(); };
+        }
+    }
+
+    private static final class TrackingPubSub implements PubSub {
+        private final PubSub delegate;
+        private final CloudNamespace ns;
+        private final Set<String> topics;
+        private final Set<List<String>> subscriptions;
+        private final Set<Listener> listeners;
+        TrackingPubSub(PubSub delegate, CloudNamespace ns, Set<String> topics, Set<List<String>> subscriptions, Set<Listener> listeners) {
+            this.delegate = delegate; this.ns = ns; this.topics = topics; this.subscriptions = subscriptions; this.listeners = listeners;
+        }
+        @Override public void ensureTopic(String name) { String t = ns.name(name); topics.add(t); delegate.ensureTopic(t); }
+        @Override public void deleteTopic(String name) {
+            String t = ns.name(name);
+            delegate.deleteTopic(t); topics.remove(t); subscriptions.removeIf(s -> s.get(0).equals(t));
+        }
+        @Override public void ensureSubscription(String topic, String subscription) {
+            String t = ns.name(topic), s = ns.name(subscription);
+            // the subscription creates the topic as a side effect on some providers
+            topics.add(t); subscriptions.add(List.of(t, s)); delegate.ensureSubscription(t, s);
+        }
+        @Override public void deleteSubscription(String topic, String subscription) {
+            String t = ns.name(topic), s = ns.name(subscription);
+            delegate.deleteSubscription(t, s); subscriptions.remove(List.of(t, s));
+        }
+        @Override public void publish(String topic, String body) { String t = ns.name(topic); trackPublished(topics, t); delegate.publish(t, body); }
+        @Override public Optional<String> receive(String subscription) { return delegate.receive(ns.name(subscription)); }
+        @Override public Optional<String> receive(String subscription, java.time.Duration timeout) { return delegate.receive(ns.name(subscription), timeout); }
+        @Override public void publish(String topic, Message message) { String t = ns.name(topic); trackPublished(topics, t); delegate.publish(t, message); }
+        @Override public Optional<Message> receiveMessage(String subscription, java.time.Duration timeout) { return delegate.receiveMessage(ns.name(subscription), timeout); }
+        @Override public Listener subscribe(String subscription, java.util.function.Consumer<Message> handler, ListenerOptions options) {
+            Listener l = delegate.subscribe(ns.name(subscription), handler, options); listeners.add(l); return l;
+        }
+        @Override public Listener subscribe(String subscription, java.util.function.Consumer<Message> handler) {
+            Listener l = delegate.subscribe(ns.name(subscription), handler); listeners.add(l); return l;
+        }
+    }
+
+    private static final class TrackingNoSqlTable implements NoSqlTable {
+        private final NoSqlTable delegate;
+        private final CloudNamespace ns;
+        private final Set<String> tables;
+        TrackingNoSqlTable(NoSqlTable delegate, CloudNamespace ns, Set<String> tables) { this.delegate = delegate; this.ns = ns; this.tables = tables; }
+        @Override public void ensureTable(String tableName, String partitionKey) { String t = ns.name(tableName); tables.add(t); delegate.ensureTable(t, partitionKey); }
+        @Override public void ensureTable(String tableName, String partitionKey, String sortKey) { String t = ns.name(tableName); tables.add(t); delegate.ensureTable(t, partitionKey, sortKey); }
+        @Override public void ensureTables(Collection<TableSpec> specs) {
+            if (specs == null) { delegate.ensureTables(null); return; }
+            List<TableSpec> mapped = new ArrayList<>(specs.size());
+            for (TableSpec t : specs) {
+                TableSpec m = spec(ns, t);
+                if (m != null) tables.add(m.name());
+                mapped.add(m);
+            }
+            delegate.ensureTables(mapped);
+        }
+        @Override public void deleteTable(String tableName) { String t = ns.name(tableName); delegate.deleteTable(t); tables.remove(t); }
+        @Override public void putItem(String tableName, Map<String, Object> item) { delegate.putItem(ns.name(tableName), item); }
+        @Override public void putItems(String tableName, Collection<Map<String, Object>> items) { delegate.putItems(ns.name(tableName), items); }
+        @Override public Map<String, Object> getItem(String tableName, String partitionKeyValue) { return delegate.getItem(ns.name(tableName), partitionKeyValue); }
+        @Override public Map<String, Object> getItem(String tableName, String partitionKeyValue, String sortKeyValue) { return delegate.getItem(ns.name(tableName), partitionKeyValue, sortKeyValue); }
+        @Override public List<Map<String, Object>> getItems(String tableName, Collection<Map<String, Object>> keys) { return delegate.getItems(ns.name(tableName), keys); }
+        @Override public void deleteItem(String tableName, String partitionKeyValue) { delegate.deleteItem(ns.name(tableName), partitionKeyValue); }
+        @Override public void deleteItem(String tableName, String partitionKeyValue, String sortKeyValue) { delegate.deleteItem(ns.name(tableName), partitionKeyValue, sortKeyValue); }
+        @Override public List<Map<String, Object>> scan(String tableName) { return delegate.scan(ns.name(tableName)); }
+        @Override public List<Map<String, Object>> parallelScan(String tableName, int totalSegments) { return delegate.parallelScan(ns.name(tableName), totalSegments); }
+        @Override public java.util.stream.Stream<Map<String, Object>> streamItems(String tableName) { return delegate.streamItems(ns.name(tableName)); }
+        @Override public List<Map<String, Object>> query(String tableName, String partitionKeyValue) { return delegate.query(ns.name(tableName), partitionKeyValue); }
+        @Override public List<Map<String, Object>> query(String tableName, org.deveasy.test.core.cloud.capability.NoSqlQuery query) { return delegate.query(ns.name(tableName), query); }
+        @Override public org.deveasy.test.core.cloud.capability.Snapshot snapshot(TableSpec... specs) {
+            TableSpec[] mapped = null;
+            if (specs != null) {
+                mapped = new TableSpec[specs.length];
+                for (int i = 0; i < specs.length; i++) mapped[i] = spec(ns, specs[i]);
+            }
+            org.deveasy.test.core.cloud.capability.Snapshot s = delegate.snapshot(mapped);
+            TableSpec[] captured = mapped;
+            return () -> { for (TableSpec t : captured) tables.add(t.name()); s.restore(); };
+        }
+    }
+
+    // Async wrappers map names the same way; only publish can create a resource, the topic
+    private static final class TrackingAsyncBlobStorage implements AsyncBlobStorage {
+        private final AsyncBlobStorage delegate;
+        private final CloudNamespace ns;
+        TrackingAsyncBlobStorage(AsyncBlobStorage delegate, CloudNamespace ns) { this.delegate = delegate; this.ns = ns; }
+        @Override public CompletableFuture<Void> putObject(String bucket, String key, byte[] data, String contentType) { return delegate.putObject(ns.name(bucket), key, data, contentType); }
+        @Override public CompletableFuture<byte[]> getObject(String bucket, String key) { return delegate.getObject(ns.name(bucket), key); }
+        @Override public CompletableFuture<Void> deleteObject(String bucket, String key) { return delegate.deleteObject(ns.name(bucket), key); }
+        @Override public CompletableFuture<List<String>> listKeys(String bucket, String prefix) { return delegate.listKeys(ns.name(bucket), prefix); }
+        @Override public CompletableFuture<Boolean> exists(String bucket, String key) { return delegate.exists(ns.name(bucket), key); }
+    }
+
+    private static final class TrackingAsyncQueue implements AsyncQueue {
+        private final AsyncQueue delegate;
+        private final CloudNamespace ns;
+        TrackingAsyncQueue(AsyncQueue delegate, CloudNamespace ns) { this.delegate = delegate; this.ns = ns; }
+        @Override public CompletableFuture<Void> send(String queue, String body) { return delegate.send(ns.name(queue), body); }
+        @Override public CompletableFuture<Void> sendBatch(String queue, List<String> bodies) { return delegate.sendBatch(ns.name(queue), bodies); }
+        @Override public CompletableFuture<Optional<String>> receive(String queue, Duration timeout) { return delegate.receive(ns.name(queue), timeout); }
+        @Override public CompletableFuture<List<String>> receiveBatch(String queue, int max, Duration timeout) { return delegate.receiveBatch(ns.name(queue), max, timeout); }
+    }
+
+    private static final class TrackingAsyncPubSub implements AsyncPubSub {
+        private final AsyncPubSub delegate;
+        private final CloudNamespace ns;
+        private final Set<String> topics;
+        TrackingAsyncPubSub(AsyncPubSub delegate, CloudNamespace ns, Set<String> topics) { this.delegate = delegate; this.ns = ns; this.topics = topics; }
+        @Override public CompletableFuture<Void> publish(String topic, String body) { String t = ns.name(topic); trackPublished(topics, t); return delegate.publish(t, body); }
+        @Override public CompletableFuture<Optional<String>> receive(String subscription, Duration timeout) { return delegate.receive(ns.name(subscription), timeout); }
+    }
+
+    private static final class TrackingAsyncNoSqlTable implements AsyncNoSqlTable {
+        private final AsyncNoSqlTable delegate;
+        private final CloudNamespace ns;
+        TrackingAsyncNoSqlTable(AsyncNoSqlTable delegate, CloudNamespace ns) { this.delegate = delegate; this.ns = ns; }
+        @Override public CompletableFuture<Void> putItem(String tableName, Map<String, Object> item) { return delegate.putItem(ns.name(tableName), item); }
+        @Override public CompletableFuture<Map<String, Object>> getItem(String tableName, String pk) { return delegate.getItem(ns.name(tableName), pk); }
+        @Override public CompletableFuture<Map<String, Object>> getItem(String tableName, String pk, String sk) { return delegate.getItem(ns.name(tableName), pk, sk); }
+        @Override public CompletableFuture<Void> deleteItem(String tableName, String pk) { return delegate.deleteItem(ns.name(tableName), pk); }
+        @Override public CompletableFuture<Void> deleteItem(String tableName, String pk, String sk) { return delegate.deleteItem(ns.name(tableName), pk, sk); }
+        @Override public CompletableFuture<List<Map<String, Object>>> query(String tableName, String pk) { return delegate.query(ns.name(tableName), pk); }
     }
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2025
+ * Apache License, Version 2.0
+ */
+package org.deveasy.test.core.junit;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Maps the resource names used by a test to the names actually created at the provider, according to
+ * {@link WithCloud#isolation()}. The capabilities injected by {@link CloudExtension} apply it to every bucket,
+ * queue, topic, subscription and table name, so test code keeps using literal names such as {@code "orders"}.
+ * <p>
+ * Inject it next to the capabilities when the code under test needs the provider name, e.g. to configure the
+ * queue an application consumes from:
+ * </p>
+ * <pre>{@code
+ * @Test
+ * void consumesOrders(Queue queue, CloudNamespace ns) {
+ *     queue.ensureQueue("orders");
+ *     app.start(Map.of("orders.queue", ns.name("orders")));
+ * }
+ * }</pre>
+ * @since 0.3.0
+ */
+public final class CloudNamespace {
+
+    private static final String FIFO = ".fifo";
+    private static final CloudNamespace NONE = new CloudNamespace("");
+
+    private final String suffix;
+
+    private CloudNamespace(String suffix) {
+        this.suffix = suffix;
+    }
+
+    /** @return the namespace leaving names unchanged, used for {@link WithCloud.Isolation#NONE} */
+    static CloudNamespace none() {
+        return NONE;
+    }
+
+    /**
+     * Creates a namespace with a random suffix of the form {@code -t1a2b3c4d}: lowercase and nine characters, so
+     * mapped names stay valid for every provider as long as the original leaves room for it (S3 bucket names, the
+     * shortest limit, allow 63 characters).
+     */
+    static CloudNamespace random() {
+        return new CloudNamespace(String.format("-t%08x", ThreadLocalRandom.current().nextInt()));
+    }
+
+    /**
+     * Maps a resource name into this namespace. The suffix goes before a trailing {@code .fifo}, which FIFO queues
+     * and topics require.
+     *
+     * @param name the name used by the test
+     * @return the provider name, or {@code name} itself if it is null or blank so capabilities reject it as usual
+     */
+    public String name(String name) {
+        if (suffix.isEmpty() || name == null || name.isBlank()) {
+            return name;
+        }
+        if (name.endsWith(FIFO)) {
+            return name.substring(0, name.length() - FIFO.length()) + suffix + FIFO;
+        }
+        return name + suffix;
+    }
+
+    /** @return the suffix appended to names, empty without isolation */
+    public String suffix() {
+        return suffix;
+    }
+
+    @Override
+    public String toString() {
+        return "CloudNamespace{" + (suffix.isEmpty() ? "none" : suffix) + "}";
+    }
+}
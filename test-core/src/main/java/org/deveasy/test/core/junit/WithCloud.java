@@ -16,6 +16,10 @@ import java.lang.annotation.Target;
 
 /**
  * JUnit 5 annotation to provision a CloudAdapter for tests and inject capabilities.
+ * <p>
+ * With {@link #isolation()} set, the injected capabilities map resource names into a namespace of their own, so
+ * classes (or methods) using the same literal names can run in parallel against one emulator.
+ * </p>
  */
 @Target(ElementType.TYPE)
 @Retention(RetentionPolicy.RUNTIME)
@@ -25,4 +29,24 @@ public @interface WithCloud {
     CloudMode mode() default CloudMode.EMULATOR;
     CloudServiceType[] services() default {};
     String region() default "us-east-1";
+    /**
+     * How resource names are isolated; see {@link CloudNamespace}.
+     *
+     * @since 0.3.0
+     */
+    Isolation isolation() default Isolation.NONE;
+
+    /**
+     * Scope of the namespace applied to resource names by the injected capabilities.
+     *
+     * @since 0.3.0
+     */
+    enum Isolation {
+        /** Names are used as given. */
+        NONE,
+        /** One namespace per test class, shared by its methods, e.g. for fixtures created in {@code @BeforeAll}. */
+        CLASS,
+        /** One namespace per test method; parameters resolved outside a test method use the class namespace. */
+        METHOD
+    }
 }
@@ -0,0 +1,135 @@
+package org.deveasy.test.core.cloud;
+
+import org.deveasy.test.core.cloud.capability.AsyncBlobStorage;
+import org.deveasy.test.core.junit.support.FakeBlobStorage;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CloudExecutorsTest {
+
+    @Test
+    void parallelizeRunsConcurrentlyAndKeepsTaskOrder() {
+        CountDownLatch allStarted = new CountDownLatch(4);
+
+        List<Integer> results = CloudExecutors.parallelize(4, i -> {
+            allStarted.countDown();
+            try {
+                assertTrue(allStarted.await(5, TimeUnit.SECONDS), "tasks should run concurrently");
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return i * 10;
+        });
+
+        assertEquals(List.of(0, 10, 20, 30), results);
+    }
+
+    @Test
+    void parallelizeWaitsForAllAndThrowsTheFirstFailure() {
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+            () -> CloudExecutors.runParallel(3, i -> {
+                if (i > 0) throw new IllegalStateException("task " + i);
+            }));
+
+        assertEquals("task 1", thrown.getMessage());
+        assertEquals(1, thrown.getSuppressed().length);
+        assertThrows(IllegalArgumentException.class, () -> CloudExecutors.parallelize(-1, i -> i));
+    }
+
+    @Test
+    void limitedCapsConcurrentTasks() {
+        Executor limited = CloudExecutors.limited(2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            tasks.add(CompletableFuture.runAsync(() -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(20);
+                running.decrementAndGet();
+            }, limited));
+        }
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+
+        assertEquals(2, peak.get());
+        assertThrows(IllegalArgumentException.class, () -> CloudExecutors.limited(0));
+    }
+
+    @Test
+    void limitedFanOutFromPoolThreadsDoesNotStarveThePool() {
+        Executor limited = CloudExecutors.limited(4);
+
+        // More outer tasks than the bounded pool has threads, each waiting on inner work
+        List<Integer> results = CloudExecutors.parallelize(100, i -> CompletableFuture.supplyAsync(() -> i, limited).join());
+
+        assertEquals(100, results.size());
+        assertEquals(List.of(97, 98, 99), results.subList(97, 100));
+    }
+
+    @Test
+    void limitedRunsConcurrentlyFromPoolThreadsWhileThreadsAreFree() {
+        List<Boolean> allStarted = CloudExecutors.parallelize(1, i -> {
+            Executor limited = CloudExecutors.limited(4);
+            CountDownLatch started = new CountDownLatch(4);
+            List<CompletableFuture<Boolean>> inner = new ArrayList<>();
+            for (int j = 0; j < 4; j++) {
+                inner.add(CompletableFuture.supplyAsync(() -> {
+                    started.countDown();
+                    try {
+                        return started.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }, limited));
+            }
+            return inner.stream().allMatch(CompletableFuture::join);
+        });
+
+        assertEquals(List.of(true), allStarted, "inner tasks should not be serialized on the calling pool thread");
+    }
+
+    @Test
+    void nestedParallelizeDoesNotDeadlockThePool() {
+        // More outer tasks than the bounded pool has threads, each fanning out again
+        List<Integer> sums = assertTimeoutPreemptively(Duration.ofSeconds(30), () -> CloudExecutors.parallelize(100,
+            i -> CloudExecutors.parallelize(10, j -> {
+                sleep(1);
+                return j;
+            }).stream().mapToInt(Integer::intValue).sum()));
+
+        assertEquals(100, sums.size());
+        assertEquals(List.of(45, 45), sums.subList(98, 100));
+    }
+
+    @Test
+    void asyncAdapterRunsBlockingCallsOnTheExecutor() {
+        FakeBlobStorage blocking = new FakeBlobStorage();
+        blocking.ensureBucket("b");
+        AsyncBlobStorage storage = AsyncBlobStorage.of(blocking, CloudExecutors.blocking());
+
+        storage.putObject("b", "k", "v".getBytes(), "text/plain").join();
+
+        assertArrayEquals("v".getBytes(), storage.getObject("b", "k").join());
+        assertTrue(storage.exists("b", "k").join());
+        assertThrows(IllegalArgumentException.class, () -> AsyncBlobStorage.of(blocking, null));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
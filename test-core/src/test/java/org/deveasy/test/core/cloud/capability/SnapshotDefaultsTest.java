@@ -0,0 +1,74 @@
+package org.deveasy.test.core.cloud.capability;
+
+import org.deveasy.test.core.junit.support.FakeBlobStorage;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exercises the default snapshot implementations, which only rely on the primitive capability methods.
+ */
+class SnapshotDefaultsTest {
+
+    @Test
+    void blobStorageDefaultRestoresObjectsAndDropsNewOnes() {
+        BlobStorage storage = new FakeBlobStorage();
+        storage.ensureBucket("b");
+        storage.putObject("b", "k1", bytes("one"), "text/plain");
+
+        Snapshot snapshot = storage.snapshot("b");
+        storage.putObject("b", "k1", bytes("changed"), "text/plain");
+        storage.putObject("b", "k2", bytes("two"), "text/plain");
+        snapshot.restore();
+
+        assertEquals(List.of("k1"), storage.listKeys("b", null));
+        assertArrayEquals(bytes("one"), storage.getObject("b", "k1"));
+        assertThrows(IllegalArgumentException.class, () -> storage.snapshot("b", " "));
+    }
+
+    @Test
+    void queueDefaultKeepsMessagesAndRestoresThem() {
+        Queue queue = new DequeQueue();
+        queue.ensureQueue("q");
+        queue.sendBatch("q", List.of("m1", "m2"));
+
+        Snapshot snapshot = queue.snapshot("q");
+        assertEquals(List.of("m1", "m2"), queue.receiveBatch("q", 10, Duration.ZERO), "capture re-sends what it drained");
+
+        queue.send("q", "m3");
+        snapshot.restore();
+        assertEquals(List.of("m1", "m2"), queue.receiveBatch("q", 10, Duration.ZERO));
+    }
+
+    @Test
+    void combinedSnapshotRestoresInOrder() {
+        StringBuilder order = new StringBuilder();
+        Snapshot.of(() -> order.append('a'), () -> order.append('b')).restore();
+        assertEquals("ab", order.toString());
+        assertThrows(IllegalArgumentException.class, () -> Snapshot.of((Snapshot) null));
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** Minimal queue implementing only the abstract methods, so the snapshot default is used. */
+    private static final class DequeQueue implements Queue {
+        private final Map<String, Deque<String>> queues = new HashMap<>();
+
+        @Override public void ensureQueue(String name) { queues.computeIfAbsent(name, k -> new ArrayDeque<>()); }
+        @Override public void deleteQueue(String name) { queues.remove(name); }
+        @Override public void send(String queue, String body) { queues.get(queue).addLast(body); }
+        @Override public Optional<String> receive(String queue) { return Optional.ofNullable(queues.get(queue).pollFirst()); }
+        @Override public Optional<String> receive(String queue, Duration timeout) { return receive(queue); }
+    }
+}
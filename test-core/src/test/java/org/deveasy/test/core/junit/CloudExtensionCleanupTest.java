@@ -0,0 +1,84 @@
+package org.deveasy.test.core.junit;
+
+import org.deveasy.test.core.cloud.CloudExecutors;
+import org.deveasy.test.core.cloud.CloudMode;
+import org.deveasy.test.core.cloud.CloudProvider;
+import org.deveasy.test.core.cloud.CloudServiceType;
+import org.deveasy.test.core.cloud.TestCloudConfig;
+import org.deveasy.test.core.junit.support.FakeCloudAdapter;
+import org.deveasy.test.core.junit.support.FakeQueue;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CloudExtensionCleanupTest {
+
+    @Test
+    void tracksResourcesCreatedByParallelMethods() {
+        CloudExtension.SuiteCloud suite = new CloudExtension.SuiteCloud(config());
+        CloudExtension.Scope scope = new CloudExtension.Scope(suite, CloudNamespace.random());
+        FakeQueue raw = (FakeQueue) suite.queue;
+
+        // Each method gets its own namespace but shares the class's tracked sets
+        CloudExecutors.runParallel(50, i -> scope.in(CloudNamespace.random()).queue.ensureQueue("q" + i));
+        assertEquals(50, raw.queues().size());
+
+        List<String> leaked = CloudExtension.cleanup(scope, Duration.ofSeconds(10));
+
+        assertEquals(List.of(), leaked);
+        assertEquals(Set.of(), raw.queues(), "every queue created by a method is deleted after the class");
+    }
+
+    @Test
+    void removesSubscriptionsAndTopicsBeforeQueues() {
+        CloudExtension.SuiteCloud suite = new CloudExtension.SuiteCloud(config());
+        CloudExtension.Scope scope = new CloudExtension.Scope(suite, CloudNamespace.none());
+
+        scope.queue.ensureQueue("orders-q");
+        scope.queue.ensureQueue("audit-q");
+        scope.pubSub.ensureSubscription("orders", "orders-q");
+        scope.pubSub.ensureSubscription("orders", "audit-q");
+        scope.queue.subscribe("orders-q", m -> { });
+
+        assertEquals(List.of(), CloudExtension.cleanup(scope, Duration.ofSeconds(10)));
+
+        List<String> events = ((FakeCloudAdapter) suite.adapter).events();
+        assertEquals("closeListener orders-q", events.get(0), "listeners stop first: " + events);
+        assertEquals("deleteTopic orders", events.get(1), "the topic takes its subscriptions with it: " + events);
+        assertEquals(Set.of("deleteQueue orders-q", "deleteQueue audit-q"), Set.copyOf(events.subList(2, events.size())));
+    }
+
+    @Test
+    void reportsDeletesOutlivingTheBudgetAndFailedListenersAsLeaked() {
+        CloudExtension.SuiteCloud suite = new CloudExtension.SuiteCloud(config());
+        CloudExtension.Scope scope = new CloudExtension.Scope(suite, CloudNamespace.none());
+        FakeQueue raw = (FakeQueue) suite.queue;
+        raw.failListenerClose();
+        raw.slowDeletes(Duration.ofSeconds(2));
+
+        scope.queue.ensureQueue("slow");
+        scope.queue.subscribe("slow", m -> { });
+
+        long start = System.nanoTime();
+        List<String> leaked = CloudExtension.cleanup(scope, Duration.ofMillis(200));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(1)) < 0,
+            "cleanup should give up once the budget is spent");
+        assertEquals(2, leaked.size(), leaked.toString());
+        assertTrue(leaked.get(0).startsWith("listener ") && leaked.get(0).contains("failed to stop"), leaked.toString());
+        assertEquals("queue slow (timed out)", leaked.get(1));
+    }
+
+    private static TestCloudConfig config() {
+        return TestCloudConfig.builder()
+            .provider(CloudProvider.AWS)
+            .mode(CloudMode.EMULATOR)
+            .regionOrLocation("us-east-1")
+            .services(CloudServiceType.STORAGE, CloudServiceType.QUEUE, CloudServiceType.PUBSUB)
+            .build();
+    }
+}
@@ -0,0 +1,47 @@
+package org.deveasy.test.core.junit;
+
+import org.deveasy.test.core.cloud.CloudMode;
+import org.deveasy.test.core.cloud.CloudProvider;
+import org.deveasy.test.core.cloud.CloudServiceType;
+import org.deveasy.test.core.cloud.TestCloudConfig;
+import org.deveasy.test.core.junit.support.FakeCloudAdapter;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SuiteCloudTest {
+
+    @Test
+    void eachConfigurationGetsItsOwnAdapter() {
+        TestCloudConfig east = config("us-east-1");
+        TestCloudConfig west = config("us-west-2");
+
+        CloudExtension.SuiteCloud a = new CloudExtension.SuiteCloud(east);
+        CloudExtension.SuiteCloud b = new CloudExtension.SuiteCloud(west);
+
+        assertNotSame(a.adapter, b.adapter);
+        assertEquals(east, ((FakeCloudAdapter) a.adapter).config());
+        assertEquals(west, ((FakeCloudAdapter) b.adapter).config());
+    }
+
+    @Test
+    void closingTheSuiteClosesItsAdapter() throws Throwable {
+        CloudExtension.SuiteCloud a = new CloudExtension.SuiteCloud(config("us-east-1"));
+        CloudExtension.SuiteCloud b = new CloudExtension.SuiteCloud(config("us-west-2"));
+
+        // JUnit closes the root store entries once the run ends
+        a.close();
+
+        assertTrue(((FakeCloudAdapter) a.adapter).isClosed());
+        assertFalse(((FakeCloudAdapter) b.adapter).isClosed(), "other configurations keep their adapter");
+    }
+
+    private static TestCloudConfig config(String region) {
+        return TestCloudConfig.builder()
+            .provider(CloudProvider.AWS)
+            .mode(CloudMode.EMULATOR)
+            .regionOrLocation(region)
+            .services(CloudServiceType.STORAGE)
+            .build();
+    }
+}
@@ -0,0 +1,46 @@
+package org.deveasy.test.core.junit;
+
+import org.deveasy.test.core.cloud.CloudMode;
+import org.deveasy.test.core.cloud.CloudProvider;
+import org.deveasy.test.core.cloud.capability.AsyncBlobStorage;
+import org.deveasy.test.core.cloud.capability.BlobStorage;
+import org.deveasy.test.core.junit.support.FakeBlobStorage;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@WithCloud(provider = CloudProvider.AWS, mode = CloudMode.EMULATOR, isolation = WithCloud.Isolation.METHOD)
+class WithCloudIsolationTest {
+
+    @Test
+    void mapsBucketNamesIntoTheMethodNamespace(BlobStorage storage, FakeBlobStorage raw, CloudNamespace ns) {
+        byte[] data = "hello".getBytes();
+
+        storage.ensureBucket("orders");
+        storage.putObject("orders", "k1", data, "text/plain");
+
+        assertTrue(ns.suffix().matches("-t[0-9a-f]{8}"), ns.suffix());
+        assertArrayEquals(data, storage.getObject("orders", "k1"), "test code keeps using the literal name");
+        assertArrayEquals(data, raw.getObject(ns.name("orders"), "k1"), "the provider sees the mapped name");
+        assertNull(raw.getObject("orders", "k1"));
+    }
+
+    @Test
+    void mapsAsyncNamesIntoTheSameNamespace(AsyncBlobStorage async, BlobStorage storage, FakeBlobStorage raw, CloudNamespace ns) {
+        byte[] data = "async".getBytes();
+
+        storage.ensureBucket("uploads");
+        async.putObject("uploads", "k1", data, "text/plain").join();
+
+        assertArrayEquals(data, async.getObject("uploads", "k1").join());
+        assertArrayEquals(data, storage.getObject("uploads", "k1"), "async and blocking parameters share the namespace");
+        assertArrayEquals(data, raw.getObject(ns.name("uploads"), "k1"));
+    }
+
+    @Test
+    void keepsFifoSuffixLast(CloudNamespace ns) {
+        assertEquals("jobs" + ns.suffix() + ".fifo", ns.name("jobs.fifo"));
+        assertNull(ns.name(null));
+        assertEquals("orders", CloudNamespace.none().name("orders"));
+    }
+}
@@ -8,12 +8,22 @@ import org.deveasy.test.core.cloud.capability.PubSub;
 import org.deveasy.test.core.cloud.capability.Queue;
 import org.deveasy.test.core.cloud.spi.CloudAdapter;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Test-only CloudAdapter wired via ServiceLoader for unit tests.
- * It returns an in-memory BlobStorage implementation and null for others.
+ * It returns an in-memory BlobStorage implementation, message-less Queue and PubSub fakes that log their deletes to
+ * {@link #events()}, and null for NoSqlTable, and records whether it was closed.
  */
-public final class FakeCloudAdapter implements CloudAdapter {
+public final class FakeCloudAdapter implements CloudAdapter, AutoCloseable {
     private TestCloudConfig config;
+    private volatile boolean closed;
+    private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+    private final FakeBlobStorage storage = new FakeBlobStorage();
+    private final FakeQueue queue = new FakeQueue(events);
+    private final FakePubSub pubSub = new FakePubSub(events);
 
     @Override
     public CloudProvider provider() {
@@ -28,21 +38,41 @@ public final class FakeCloudAdapter implements CloudAdapter {
 
     @Override
     public BlobStorage blobStorage() {
-        return new FakeBlobStorage();
+        return storage;
     }
 
     @Override
     public Queue queue() {
-        return null;
+        return queue;
     }
 
     @Override
     public PubSub pubSub() {
-        return null;
+        return pubSub;
     }
 
     @Override
     public NoSqlTable noSqlTable() {
         return null;
     }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public TestCloudConfig config() {
+        return config;
+    }
+
+    /** @return the deletes and listener closes of this adapter's fakes, in the order they happened */
+    public List<String> events() {
+        synchronized (events) {
+            return List.copyOf(events);
+        }
+    }
 }
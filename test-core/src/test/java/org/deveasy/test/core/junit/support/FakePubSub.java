@@ -0,0 +1,51 @@
+package org.deveasy.test.core.junit.support;
+
+import org.deveasy.test.core.cloud.capability.PubSub;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * PubSub without messages used for testing the CloudExtension cleanup; it logs every delete to the adapter's
+ * event log.
+ */
+public final class FakePubSub implements PubSub {
+    private final List<String> events;
+
+    FakePubSub(List<String> events) {
+        this.events = events;
+    }
+
+    @Override
+    public void ensureTopic(String name) {
+    }
+
+    @Override
+    public void deleteTopic(String name) {
+        events.add("deleteTopic " + name);
+    }
+
+    @Override
+    public void ensureSubscription(String topic, String subscription) {
+    }
+
+    @Override
+    public void deleteSubscription(String topic, String subscription) {
+        events.add("deleteSubscription " + topic + " -> " + subscription);
+    }
+
+    @Override
+    public void publish(String topic, String body) {
+    }
+
+    @Override
+    public Optional<String> receive(String subscription) {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<String> receive(String subscription, Duration timeout) {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,88 @@
+package org.deveasy.test.core.junit.support;
+
+import org.deveasy.test.core.cloud.capability.Listener;
+import org.deveasy.test.core.cloud.capability.Message;
+import org.deveasy.test.core.cloud.capability.Queue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Queue without messages used for testing the CloudExtension cleanup. It logs every delete to the adapter's
+ * event log, can be made slow to delete, and hands out listeners that may fail to close.
+ */
+public final class FakeQueue implements Queue {
+    private final Set<String> queues = ConcurrentHashMap.newKeySet();
+    private final List<String> events;
+    private volatile Duration deleteDelay = Duration.ZERO;
+    private volatile boolean failListenerClose;
+
+    FakeQueue(List<String> events) {
+        this.events = events;
+    }
+
+    @Override
+    public void ensureQueue(String name) {
+        queues.add(name);
+    }
+
+    @Override
+    public void deleteQueue(String name) {
+        try {
+            Thread.sleep(deleteDelay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        queues.remove(name);
+        events.add("deleteQueue " + name);
+    }
+
+    @Override
+    public void send(String queue, String body) {
+    }
+
+    @Override
+    public Optional<String> receive(String queue) {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<String> receive(String queue, Duration timeout) {
+        return Optional.empty();
+    }
+
+    @Override
+    public Listener subscribe(String queue, Consumer<Message> handler) {
+        boolean fail = failListenerClose;
+        return new Listener() {
+            private volatile boolean open = true;
+            @Override public long delivered() { return 0; }
+            @Override public long failed() { return 0; }
+            @Override public boolean isOpen() { return open; }
+            @Override public void close() {
+                open = false;
+                if (fail) throw new IllegalStateException("listener on " + queue + " failed to stop");
+                events.add("closeListener " + queue);
+            }
+        };
+    }
+
+    /** @return the queues that exist */
+    public Set<String> queues() {
+        return Set.copyOf(queues);
+    }
+
+    /** Makes every later {@link #deleteQueue} take {@code delay}. */
+    public void slowDeletes(Duration delay) {
+        deleteDelay = delay;
+    }
+
+    /** Makes the listeners of later {@link #subscribe} calls throw from {@link Listener#close()}. */
+    public void failListenerClose() {
+        failListenerClose = true;
+    }
+}
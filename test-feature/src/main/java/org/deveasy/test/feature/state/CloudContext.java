@@ -50,9 +50,12 @@ public final class CloudContext {
         return config;
     }
 
-    /** Attempt to initialize an adapter using ServiceLoader; returns empty if none is present. */
+    /**
+     * Attempt to initialize an adapter using ServiceLoader; returns empty if none is present.
+     * {@link CloudMode#IN_MEMORY} resolves the provider-neutral in-memory adapter when it is on the classpath.
+     */
     public Optional<CloudAdapter> initAdapterIfAvailable() {
-        this.adapter = CloudAdapters.tryGet(provider).map(a -> {
+        this.adapter = CloudAdapters.tryGet(provider, mode).map(a -> {
             a.initialize(config());
             return a;
         }).orElse(null);
@@ -69,6 +72,7 @@ public final class CloudContext {
     }
 
     public static CloudMode parseMode(String value) {
-        return CloudMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        // Accept "in-memory" / "in memory" as aliases for IN_MEMORY
+        return CloudMode.valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_').replace(' ', '_'));
     }
 }
@@ -5,11 +5,10 @@ import org.deveasy.test.core.cloud.CloudMode;
 import org.deveasy.test.core.cloud.CloudProvider;
 import org.deveasy.test.core.cloud.TestCloudConfig;
 import org.deveasy.test.core.cloud.spi.CloudAdapter;
-
-import java.util.ServiceLoader;
+import org.deveasy.test.core.cloud.spi.CloudAdapters;
 
 /**
- * Cucumber steps to select cloud provider/mode/region and initialize the adapter via ServiceLoader.
+ * Cucumber steps to select cloud provider/mode/region and initialize the adapter via {@link CloudAdapters}.
  */
 public class CloudSelectionSteps {
 
@@ -22,28 +21,19 @@ public class CloudSelectionSteps {
 
     @Given("cloud mode is {string}")
     public void cloudModeIs(String m) {
-        CTX.mode = CloudMode.valueOf(m.toUpperCase());
+        CTX.mode = CloudMode.valueOf(m.toUpperCase().replace('-', '_'));
     }
 
     @Given("cloud region is {string}")
     public void cloudRegionIs(String r) {
         CTX.region = r;
-        // Lazily initialize adapter once all fields are known
-        if (CTX.adapter == null) {
-            TestCloudConfig cfg = TestCloudConfig.builder()
-                    .provider(CTX.provider)
-                    .mode(CTX.mode)
-                    .regionOrLocation(CTX.region)
-                    .build();
-            CloudAdapter adapter = ServiceLoader.load(CloudAdapter.class)
-                    .stream()
-                    .map(ServiceLoader.Provider::get)
-                    .filter(a -> a.provider() == CTX.provider)
-                    .findFirst()
-                    .orElseThrow(() -> new IllegalStateException("No CloudAdapter found for " + CTX.provider));
-            adapter.initialize(cfg);
-            CTX.adapter = adapter;
-        }
+        // Resolve once all fields are known; CloudAdapters caches per provider/mode so scenarios may switch modes
+        TestCloudConfig cfg = TestCloudConfig.builder()
+                .provider(CTX.provider)
+                .mode(CTX.mode)
+                .regionOrLocation(CTX.region)
+                .build();
+        CTX.adapter = CloudAdapters.get(CTX.provider, cfg);
     }
 
     public static CloudAdapter adapter() {
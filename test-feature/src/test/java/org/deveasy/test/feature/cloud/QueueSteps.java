@@ -3,10 +3,12 @@ package org.deveasy.test.feature.cloud;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
+import org.deveasy.test.core.cloud.CloudExecutors;
 import org.deveasy.test.core.cloud.capability.Queue;
 
 import java.time.Duration;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -35,9 +37,7 @@ public class QueueSteps {
     @When("I send {int} messages")
     public void iSendMessages(int count) {
         ensureQueue();
-        for (int i = 0; i < count; i++) {
-            queue.send(queueName, "message-" + i);
-        }
+        CloudExecutors.runParallel(count, i -> queue.send(queueName, "message-" + i));
     }
 
     @Then("within {int}s I receive a message matching {string}")
@@ -49,6 +49,13 @@ public class QueueSteps {
                 () -> "Received payload did not contain expected substring. payload=" + received.get());
     }
 
+    @Then("within {int}s I receive {int} messages")
+    public void withinSecondsIReceiveMessages(int seconds, int count) {
+        ensureQueue();
+        var received = queue.drain(queueName, count, Duration.ofSeconds(seconds));
+        assertEquals(count, received.size(), "Expected all messages to arrive within timeout");
+    }
+
     @Then("no messages are available")
     public void noMessagesAreAvailable() {
         ensureQueue();
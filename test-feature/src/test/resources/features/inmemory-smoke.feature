@@ -0,0 +1,28 @@
+Feature: In-memory backend smoke with provider-neutral steps
+  # Runs the same provider-neutral glue against CloudMode.IN_MEMORY (no containers).
+
+  Background:
+    Given cloud provider is "aws"
+    And cloud mode is "in_memory"
+    And cloud region is "eu-west-1"
+
+  @inmemory @queue
+  Scenario: Send and receive a simple message in memory
+    Given a queue named "dev-easy-test-inmemory-orders"
+    When I send a message "{\"orderId\":123}"
+    Then within 1s I receive a message matching "orderId"
+    And no messages are available
+
+  @inmemory @storage
+  Scenario: Put raw JSON and verify in memory
+    Given a bucket named "dev-easy-test-inmemory-bucket"
+    When I put JSON "{\"a\":1,\"b\":2}" as key "k2"
+    Then I can get object with key "k2" containing JSON matching "{\"b\":2,\"a\":1}"
+    And the bucket "dev-easy-test-inmemory-bucket" contains 1 objects
+
+  @inmemory @pubsub
+  Scenario: Publish to topic and receive on subscribed queue in memory
+    Given a topic named "dev-easy-test-inmemory-topic"
+    And a subscription from "dev-easy-test-inmemory-topic" to queue "dev-easy-test-inmemory-subscription"
+    When I publish "{\"event\":\"hello\"}" to topic "dev-easy-test-inmemory-topic"
+    Then within 1s the queue "dev-easy-test-inmemory-subscription" receives a message containing "hello"
@@ -18,6 +18,13 @@ Feature: Queue smoke with provider-neutral steps
     When I send 3 messages
     Then within 5s I receive a message matching "message-"
 
+  @queue
+  Scenario: Send many messages and receive them all
+    Given a queue named "dev-easy-test-drain"
+    When I send 25 messages
+    Then within 10s I receive 25 messages
+    And no messages are available
+
   @queue
   Scenario: Empty queue has no messages
     Given a queue named "dev-easy-test-empty"